@@ -0,0 +1,495 @@
+package com.ainouss.jdatatools.batch.data;
+
+import com.ainouss.jdatatools.batch.reader.ColumnExtractor;
+import com.ainouss.jdatatools.batch.reader.RowExtractor;
+import com.ainouss.jdatatools.query.core.FieldMetaData;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.ainouss.jdatatools.query.util.DataUtils.trimToNull;
+
+/**
+ * Column oriented chunk of rows, filled straight from a result set without creating an object per row:
+ * - integral columns are stored in long[] or int[], decimal columns in double[], boolean columns in a bit set
+ * - string columns are offset encoded, the characters of all rows in one char[] and the start of each row in an int[]
+ * - null values are tracked in a bit set per column
+ * - other columns (dates, big decimals, ...) are stored as objects, read through {@link RowExtractor#extractor(Class)}
+ * Columns are kept in field order and looked up by field label.
+ * A chunk is filled by a single thread, then read only.
+ */
+@Slf4j
+@Getter
+public class ColumnarChunk {
+
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private static final Set<Class<?>> LONG = Set.of(Long.class, long.class);
+    private static final Set<Class<?>> INT = Set.of(Integer.class, int.class, Short.class, short.class, Byte.class, byte.class);
+    private static final Set<Class<?>> DOUBLE = Set.of(Double.class, double.class, Float.class, float.class);
+    private static final Set<Class<?>> BOOLEAN = Set.of(Boolean.class, boolean.class);
+
+    private final int start;
+
+    private int size;
+
+    private final List<Column> columns;
+
+    @Getter(AccessLevel.NONE)
+    private final Map<String, Column> labels = new LinkedHashMap<>();
+
+    /**
+     * @param fields   fields, one column per field
+     * @param capacity expected number of rows, columns grow beyond it
+     * @param start    position of the first row in the whole read
+     */
+    public ColumnarChunk(List<FieldMetaData> fields, int capacity, int start) {
+        this.start = start;
+        int initial = capacity > 0 ? capacity : DEFAULT_CAPACITY;
+        List<Column> list = new ArrayList<>(fields.size());
+        for (FieldMetaData field : fields) {
+            Column column = column(field, initial);
+            list.add(column);
+            labels.put(field.getLabel(), column);
+        }
+        this.columns = Collections.unmodifiableList(list);
+    }
+
+    /**
+     * Reads at most {@code maxRows} rows from the current position of a result set
+     *
+     * @param resultSet     result set
+     * @param fields        fields
+     * @param indexes       column index of each field, 0 if the field has no column
+     * @param maxRows       max number of rows
+     * @param start         position of the first row in the whole read
+     * @param correlationId correlation id
+     * @return chunk, empty if the result set is exhausted
+     * @throws SQLException on fail
+     */
+    public static ColumnarChunk read(ResultSet resultSet, List<FieldMetaData> fields, int[] indexes, int maxRows, int start, String correlationId) throws SQLException {
+        ColumnarChunk chunk = new ColumnarChunk(fields, Math.min(maxRows, DEFAULT_CAPACITY * 64), start);
+        while (chunk.getSize() < maxRows && resultSet.next()) {
+            chunk.append(resultSet, indexes, correlationId);
+        }
+        return chunk;
+    }
+
+    /**
+     * Appends the current row of a result set, invalid values are stored as null
+     *
+     * @param resultSet     result set, positioned on a row
+     * @param indexes       column index of each field, 0 if the field has no column
+     * @param correlationId correlation id
+     * @throws SQLException on fail
+     */
+    public void append(ResultSet resultSet, int[] indexes, String correlationId) throws SQLException {
+        for (int i = 0; i < columns.size(); i++) {
+            Column column = columns.get(i);
+            column.ensureCapacity(size + 1);
+            if (indexes[i] == 0) {
+                column.setNull(size);
+            } else {
+                try {
+                    column.read(resultSet, indexes[i], size, correlationId);
+                } catch (SQLException e) {
+                    log.warn("ID-{} received an invalid value for {}, exception {}", correlationId, column.getLabel(), e.getMessage());
+                    column.setNull(size);
+                }
+            }
+        }
+        size++;
+    }
+
+    public int getEnd() {
+        return start + size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean isNotEmpty() {
+        return size != 0;
+    }
+
+    /**
+     * @param label field label
+     * @return column of the field
+     */
+    public Column column(String label) {
+        Column column = labels.get(label);
+        if (column == null) {
+            throw new IllegalArgumentException("no column " + label + " in chunk, available columns " + labels.keySet());
+        }
+        return column;
+    }
+
+    /**
+     * @param row   row, relative to the chunk
+     * @param label field label
+     * @return value, boxed to the field type, null if the value is null
+     */
+    public Object get(int row, String label) {
+        return column(label).get(row);
+    }
+
+    private static Column column(FieldMetaData field, int capacity) {
+        Class<?> type = field.getJavaType();
+        if (LONG.contains(type)) {
+            return new LongColumn(field.getLabel(), type, capacity);
+        }
+        if (INT.contains(type)) {
+            return new IntColumn(field.getLabel(), type, capacity);
+        }
+        if (DOUBLE.contains(type)) {
+            return new DoubleColumn(field.getLabel(), type, capacity);
+        }
+        if (BOOLEAN.contains(type)) {
+            return new BooleanColumn(field.getLabel(), type);
+        }
+        if (String.class.equals(type)) {
+            return new StringColumn(field.getLabel(), capacity);
+        }
+        return new ObjectColumn(field.getLabel(), type, capacity);
+    }
+
+    /**
+     * Values of a field, with a null bitmap
+     */
+    @Getter
+    public abstract static class Column {
+
+        private final String label;
+
+        private final Class<?> type;
+
+        @Getter(AccessLevel.NONE)
+        private final BitSet nulls = new BitSet();
+
+        protected Column(String label, Class<?> type) {
+            this.label = label;
+            this.type = type;
+        }
+
+        public boolean isNull(int row) {
+            return nulls.get(row);
+        }
+
+        /**
+         * @return number of null values
+         */
+        public int getNullCount() {
+            return nulls.cardinality();
+        }
+
+        /**
+         * @param row row, relative to the chunk
+         * @return boxed value, null if the value is null
+         */
+        public Object get(int row) {
+            return isNull(row) ? null : value(row);
+        }
+
+        protected void setNull(int row) {
+            nulls.set(row);
+        }
+
+        protected abstract Object value(int row);
+
+        protected abstract void read(ResultSet resultSet, int index, int row, String correlationId) throws SQLException;
+
+        protected abstract void ensureCapacity(int rows);
+
+        protected static int grow(int length, int rows) {
+            return Math.max(rows, length + (length >> 1) + 1);
+        }
+    }
+
+    /**
+     * long[] column of Long fields
+     */
+    public static final class LongColumn extends Column {
+
+        private long[] values;
+
+        private LongColumn(String label, Class<?> type, int capacity) {
+            super(label, type);
+            this.values = new long[capacity];
+        }
+
+        /**
+         * @param row row, relative to the chunk
+         * @return value, 0 if the value is null
+         */
+        public long getLong(int row) {
+            return values[row];
+        }
+
+        @Override
+        protected Object value(int row) {
+            return values[row];
+        }
+
+        @Override
+        protected void read(ResultSet resultSet, int index, int row, String correlationId) throws SQLException {
+            values[row] = resultSet.getLong(index);
+            if (resultSet.wasNull()) {
+                setNull(row);
+            }
+        }
+
+        @Override
+        protected void ensureCapacity(int rows) {
+            if (rows > values.length) {
+                values = Arrays.copyOf(values, grow(values.length, rows));
+            }
+        }
+    }
+
+    /**
+     * int[] column of Integer, Short and Byte fields
+     */
+    public static final class IntColumn extends Column {
+
+        private int[] values;
+
+        private IntColumn(String label, Class<?> type, int capacity) {
+            super(label, type);
+            this.values = new int[capacity];
+        }
+
+        /**
+         * @param row row, relative to the chunk
+         * @return value, 0 if the value is null
+         */
+        public int getInt(int row) {
+            return values[row];
+        }
+
+        @Override
+        protected Object value(int row) {
+            if (getType() == Short.class || getType() == short.class) {
+                return (short) values[row];
+            }
+            if (getType() == Byte.class || getType() == byte.class) {
+                return (byte) values[row];
+            }
+            return values[row];
+        }
+
+        @Override
+        protected void read(ResultSet resultSet, int index, int row, String correlationId) throws SQLException {
+            values[row] = resultSet.getInt(index);
+            if (resultSet.wasNull()) {
+                setNull(row);
+            }
+        }
+
+        @Override
+        protected void ensureCapacity(int rows) {
+            if (rows > values.length) {
+                values = Arrays.copyOf(values, grow(values.length, rows));
+            }
+        }
+    }
+
+    /**
+     * double[] column of Double and Float fields
+     */
+    public static final class DoubleColumn extends Column {
+
+        private double[] values;
+
+        private DoubleColumn(String label, Class<?> type, int capacity) {
+            super(label, type);
+            this.values = new double[capacity];
+        }
+
+        /**
+         * @param row row, relative to the chunk
+         * @return value, 0 if the value is null
+         */
+        public double getDouble(int row) {
+            return values[row];
+        }
+
+        @Override
+        protected Object value(int row) {
+            if (getType() == Float.class || getType() == float.class) {
+                return (float) values[row];
+            }
+            return values[row];
+        }
+
+        @Override
+        protected void read(ResultSet resultSet, int index, int row, String correlationId) throws SQLException {
+            values[row] = resultSet.getDouble(index);
+            if (resultSet.wasNull()) {
+                setNull(row);
+            }
+        }
+
+        @Override
+        protected void ensureCapacity(int rows) {
+            if (rows > values.length) {
+                values = Arrays.copyOf(values, grow(values.length, rows));
+            }
+        }
+    }
+
+    /**
+     * Bit set column of Boolean fields
+     */
+    public static final class BooleanColumn extends Column {
+
+        private final BitSet values = new BitSet();
+
+        private BooleanColumn(String label, Class<?> type) {
+            super(label, type);
+        }
+
+        /**
+         * @param row row, relative to the chunk
+         * @return value, false if the value is null
+         */
+        public boolean getBoolean(int row) {
+            return values.get(row);
+        }
+
+        @Override
+        protected Object value(int row) {
+            return values.get(row);
+        }
+
+        @Override
+        protected void read(ResultSet resultSet, int index, int row, String correlationId) throws SQLException {
+            boolean value = resultSet.getBoolean(index);
+            if (resultSet.wasNull()) {
+                setNull(row);
+            } else if (value) {
+                values.set(row);
+            }
+        }
+
+        @Override
+        protected void ensureCapacity(int rows) {
+            // bit set grows on set
+        }
+    }
+
+    /**
+     * Offset encoded column of String fields: value of row i is chars[offsets[i], offsets[i + 1]).
+     * Values are trimmed, blank values are null, as read by {@link RowExtractor}.
+     */
+    public static final class StringColumn extends Column {
+
+        private char[] chars;
+
+        private int[] offsets;
+
+        private StringColumn(String label, int capacity) {
+            super(label, String.class);
+            this.chars = new char[capacity * 8];
+            this.offsets = new int[capacity + 1];
+        }
+
+        /**
+         * @param row row, relative to the chunk
+         * @return value, null if the value is null
+         */
+        public String getString(int row) {
+            return isNull(row) ? null : new String(chars, offsets[row], offsets[row + 1] - offsets[row]);
+        }
+
+        /**
+         * @param row row, relative to the chunk
+         * @return length of the value, 0 if the value is null
+         */
+        public int length(int row) {
+            return offsets[row + 1] - offsets[row];
+        }
+
+        @Override
+        protected Object value(int row) {
+            return getString(row);
+        }
+
+        @Override
+        protected void setNull(int row) {
+            super.setNull(row);
+            offsets[row + 1] = offsets[row];
+        }
+
+        @Override
+        protected void read(ResultSet resultSet, int index, int row, String correlationId) throws SQLException {
+            String value = trimToNull(resultSet.getString(index));
+            if (value == null) {
+                setNull(row);
+                return;
+            }
+            int offset = offsets[row];
+            if (offset + value.length() > chars.length) {
+                chars = Arrays.copyOf(chars, grow(chars.length, offset + value.length()));
+            }
+            value.getChars(0, value.length(), chars, offset);
+            offsets[row + 1] = offset + value.length();
+        }
+
+        @Override
+        protected void ensureCapacity(int rows) {
+            if (rows + 1 > offsets.length) {
+                offsets = Arrays.copyOf(offsets, grow(offsets.length, rows + 1));
+            }
+        }
+    }
+
+    /**
+     * Object[] column of the other fields
+     */
+    public static final class ObjectColumn extends Column {
+
+        private final ColumnExtractor extractor;
+
+        private Object[] values;
+
+        private ObjectColumn(String label, Class<?> type, int capacity) {
+            super(label, type);
+            this.extractor = RowExtractor.extractor(type);
+            this.values = new Object[capacity];
+        }
+
+        @Override
+        protected Object value(int row) {
+            return values[row];
+        }
+
+        @Override
+        protected void read(ResultSet resultSet, int index, int row, String correlationId) throws SQLException {
+            Object value = extractor.extract(resultSet, index, correlationId);
+            if (value == null) {
+                setNull(row);
+            } else {
+                values[row] = value;
+            }
+        }
+
+        @Override
+        protected void ensureCapacity(int rows) {
+            if (rows > values.length) {
+                values = Arrays.copyOf(values, grow(values.length, rows));
+            }
+        }
+    }
+}
@@ -0,0 +1,464 @@
+package com.ainouss.jdatatools.batch.data;
+
+import com.ainouss.jdatatools.batch.reader.ColumnExtractor;
+import com.ainouss.jdatatools.batch.reader.RowExtractor;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+import static com.ainouss.jdatatools.query.util.DataUtils.trimToNull;
+
+/**
+ * Chunk of rows encoded in a direct byte buffer with a {@link RowLayout}, rows are never materialized as objects:
+ * values are copied from a result set into the buffer, then bound from the buffer to a prepared statement.
+ * A chunk can be cleared and refilled, so that a streamed copy reuses the same buffer for all its chunks.
+ * Views ({@link #view(int, int)}) share the buffer of their chunk and are read only.
+ * A chunk is filled by a single thread, then read only.
+ */
+@Slf4j
+@Getter
+public class OffHeapChunk {
+
+    private static final int MIN_CAPACITY = 4096;
+    /**
+     * Estimated size of a variable size value, used to size the buffer
+     */
+    private static final int VARIABLE_WIDTH = 16;
+
+    private final RowLayout layout;
+
+    @Getter(AccessLevel.NONE)
+    private final ColumnExtractor[] extractors;
+
+    @Getter(AccessLevel.NONE)
+    private ByteBuffer buffer;
+
+    /**
+     * Position of each row in the buffer, rows[first + size] is the end of the last row
+     */
+    @Getter(AccessLevel.NONE)
+    private int[] rows;
+
+    @Getter(AccessLevel.NONE)
+    private final int first;
+
+    @Getter(AccessLevel.NONE)
+    private final boolean view;
+
+    private int start;
+
+    private int size;
+
+    @Setter
+    private String error;
+
+    /**
+     * @param layout   row layout
+     * @param capacity expected number of rows, the buffer grows beyond it
+     * @param start    position of the first row in the whole read
+     */
+    public OffHeapChunk(RowLayout layout, int capacity, int start) {
+        this.layout = layout;
+        this.extractors = new ColumnExtractor[layout.size()];
+        int width = layout.getFixedWidth();
+        for (int i = 0; i < layout.size(); i++) {
+            extractors[i] = RowExtractor.extractor(layout.javaType(i));
+            if (layout.slot(i).isVariable()) {
+                width += VARIABLE_WIDTH;
+            }
+        }
+        this.buffer = ByteBuffer.allocateDirect((int) Math.min(Integer.MAX_VALUE - 8, Math.max(MIN_CAPACITY, (long) Math.max(capacity, 1) * width)));
+        this.rows = new int[Math.max(capacity, 1) + 1];
+        this.first = 0;
+        this.view = false;
+        this.start = start;
+    }
+
+    private OffHeapChunk(OffHeapChunk chunk, int from, int to) {
+        this.layout = chunk.layout;
+        this.extractors = chunk.extractors;
+        this.buffer = chunk.buffer;
+        this.rows = chunk.rows;
+        this.first = chunk.first + from;
+        this.view = true;
+        this.start = chunk.start + from;
+        this.size = to - from;
+    }
+
+    /**
+     * Empties the chunk, the buffer is kept for the next rows
+     *
+     * @param start position of the first row of the next rows in the whole read
+     */
+    public void clear(int start) {
+        checkWritable();
+        this.start = start;
+        this.size = 0;
+        this.error = null;
+    }
+
+    /**
+     * Rows [from, to) of this chunk, sharing its buffer
+     *
+     * @param from first row, inclusive
+     * @param to   last row, exclusive
+     * @return read only view
+     */
+    public OffHeapChunk view(int from, int to) {
+        if (from < 0 || to > size || from > to) {
+            throw new IndexOutOfBoundsException("view [" + from + " - " + to + "] out of chunk of " + size + " rows");
+        }
+        return new OffHeapChunk(this, from, to);
+    }
+
+    public int getEnd() {
+        return start + size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean isNotEmpty() {
+        return size != 0;
+    }
+
+    /**
+     * @return number of bytes used by the rows
+     */
+    public int getBytes() {
+        return rows[first + size] - rows[first];
+    }
+
+    /**
+     * Appends the current row of a result set, invalid values are stored as null
+     *
+     * @param resultSet     result set, positioned on a row
+     * @param indexes       column index of each field of the layout, 0 if the field has no column
+     * @param correlationId correlation id
+     * @throws SQLException on fail
+     */
+    public void append(ResultSet resultSet, int[] indexes, String correlationId) throws SQLException {
+        checkWritable();
+        if (size + 1 >= rows.length) {
+            rows = Arrays.copyOf(rows, rows.length + (rows.length >> 1) + 1);
+        }
+        int base = rows[size];
+        ensureCapacity(base + layout.getFixedWidth());
+        for (int b = 0; b < layout.getNullBytes(); b++) {
+            buffer.put(base + b, (byte) 0);
+        }
+        int position = base + layout.getFixedWidth();
+        for (int i = 0; i < layout.size(); i++) {
+            if (indexes[i] == 0) {
+                setNull(base, i);
+                continue;
+            }
+            try {
+                position = write(resultSet, indexes[i], i, base, position, correlationId);
+            } catch (SQLException e) {
+                log.warn("ID-{} received an invalid value for {}, exception {}", correlationId, layout.getFields().get(i).getLabel(), e.getMessage());
+                setNull(base, i);
+            }
+        }
+        rows[size + 1] = position;
+        size++;
+    }
+
+    /**
+     * Binds a value to a prepared statement parameter, with its SQL type if the value is null
+     *
+     * @param statement prepared statement
+     * @param parameter parameter index
+     * @param row       row, relative to the chunk
+     * @param field     field position in the layout
+     * @throws SQLException on fail
+     */
+    public void bind(PreparedStatement statement, int parameter, int row, int field) throws SQLException {
+        RowLayout.Slot slot = layout.slot(field);
+        if (isNull(row, field)) {
+            statement.setNull(parameter, slot.getSqlType());
+            return;
+        }
+        switch (slot) {
+            case LONG -> statement.setLong(parameter, getLong(row, field));
+            case INT -> statement.setInt(parameter, getInt(row, field));
+            case DOUBLE -> statement.setDouble(parameter, getDouble(row, field));
+            case BOOLEAN -> statement.setBoolean(parameter, getBoolean(row, field));
+            case DATE -> statement.setDate(parameter, Date.valueOf(getLocalDate(row, field)));
+            case TIME -> statement.setTime(parameter, Time.valueOf(getLocalTime(row, field)));
+            case TIMESTAMP -> statement.setTimestamp(parameter, Timestamp.valueOf(getLocalDateTime(row, field)));
+            case STRING -> statement.setString(parameter, getString(row, field));
+            case DECIMAL -> statement.setBigDecimal(parameter, getBigDecimal(row, field));
+            case BYTES -> statement.setBytes(parameter, getBytes(row, field));
+        }
+    }
+
+    public boolean isNull(int row, int field) {
+        int base = position(row);
+        return (buffer.get(base + (field >> 3)) & (1 << (field & 7))) != 0;
+    }
+
+    public long getLong(int row, int field) {
+        return buffer.getLong(slot(row, field));
+    }
+
+    public int getInt(int row, int field) {
+        return buffer.getInt(slot(row, field));
+    }
+
+    public double getDouble(int row, int field) {
+        return buffer.getDouble(slot(row, field));
+    }
+
+    public boolean getBoolean(int row, int field) {
+        return buffer.get(slot(row, field)) != 0;
+    }
+
+    public LocalDate getLocalDate(int row, int field) {
+        return isNull(row, field) ? null : LocalDate.ofEpochDay(buffer.getLong(slot(row, field)));
+    }
+
+    public LocalTime getLocalTime(int row, int field) {
+        return isNull(row, field) ? null : LocalTime.ofNanoOfDay(buffer.getLong(slot(row, field)));
+    }
+
+    public LocalDateTime getLocalDateTime(int row, int field) {
+        int slot = slot(row, field);
+        return isNull(row, field) ? null : LocalDateTime.ofEpochSecond(buffer.getLong(slot), buffer.getInt(slot + 8), ZoneOffset.UTC);
+    }
+
+    public String getString(int row, int field) {
+        byte[] bytes = getBytes(row, field);
+        return bytes == null ? null : new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public BigDecimal getBigDecimal(int row, int field) {
+        byte[] bytes = getBytes(row, field);
+        if (bytes == null) {
+            return null;
+        }
+        int scale = ((bytes[0] & 0xff) << 24) | ((bytes[1] & 0xff) << 16) | ((bytes[2] & 0xff) << 8) | (bytes[3] & 0xff);
+        return new BigDecimal(new BigInteger(Arrays.copyOfRange(bytes, 4, bytes.length)), scale);
+    }
+
+    public byte[] getBytes(int row, int field) {
+        if (isNull(row, field)) {
+            return null;
+        }
+        int slot = slot(row, field);
+        byte[] bytes = new byte[buffer.getInt(slot + 4)];
+        buffer.get(buffer.getInt(slot), bytes);
+        return bytes;
+    }
+
+    /**
+     * @param row   row, relative to the chunk
+     * @param field field position in the layout
+     * @return value, boxed to the field type, null if the value is null
+     */
+    public Object get(int row, int field) {
+        if (isNull(row, field)) {
+            return null;
+        }
+        Class<?> type = layout.javaType(field);
+        return switch (layout.slot(field)) {
+            case LONG -> getLong(row, field);
+            case INT -> type == Short.class || type == short.class ? (Object) (short) getInt(row, field)
+                    : type == Byte.class || type == byte.class ? (Object) (byte) getInt(row, field) : (Object) getInt(row, field);
+            case DOUBLE -> type == Float.class || type == float.class ? (Object) (float) getDouble(row, field) : (Object) getDouble(row, field);
+            case BOOLEAN -> getBoolean(row, field);
+            case DATE -> type == Date.class ? Date.valueOf(getLocalDate(row, field)) : getLocalDate(row, field);
+            case TIME -> type == Time.class ? Time.valueOf(getLocalTime(row, field)) : getLocalTime(row, field);
+            case TIMESTAMP -> type == Timestamp.class ? Timestamp.valueOf(getLocalDateTime(row, field)) : getLocalDateTime(row, field);
+            case STRING -> getString(row, field);
+            case DECIMAL -> getBigDecimal(row, field);
+            case BYTES -> getBytes(row, field);
+        };
+    }
+
+    /**
+     * @param row   row, relative to the chunk
+     * @param label field label
+     * @return value, boxed to the field type, null if the value is null
+     */
+    public Object get(int row, String label) {
+        int field = layout.indexOf(label);
+        if (field < 0) {
+            throw new IllegalArgumentException("no field " + label + " in chunk");
+        }
+        return get(row, field);
+    }
+
+    /**
+     * Writes a column of the current row into the slot of a field
+     *
+     * @return position after the variable size data of the row
+     */
+    private int write(ResultSet resultSet, int index, int field, int base, int position, String correlationId) throws SQLException {
+        int slot = base + layout.offset(field);
+        switch (layout.slot(field)) {
+            case LONG -> {
+                long value = resultSet.getLong(index);
+                if (resultSet.wasNull()) {
+                    setNull(base, field);
+                } else {
+                    buffer.putLong(slot, value);
+                }
+            }
+            case INT -> {
+                int value = resultSet.getInt(index);
+                if (resultSet.wasNull()) {
+                    setNull(base, field);
+                } else {
+                    buffer.putInt(slot, value);
+                }
+            }
+            case DOUBLE -> {
+                double value = resultSet.getDouble(index);
+                if (resultSet.wasNull()) {
+                    setNull(base, field);
+                } else {
+                    buffer.putDouble(slot, value);
+                }
+            }
+            case BOOLEAN -> {
+                boolean value = resultSet.getBoolean(index);
+                if (resultSet.wasNull()) {
+                    setNull(base, field);
+                } else {
+                    buffer.put(slot, (byte) (value ? 1 : 0));
+                }
+            }
+            case DATE -> {
+                Object value = extractors[field].extract(resultSet, index, correlationId);
+                if (value == null) {
+                    setNull(base, field);
+                } else {
+                    buffer.putLong(slot, (value instanceof Date date ? date.toLocalDate() : (LocalDate) value).toEpochDay());
+                }
+            }
+            case TIME -> {
+                Object value = extractors[field].extract(resultSet, index, correlationId);
+                if (value == null) {
+                    setNull(base, field);
+                } else {
+                    buffer.putLong(slot, (value instanceof Time time ? time.toLocalTime() : (LocalTime) value).toNanoOfDay());
+                }
+            }
+            case TIMESTAMP -> {
+                Object value = extractors[field].extract(resultSet, index, correlationId);
+                if (value == null) {
+                    setNull(base, field);
+                } else {
+                    LocalDateTime dateTime = value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) value;
+                    buffer.putLong(slot, dateTime.toEpochSecond(ZoneOffset.UTC));
+                    buffer.putInt(slot + 8, dateTime.getNano());
+                }
+            }
+            case STRING -> {
+                String value = trimToNull(resultSet.getString(index));
+                if (value == null) {
+                    setNull(base, field);
+                } else {
+                    return writeString(slot, position, value);
+                }
+            }
+            case DECIMAL -> {
+                BigDecimal value = resultSet.getBigDecimal(index);
+                if (value == null) {
+                    setNull(base, field);
+                } else {
+                    byte[] unscaled = value.unscaledValue().toByteArray();
+                    ensureCapacity(position + 4 + unscaled.length);
+                    buffer.putInt(position, value.scale());
+                    buffer.put(position + 4, unscaled);
+                    return writeSlot(slot, position, 4 + unscaled.length);
+                }
+            }
+            case BYTES -> {
+                byte[] value = resultSet.getBytes(index);
+                if (value == null) {
+                    setNull(base, field);
+                } else {
+                    ensureCapacity(position + value.length);
+                    buffer.put(position, value);
+                    return writeSlot(slot, position, value.length);
+                }
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Writes a string in UTF-8, ASCII strings are copied char by char without an intermediate array
+     */
+    private int writeString(int slot, int position, String value) {
+        int length = value.length();
+        ensureCapacity(position + length);
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x80) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                ensureCapacity(position + bytes.length);
+                buffer.put(position, bytes);
+                return writeSlot(slot, position, bytes.length);
+            }
+            buffer.put(position + i, (byte) c);
+        }
+        return writeSlot(slot, position, length);
+    }
+
+    private int writeSlot(int slot, int position, int length) {
+        buffer.putInt(slot, position);
+        buffer.putInt(slot + 4, length);
+        return position + length;
+    }
+
+    private void setNull(int base, int field) {
+        int index = base + (field >> 3);
+        buffer.put(index, (byte) (buffer.get(index) | (1 << (field & 7))));
+    }
+
+    private int position(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("row " + row + " out of chunk of " + size + " rows");
+        }
+        return rows[first + row];
+    }
+
+    private int slot(int row, int field) {
+        return position(row) + layout.offset(field);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > buffer.capacity()) {
+            ByteBuffer larger = ByteBuffer.allocateDirect((int) Math.min(Integer.MAX_VALUE - 8, Math.max(capacity, (long) buffer.capacity() * 2)));
+            larger.put(0, buffer, 0, buffer.capacity());
+            buffer = larger;
+        }
+    }
+
+    private void checkWritable() {
+        if (view) {
+            throw new UnsupportedOperationException("chunk view is read only");
+        }
+    }
+}
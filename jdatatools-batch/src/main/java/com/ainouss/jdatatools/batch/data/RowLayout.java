@@ -0,0 +1,160 @@
+package com.ainouss.jdatatools.batch.data;
+
+import com.ainouss.jdatatools.query.core.FieldMetaData;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary layout of a row, derived from the fields of a query:
+ * - a null bitmap, one bit per field
+ * - a fixed size slot per field, in field order: 8 bytes for longs, doubles, dates and times, 12 bytes for timestamps,
+ * 4 bytes for ints, 1 byte for booleans
+ * - variable size fields (strings, big decimals, byte arrays) hold the position and the length of their value,
+ * stored after the fixed part of the row
+ * Instances are immutable.
+ */
+@Getter
+public final class RowLayout {
+
+    /**
+     * Encoding of a field, with the size of its slot
+     */
+    public enum Slot {
+        LONG(8, Types.BIGINT),
+        INT(4, Types.INTEGER),
+        DOUBLE(8, Types.DOUBLE),
+        BOOLEAN(1, Types.BOOLEAN),
+        DATE(8, Types.DATE),
+        TIME(8, Types.TIME),
+        TIMESTAMP(12, Types.TIMESTAMP),
+        STRING(8, Types.VARCHAR),
+        DECIMAL(8, Types.DECIMAL),
+        BYTES(8, Types.VARBINARY);
+
+        private final int width;
+        private final int sqlType;
+
+        Slot(int width, int sqlType) {
+            this.width = width;
+            this.sqlType = sqlType;
+        }
+
+        public int getWidth() {
+            return width;
+        }
+
+        public int getSqlType() {
+            return sqlType;
+        }
+
+        public boolean isVariable() {
+            return this == STRING || this == DECIMAL || this == BYTES;
+        }
+    }
+
+    private static final Map<Class<?>, Slot> SLOTS = Map.ofEntries(
+            Map.entry(Long.class, Slot.LONG),
+            Map.entry(long.class, Slot.LONG),
+            Map.entry(Integer.class, Slot.INT),
+            Map.entry(int.class, Slot.INT),
+            Map.entry(Short.class, Slot.INT),
+            Map.entry(short.class, Slot.INT),
+            Map.entry(Byte.class, Slot.INT),
+            Map.entry(byte.class, Slot.INT),
+            Map.entry(Double.class, Slot.DOUBLE),
+            Map.entry(double.class, Slot.DOUBLE),
+            Map.entry(Float.class, Slot.DOUBLE),
+            Map.entry(float.class, Slot.DOUBLE),
+            Map.entry(Boolean.class, Slot.BOOLEAN),
+            Map.entry(boolean.class, Slot.BOOLEAN),
+            Map.entry(LocalDate.class, Slot.DATE),
+            Map.entry(Date.class, Slot.DATE),
+            Map.entry(LocalTime.class, Slot.TIME),
+            Map.entry(Time.class, Slot.TIME),
+            Map.entry(LocalDateTime.class, Slot.TIMESTAMP),
+            Map.entry(Timestamp.class, Slot.TIMESTAMP),
+            Map.entry(String.class, Slot.STRING),
+            Map.entry(BigDecimal.class, Slot.DECIMAL),
+            Map.entry(byte[].class, Slot.BYTES));
+
+    private final List<FieldMetaData> fields;
+
+    @Getter(AccessLevel.NONE)
+    private final Slot[] slots;
+
+    @Getter(AccessLevel.NONE)
+    private final int[] offsets;
+
+    private final int nullBytes;
+
+    private final int fixedWidth;
+
+    /**
+     * @param fields fields, all of a supported type, see {@link #isSupported(List)}
+     */
+    public RowLayout(List<FieldMetaData> fields) {
+        this.fields = List.copyOf(fields);
+        this.slots = new Slot[fields.size()];
+        this.offsets = new int[fields.size()];
+        this.nullBytes = (fields.size() + 7) / 8;
+        int offset = nullBytes;
+        for (int i = 0; i < fields.size(); i++) {
+            Slot slot = SLOTS.get(fields.get(i).getJavaType());
+            if (slot == null) {
+                throw new IllegalArgumentException("field " + fields.get(i).getLabel() + " of type " + fields.get(i).getJavaType() + " has no binary encoding");
+            }
+            slots[i] = slot;
+            offsets[i] = offset;
+            offset += slot.getWidth();
+        }
+        this.fixedWidth = offset;
+    }
+
+    /**
+     * @param fields fields
+     * @return true if every field has a binary encoding
+     */
+    public static boolean isSupported(List<FieldMetaData> fields) {
+        return fields.stream().allMatch(field -> field.getJavaType() != null && SLOTS.containsKey(field.getJavaType()));
+    }
+
+    /**
+     * @param label field label
+     * @return position of the field, -1 if the layout has no such field
+     */
+    public int indexOf(String label) {
+        for (int i = 0; i < fields.size(); i++) {
+            if (fields.get(i).getLabel().equals(label)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public int size() {
+        return slots.length;
+    }
+
+    public Slot slot(int field) {
+        return slots[field];
+    }
+
+    public int offset(int field) {
+        return offsets[field];
+    }
+
+    public Class<?> javaType(int field) {
+        return fields.get(field).getJavaType();
+    }
+}
@@ -0,0 +1,157 @@
+package com.ainouss.jdatatools.batch.reader;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Runs chunk reads on an executor with at most a given number of reads in flight.
+ * Reads are started as previous ones complete, the calling thread is never blocked,
+ * so that a large table does not queue hundreds of reads on a connection pool of a few connections.
+ */
+@Slf4j
+public final class ChunkDispatcher {
+
+    /**
+     * Pool size getters of common connection pools: HikariCP, commons-dbcp2, tomcat-jdbc
+     */
+    private static final List<String> POOL_SIZE_GETTERS = List.of("getMaximumPoolSize", "getMaxTotal", "getMaxActive");
+
+    private ChunkDispatcher() {
+    }
+
+    /**
+     * Starts the tasks, at most {@code maxInFlight} at a time, and hands each result to the consumer.
+     * Once canceled, the remaining tasks are not started and their futures complete immediately.
+     *
+     * @param tasks       chunk reads
+     * @param consumer    chunk consumer
+     * @param executor    executor running reads and consumers
+     * @param maxInFlight max number of tasks running at the same time
+     * @param canceled    cancellation flag
+     * @param <C>         chunk type
+     * @return one future per task, in task order
+     */
+    public static <C> List<CompletableFuture<Void>> dispatch(List<Supplier<C>> tasks, Consumer<? super C> consumer, Executor executor,
+                                                             int maxInFlight, AtomicBoolean canceled) {
+        List<CompletableFuture<Void>> futures = new ArrayList<>(tasks.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            futures.add(new CompletableFuture<>());
+        }
+        AtomicInteger next = new AtomicInteger();
+        for (int i = 0; i < Math.min(Math.max(maxInFlight, 1), tasks.size()); i++) {
+            launch(tasks, consumer, executor, canceled, futures, next);
+        }
+        return futures;
+    }
+
+    /**
+     * Starts the next task of a slot. A task that completes while its callback is registered, e.g. on a caller-runs executor,
+     * hands the slot back to this loop instead of starting the next task from its callback, so the stack does not grow per chunk.
+     */
+    private static <C> void launch(List<Supplier<C>> tasks, Consumer<? super C> consumer, Executor executor, AtomicBoolean canceled,
+                                   List<CompletableFuture<Void>> futures, AtomicInteger next) {
+        int index;
+        while ((index = next.getAndIncrement()) < tasks.size()) {
+            if (canceled.get()) {
+                futures.get(index).complete(null);
+                continue;
+            }
+            final int task = index;
+            AtomicBoolean pending = new AtomicBoolean(true);
+            CompletableFuture.supplyAsync(tasks.get(task), executor)
+                    .thenAccept(consumer)
+                    .whenComplete((v, e) -> {
+                        if (e == null) {
+                            futures.get(task).complete(null);
+                        } else {
+                            futures.get(task).completeExceptionally(e);
+                        }
+                        if (!pending.compareAndSet(true, false)) {
+                            launch(tasks, consumer, executor, canceled, futures, next);
+                        }
+                    });
+            if (pending.compareAndSet(true, false)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Executor of a read: the given executor, or a virtual thread per task executor, or a fixed pool of {@code threads}.
+     * Executors created here are owned by the read and shut down once it completes, see {@link #release(Executor, Executor)}.
+     *
+     * @param executor       executor of the template, may be null
+     * @param virtualThreads true to run each task on its own virtual thread (Java 21+)
+     * @param threads        number of threads of the default pool
+     * @return executor
+     */
+    public static Executor executor(Executor executor, boolean virtualThreads, int threads) {
+        if (executor != null) {
+            return executor;
+        }
+        if (virtualThreads) {
+            try {
+                return (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                log.warn("virtual threads are not available on java {}, falling back to a pool of {} threads", Runtime.version().feature(), threads);
+            }
+        }
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.max(threads, 1), runnable -> {
+            Thread thread = new Thread(runnable, "jdatatools-reader-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Shuts down an executor created by {@link #executor(Executor, boolean, int)}, leaves the template executor untouched
+     *
+     * @param executor executor used by the read
+     * @param provided executor of the template, may be null
+     */
+    public static void release(Executor executor, Executor provided) {
+        if (executor != provided && executor instanceof ExecutorService service) {
+            service.shutdown();
+        }
+    }
+
+    /**
+     * Max number of connections of a pooled data source, read by reflection to stay independent of the pool implementation
+     *
+     * @param dataSource data source
+     * @return pool size, or the number of processors if the data source is not a known pool
+     */
+    public static int poolSize(DataSource dataSource) {
+        while (dataSource instanceof DelegatingDataSource delegating && delegating.getTargetDataSource() != null) {
+            dataSource = delegating.getTargetDataSource();
+        }
+        if (dataSource != null) {
+            for (String getter : POOL_SIZE_GETTERS) {
+                try {
+                    Method method = dataSource.getClass().getMethod(getter);
+                    Object size = method.invoke(dataSource);
+                    if (size instanceof Number number && number.intValue() > 0) {
+                        return number.intValue();
+                    }
+                } catch (ReflectiveOperationException e) {
+                    // not this pool implementation
+                }
+            }
+        }
+        return Runtime.getRuntime().availableProcessors();
+    }
+}
@@ -0,0 +1,21 @@
+package com.ainouss.jdatatools.batch.reader;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Typed reader of a column, resolved once per field from its java type, see {@link RowExtractor#extractor(Class)}.
+ * Returns null for SQL NULL.
+ */
+@FunctionalInterface
+public interface ColumnExtractor {
+
+    /**
+     * @param resultSet     result set, positioned on a row
+     * @param index         column index
+     * @param correlationId correlation id
+     * @return column value, null if the column is null
+     * @throws SQLException on fail
+     */
+    Object extract(ResultSet resultSet, int index, String correlationId) throws SQLException;
+}
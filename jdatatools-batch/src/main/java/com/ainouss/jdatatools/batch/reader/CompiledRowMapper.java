@@ -0,0 +1,232 @@
+package com.ainouss.jdatatools.batch.reader;
+
+import com.ainouss.jdatatools.query.core.FieldMetaData;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Row mapper of a class compiled once per (class, fields) and cached, the {@link #MAX_MAPPERS} last used are kept:
+ * - the no-arg constructor and the field setters are resolved to method handles, no reflection per row
+ * - each field is resolved to a typed column writer, see {@link RowExtractor#extractor(Class)}, no type dispatch per cell,
+ * primitive fields are read and written without boxing
+ * - columns are resolved to indexes once per result set, see {@link #bind(ResultSet, String)}, no name lookup per row
+ * Instances are immutable and thread safe.
+ *
+ * @param <T> target type
+ */
+@Slf4j
+public final class CompiledRowMapper<T> {
+
+    static final int MAX_MAPPERS = 1024;
+    /**
+     * Compiled mappers by class and fields, the least recently used is evicted once the cache is full
+     */
+    private static final Map<Key, CompiledRowMapper<?>> CACHE = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, CompiledRowMapper<?>> eldest) {
+            return size() > MAX_MAPPERS;
+        }
+    });
+
+    private final Class<T> clazz;
+    private final FieldMetaData[] fields;
+    private final MethodHandle constructor;
+    private final ColumnWriter[] writers;
+
+    private CompiledRowMapper(Class<T> clazz, List<FieldMetaData> fields) {
+        this.clazz = clazz;
+        this.fields = fields.toArray(new FieldMetaData[0]);
+        this.writers = new ColumnWriter[this.fields.length];
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(clazz, MethodHandles.lookup());
+            this.constructor = lookup.findConstructor(clazz, MethodType.methodType(void.class)).asType(MethodType.methodType(Object.class));
+            for (int i = 0; i < this.fields.length; i++) {
+                Field field = FieldUtils.getField(clazz, this.fields[i].getLabel(), true);
+                if (field == null) {
+                    throw new RuntimeException("field " + this.fields[i].getLabel() + " not found in " + clazz.getSimpleName());
+                }
+                MethodHandles.Lookup owner = MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup());
+                this.writers[i] = writer(owner.unreflectSetter(field), field.getType(), this.fields[i].getJavaType());
+            }
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new RuntimeException("Could not compile a row mapper for " + clazz.getSimpleName() + ", make sure to include a public constructor and non final fields", e);
+        }
+    }
+
+    /**
+     * Compiled mapper of a class, built on first use
+     *
+     * @param clazz  target
+     * @param fields fields to populate
+     * @param <T>    type
+     * @return cached mapper
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> CompiledRowMapper<T> of(Class<T> clazz, List<FieldMetaData> fields) {
+        Key key = new Key(clazz, List.copyOf(fields));
+        CompiledRowMapper<?> mapper = CACHE.get(key);
+        if (mapper == null) {
+            CompiledRowMapper<?> compiled = new CompiledRowMapper<>(clazz, key.fields());
+            mapper = Optional.<CompiledRowMapper<?>>ofNullable(CACHE.putIfAbsent(key, compiled)).orElse(compiled);
+        }
+        return (CompiledRowMapper<T>) mapper;
+    }
+
+    /**
+     * Number of cached mappers, for tests
+     */
+    static int size() {
+        return CACHE.size();
+    }
+
+    /**
+     * Resolves the column of each field in a result set and returns a row mapper reading by column index.
+     * A field matches the column labelled as the field, otherwise the column labelled or named as the field column.
+     * Fields without a matching column are left unset.
+     *
+     * @param resultSet     result set
+     * @param correlationId correlation id
+     * @return row mapper, valid for this result set
+     * @throws SQLException on fail
+     */
+    public RowMapper<T> bind(ResultSet resultSet, String correlationId) throws SQLException {
+        int[] indexes = indexes(clazz, List.of(fields), resultSet.getMetaData(), correlationId);
+        return (rs, rowNum) -> map(rs, indexes, correlationId);
+    }
+
+    /**
+     * Column index of each field, 0 if the field has no column, see {@link #bind(ResultSet, String)}
+     *
+     * @param clazz         target
+     * @param fields        fields
+     * @param metaData      result set metadata
+     * @param correlationId correlation id
+     * @return column indexes, in field order
+     * @throws SQLException on fail
+     */
+    public static int[] indexes(Class<?> clazz, List<FieldMetaData> fields, ResultSetMetaData metaData, String correlationId) throws SQLException {
+        int[] indexes = new int[fields.size()];
+        int count = metaData.getColumnCount();
+        for (int i = 0; i < fields.size(); i++) {
+            for (int c = 1; c <= count && indexes[i] == 0; c++) {
+                if (metaData.getColumnLabel(c).equalsIgnoreCase(fields.get(i).getLabel())) {
+                    indexes[i] = c;
+                }
+            }
+            for (int c = 1; c <= count && indexes[i] == 0; c++) {
+                if (metaData.getColumnLabel(c).equalsIgnoreCase(fields.get(i).getColumn()) || metaData.getColumnName(c).equalsIgnoreCase(fields.get(i).getColumn())) {
+                    indexes[i] = c;
+                }
+            }
+            if (indexes[i] == 0) {
+                log.debug("ID-{} no column found for {}.{}", correlationId, clazz.getSimpleName(), fields.get(i).getLabel());
+            }
+        }
+        return indexes;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T map(ResultSet resultSet, int[] indexes, String correlationId) {
+        T instance;
+        try {
+            instance = (T) constructor.invokeExact();
+        } catch (Throwable e) {
+            throw new RuntimeException("Could not instantiate class " + clazz.getSimpleName(), e);
+        }
+        for (int i = 0; i < fields.length; i++) {
+            if (indexes[i] == 0) {
+                continue;
+            }
+            try {
+                writers[i].write(resultSet, indexes[i], instance, correlationId);
+            } catch (SQLException e) {
+                log.warn("ID-{} received an invalid value for {}, exception {}", correlationId, fields[i].getLabel(), e.getMessage());
+            } catch (ClassCastException e) {
+                log.warn("ID-{} could not write value for {}, exception {}", correlationId, fields[i].getLabel(), e.getMessage());
+            } catch (Throwable e) {
+                throw new RuntimeException(e);
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Writer of a field: primitive fields whose column is read as the same primitive get a dedicated writer,
+     * other fields read the column through the extractor of their type and skip null values
+     *
+     * @param setter    field setter
+     * @param fieldType declared field type
+     * @param javaType  type the column is read as
+     * @return column writer
+     */
+    private static ColumnWriter writer(MethodHandle setter, Class<?> fieldType, Class<?> javaType) {
+        if (fieldType.isPrimitive() && fieldType.equals(javaType)) {
+            MethodHandle primitive = setter.asType(MethodType.methodType(void.class, Object.class, fieldType));
+            if (fieldType == long.class) {
+                return (resultSet, index, instance, correlationId) -> {
+                    long value = resultSet.getLong(index);
+                    if (!resultSet.wasNull()) {
+                        primitive.invokeExact(instance, value);
+                    }
+                };
+            } else if (fieldType == int.class) {
+                return (resultSet, index, instance, correlationId) -> {
+                    int value = resultSet.getInt(index);
+                    if (!resultSet.wasNull()) {
+                        primitive.invokeExact(instance, value);
+                    }
+                };
+            } else if (fieldType == double.class) {
+                return (resultSet, index, instance, correlationId) -> {
+                    double value = resultSet.getDouble(index);
+                    if (!resultSet.wasNull()) {
+                        primitive.invokeExact(instance, value);
+                    }
+                };
+            } else if (fieldType == boolean.class) {
+                return (resultSet, index, instance, correlationId) -> {
+                    boolean value = resultSet.getBoolean(index);
+                    if (!resultSet.wasNull()) {
+                        primitive.invokeExact(instance, value);
+                    }
+                };
+            }
+        }
+        ColumnExtractor extractor = RowExtractor.extractor(javaType);
+        MethodHandle generic = setter.asType(MethodType.methodType(void.class, Object.class, Object.class));
+        return (resultSet, index, instance, correlationId) -> {
+            Object value = extractor.extract(resultSet, index, correlationId);
+            if (value != null) {
+                generic.invokeExact(instance, value);
+            }
+        };
+    }
+
+    /**
+     * Reads a column and writes it to a field of an instance
+     */
+    @FunctionalInterface
+    private interface ColumnWriter {
+        void write(ResultSet resultSet, int index, Object instance, String correlationId) throws Throwable;
+    }
+
+    /**
+     * Cache key, fields are compared by value
+     */
+    private record Key(Class<?> clazz, List<FieldMetaData> fields) {
+    }
+}
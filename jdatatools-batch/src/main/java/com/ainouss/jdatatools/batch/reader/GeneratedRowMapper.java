@@ -0,0 +1,41 @@
+package com.ainouss.jdatatools.batch.reader;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Base class of the row mappers generated by {@link RowMapperGenerator}.
+ * Generated subclasses implement {@link #mapRow(ResultSet, int)} with direct getter and setter calls.
+ *
+ * @param <T> target type
+ */
+@Slf4j
+public abstract class GeneratedRowMapper<T> implements RowMapper<T> {
+
+    private final String correlationId;
+
+    protected GeneratedRowMapper(String correlationId) {
+        this.correlationId = correlationId;
+    }
+
+    /**
+     * Reads a temporal column through {@link RowExtractor#extractField(ResultSet, int, Class, String)},
+     * which parses values the driver fails to convert
+     *
+     * @param resultSet result set
+     * @param index     column index
+     * @param type      field type
+     * @return value, null if the column is null or invalid
+     */
+    protected Object value(ResultSet resultSet, int index, Class<?> type) {
+        try {
+            return RowExtractor.extractField(resultSet, index, type, correlationId);
+        } catch (SQLException e) {
+            log.warn("ID-{} received an invalid value for column {}, exception {}", correlationId, index, e.getMessage());
+            return null;
+        }
+    }
+}
@@ -1,22 +1,47 @@
 package com.ainouss.jdatatools.batch.reader;
 
 import com.ainouss.jdatatools.batch.data.Chunk;
+import com.ainouss.jdatatools.batch.data.ColumnarChunk;
+import com.ainouss.jdatatools.batch.data.OffHeapChunk;
+import com.ainouss.jdatatools.batch.data.RowLayout;
 import com.ainouss.jdatatools.batch.util.QueryBuilder;
 import com.ainouss.jdatatools.query.core.CriteriaBuilder;
 import com.ainouss.jdatatools.query.core.CriteriaQuery;
+import com.ainouss.jdatatools.query.core.Expression;
 import com.ainouss.jdatatools.query.core.FieldMetaData;
+import com.ainouss.jdatatools.query.core.ParameterizedSql;
+import com.ainouss.jdatatools.query.core.Path;
+import com.ainouss.jdatatools.query.core.Root;
 import com.ainouss.jdatatools.query.registery.EntityRegistry;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Component;
 
+import java.lang.reflect.Field;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
-import static com.ainouss.jdatatools.batch.reader.RowExtractor.extract;
 import static com.ainouss.jdatatools.query.util.DataUtils.isBlank;
 
 /**
@@ -38,12 +63,25 @@ public class JdbcChunkReader {
      * Min fetch size
      */
     private static final int MIN_CHUNK_SIZE = 1000;
+    /**
+     * Default fetch size of keyset pagination
+     */
+    private static final int KEYSET_CHUNK_SIZE = 10_000;
+    /**
+     * Default number of rows per chunk of a streamed read
+     */
+    private static final int STREAM_CHUNK_SIZE = 10_000;
+    /**
+     * Max number of ranges of a range partitioned read
+     */
+    private static final int MAX_PARTITIONS = 1_000;
 
     /**
      * Reads data from a table using criteria through chunking:
      * - counts the total result by issuing count query
-     * - fetches data in parallel as a completable future
+     * - fetches data in parallel as a completable future, at most max in flight chunks at a time
      * - returns a future that completed when all sub-futures are completed
+     * Other slicing strategies are selected by the template {@link ReadMode}
      *
      * @param template input template
      * @param <T>      input type class
@@ -57,15 +95,50 @@ public class JdbcChunkReader {
         if (template.getCriteria() == null) {
             CriteriaBuilder cb = EntityRegistry.criteriaBuilder();
             CriteriaQuery<T> cr = cb.createQuery(template.getClazz());
+            cr.from(template.getClazz());
             template.setCriteria(cr);
         }
-        if (isBlank(template.getSelect())) {
-            template.setSelect(template.getCriteria().buildSelectQuery());
+        if (template.getClazz() == null) {
+            template.setClazz(template.getCriteria().getResultType());
+        }
+        if (template.getConsumer() == null) {
+            template.setConsumer(chunk -> {
+            });
+        }
+        if (template.getMaxInFlight() == 0) {
+            template.setMaxInFlight(ChunkDispatcher.poolSize(template.getJdbcTemplate().getDataSource()));
         }
+        Executor executor = ChunkDispatcher.executor(template.getExecutor(), template.isVirtualThreads(), template.getMaxInFlight());
+        CompletableFuture<List<Void>> result;
+        try {
+            result = switch (template.getMode()) {
+                case KEYSET, INCREMENTAL -> processKeyset(template, executor);
+                case RANGE -> processRange(template, executor);
+                case STREAM -> processStream(template, executor);
+                default -> processOffset(template, executor);
+            };
+        } catch (RuntimeException e) {
+            ChunkDispatcher.release(executor, template.getExecutor());
+            throw e;
+        }
+        return result.whenComplete((v, e) -> ChunkDispatcher.release(executor, template.getExecutor()));
+    }
+
+    /**
+     * Reads data from a table through offset pagination, see {@link #process(JdbcReadTemplate)}
+     *
+     * @param template input template
+     * @param executor executor of the read
+     * @param <T>      input type class
+     * @param <R>      return type class
+     * @return a completable future
+     */
+    private <T, R> CompletableFuture<List<Void>> processOffset(JdbcReadTemplate<T, R> template, Executor executor) {
+        prepareSelect(template);
 
         if (template.getCount() == null) {
-            String countQuery = template.getCriteria().buildCountQuery();
-            Integer count = query(countQuery, template.getJdbcTemplate(), Integer.class, template.getCorrelationId());
+            ParameterizedSql countQuery = ParameterizedSql.render(template.getCriteria()::buildCountQuery);
+            Integer count = query(countQuery.sql(), template.getJdbcTemplate(), Integer.class, template.getCorrelationId(), countQuery.args());
             template.setCount(count);
         }
         if (template.getFetchSize() == 0) {
@@ -81,23 +154,447 @@ public class JdbcChunkReader {
             }
             template.setFetchSize(chunkSize);
         }
-        if (template.getConsumer() == null) {
-            template.setConsumer(chunk -> {
-            });
-        }
         int start = 0;
-        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        List<Supplier<Chunk<R>>> tasks = new ArrayList<>();
         final List<FieldMetaData> fields = template.getCriteria().getFields();
         while (start < template.getCount()) {
             final int row = start;
-            CompletableFuture<Void> future = CompletableFuture.supplyAsync(() -> getChunk(template, row, fields)).thenAccept(template.getConsumer());
-            futures.add(future);
+            if (template.getSkip() == null || !template.getSkip().test(row, Math.min(row + template.getFetchSize(), template.getCount()))) {
+                tasks.add(() -> getChunk(template, row, fields));
+            }
             start = start + template.getFetchSize();
         }
+        List<CompletableFuture<Void>> futures = ChunkDispatcher.dispatch(tasks, template.getConsumer(), executor, template.getMaxInFlight(), template.getIsCanceled());
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                .thenApply(v -> futures.stream().map(CompletableFuture::join).collect(Collectors.toList()));
+    }
+
+    /**
+     * Reads data from a table through keyset (seek) pagination:
+     * - resolves the key from the template, {@link jakarta.persistence.Id} annotations or the primary key metadata,
+     * an incremental read orders by the watermark then the key and skips the rows with a null watermark
+     * - fetches chunks sequentially, each chunk starts right after the last key of the previous one,
+     * so that the cost of a chunk does not depend on its depth, the first chunk starts after the template start key if set
+     * - hands each chunk to the consumer asynchronously, consuming a chunk overlaps reading the next one,
+     * once max in flight chunks are pending, the next chunk is consumed on the reading thread
+     * - returns a future that completed when all chunks are consumed
+     * No count query is issued, chunk ranges are row numbers in key order
+     *
+     * @param template input template
+     * @param executor executor of the read
+     * @param <T>      input type class
+     * @param <R>      return type class
+     * @return a completable future
+     */
+    private <T, R> CompletableFuture<List<Void>> processKeyset(JdbcReadTemplate<T, R> template, Executor executor) {
+        if (!isBlank(template.getSelect())) {
+            throw new RuntimeException("keyset pagination is built from the criteria, a custom select query is not supported");
+        }
+        if (template.getKeys() == null || template.getKeys().isEmpty()) {
+            template.setKeys(KeyResolver.primaryKeys(template.getClazz(), template.getJdbcTemplate()));
+        }
+        boolean incremental = template.getMode() == ReadMode.INCREMENTAL;
+        if (incremental) {
+            if (isBlank(template.getWatermark())) {
+                template.setWatermark(KeyResolver.versionColumn(template.getClazz(), template.getJdbcTemplate()));
+            }
+            template.setKeys(KeyResolver.incrementalKeys(template.getWatermark(), template.getKeys()));
+        }
+        if (template.getFetchSize() == 0) {
+            template.setFetchSize(KEYSET_CHUNK_SIZE);
+        }
+        CriteriaQuery<T> criteria = template.getCriteria();
+        Root<?> root = root(template);
+        List<Path<?>> keys = template.getKeys()
+                .stream()
+                .<Path<?>>map(root::get)
+                .toList();
+        String fetch = QueryBuilder.buildFetchFirstQuery(template.getFetchSize());
+        ParameterizedSql first = ParameterizedSql.render(() -> incremental ? criteria.buildKeysetQuery(keys, false, criteria.getCriteriaBuilder().isNotNull(keys.get(0)))
+                : criteria.buildKeysetQuery(keys, false));
+        ParameterizedSql next = ParameterizedSql.render(() -> criteria.buildKeysetQuery(keys, true));
+        final List<FieldMetaData> fields = criteria.getFields();
+        if (!fields.isEmpty()) {
+            Set<String> selected = fields.stream().map(FieldMetaData::getLabel).collect(Collectors.toSet());
+            List<String> missing = template.getKeys().stream().filter(key -> !selected.contains(key)).toList();
+            if (!missing.isEmpty()) {
+                throw new RuntimeException("keyset pagination reads the keys from the last row of a page, the criteria should select the keys " + missing);
+            }
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            AtomicInteger inFlight = new AtomicInteger();
+            CompletableFuture<Void> consumed = CompletableFuture.completedFuture(null);
+            int chunks = 0;
+            List<Object> lastKey = template.getStartKey();
+            int start = lastKey == null ? 0 : template.getStartRow();
+            while (!template.getIsCanceled().get()) {
+                ParameterizedSql query = lastKey == null ? first : next;
+                Object[] args = lastKey == null ? query.args() : query.args(CriteriaQuery.keysetParameters(lastKey));
+                Page<R> page = getKeysetChunk(template, query.sql().concat(fetch), args, start, fields);
+                Chunk<R> chunk = page.chunk();
+                if (chunk.isNotEmpty()) {
+                    chunks++;
+                    if (inFlight.get() < template.getMaxInFlight() - 1) {
+                        inFlight.incrementAndGet();
+                        CompletableFuture<Void> future = CompletableFuture.runAsync(() -> template.getConsumer().accept(chunk), executor)
+                                .whenComplete((v, e) -> inFlight.decrementAndGet());
+                        consumed = CompletableFuture.allOf(consumed, future); // completed consumers are not retained
+                    } else {
+                        template.getConsumer().accept(chunk);
+                    }
+                }
+                if (chunk.getSize() < template.getFetchSize()) {
+                    break;
+                }
+                lastKey = page.lastKey();
+                start = chunk.getEnd();
+            }
+            int count = chunks;
+            return consumed.thenApply(v -> Collections.<Void>nCopies(count, null));
+        }, executor).thenCompose(Function.identity());
+    }
+
+    /**
+     * Reads data from a table through range partitioning on a numeric or temporal column:
+     * - resolves the column from the template, the key or the indexes of the table
+     * - reads the min and max of the column, cuts [min, max] into disjoint ranges
+     * - fetches the ranges in parallel, at most max in flight at a time, plus the rows where the column is null, each range is one chunk
+     * - returns a future that completed when all chunks are consumed
+     * No count query is issued, chunk ranges are partition numbers: chunk i covers [i - i+1]
+     *
+     * @param template input template
+     * @param executor executor of the read
+     * @param <T>      input type class
+     * @param <R>      return type class
+     * @return a completable future
+     */
+    private <T, R> CompletableFuture<List<Void>> processRange(JdbcReadTemplate<T, R> template, Executor executor) {
+        if (!isBlank(template.getSelect())) {
+            throw new RuntimeException("range partitioning is built from the criteria, a custom select query is not supported");
+        }
+        if (isBlank(template.getSplitBy())) {
+            template.setSplitBy(KeyResolver.splitColumn(template.getClazz(), template.getJdbcTemplate()));
+        }
+        CriteriaQuery<T> criteria = template.getCriteria();
+        CriteriaBuilder cb = criteria.getCriteriaBuilder();
+        Field field = FieldUtils.getField(template.getClazz(), template.getSplitBy(), true);
+        if (field == null) {
+            throw new RuntimeException("split column " + template.getSplitBy() + " is not a field of " + template.getClazz().getSimpleName());
+        }
+        Path<?> column = root(template).get(template.getSplitBy());
+        Class<?> type = field.getType();
+        if (!RangeSplitter.isSplittable(type)) {
+            throw new RuntimeException("split column " + template.getSplitBy() + " should be numeric or temporal");
+        }
+        ParameterizedSql boundsQuery = ParameterizedSql.render(() -> criteria.buildBoundsQuery(column));
+        Object[] bounds = template.getJdbcTemplate().query(boundsQuery.sql(), resultSet -> {
+            resultSet.next();
+            return RangeSplitter.bounds(resultSet, type);
+        }, boundsQuery.args());
+        log.info("ID-{} completed {}, result {}", template.getCorrelationId(), boundsQuery.sql(), Arrays.toString(bounds));
+        List<String> queries = new ArrayList<>();
+        List<Object[]> args = new ArrayList<>();
+        if (bounds != null && bounds[0] != null) {
+            int partitions = template.getPartitions();
+            if (partitions == 0) {
+                partitions = Runtime.getRuntime().availableProcessors();
+                if (template.getFetchSize() > 0 && RangeSplitter.isDiscrete(type)) {
+                    long span = RangeSplitter.span(bounds[0], bounds[1]);
+                    partitions = (int) Math.min(MAX_PARTITIONS, (span + template.getFetchSize() - 1) / template.getFetchSize());
+                }
+            }
+            for (RangeSplitter.Range range : RangeSplitter.split(bounds[0], bounds[1], partitions, type)) {
+                Expression restriction = range.closed()
+                        ? cb.between(column, cb.parameter(), cb.parameter())
+                        : cb.and(cb.ge(column, cb.parameter()), cb.lt(column, cb.parameter()));
+                ParameterizedSql query = criteria.buildParameterizedSelectQuery(restriction);
+                queries.add(query.sql());
+                args.add(query.args(range.lower(), range.upper()));
+            }
+        }
+        ParameterizedSql nulls = criteria.buildParameterizedSelectQuery(cb.isNull(column));
+        queries.add(nulls.sql());
+        args.add(nulls.args());
+        List<Supplier<Chunk<R>>> tasks = new ArrayList<>();
+        final List<FieldMetaData> fields = criteria.getFields();
+        for (int i = 0; i < queries.size(); i++) {
+            final int partition = i;
+            if (template.getSkip() != null && template.getSkip().test(partition, partition + 1)) {
+                continue;
+            }
+            tasks.add(() -> getRangeChunk(template, queries.get(partition), args.get(partition), partition, fields));
+        }
+        List<CompletableFuture<Void>> futures = ChunkDispatcher.dispatch(tasks, template.getConsumer(), executor, template.getMaxInFlight(), template.getIsCanceled());
         return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
                 .thenApply(v -> futures.stream().map(CompletableFuture::join).collect(Collectors.toList()));
     }
 
+    /**
+     * Reads data from a table through a single forward-only cursor:
+     * - opens the select query with autocommit off and a fetch size, so that drivers stream rows instead of buffering the result
+     * - hands a chunk to the consumer every fetch size rows, synchronously, the next rows are read once the chunk is consumed
+     * - returns a future that completed when the cursor is exhausted or the template is canceled
+     * No count query is issued, chunk ranges are row numbers in cursor order
+     *
+     * @param template input template
+     * @param executor executor of the read
+     * @param <T>      input type class
+     * @param <R>      return type class
+     * @return a completable future
+     */
+    private <T, R> CompletableFuture<List<Void>> processStream(JdbcReadTemplate<T, R> template, Executor executor) {
+        prepareSelect(template);
+        if (template.getFetchSize() == 0) {
+            template.setFetchSize(STREAM_CHUNK_SIZE);
+        }
+        final List<FieldMetaData> fields = template.getCriteria().getFields();
+        return CompletableFuture.supplyAsync(() -> cursor(template, resultSet -> stream(template, resultSet, fields)), executor);
+    }
+
+    /**
+     * Reads data from a table through a single forward-only cursor into columnar chunks, see {@link ColumnarChunk}:
+     * rows are not mapped to the template class, each chunk holds fetch size rows in primitive arrays.
+     * Chunks are handed to the consumer synchronously, the next rows are read once the chunk is consumed.
+     *
+     * @param template input template, its consumer is not used
+     * @param consumer columnar chunk consumer
+     * @param <T>      input type class
+     * @param <R>      return type class
+     * @return a completable future, completed with one entry per consumed chunk
+     */
+    public <T, R> CompletableFuture<List<Void>> processColumnar(JdbcReadTemplate<T, R> template, Consumer<ColumnarChunk> consumer) {
+        prepareCursor(template);
+        final List<FieldMetaData> fields = template.getCriteria().getFields();
+        Executor executor = ChunkDispatcher.executor(template.getExecutor(), template.isVirtualThreads(), 1);
+        return CompletableFuture.supplyAsync(() -> cursor(template, resultSet -> streamColumnar(template, resultSet, fields, consumer)), executor)
+                .whenComplete((v, e) -> ChunkDispatcher.release(executor, template.getExecutor()));
+    }
+
+    /**
+     * Reads data from a table through a single forward-only cursor into an off-heap chunk, see {@link OffHeapChunk}:
+     * rows are copied from the cursor into a direct buffer, without creating an object per row.
+     * The same chunk is cleared and refilled for every fetch size rows, it is only valid while the consumer runs,
+     * a consumer passes it to {@link com.ainouss.jdatatools.batch.writer.JdbcChunkWriter#process(com.ainouss.jdatatools.batch.writer.JdbcWriteTemplate, OffHeapChunk)}
+     * or copies what it needs.
+     *
+     * @param template input template, its consumer is not used, its fields should all be supported by {@link RowLayout}
+     * @param consumer off-heap chunk consumer
+     * @param <T>      input type class
+     * @param <R>      return type class
+     * @return a completable future, completed with one entry per consumed chunk
+     */
+    public <T, R> CompletableFuture<List<Void>> processOffHeap(JdbcReadTemplate<T, R> template, Consumer<OffHeapChunk> consumer) {
+        prepareCursor(template);
+        final RowLayout layout = new RowLayout(template.getCriteria().getFields());
+        Executor executor = ChunkDispatcher.executor(template.getExecutor(), template.isVirtualThreads(), 1);
+        return CompletableFuture.supplyAsync(() -> cursor(template, resultSet -> streamOffHeap(template, resultSet, layout, consumer)), executor)
+                .whenComplete((v, e) -> ChunkDispatcher.release(executor, template.getExecutor()));
+    }
+
+    /**
+     * Initializes the criteria, the select query and the fetch size of a streamed read
+     *
+     * @param template read template
+     */
+    private <T, R> void prepareCursor(JdbcReadTemplate<T, R> template) {
+        if (template == null || template.getJdbcTemplate() == null) {
+            throw new RuntimeException("jdbc template (reader) should not be null");
+        }
+        if (template.getCriteria() == null) {
+            CriteriaBuilder cb = EntityRegistry.criteriaBuilder();
+            CriteriaQuery<T> cr = cb.createQuery(template.getClazz());
+            cr.from(template.getClazz());
+            template.setCriteria(cr);
+        }
+        if (template.getClazz() == null) {
+            template.setClazz(template.getCriteria().getResultType());
+        }
+        prepareSelect(template);
+        if (template.getFetchSize() == 0) {
+            template.setFetchSize(STREAM_CHUNK_SIZE);
+        }
+    }
+
+    /**
+     * Opens the select query of a template as a forward-only cursor, with autocommit off and a fetch size,
+     * so that drivers stream rows instead of buffering the result
+     *
+     * @param template read template
+     * @param callback reads the open cursor
+     * @param <X>      result type
+     * @return callback result
+     */
+    private <T, R, X> X cursor(JdbcReadTemplate<T, R> template, ResultSetExtractor<X> callback) {
+        return template.getJdbcTemplate().execute((ConnectionCallback<X>) connection -> {
+            boolean autoCommit = connection.getAutoCommit();
+            if (autoCommit) {
+                connection.setAutoCommit(false);
+            }
+            try (PreparedStatement statement = connection.prepareStatement(template.getSelect(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                statement.setFetchSize(streamFetchSize(connection, template.getFetchSize()));
+                new ArgumentPreparedStatementSetter(args(template)).setValues(statement);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    return callback.extractData(resultSet);
+                }
+            } finally {
+                if (autoCommit) {
+                    connection.rollback();
+                    connection.setAutoCommit(true);
+                }
+            }
+        });
+    }
+
+    /**
+     * Emits the rows of an open cursor columnar chunk by columnar chunk
+     *
+     * @param template  read template
+     * @param resultSet open cursor
+     * @param fields    fields
+     * @param consumer  columnar chunk consumer
+     * @return one entry per consumed chunk
+     * @throws SQLException on fail
+     */
+    private <T, R> List<Void> streamColumnar(JdbcReadTemplate<T, R> template, ResultSet resultSet, List<FieldMetaData> fields,
+                                             Consumer<ColumnarChunk> consumer) throws SQLException {
+        String tableName = QueryBuilder.getTableNameFromSelectQuery(template.getSelect());
+        log.info("ID-{} started streaming columnar records from {}", template.getCorrelationId(), tableName);
+        List<Void> consumed = new ArrayList<>();
+        int[] indexes = CompiledRowMapper.indexes(template.getClazz(), fields, resultSet.getMetaData(), template.getCorrelationId());
+        int start = 0;
+        while (!template.getIsCanceled().get()) {
+            ColumnarChunk chunk = ColumnarChunk.read(resultSet, fields, indexes, template.getFetchSize(), start, template.getCorrelationId());
+            if (chunk.isEmpty() || template.getIsCanceled().get()) {
+                break;
+            }
+            log.info("ID-{} streamed columnar records [{} - {}] from {}", template.getCorrelationId(), chunk.getStart(), chunk.getEnd(), tableName);
+            consumer.accept(chunk);
+            consumed.add(null);
+            start = chunk.getEnd();
+            if (chunk.getSize() < template.getFetchSize()) {
+                break;
+            }
+        }
+        log.info("ID-{} completed streaming {} columnar records from {}", template.getCorrelationId(), start, tableName);
+        return consumed;
+    }
+
+    /**
+     * Emits the rows of an open cursor chunk by chunk
+     *
+     * @param template  read template
+     * @param resultSet open cursor
+     * @param fields    fields
+     * @return one entry per consumed chunk
+     * @throws SQLException on fail
+     */
+    private <T, R> List<Void> stream(JdbcReadTemplate<T, R> template, ResultSet resultSet, List<FieldMetaData> fields) throws SQLException {
+        String tableName = QueryBuilder.getTableNameFromSelectQuery(template.getSelect());
+        log.info("ID-{} started streaming records from {}", template.getCorrelationId(), tableName);
+        List<Void> consumed = new ArrayList<>();
+        List<R> data = new ArrayList<>(template.getFetchSize());
+        RowMapper<T> rows = rowMapper(template, fields, resultSet);
+        int start = 0;
+        while (!template.getIsCanceled().get() && resultSet.next()) {
+            data.add(map(template, rows.mapRow(resultSet, start + data.size())));
+            if (data.size() == template.getFetchSize()) {
+                log.info("ID-{} streamed records [{} - {}] from {}", template.getCorrelationId(), start, start + data.size(), tableName);
+                template.getConsumer().accept(new Chunk<>(data, start, start + data.size()));
+                consumed.add(null);
+                start = start + data.size();
+                data = new ArrayList<>(template.getFetchSize());
+            }
+        }
+        if (!data.isEmpty() && !template.getIsCanceled().get()) {
+            template.getConsumer().accept(new Chunk<>(data, start, start + data.size()));
+            consumed.add(null);
+            start = start + data.size();
+        }
+        log.info("ID-{} completed streaming {} records from {}", template.getCorrelationId(), start, tableName);
+        return consumed;
+    }
+
+    /**
+     * Emits the rows of an open cursor through a single off-heap chunk, refilled after each consumption
+     *
+     * @param template  read template
+     * @param resultSet open cursor
+     * @param layout    row layout
+     * @param consumer  off-heap chunk consumer
+     * @return one entry per consumed chunk
+     * @throws SQLException on fail
+     */
+    private <T, R> List<Void> streamOffHeap(JdbcReadTemplate<T, R> template, ResultSet resultSet, RowLayout layout,
+                                            Consumer<OffHeapChunk> consumer) throws SQLException {
+        String tableName = QueryBuilder.getTableNameFromSelectQuery(template.getSelect());
+        log.info("ID-{} started streaming off-heap records from {}", template.getCorrelationId(), tableName);
+        List<Void> consumed = new ArrayList<>();
+        int[] indexes = CompiledRowMapper.indexes(template.getClazz(), layout.getFields(), resultSet.getMetaData(), template.getCorrelationId());
+        OffHeapChunk chunk = new OffHeapChunk(layout, template.getFetchSize(), 0);
+        while (!template.getIsCanceled().get() && resultSet.next()) {
+            chunk.append(resultSet, indexes, template.getCorrelationId());
+            if (chunk.getSize() == template.getFetchSize()) {
+                log.info("ID-{} streamed off-heap records [{} - {}] from {}, {} bytes", template.getCorrelationId(), chunk.getStart(), chunk.getEnd(), tableName, chunk.getBytes());
+                consumer.accept(chunk);
+                consumed.add(null);
+                chunk.clear(chunk.getEnd());
+            }
+        }
+        if (chunk.isNotEmpty() && !template.getIsCanceled().get()) {
+            consumer.accept(chunk);
+            consumed.add(null);
+        }
+        log.info("ID-{} completed streaming {} off-heap records from {}", template.getCorrelationId(), chunk.getEnd(), tableName);
+        return consumed;
+    }
+
+    /**
+     * MySQL buffers the whole result unless the fetch size is Integer.MIN_VALUE (row by row streaming)
+     *
+     * @param connection connection
+     * @param fetchSize  requested fetch size
+     * @return driver fetch size
+     * @throws SQLException on fail
+     */
+    private static int streamFetchSize(Connection connection, int fetchSize) throws SQLException {
+        String product = connection.getMetaData().getDatabaseProductName();
+        if (product != null && product.toLowerCase(Locale.ROOT).contains("mysql")) {
+            return Integer.MIN_VALUE;
+        }
+        return fetchSize;
+    }
+
+    /**
+     * Root of the template class in the criteria, the one key and split attributes are resolved against
+     *
+     * @param template read template
+     * @return root
+     */
+    private <T, R> Root<?> root(JdbcReadTemplate<T, R> template) {
+        return template.getCriteria().getRoots()
+                .stream()
+                .filter(r -> template.getClazz().equals(r.getJavaType()))
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException(template.getMode() + " read requires " + template.getClazz().getSimpleName() + " in the from clause"));
+    }
+
+    /**
+     * Builds the select query of a template from its criteria if not set, with the literal values of the criteria bound as parameters
+     *
+     * @param template read template
+     */
+    private static <T, R> void prepareSelect(JdbcReadTemplate<T, R> template) {
+        if (isBlank(template.getSelect())) {
+            ParameterizedSql select = template.getCriteria().buildParameterizedSelectQuery();
+            template.setSelect(select.sql());
+            template.setParameters(Arrays.asList(select.args()));
+        }
+    }
+
+    private static Object[] args(JdbcReadTemplate<?, ?> template) {
+        return template.getParameters() == null ? new Object[0] : template.getParameters().toArray();
+    }
+
     /**
      * Select query executor
      *
@@ -106,10 +603,11 @@ public class JdbcChunkReader {
      * @param jdbc          reader jdbc template
      * @param clazz         return type
      * @param correlationId correlation id
+     * @param args          values of the positional parameters of the query
      * @return result
      */
-    public <R> R query(String query, JdbcTemplate jdbc, Class<R> clazz, String correlationId) {
-        R result = jdbc.queryForObject(query, clazz);
+    public <R> R query(String query, JdbcTemplate jdbc, Class<R> clazz, String correlationId, Object... args) {
+        R result = jdbc.queryForObject(query, clazz, args);
         log.info("ID-{} completed {}, result {}", correlationId, query, result);
         return result;
     }
@@ -128,9 +626,7 @@ public class JdbcChunkReader {
         if (template.getCriteria() == null) {
             throw new RuntimeException("criteria should not be null");
         }
-        if (isBlank(template.getSelect())) {
-            template.setSelect(template.getCriteria().buildSelectQuery());
-        }
+        prepareSelect(template);
         if (template.getClazz() == null) {
             template.setClazz(template.getCriteria().getResultType());
         }
@@ -147,8 +643,6 @@ public class JdbcChunkReader {
      */
     private <T, R> Chunk<R> getChunk(JdbcReadTemplate<T, R> template, final int start, List<FieldMetaData> fields) {
         var jdbc = template.getJdbcTemplate();
-        var clazz = template.getClazz();
-        var mapper = template.getMapper();
         String sql = template.getSelect();
         if (!(start == 0 && template.getFetchSize() == 0)) {
             sql = template.getSelect().concat(QueryBuilder.buildOffsetQuery(start, template.getFetchSize()));
@@ -168,15 +662,122 @@ public class JdbcChunkReader {
         if (fields == null) {
             fields = template.getCriteria().getFields();
         }
-        List<FieldMetaData> finalFields = fields;
-        jdbc.query(sql, resultSet -> {
-            do {
-                chunk.getData().add(extract(resultSet, clazz, finalFields, mapper, template.getCorrelationId()));
-            } while (resultSet.next());
-        });
+        jdbc.query(sql, extractor(template, fields, instance -> chunk.getData().add(map(template, instance))), args(template));
         int total = chunk.getData().size();
         log.info("ID-{} completed reading records [{} - {}] from {}", template.getCorrelationId(), start, start + total, tableName);
         return chunk;
     }
 
+    /**
+     * Fetches a keyset page and keeps the key of its last row, the lower bound of the next page
+     *
+     * @param template read template
+     * @param sql      keyset page query
+     * @param args     key of the last row of the previous page, expanded as query parameters
+     * @param start    row number of the first row of the page
+     * @param fields   fields
+     * @return page of data
+     */
+    private <T, R> Page<R> getKeysetChunk(JdbcReadTemplate<T, R> template, String sql, Object[] args, final int start, List<FieldMetaData> fields) {
+        var jdbc = template.getJdbcTemplate();
+        String tableName = QueryBuilder.getTableNameFromSelectQuery(sql);
+        log.info("ID-{} started reading records [{} - ?] from {}", template.getCorrelationId(), start, tableName);
+        List<R> data = new ArrayList<>();
+        List<T> last = new ArrayList<>(1);
+        jdbc.setFetchSize(template.getFetchSize());
+        jdbc.query(sql, extractor(template, fields, instance -> {
+            data.add(map(template, instance));
+            last.clear();
+            last.add(instance);
+        }), args);
+        Chunk<R> chunk = new Chunk<>(data, start, start + data.size());
+        log.info("ID-{} completed reading records [{} - {}] from {}", template.getCorrelationId(), start, chunk.getEnd(), tableName);
+        if (last.isEmpty()) {
+            return new Page<>(chunk, null);
+        }
+        List<Object> lastKey = new ArrayList<>();
+        for (String key : template.getKeys()) {
+            try {
+                lastKey.add(FieldUtils.readField(last.get(0), key, true));
+            } catch (IllegalAccessException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        return new Page<>(chunk, lastKey);
+    }
+
+    /**
+     * Fetches the rows of one range partition
+     *
+     * @param template  read template
+     * @param sql       range query
+     * @param args      range bounds
+     * @param partition partition number
+     * @param fields    fields
+     * @return chunk of data
+     */
+    private <T, R> Chunk<R> getRangeChunk(JdbcReadTemplate<T, R> template, String sql, Object[] args, final int partition, List<FieldMetaData> fields) {
+        var jdbc = template.getJdbcTemplate();
+        String tableName = QueryBuilder.getTableNameFromSelectQuery(sql);
+        log.info("ID-{} started reading partition {} {} from {}", template.getCorrelationId(), partition, Arrays.toString(args), tableName);
+        List<R> data = new ArrayList<>();
+        jdbc.setFetchSize(template.getFetchSize() == 0 ? MIN_CHUNK_SIZE : template.getFetchSize());
+        jdbc.query(sql, extractor(template, fields, instance -> data.add(map(template, instance))), args);
+        log.info("ID-{} completed reading partition {}, {} records from {}", template.getCorrelationId(), partition, data.size(), tableName);
+        return new Chunk<>(data, partition, partition + 1);
+    }
+
+    /**
+     * Maps every row of a result set to the template class, see {@link #rowMapper(JdbcReadTemplate, List, ResultSet)}
+     *
+     * @param template read template
+     * @param fields   fields
+     * @param sink     receives each row
+     * @return result set extractor
+     */
+    private static <T, R> ResultSetExtractor<Void> extractor(JdbcReadTemplate<T, R> template, List<FieldMetaData> fields, Consumer<T> sink) {
+        return resultSet -> {
+            RowMapper<T> rows = rowMapper(template, fields, resultSet);
+            int row = 0;
+            while (resultSet.next()) {
+                sink.accept(rows.mapRow(resultSet, row++));
+            }
+            return null;
+        };
+    }
+
+    /**
+     * Row mapper of the template class for a result set: generated if the template asks for it, compiled otherwise
+     *
+     * @param template  read template
+     * @param fields    fields
+     * @param resultSet result set
+     * @return row mapper
+     * @throws SQLException on fail
+     */
+    private static <T, R> RowMapper<T> rowMapper(JdbcReadTemplate<T, R> template, List<FieldMetaData> fields, ResultSet resultSet) throws SQLException {
+        if (template.isGeneratedMapper()) {
+            return RowMapperGenerator.bind(template.getClazz(), fields, resultSet, template.getCorrelationId());
+        }
+        return CompiledRowMapper.of(template.getClazz(), fields).bind(resultSet, template.getCorrelationId());
+    }
+
+    /**
+     * Applies the template mapper, if any
+     *
+     * @param template read template
+     * @param instance row
+     * @return mapped row
+     */
+    @SuppressWarnings("unchecked")
+    private static <T, R> R map(JdbcReadTemplate<T, R> template, T instance) {
+        return template.getMapper() == null ? (R) instance : template.getMapper().apply(instance);
+    }
+
+    /**
+     * A chunk read through keyset pagination, with the key of its last row
+     */
+    private record Page<R>(Chunk<R> chunk, List<Object> lastKey) {
+    }
+
 }
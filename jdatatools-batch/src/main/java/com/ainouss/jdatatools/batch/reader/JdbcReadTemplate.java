@@ -7,7 +7,10 @@ import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.jdbc.core.JdbcTemplate;
 
+import java.util.List;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiPredicate;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -25,6 +28,10 @@ public class JdbcReadTemplate<T, R> {
      * Select SQL query
      */
     private String select;
+    /**
+     * Values of the positional parameters of the select query, in order, bound values of the criteria if the select is built from it
+     */
+    private List<Object> parameters;
     /**
      * Input Pojo class
      */
@@ -57,6 +64,76 @@ public class JdbcReadTemplate<T, R> {
      */
     private CriteriaQuery<T> criteria;
 
+    /**
+     * Slicing strategy, see {@link ReadMode}
+     */
+    @Builder.Default
+    private ReadMode mode = ReadMode.OFFSET;
+
+    /**
+     * Java attributes of the unique key used by {@link ReadMode#KEYSET}, in order.
+     * Resolved from {@link jakarta.persistence.Id} annotations or the primary key metadata if empty.
+     * {@link ReadMode#INCREMENTAL} prepends the watermark to the key
+     */
+    private List<String> keys;
+
+    /**
+     * Java attribute of the increasing column (timestamp or version) tracked by {@link ReadMode#INCREMENTAL}.
+     * Resolved from the version columns metadata if empty
+     */
+    private String watermark;
+
+    /**
+     * Java attribute of the numeric or temporal column cut in ranges by {@link ReadMode#RANGE}.
+     * Resolved from the key or the indexes of the table if empty
+     */
+    private String splitBy;
+
+    /**
+     * Number of ranges read by {@link ReadMode#RANGE}.
+     * If 0, one range per fetch size values of an integral or date column, one range per processor otherwise
+     */
+    private int partitions;
+
+    /**
+     * Maps rows through a bytecode generated row mapper, see {@link RowMapperGenerator},
+     * rather than the compiled one, see {@link CompiledRowMapper}
+     */
+    private boolean generatedMapper;
+
+    /**
+     * Executor running chunk reads and consumers.
+     * If null, a pool of {@link #maxInFlight} threads (or virtual threads) is created for the read and shut down once it completes
+     */
+    private Executor executor;
+
+    /**
+     * Chunks already processed, tested with the chunk range [start, end): matching chunks are not read.
+     * Applies to {@link ReadMode#OFFSET} rows and {@link ReadMode#RANGE} partitions
+     */
+    private BiPredicate<Integer, Integer> skip;
+
+    /**
+     * Key of the last row already processed, {@link ReadMode#KEYSET} and {@link ReadMode#INCREMENTAL} read the rows after it.
+     * For {@link ReadMode#INCREMENTAL}, the watermark value comes first
+     */
+    private List<Object> startKey;
+
+    /**
+     * Row number of the first row read after {@link #startKey}
+     */
+    private int startRow;
+
+    /**
+     * Max number of chunks read at the same time, defaults to the pool size of the data source
+     */
+    private int maxInFlight;
+
+    /**
+     * Runs each chunk on its own virtual thread when no executor is set, requires Java 21
+     */
+    private boolean virtualThreads;
+
     /**
      * is true, then the processing of the template will be canceled mid-way
      */
@@ -0,0 +1,291 @@
+package com.ainouss.jdatatools.batch.reader;
+
+import com.ainouss.jdatatools.batch.metadata.SqlColumn;
+import com.ainouss.jdatatools.batch.metadata.SqlIndexInfo;
+import com.ainouss.jdatatools.batch.metadata.SqlPrimaryKey;
+import com.ainouss.jdatatools.batch.metadata.SqlVersionColumn;
+import com.ainouss.jdatatools.query.core.FieldMetaData;
+import com.ainouss.jdatatools.query.registery.EntityRegistry;
+import jakarta.persistence.Id;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Field;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Resolves the unique key or the split column of an entity, used to slice a table on its values rather than on row offsets
+ */
+@Slf4j
+@Component
+public class KeyResolver {
+
+    /**
+     * Java attributes of the primary key of an entity, in key order:
+     * - fields annotated with {@link Id}, in declaration order
+     * - otherwise, columns of the table primary key (database metadata), mapped to their attributes
+     *
+     * @param clazz entity
+     * @param jdbc  jdbc template used to read the metadata
+     * @return key attributes
+     */
+    public static List<String> primaryKeys(Class<?> clazz, JdbcTemplate jdbc) {
+        List<String> keys = idFields(clazz);
+        if (!keys.isEmpty()) {
+            return keys;
+        }
+        EntityRegistry.registerClass(clazz);
+        String table = EntityRegistry.getMetadata(clazz).getTable();
+        List<FieldMetaData> fields = EntityRegistry.getSelectableFields(clazz);
+        keys = getPrimaryKeys(jdbc, table)
+                .stream()
+                .map(pk -> fields.stream()
+                        .filter(field -> field.getColumn().equalsIgnoreCase(pk.getColumnName()))
+                        .map(FieldMetaData::getLabel)
+                        .findFirst()
+                        .orElseThrow(() -> new RuntimeException("primary key column " + pk.getColumnName() + " is not mapped in " + clazz.getSimpleName())))
+                .toList();
+        if (keys.isEmpty()) {
+            throw new RuntimeException("Could not resolve a primary key for " + clazz.getSimpleName() + ", annotate the key with @Id or set the template keys");
+        }
+        log.info("resolved primary key {} of {} from database metadata", keys, table);
+        return keys;
+    }
+
+    /**
+     * Java attribute used to cut a table in ranges, the first numeric or temporal column of:
+     * - the fields annotated with {@link Id}
+     * - the table primary key (database metadata)
+     * - the table indexes, unique indexes first (database metadata)
+     *
+     * @param clazz entity
+     * @param jdbc  jdbc template used to read the metadata
+     * @return split attribute
+     */
+    public static String splitColumn(Class<?> clazz, JdbcTemplate jdbc) {
+        EntityRegistry.registerClass(clazz);
+        List<FieldMetaData> fields = EntityRegistry.getSelectableFields(clazz);
+        List<String> ids = idFields(clazz);
+        if (!ids.isEmpty()) {
+            Optional<String> split = splittable(fields, field -> field.getLabel().equals(ids.get(0)));
+            if (split.isPresent()) {
+                return split.get();
+            }
+        }
+        String table = EntityRegistry.getMetadata(clazz).getTable();
+        List<String> columns = new ArrayList<>();
+        getPrimaryKeys(jdbc, table)
+                .stream()
+                .findFirst()
+                .ifPresent(pk -> columns.add(pk.getColumnName()));
+        getIndexInfo(jdbc, table)
+                .stream()
+                .filter(index -> index.getOrdinalPosition() == 1 && index.getColumnName() != null)
+                .sorted(Comparator.comparing(SqlIndexInfo::isNonUnique))
+                .forEach(index -> columns.add(index.getColumnName()));
+        for (String column : columns) {
+            Optional<String> split = splittable(fields, field -> field.getColumn().equalsIgnoreCase(column));
+            if (split.isPresent()) {
+                log.info("resolved split column {} of {} from database metadata", column, table);
+                return split.get();
+            }
+        }
+        throw new RuntimeException("Could not resolve a numeric or temporal key or index for " + clazz.getSimpleName() + ", set the template splitBy");
+    }
+
+    /**
+     * Java attribute of the increasing column tracked by incremental reads, the first column of the version columns metadata
+     * that is not a pseudo column (e.g. a MySQL on update current_timestamp column or a SQL Server rowversion)
+     *
+     * @param clazz entity
+     * @param jdbc  jdbc template used to read the metadata
+     * @return watermark attribute
+     */
+    public static String versionColumn(Class<?> clazz, JdbcTemplate jdbc) {
+        EntityRegistry.registerClass(clazz);
+        List<FieldMetaData> fields = EntityRegistry.getSelectableFields(clazz);
+        String table = EntityRegistry.getMetadata(clazz).getTable();
+        for (SqlVersionColumn version : getVersionColumns(jdbc, table)) {
+            if (version.getPseudoColumn() == DatabaseMetaData.versionColumnPseudo) {
+                continue;
+            }
+            Optional<String> watermark = fields.stream()
+                    .filter(field -> field.getColumn().equalsIgnoreCase(version.getColumnName()))
+                    .map(FieldMetaData::getLabel)
+                    .findFirst();
+            if (watermark.isPresent()) {
+                log.info("resolved watermark column {} of {} from database metadata", version.getColumnName(), table);
+                return watermark.get();
+            }
+        }
+        throw new RuntimeException("Could not resolve a version column for " + clazz.getSimpleName() + ", set the template watermark");
+    }
+
+    /**
+     * Key of an incremental read: the watermark then the unique key, so that rows sharing a watermark value are not skipped
+     *
+     * @param watermark watermark attribute
+     * @param keys      unique key attributes
+     * @return incremental key attributes
+     */
+    public static List<String> incrementalKeys(String watermark, List<String> keys) {
+        if (!keys.isEmpty() && keys.get(0).equals(watermark)) {
+            return keys;
+        }
+        List<String> incremental = new ArrayList<>();
+        incremental.add(watermark);
+        keys.stream().filter(key -> !key.equals(watermark)).forEach(incremental::add);
+        return incremental;
+    }
+
+    private static Optional<String> splittable(List<FieldMetaData> fields, Predicate<FieldMetaData> filter) {
+        return fields.stream()
+                .filter(filter)
+                .filter(field -> RangeSplitter.isSplittable(field.getJavaType()))
+                .map(FieldMetaData::getLabel)
+                .findFirst();
+    }
+
+    /**
+     * Fields annotated with {@link Id}
+     *
+     * @param clazz entity
+     * @return field names, in declaration order
+     */
+    public static List<String> idFields(Class<?> clazz) {
+        return FieldUtils.getFieldsListWithAnnotation(clazz, Id.class)
+                .stream()
+                .map(Field::getName)
+                .toList();
+    }
+
+    /**
+     * Reads the primary key of a table from the database metadata.
+     * The table name is looked up as is, then upper-cased and lower-cased, as catalogs store unquoted names differently
+     *
+     * @param jdbc  jdbc template
+     * @param table table name, optionally prefixed with its schema
+     * @return primary key columns ordered by key sequence, empty if the table has no primary key
+     */
+    public static List<SqlPrimaryKey> getPrimaryKeys(JdbcTemplate jdbc, String table) {
+        List<SqlPrimaryKey> keys = new ArrayList<>(readMetadata(jdbc, table, (metaData, schema, name) -> metaData.getPrimaryKeys(null, schema, name), (resultSet, rowNum) -> {
+            SqlPrimaryKey key = new SqlPrimaryKey();
+            key.setTableCat(resultSet.getString("TABLE_CAT"));
+            key.setTableSchem(resultSet.getString("TABLE_SCHEM"));
+            key.setTableName(resultSet.getString("TABLE_NAME"));
+            key.setColumnName(resultSet.getString("COLUMN_NAME"));
+            key.setKeySeq(resultSet.getShort("KEY_SEQ"));
+            key.setPkName(resultSet.getString("PK_NAME"));
+            return key;
+        }));
+        keys.sort(Comparator.comparing(SqlPrimaryKey::getKeySeq));
+        return keys;
+    }
+
+    /**
+     * Reads the indexes of a table from the database metadata, see {@link #getPrimaryKeys(JdbcTemplate, String)} for name lookup
+     *
+     * @param jdbc  jdbc template
+     * @param table table name, optionally prefixed with its schema
+     * @return index columns, empty if the table has no index
+     */
+    public static List<SqlIndexInfo> getIndexInfo(JdbcTemplate jdbc, String table) {
+        return readMetadata(jdbc, table, (metaData, schema, name) -> metaData.getIndexInfo(null, schema, name, false, true), (resultSet, rowNum) -> {
+            SqlIndexInfo index = new SqlIndexInfo();
+            index.setTableCat(resultSet.getString("TABLE_CAT"));
+            index.setTableSchem(resultSet.getString("TABLE_SCHEM"));
+            index.setTableName(resultSet.getString("TABLE_NAME"));
+            index.setNonUnique(resultSet.getBoolean("NON_UNIQUE"));
+            index.setIndexName(resultSet.getString("INDEX_NAME"));
+            index.setType(resultSet.getShort("TYPE"));
+            index.setOrdinalPosition(resultSet.getShort("ORDINAL_POSITION"));
+            index.setColumnName(resultSet.getString("COLUMN_NAME"));
+            return index;
+        });
+    }
+
+    /**
+     * Reads the columns of a table from the database metadata, see {@link #getPrimaryKeys(JdbcTemplate, String)} for name lookup
+     *
+     * @param jdbc  jdbc template
+     * @param table table name, optionally prefixed with its schema
+     * @return columns ordered by position, empty if the table is not found
+     */
+    public static List<SqlColumn> getColumns(JdbcTemplate jdbc, String table) {
+        List<SqlColumn> columns = new ArrayList<>(readMetadata(jdbc, table, (metaData, schema, name) -> metaData.getColumns(null, schema, name, null), (resultSet, rowNum) -> {
+            SqlColumn column = new SqlColumn();
+            column.setTableCat(resultSet.getString("TABLE_CAT"));
+            column.setTableSchem(resultSet.getString("TABLE_SCHEM"));
+            column.setTableName(resultSet.getString("TABLE_NAME"));
+            column.setColumnName(resultSet.getString("COLUMN_NAME"));
+            column.setDataType(resultSet.getInt("DATA_TYPE"));
+            column.setTypeName(resultSet.getString("TYPE_NAME"));
+            column.setColumnSize(resultSet.getInt("COLUMN_SIZE"));
+            int decimalDigits = resultSet.getInt("DECIMAL_DIGITS");
+            column.setDecimalDigits(resultSet.wasNull() ? null : decimalDigits);
+            column.setNullable(resultSet.getInt("NULLABLE"));
+            column.setOrdinalPosition(resultSet.getInt("ORDINAL_POSITION"));
+            return column;
+        }));
+        columns.sort(Comparator.comparing(SqlColumn::getOrdinalPosition));
+        return columns;
+    }
+
+    /**
+     * Reads the version columns of a table, columns updated whenever a row changes, from the database metadata,
+     * see {@link #getPrimaryKeys(JdbcTemplate, String)} for name lookup
+     *
+     * @param jdbc  jdbc template
+     * @param table table name, optionally prefixed with its schema
+     * @return version columns, empty if the driver reports none
+     */
+    public static List<SqlVersionColumn> getVersionColumns(JdbcTemplate jdbc, String table) {
+        return readMetadata(jdbc, table, (metaData, schema, name) -> metaData.getVersionColumns(null, schema, name), (resultSet, rowNum) -> {
+            SqlVersionColumn column = new SqlVersionColumn();
+            column.setColumnName(resultSet.getString("COLUMN_NAME"));
+            column.setDataType(resultSet.getInt("DATA_TYPE"));
+            column.setTypeName(resultSet.getString("TYPE_NAME"));
+            column.setColumnSize(resultSet.getInt("COLUMN_SIZE"));
+            int decimalDigits = resultSet.getInt("DECIMAL_DIGITS");
+            column.setDecimalDigits(resultSet.wasNull() ? null : decimalDigits);
+            column.setPseudoColumn(resultSet.getShort("PSEUDO_COLUMN"));
+            return column;
+        });
+    }
+
+    private static <M> List<M> readMetadata(JdbcTemplate jdbc, String table, MetadataQuery query, RowMapper<M> mapper) {
+        String schema = table.contains(".") ? table.substring(0, table.lastIndexOf('.')) : null;
+        String name = table.substring(table.lastIndexOf('.') + 1);
+        return Objects.requireNonNull(jdbc.execute((ConnectionCallback<List<M>>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (String candidate : new LinkedHashSet<>(List.of(name, name.toUpperCase(Locale.ROOT), name.toLowerCase(Locale.ROOT)))) {
+                List<M> rows = new ArrayList<>();
+                try (ResultSet resultSet = query.query(metaData, schema, candidate)) {
+                    while (resultSet.next()) {
+                        rows.add(mapper.mapRow(resultSet, rows.size()));
+                    }
+                }
+                if (!rows.isEmpty()) {
+                    return rows;
+                }
+            }
+            return List.of();
+        }));
+    }
+
+    /**
+     * A database metadata lookup on a table
+     */
+    @FunctionalInterface
+    private interface MetadataQuery {
+        ResultSet query(DatabaseMetaData metaData, String schema, String table) throws SQLException;
+    }
+}
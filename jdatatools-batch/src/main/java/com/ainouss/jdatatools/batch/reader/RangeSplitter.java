@@ -0,0 +1,176 @@
+package com.ainouss.jdatatools.batch.reader;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Cuts the [min, max] range of a numeric or temporal column into disjoint sub-ranges.
+ * Integral and date columns are cut into closed ranges (between), decimal and timestamp columns into half-open ranges
+ * (lower inclusive, upper exclusive) except for the last one, so that no value falls between two ranges.
+ */
+public final class RangeSplitter {
+
+    private static final Set<Class<?>> INTEGRAL = Set.of(Long.class, long.class, Integer.class, int.class, Short.class, short.class, Byte.class, byte.class);
+    private static final Set<Class<?>> DECIMAL = Set.of(BigDecimal.class, Double.class, double.class, Float.class, float.class);
+    private static final Set<Class<?>> DATE = Set.of(LocalDate.class, Date.class);
+    private static final Set<Class<?>> TIMESTAMP = Set.of(LocalDateTime.class, Timestamp.class, java.util.Date.class);
+
+    private RangeSplitter() {
+    }
+
+    /**
+     * A sub-range of values, the lower bound is inclusive, the upper bound is inclusive if the range is closed
+     *
+     * @param lower  lower bound
+     * @param upper  upper bound
+     * @param closed true if the upper bound is inclusive
+     */
+    public record Range(Object lower, Object upper, boolean closed) {
+    }
+
+    /**
+     * @param type java type of the column
+     * @return true if the column can be cut in ranges
+     */
+    public static boolean isSplittable(Class<?> type) {
+        return INTEGRAL.contains(type) || DECIMAL.contains(type) || DATE.contains(type) || TIMESTAMP.contains(type);
+    }
+
+    /**
+     * @param type java type of the column
+     * @return true if the values of the column are discrete (integral or date)
+     */
+    public static boolean isDiscrete(Class<?> type) {
+        return INTEGRAL.contains(type) || DATE.contains(type);
+    }
+
+    /**
+     * Reads min and max from the first two columns of the current row of a bounds query.
+     * Values are normalized to Long, BigDecimal, java.sql.Date or java.sql.Timestamp, which are bound as is.
+     *
+     * @param resultSet bounds query result, positioned on its row
+     * @param type      java type of the column
+     * @return min and max, null values if the table is empty
+     * @throws SQLException on fail
+     */
+    public static Object[] bounds(ResultSet resultSet, Class<?> type) throws SQLException {
+        return new Object[]{bound(resultSet, 1, type), bound(resultSet, 2, type)};
+    }
+
+    private static Object bound(ResultSet resultSet, int index, Class<?> type) throws SQLException {
+        if (DATE.contains(type)) {
+            return resultSet.getDate(index);
+        }
+        if (TIMESTAMP.contains(type)) {
+            return resultSet.getTimestamp(index);
+        }
+        Object value = resultSet.getObject(index);
+        if (value == null) {
+            return null;
+        }
+        if (INTEGRAL.contains(type)) {
+            return ((Number) value).longValue();
+        }
+        if (DECIMAL.contains(type)) {
+            return new BigDecimal(value.toString());
+        }
+        throw new IllegalArgumentException("column of type " + type.getSimpleName() + " can not be split in ranges");
+    }
+
+    /**
+     * Number of distinct values between two discrete bounds
+     *
+     * @param min lower bound, as returned by {@link #bounds(ResultSet, Class)}
+     * @param max upper bound
+     * @return number of values, inclusive
+     */
+    public static long span(Object min, Object max) {
+        return toLong(max) - toLong(min) + 1;
+    }
+
+    /**
+     * Cuts [min, max] into at most {@code partitions} disjoint ranges covering every value
+     *
+     * @param min        lower bound, as returned by {@link #bounds(ResultSet, Class)}
+     * @param max        upper bound
+     * @param partitions number of ranges
+     * @param type       java type of the column
+     * @return ranges, in ascending order
+     */
+    public static List<Range> split(Object min, Object max, int partitions, Class<?> type) {
+        if (partitions < 1) {
+            throw new IllegalArgumentException("partitions should be positive");
+        }
+        if (isDiscrete(type)) {
+            return splitDiscrete(toLong(min), toLong(max), partitions, DATE.contains(type));
+        }
+        if (DECIMAL.contains(type)) {
+            return splitDecimal((BigDecimal) min, (BigDecimal) max, partitions);
+        }
+        return splitTimestamp((Timestamp) min, (Timestamp) max, partitions);
+    }
+
+    private static List<Range> splitDiscrete(long min, long max, int partitions, boolean date) {
+        List<Range> ranges = new ArrayList<>();
+        long span = max - min + 1;
+        long size = span <= 0 ? Long.MAX_VALUE : (span + partitions - 1) / partitions;
+        long lower = min;
+        while (true) {
+            long upper = max - lower < size ? max : lower + size - 1;
+            ranges.add(date ? new Range(Date.valueOf(LocalDate.ofEpochDay(lower)), Date.valueOf(LocalDate.ofEpochDay(upper)), true)
+                    : new Range(lower, upper, true));
+            if (upper == max) {
+                return ranges;
+            }
+            lower = upper + 1;
+        }
+    }
+
+    private static List<Range> splitDecimal(BigDecimal min, BigDecimal max, int partitions) {
+        List<Range> ranges = new ArrayList<>();
+        BigDecimal step = max.subtract(min).divide(BigDecimal.valueOf(partitions), Math.max(min.scale(), max.scale()) + 6, RoundingMode.HALF_UP);
+        if (step.signum() == 0) {
+            return List.of(new Range(min, max, true));
+        }
+        BigDecimal lower = min;
+        for (int i = 1; i < partitions; i++) {
+            BigDecimal upper = min.add(step.multiply(BigDecimal.valueOf(i)));
+            ranges.add(new Range(lower, upper, false));
+            lower = upper;
+        }
+        ranges.add(new Range(lower, max, true));
+        return ranges;
+    }
+
+    private static List<Range> splitTimestamp(Timestamp min, Timestamp max, int partitions) {
+        List<Range> ranges = new ArrayList<>();
+        long step = (max.getTime() - min.getTime()) / partitions;
+        if (step == 0) {
+            return List.of(new Range(min, max, true));
+        }
+        Timestamp lower = min;
+        for (int i = 1; i < partitions; i++) {
+            Timestamp upper = new Timestamp(min.getTime() + step * i);
+            ranges.add(new Range(lower, upper, false));
+            lower = upper;
+        }
+        ranges.add(new Range(lower, max, true));
+        return ranges;
+    }
+
+    private static long toLong(Object value) {
+        if (value instanceof Date date) {
+            return date.toLocalDate().toEpochDay();
+        }
+        return ((Number) value).longValue();
+    }
+}
@@ -0,0 +1,35 @@
+package com.ainouss.jdatatools.batch.reader;
+
+/**
+ * Strategy used by {@link JdbcChunkReader} to slice a query into chunks
+ */
+public enum ReadMode {
+    /**
+     * Counts the rows, then reads chunks in parallel with offset / fetch next.
+     * Each chunk scans and discards the rows before its offset.
+     */
+    OFFSET,
+    /**
+     * Reads chunks sequentially, each chunk starts right after the last key of the previous chunk
+     * (where key > last seen order by key fetch first n rows), every chunk costs the same whatever its depth.
+     * Requires a unique key, see {@link JdbcReadTemplate#getKeys()}.
+     */
+    KEYSET,
+    /**
+     * Reads the min and max of a numeric or temporal column, cuts [min, max] into disjoint ranges
+     * and reads the ranges in parallel (where column between lower and upper), plus the rows where the column is null.
+     * No count query is issued and no row is scanned twice, see {@link JdbcReadTemplate#getSplitBy()}.
+     */
+    RANGE,
+    /**
+     * Opens a single forward-only cursor and hands a chunk to the consumer every fetch size rows, on the reading thread.
+     * No count query is issued, memory is bounded by one chunk and the first chunk is consumed as soon as it is read.
+     */
+    STREAM,
+    /**
+     * Keyset read ordered by an increasing watermark column (timestamp or version) then the unique key,
+     * starting after the watermark reached by the previous run, see {@link JdbcReadTemplate#getWatermark()} and {@link JdbcReadTemplate#getStartKey()}.
+     * Only the rows changed since the previous run are read, rows with a null watermark are not read.
+     */
+    INCREMENTAL
+}
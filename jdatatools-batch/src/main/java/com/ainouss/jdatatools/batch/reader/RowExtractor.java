@@ -1,23 +1,25 @@
 package com.ainouss.jdatatools.batch.reader;
 
-import com.ainouss.jdatatools.batch.mapping.JdbcToJavaTypeMapping;
 import com.ainouss.jdatatools.query.core.FieldMetaData;
+import jakarta.persistence.Column;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.reflect.FieldUtils;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Component;
 
+import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
 import java.math.BigDecimal;
 import java.sql.*;
-import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.function.Function;
 
@@ -31,26 +33,63 @@ public class RowExtractor {
     final static DateTimeFormatter dtf = DateTimeFormatter.ofPattern("yyyy-MM-dd");
     final static DateTimeFormatter dtmf = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
+    private static final ColumnExtractor OBJECT = (resultSet, index, correlationId) -> resultSet.getObject(index);
+
+    private static final Map<Class<?>, ColumnExtractor> EXTRACTORS = Map.ofEntries(
+            Map.entry(String.class, (resultSet, index, correlationId) -> trimToNull(resultSet.getString(index))),
+            Map.entry(Double.class, (resultSet, index, correlationId) -> getaDouble(resultSet, index)),
+            Map.entry(double.class, (resultSet, index, correlationId) -> getaDouble(resultSet, index)),
+            Map.entry(Float.class, (resultSet, index, correlationId) -> getFloat(resultSet, index)),
+            Map.entry(float.class, (resultSet, index, correlationId) -> getFloat(resultSet, index)),
+            Map.entry(Long.class, (resultSet, index, correlationId) -> getLong(resultSet, index)),
+            Map.entry(long.class, (resultSet, index, correlationId) -> getLong(resultSet, index)),
+            Map.entry(Integer.class, (resultSet, index, correlationId) -> getInteger(resultSet, index)),
+            Map.entry(int.class, (resultSet, index, correlationId) -> getInteger(resultSet, index)),
+            Map.entry(Short.class, (resultSet, index, correlationId) -> getShort(resultSet, index)),
+            Map.entry(short.class, (resultSet, index, correlationId) -> getShort(resultSet, index)),
+            Map.entry(Byte.class, (resultSet, index, correlationId) -> getByte(resultSet, index)),
+            Map.entry(byte.class, (resultSet, index, correlationId) -> getByte(resultSet, index)),
+            Map.entry(Boolean.class, (resultSet, index, correlationId) -> getBoolean(resultSet, index)),
+            Map.entry(boolean.class, (resultSet, index, correlationId) -> getBoolean(resultSet, index)),
+            Map.entry(BigDecimal.class, (resultSet, index, correlationId) -> getBigDecimal(resultSet, index)),
+            Map.entry(byte[].class, (resultSet, index, correlationId) -> getBytes(resultSet, index)),
+            Map.entry(LocalDateTime.class, RowExtractor::getLocalDateTime),
+            Map.entry(LocalDate.class, RowExtractor::getLocalDate),
+            Map.entry(Date.class, RowExtractor::getSqlDate),
+            Map.entry(Time.class, RowExtractor::getSqlTime),
+            Map.entry(Timestamp.class, RowExtractor::getSqlTimeStamp));
+
     public RowExtractor() {
     }
 
+    /**
+     * Maps every row of a result set to a class, columns are matched to fields by {@link Column} name, or by field name.
+     * Fields without a matching column are left unset, the result set is closed.
+     *
+     * @param resultSet result set, before its first row
+     * @param clazz     target
+     * @param <R>       type
+     * @return records
+     * @throws SQLException on fail
+     */
     public static <R> List<R> asList(ResultSet resultSet, Class<R> clazz) throws SQLException {
         List<R> data = new ArrayList<>();
         String uuid = UUID.randomUUID().toString();
-        ResultSetMetaData metaData = resultSet.getMetaData();
-        int columnCount = metaData.getColumnCount();
         List<FieldMetaData> fields = new ArrayList<>();
-        for (int i = 1; i <= columnCount; i++) {
-            FieldMetaData fieldMetaData = new FieldMetaData();
-            fieldMetaData.setLabel(metaData.getColumnLabel(i));
-            fieldMetaData.setColumn(metaData.getColumnName(i));
-            fieldMetaData.setJavaType(JdbcToJavaTypeMapping.getJavaType(metaData.getColumnType(i)));
-            fields.add(fieldMetaData);
+        for (Field field : FieldUtils.getAllFieldsList(clazz)) {
+            if (Modifier.isStatic(field.getModifiers()) || Modifier.isFinal(field.getModifiers())) {
+                continue;
+            }
+            Column column = field.getAnnotation(Column.class);
+            String name = column == null || isBlank(column.name()) ? field.getName() : column.name();
+            fields.add(new FieldMetaData(field.getName(), name, field.getType()));
         }
-        while (resultSet.next()) {
-            data.add(extract(resultSet, clazz, fields, null, uuid));
+        try (resultSet) {
+            RowMapper<R> rowMapper = CompiledRowMapper.of(clazz, fields).bind(resultSet, uuid);
+            while (resultSet.next()) {
+                data.add(rowMapper.mapRow(resultSet, data.size()));
+            }
         }
-        resultSet.close();
         return data;
     }
 
@@ -103,41 +142,70 @@ public class RowExtractor {
     }
 
     /**
-     * Extract a field value
+     * Extract a field value by column label
      *
      * @param resultSet     current resultset
+     * @param name          column label
      * @param correlationId correlation id
      * @return Value of the field as object
      */
     public static Object extractField(ResultSet resultSet, String name, Class<?> fieldType, String correlationId) throws SQLException {
-        if (fieldType.equals(String.class)) {
-            return trimToNull(resultSet.getString(name));
-        } else if (fieldType.equals(Double.class)) {
-            return getaDouble(resultSet, name);
-        } else if (fieldType.equals(LocalDateTime.class)) {
-            return getLocalDateTime(resultSet, name, correlationId);
-        } else if (fieldType.equals(Date.class)) {
-            return getSqlDate(resultSet, name, correlationId);
-        } else if (fieldType.equals(Time.class)) {
-            return getSqlTime(resultSet, name, correlationId);
-        } else if (fieldType.equals(Timestamp.class)) {
-            return getSqlTimeStamp(resultSet, name, correlationId);
-        } else if (fieldType.equals(LocalDate.class)) {
-            return getLocalDate(resultSet, name, correlationId);
-        } else if (fieldType.equals(Long.class)) {
-            return getLong(resultSet, name);
-        } else if (fieldType.equals(BigDecimal.class)) {
-            return getBigDecimal(resultSet, name);
-        } else if (fieldType.equals(Boolean.class)) {
-            return getBoolean(resultSet, name);
-        } else if (fieldType.equals(Integer.class)) {
-            return getInteger(resultSet, name);
-        } else if (fieldType.equals(Float.class)) {
-            return getFloat(resultSet, name);
-        } else if (fieldType.equals(byte[].class)) {
-            return getBytes(resultSet, name);
+        return extractField(resultSet, resultSet.findColumn(name), fieldType, correlationId);
+    }
+
+    /**
+     * Extract a field value by column index
+     *
+     * @param resultSet     current resultset
+     * @param index         column index
+     * @param correlationId correlation id
+     * @return Value of the field as object
+     */
+    public static Object extractField(ResultSet resultSet, int index, Class<?> fieldType, String correlationId) throws SQLException {
+        return extractor(fieldType).extract(resultSet, index, correlationId);
+    }
+
+    /**
+     * Typed column reader of a field type, to be resolved once per field rather than per cell.
+     * Primitive types share the reader of their wrapper, unknown types are read with getObject.
+     *
+     * @param fieldType field type
+     * @return column extractor
+     */
+    public static ColumnExtractor extractor(Class<?> fieldType) {
+        return EXTRACTORS.getOrDefault(fieldType, OBJECT);
+    }
+
+    /**
+     * Extract Short from ResultSet
+     *
+     * @param resultSet result set
+     * @param index     column index
+     * @return Short
+     * @throws SQLException on fail
+     */
+    private static Short getShort(ResultSet resultSet, int index) throws SQLException {
+        var s = resultSet.getShort(index);
+        if (resultSet.wasNull()) {
+            return null;
+        }
+        return s;
+    }
+
+    /**
+     * Extract Byte from ResultSet
+     *
+     * @param resultSet result set
+     * @param index     column index
+     * @return Byte
+     * @throws SQLException on fail
+     */
+    private static Byte getByte(ResultSet resultSet, int index) throws SQLException {
+        var b = resultSet.getByte(index);
+        if (resultSet.wasNull()) {
+            return null;
         }
-        return resultSet.getObject(name);
+        return b;
     }
 
 
@@ -145,21 +213,21 @@ public class RowExtractor {
      * Extract Float from ResultSet
      *
      * @param resultSet result set
-     * @param name      field name
+     * @param index     column index
      * @return LocalDate
      * @throws SQLException on fail
      */
 
-    private static Float getFloat(ResultSet resultSet, String name) throws SQLException {
-        var f = resultSet.getFloat(name);
+    private static Float getFloat(ResultSet resultSet, int index) throws SQLException {
+        var f = resultSet.getFloat(index);
         if (resultSet.wasNull()) {
             return null;
         }
         return f;
     }
 
-    private static byte[] getBytes(ResultSet resultSet, String name) throws SQLException {
-        var b = resultSet.getBytes(name);
+    private static byte[] getBytes(ResultSet resultSet, int index) throws SQLException {
+        var b = resultSet.getBytes(index);
         if (resultSet.wasNull()) {
             return null;
         }
@@ -170,13 +238,13 @@ public class RowExtractor {
      * Extract Integer from ResultSet
      *
      * @param resultSet result set
-     * @param name      field name
+     * @param index     column index
      * @return LocalDate
      * @throws SQLException on fail
      */
 
-    private static Integer getInteger(ResultSet resultSet, String name) throws SQLException {
-        var i = resultSet.getInt(name);
+    private static Integer getInteger(ResultSet resultSet, int index) throws SQLException {
+        var i = resultSet.getInt(index);
         if (resultSet.wasNull()) {
             return null;
         }
@@ -187,13 +255,13 @@ public class RowExtractor {
      * Extract Boolean from ResultSet
      *
      * @param resultSet result set
-     * @param name      field name
+     * @param index     column index
      * @return LocalDate
      * @throws SQLException on fail
      */
 
-    private static Boolean getBoolean(ResultSet resultSet, String name) throws SQLException {
-        var b = resultSet.getBoolean(name);
+    private static Boolean getBoolean(ResultSet resultSet, int index) throws SQLException {
+        var b = resultSet.getBoolean(index);
         if (resultSet.wasNull()) {
             return null;
         }
@@ -204,13 +272,13 @@ public class RowExtractor {
      * Extract BigDecimal from ResultSet
      *
      * @param resultSet result set
-     * @param name      field name
+     * @param index     column index
      * @return LocalDate
      * @throws SQLException on fail
      */
 
-    private static BigDecimal getBigDecimal(ResultSet resultSet, String name) throws SQLException {
-        BigDecimal b = resultSet.getBigDecimal(name);
+    private static BigDecimal getBigDecimal(ResultSet resultSet, int index) throws SQLException {
+        BigDecimal b = resultSet.getBigDecimal(index);
         if (resultSet.wasNull()) {
             return null;
         }
@@ -221,12 +289,12 @@ public class RowExtractor {
      * Extract Long from ResultSet
      *
      * @param resultSet result set
-     * @param name      field name
+     * @param index     column index
      * @return LocalDate
      * @throws SQLException on fail
      */
-    private static Long getLong(ResultSet resultSet, String name) throws SQLException {
-        long l = resultSet.getLong(name);
+    private static Long getLong(ResultSet resultSet, int index) throws SQLException {
+        long l = resultSet.getLong(index);
         if (resultSet.wasNull()) {
             return null;
         }
@@ -237,12 +305,12 @@ public class RowExtractor {
      * Extract Double from ResultSet
      *
      * @param resultSet result set
-     * @param name      field name
+     * @param index     column index
      * @return LocalDate
      * @throws SQLException on fail
      */
-    private static Double getaDouble(ResultSet resultSet, String name) throws SQLException {
-        double d = resultSet.getDouble(name);
+    private static Double getaDouble(ResultSet resultSet, int index) throws SQLException {
+        double d = resultSet.getDouble(index);
         if (resultSet.wasNull()) {
             return null;
         }
@@ -253,25 +321,22 @@ public class RowExtractor {
      * Extract local date time from ResultSet
      *
      * @param resultSet     result set
-     * @param name          field name
+     * @param index         column index
      * @param correlationId correlation ID
      * @return LocalDate
      * @throws SQLException on fail
      */
-    private static LocalDateTime getLocalDateTime(ResultSet resultSet, String name, String correlationId) throws SQLException {
-        Date date;
+    private static LocalDateTime getLocalDateTime(ResultSet resultSet, int index, String correlationId) throws SQLException {
+        Timestamp date;
         try {
-            date = resultSet.getDate(name);
+            date = resultSet.getTimestamp(index);
             if (date == null) {
                 return null;
             }
-            long time = date.getTime();
-            return Instant.ofEpochMilli(time)
-                    .atZone(ZoneId.systemDefault())
-                    .toLocalDateTime();
+            return date.toLocalDateTime();
         } catch (SQLException e) {
-            String strDate = resultSet.getString(name);
-            log.error("ID-{} could not extract value for field {} of type LocalDateTime with value : {}, error :{} ", correlationId, name, strDate, e.getMessage());
+            String strDate = resultSet.getString(index);
+            log.error("ID-{} could not extract value for field {} of type LocalDateTime with value : {}, error :{} ", correlationId, label(resultSet, index), strDate, e.getMessage());
             return parseLocalDateTime(strDate);
         }
     }
@@ -280,17 +345,17 @@ public class RowExtractor {
      * Extract SQL date time from ResultSet
      *
      * @param resultSet     result set
-     * @param name          field name
+     * @param index         column index
      * @param correlationId correlation ID
      * @return java.sql.Date
      * @throws SQLException on fail
      */
-    private static Date getSqlDate(ResultSet resultSet, String name, String correlationId) throws SQLException {
+    private static Date getSqlDate(ResultSet resultSet, int index, String correlationId) throws SQLException {
         try {
-            return resultSet.getDate(name);
+            return resultSet.getDate(index);
         } catch (SQLException e) {
-            String strDate = resultSet.getString(name);
-            log.error("ID-{} could not extract value for field {} of type Date with value : {}, error :{} ", correlationId, name, strDate, e.getMessage());
+            String strDate = resultSet.getString(index);
+            log.error("ID-{} could not extract value for field {} of type Date with value : {}, error :{} ", correlationId, label(resultSet, index), strDate, e.getMessage());
             return Date.valueOf(strDate);
         }
     }
@@ -299,19 +364,19 @@ public class RowExtractor {
      * Extract SQL time from ResultSet
      *
      * @param resultSet     result set
-     * @param name          field name
+     * @param index         column index
      * @param correlationId correlation ID
      * @return java.sql.Date
      * @throws SQLException on fail
      */
-    private static Time getSqlTime(ResultSet resultSet, String name, String correlationId) throws SQLException {
+    private static Time getSqlTime(ResultSet resultSet, int index, String correlationId) throws SQLException {
         Time date;
         try {
-            date = resultSet.getTime(name);
+            date = resultSet.getTime(index);
             return date;
         } catch (SQLException e) {
-            String strDate = resultSet.getString(name);
-            log.error("ID-{} could not extract value for field {} of type Time with value : {}, error :{} ", correlationId, name, strDate, e.getMessage());
+            String strDate = resultSet.getString(index);
+            log.error("ID-{} could not extract value for field {} of type Time with value : {}, error :{} ", correlationId, label(resultSet, index), strDate, e.getMessage());
             return Time.valueOf(strDate);
         }
     }
@@ -320,19 +385,19 @@ public class RowExtractor {
      * Extract local date timestamp from ResultSet
      *
      * @param resultSet     result set
-     * @param name          field name
+     * @param index         column index
      * @param correlationId correlation ID
      * @return java.sql.Date
      * @throws SQLException on fail
      */
-    private static Timestamp getSqlTimeStamp(ResultSet resultSet, String name, String correlationId) throws SQLException {
+    private static Timestamp getSqlTimeStamp(ResultSet resultSet, int index, String correlationId) throws SQLException {
         Timestamp date;
         try {
-            date = resultSet.getTimestamp(name);
+            date = resultSet.getTimestamp(index);
             return date;
         } catch (SQLException e) {
-            String strDate = resultSet.getString(name);
-            log.error("ID-{} could not extract value for field {} of type Timestamp with value : {}, error :{} ", correlationId, name, strDate, e.getMessage());
+            String strDate = resultSet.getString(index);
+            log.error("ID-{} could not extract value for field {} of type Timestamp with value : {}, error :{} ", correlationId, label(resultSet, index), strDate, e.getMessage());
             return Timestamp.valueOf(strDate);
         }
     }
@@ -341,23 +406,48 @@ public class RowExtractor {
      * Extract local date from ResultSet
      *
      * @param resultSet     result set
-     * @param name          field name
+     * @param index         column index
      * @param correlationId correlation id
      * @return LocalDate
      * @throws SQLException on fail
      */
-    public static LocalDate getLocalDate(ResultSet resultSet, String name, String correlationId) throws SQLException {
+    public static LocalDate getLocalDate(ResultSet resultSet, int index, String correlationId) throws SQLException {
         Date date;
         try {
-            date = resultSet.getDate(name);
+            date = resultSet.getDate(index);
             return date == null ? null : date.toLocalDate();
         } catch (SQLException e) {
-            String strDate = resultSet.getString(name);
-            log.error("ID-{} could not extract value for field {} of type LocalDate with value : {}, error :{} ", correlationId, name, strDate, e.getMessage());
+            String strDate = resultSet.getString(index);
+            log.error("ID-{} could not extract value for field {} of type LocalDate with value : {}, error :{} ", correlationId, label(resultSet, index), strDate, e.getMessage());
             return parseLocalDate(strDate);
         }
     }
 
+    /**
+     * Extract local date from ResultSet
+     *
+     * @param resultSet     result set
+     * @param name          column label
+     * @param correlationId correlation id
+     * @return LocalDate
+     * @throws SQLException on fail
+     */
+    public static LocalDate getLocalDate(ResultSet resultSet, String name, String correlationId) throws SQLException {
+        return getLocalDate(resultSet, resultSet.findColumn(name), correlationId);
+    }
+
+    /**
+     * Label of a column, for logging
+     *
+     * @param resultSet result set
+     * @param index     column index
+     * @return column label
+     * @throws SQLException on fail
+     */
+    private static String label(ResultSet resultSet, int index) throws SQLException {
+        return resultSet.getMetaData().getColumnLabel(index);
+    }
+
     /**
      * Read date time
      *
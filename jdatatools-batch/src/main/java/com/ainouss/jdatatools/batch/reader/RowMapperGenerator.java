@@ -0,0 +1,277 @@
+package com.ainouss.jdatatools.batch.reader;
+
+import com.ainouss.jdatatools.query.core.FieldMetaData;
+import com.ainouss.jdatatools.query.util.DataUtils;
+import lombok.extern.slf4j.Slf4j;
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.asm.AsmVisitorWrapper;
+import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+import net.bytebuddy.dynamic.loading.MultipleParentClassLoader;
+import net.bytebuddy.dynamic.scaffold.subclass.ConstructorStrategy;
+import net.bytebuddy.implementation.Implementation;
+import net.bytebuddy.implementation.bytecode.ByteCodeAppender;
+import net.bytebuddy.jar.asm.ClassWriter;
+import net.bytebuddy.jar.asm.Label;
+import net.bytebuddy.jar.asm.MethodVisitor;
+import net.bytebuddy.jar.asm.Opcodes;
+import net.bytebuddy.jar.asm.Type;
+import org.apache.commons.lang3.ClassUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static net.bytebuddy.matcher.ElementMatchers.named;
+
+/**
+ * Generates a concrete {@link RowMapper} class per class and mapped column signature with ByteBuddy, keeping the {@link #MAX_MAPPERS} last used.
+ * The generated mapRow instantiates the class and, for each field, calls the typed getter by column index,
+ * checks wasNull and calls the public setter: no reflection, no boxing dispatch, no name lookup, so the JIT can inline the row loop.
+ * Classes without public setters, or with field types not handled here, fall back to {@link CompiledRowMapper}.
+ * Unlike the compiled mapper, a value the driver can not convert fails the row instead of being logged and skipped,
+ * temporal columns excepted, see {@link GeneratedRowMapper#value(ResultSet, int, Class)}.
+ */
+@Slf4j
+public final class RowMapperGenerator {
+
+    static final int MAX_MAPPERS = 256;
+    /**
+     * Generated mapper constructors by class and mapped columns, the least recently used is evicted once the cache is full
+     * so its class loader and generated class can be collected
+     */
+    private static final Map<Key, Optional<MethodHandle>> CACHE = Collections.synchronizedMap(new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Optional<MethodHandle>> eldest) {
+            return size() > MAX_MAPPERS;
+        }
+    });
+
+    private static final AtomicInteger COUNTER = new AtomicInteger();
+
+    private static final Set<Class<?>> PRIMITIVES = Set.of(long.class, int.class, short.class, byte.class, double.class, float.class, boolean.class);
+
+    private static final Set<Class<?>> OBJECTS = Set.of(String.class, BigDecimal.class, byte[].class);
+
+    private static final Set<Class<?>> TEMPORALS = Set.of(LocalDate.class, LocalDateTime.class, Date.class, Time.class, Timestamp.class);
+
+    private static final String RESULT_SET = Type.getInternalName(ResultSet.class);
+
+    private RowMapperGenerator() {
+    }
+
+    /**
+     * Row mapper of a class for a result set, generated on first use for its column layout
+     *
+     * @param clazz         target
+     * @param fields        fields
+     * @param resultSet     result set
+     * @param correlationId correlation id
+     * @param <T>           type
+     * @return row mapper, valid for this result set
+     * @throws SQLException on fail
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> RowMapper<T> bind(Class<T> clazz, List<FieldMetaData> fields, ResultSet resultSet, String correlationId) throws SQLException {
+        int[] indexes = CompiledRowMapper.indexes(clazz, fields, resultSet.getMetaData(), correlationId);
+        Key key = key(clazz, fields, indexes);
+        Optional<MethodHandle> constructor = CACHE.get(key);
+        if (constructor == null) {
+            Optional<MethodHandle> generated = generate(clazz, fields, indexes);
+            constructor = Optional.ofNullable(CACHE.putIfAbsent(key, generated)).orElse(generated);
+        }
+        if (constructor.isEmpty()) {
+            return CompiledRowMapper.of(clazz, fields).bind(resultSet, correlationId);
+        }
+        try {
+            return (RowMapper<T>) constructor.get().invoke(correlationId);
+        } catch (Throwable e) {
+            throw new RuntimeException("Could not instantiate the generated row mapper of " + clazz.getSimpleName(), e);
+        }
+    }
+
+    /**
+     * Column signature of a layout: only the mapped fields, with their column index and type, shape the generated code
+     */
+    private static Key key(Class<?> clazz, List<FieldMetaData> fields, int[] indexes) {
+        List<String> columns = new ArrayList<>();
+        for (int i = 0; i < fields.size(); i++) {
+            if (indexes[i] != 0) {
+                columns.add(indexes[i] + ":" + fields.get(i).getLabel() + ":" + fields.get(i).getJavaType().getName());
+            }
+        }
+        return new Key(clazz, List.copyOf(columns));
+    }
+
+    /**
+     * Number of cached mappers, for tests
+     */
+    static int size() {
+        return CACHE.size();
+    }
+
+    private static Optional<MethodHandle> generate(Class<?> clazz, List<FieldMetaData> fields, int[] indexes) {
+        List<Method> setters = new ArrayList<>();
+        for (int i = 0; i < fields.size(); i++) {
+            Method setter = indexes[i] == 0 ? null : setter(clazz, fields.get(i));
+            if (indexes[i] != 0 && setter == null) {
+                log.info("no public setter of a supported type for {}.{}, falling back to the compiled row mapper", clazz.getSimpleName(), fields.get(i).getLabel());
+                return Optional.empty();
+            }
+            setters.add(setter);
+        }
+        try {
+            if (!Modifier.isPublic(clazz.getModifiers()) || !Modifier.isPublic(clazz.getConstructor().getModifiers())) {
+                return Optional.empty();
+            }
+            Class<?> type = new ByteBuddy()
+                    .subclass(TypeDescription.Generic.Builder.parameterizedType(GeneratedRowMapper.class, clazz).build(), ConstructorStrategy.Default.IMITATE_SUPER_CLASS_OPENING)
+                    .name(clazz.getName() + "$RowMapper$" + COUNTER.incrementAndGet())
+                    .method(named("mapRow"))
+                    .intercept(new Implementation.Simple(new MapRow(clazz, indexes, setters)))
+                    .visit(new AsmVisitorWrapper.ForDeclaredMethods().writerFlags(ClassWriter.COMPUTE_FRAMES))
+                    .make()
+                    .load(new MultipleParentClassLoader.Builder().append(clazz, GeneratedRowMapper.class).build(), ClassLoadingStrategy.Default.WRAPPER)
+                    .getLoaded();
+            log.info("generated row mapper {}", type.getName());
+            return Optional.of(MethodHandles.publicLookup()
+                    .findConstructor(type, MethodType.methodType(void.class, String.class))
+                    .asType(MethodType.methodType(Object.class, String.class)));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            log.info("could not generate a row mapper for {}, falling back to the compiled row mapper: {}", clazz.getSimpleName(), e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Public setter of a field, if its type can be read directly
+     */
+    private static Method setter(Class<?> clazz, FieldMetaData fieldMetaData) {
+        Field field = FieldUtils.getField(clazz, fieldMetaData.getLabel(), true);
+        if (field == null || !isSupported(field.getType()) || !ClassUtils.primitiveToWrapper(field.getType()).equals(ClassUtils.primitiveToWrapper(fieldMetaData.getJavaType()))) {
+            return null;
+        }
+        try {
+            return clazz.getMethod("set" + StringUtils.capitalize(field.getName()), field.getType());
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static boolean isSupported(Class<?> type) {
+        Class<?> primitive = type.isPrimitive() ? type : ClassUtils.wrapperToPrimitive(type);
+        return (primitive != null && PRIMITIVES.contains(primitive)) || OBJECTS.contains(type) || TEMPORALS.contains(type);
+    }
+
+    /**
+     * Body of mapRow(ResultSet, int): local 3 holds the instance, locals 4-5 the current value
+     */
+    private record MapRow(Class<?> clazz, int[] indexes, List<Method> setters) implements ByteCodeAppender {
+
+        @Override
+        public Size apply(MethodVisitor mv, Implementation.Context context, MethodDescription method) {
+            String owner = Type.getInternalName(clazz);
+            mv.visitTypeInsn(Opcodes.NEW, owner);
+            mv.visitInsn(Opcodes.DUP);
+            mv.visitMethodInsn(Opcodes.INVOKESPECIAL, owner, "<init>", "()V", false);
+            mv.visitVarInsn(Opcodes.ASTORE, 3);
+            for (int i = 0; i < indexes.length; i++) {
+                if (indexes[i] == 0) {
+                    continue;
+                }
+                Method setter = setters.get(i);
+                Class<?> type = setter.getParameterTypes()[0];
+                Label skip = new Label();
+                Class<?> primitive = type.isPrimitive() ? type : ClassUtils.wrapperToPrimitive(type);
+                if (primitive != null) {
+                    Type value = Type.getType(primitive);
+                    getter(mv, indexes[i], "get" + StringUtils.capitalize(primitive.getName()), value.getDescriptor());
+                    mv.visitVarInsn(value.getOpcode(Opcodes.ISTORE), 4);
+                    mv.visitVarInsn(Opcodes.ALOAD, 1);
+                    mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, RESULT_SET, "wasNull", "()Z", true);
+                    mv.visitJumpInsn(Opcodes.IFNE, skip);
+                    mv.visitVarInsn(Opcodes.ALOAD, 3);
+                    mv.visitVarInsn(value.getOpcode(Opcodes.ILOAD), 4);
+                    if (!type.isPrimitive()) {
+                        mv.visitMethodInsn(Opcodes.INVOKESTATIC, Type.getInternalName(type), "valueOf", Type.getMethodDescriptor(Type.getType(type), value), false);
+                    }
+                } else {
+                    if (type.equals(String.class)) {
+                        getter(mv, indexes[i], "getString", "Ljava/lang/String;");
+                        mv.visitMethodInsn(Opcodes.INVOKESTATIC, Type.getInternalName(DataUtils.class), "trimToNull", "(Ljava/lang/String;)Ljava/lang/String;", false);
+                    } else if (type.equals(BigDecimal.class)) {
+                        getter(mv, indexes[i], "getBigDecimal", "Ljava/math/BigDecimal;");
+                    } else if (type.equals(byte[].class)) {
+                        getter(mv, indexes[i], "getBytes", "[B");
+                    } else {
+                        mv.visitVarInsn(Opcodes.ALOAD, 0);
+                        mv.visitVarInsn(Opcodes.ALOAD, 1);
+                        push(mv, indexes[i]);
+                        mv.visitLdcInsn(Type.getType(type));
+                        mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, Type.getInternalName(GeneratedRowMapper.class), "value",
+                                "(Ljava/sql/ResultSet;ILjava/lang/Class;)Ljava/lang/Object;", false);
+                        mv.visitTypeInsn(Opcodes.CHECKCAST, Type.getInternalName(type));
+                    }
+                    mv.visitVarInsn(Opcodes.ASTORE, 4);
+                    mv.visitVarInsn(Opcodes.ALOAD, 4);
+                    mv.visitJumpInsn(Opcodes.IFNULL, skip);
+                    mv.visitVarInsn(Opcodes.ALOAD, 3);
+                    mv.visitVarInsn(Opcodes.ALOAD, 4);
+                }
+                mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, owner, setter.getName(), Type.getMethodDescriptor(setter), false);
+                if (setter.getReturnType() != void.class) {
+                    mv.visitInsn(Type.getType(setter.getReturnType()).getSize() == 2 ? Opcodes.POP2 : Opcodes.POP);
+                }
+                mv.visitLabel(skip);
+            }
+            mv.visitVarInsn(Opcodes.ALOAD, 3);
+            mv.visitInsn(Opcodes.ARETURN);
+            return new Size(6, 6);
+        }
+
+        private static void getter(MethodVisitor mv, int index, String name, String descriptor) {
+            mv.visitVarInsn(Opcodes.ALOAD, 1);
+            push(mv, index);
+            mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, RESULT_SET, name, "(I)" + descriptor, true);
+        }
+
+        private static void push(MethodVisitor mv, int value) {
+            if (value <= 5) {
+                mv.visitInsn(Opcodes.ICONST_0 + value);
+            } else if (value <= Byte.MAX_VALUE) {
+                mv.visitIntInsn(Opcodes.BIPUSH, value);
+            } else {
+                mv.visitIntInsn(Opcodes.SIPUSH, value);
+            }
+        }
+    }
+
+    /**
+     * Cache key, a mapper is generated per class and column signature
+     */
+    private record Key(Class<?> clazz, List<String> columns) {
+    }
+}
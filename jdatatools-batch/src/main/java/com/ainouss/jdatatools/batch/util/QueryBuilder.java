@@ -27,6 +27,16 @@ public class QueryBuilder {
                 .replace("__FETCH__", Integer.toString(fetch));
     }
 
+    /**
+     * Oracle 12+ / SQL:2008 row limit, without offset
+     *
+     * @param fetch page size
+     * @return fetch first
+     */
+    public static String buildFetchFirstQuery(int fetch) {
+        return " fetch first __FETCH__ rows only"
+                .replace("__FETCH__", Integer.toString(fetch));
+    }
 
     public static String buildCountQuery(String query) {
         String selectIgnoreCase = StringUtils.replaceIgnoreCase(query, SELECT, SELECT);
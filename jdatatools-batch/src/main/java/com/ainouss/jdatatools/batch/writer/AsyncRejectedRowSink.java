@@ -0,0 +1,178 @@
+package com.ainouss.jdatatools.batch.writer;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Rejected row sink writing on its own thread: rows are queued by the writer and written in batches of at most batch size rows.
+ * The queue is bounded, a writer producing rows faster than they are written waits for room in the queue.
+ * Rows are queued under the read lock of the sink and the sink is closed under its write lock:
+ * a row accepted before close is written, a row offered after close is refused.
+ * A batch that fails to be written is logged and dropped, the following batches are still written.
+ */
+@Slf4j
+public abstract class AsyncRejectedRowSink implements RejectedRowSink {
+
+    private static final int DEFAULT_CAPACITY = 100_000;
+    private static final int DEFAULT_BATCH_SIZE = 1_000;
+
+    private final BlockingQueue<RejectedRow> queue;
+
+    private final int batchSize;
+
+    private final Thread thread;
+
+    private final AtomicLong accepted = new AtomicLong();
+
+    private final AtomicLong processed = new AtomicLong();
+
+    private final AtomicLong failed = new AtomicLong();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile boolean closed;
+
+    private boolean started;
+
+    protected AsyncRejectedRowSink(String name) {
+        this(name, DEFAULT_CAPACITY, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * @param name      name of the writing thread
+     * @param capacity  max number of queued rows
+     * @param batchSize max number of rows per write
+     */
+    protected AsyncRejectedRowSink(String name, int capacity, int batchSize) {
+        this.queue = new ArrayBlockingQueue<>(Math.max(capacity, 1));
+        this.batchSize = Math.max(batchSize, 1);
+        this.thread = new Thread(this::run, name);
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Writes a batch of rows
+     *
+     * @param rows rows, in acceptance order
+     * @throws Exception on fail
+     */
+    protected abstract void write(List<RejectedRow> rows) throws Exception;
+
+    /**
+     * Releases the resources of the sink, called once all rows are written
+     *
+     * @throws Exception on fail
+     */
+    protected void release() throws Exception {
+    }
+
+    @Override
+    public void accept(RejectedRow row) {
+        lock.readLock().lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("rejected row sink is closed");
+            }
+            start();
+            accepted.incrementAndGet();
+            while (!queue.offer(row, 100, TimeUnit.MILLISECONDS)) {
+                if (!thread.isAlive()) {
+                    accepted.decrementAndGet();
+                    throw new IllegalStateException("rejected row sink " + thread.getName() + " stopped writing");
+                }
+            }
+        } catch (InterruptedException e) {
+            accepted.decrementAndGet();
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("interrupted while queuing a rejected row", e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void flush() {
+        while (processed.get() < accepted.get() && thread.isAlive()) {
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            if (isStarted()) {
+                thread.join();
+            }
+            release();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("could not release rejected row sink {}, exception {}", thread.getName(), e.getMessage());
+        }
+    }
+
+    /**
+     * @return number of rows that could not be written
+     */
+    public long getFailed() {
+        return failed.get();
+    }
+
+    private synchronized boolean isStarted() {
+        return started;
+    }
+
+    private synchronized void start() {
+        if (!started) {
+            started = true;
+            thread.start();
+        }
+    }
+
+    private void run() {
+        List<RejectedRow> batch = new ArrayList<>(batchSize);
+        while (!closed || !queue.isEmpty()) {
+            try {
+                RejectedRow row = queue.poll(50, TimeUnit.MILLISECONDS);
+                if (row == null) {
+                    continue;
+                }
+                batch.add(row);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queue.drainTo(batch, batchSize - 1);
+            try {
+                write(batch);
+            } catch (Exception e) {
+                failed.addAndGet(batch.size());
+                log.error("ID-{} could not write {} rejected rows, exception {}", batch.get(0).getCorrelationId(), batch.size(), e.getMessage());
+            }
+            processed.addAndGet(batch.size());
+            batch.clear();
+        }
+    }
+}
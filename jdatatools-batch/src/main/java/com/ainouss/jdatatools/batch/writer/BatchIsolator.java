@@ -0,0 +1,170 @@
+package com.ainouss.jdatatools.batch.writer;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Executes a batch and isolates the rows the database rejects, from the update counts of {@link BatchUpdateException}:
+ * - a driver that stops at the first failure reports the counts of the rows before it:
+ * these rows are written, the next one is rejected, the remaining ones are re-sent
+ * - a driver that continues after a failure reports a count per row, failed rows are {@link Statement#EXECUTE_FAILED}:
+ * these rows are rejected, all the other ones are written
+ * - a driver without usable counts gets the batch cut in two halves, each half being executed the same way
+ * Each attempt runs under a savepoint. On databases aborting the transaction on error (PostgreSQL), the attempt is rolled back
+ * to its savepoint and the written rows are re-sent with the remaining ones.
+ * Runs on the connection of the current transaction, the caller commits.
+ */
+@Slf4j
+public final class BatchIsolator {
+
+    /**
+     * Databases whose transaction is unusable after a failed statement, until rolled back
+     */
+    private static final Set<String> ABORTING = Set.of("postgresql");
+
+    private BatchIsolator() {
+    }
+
+    /**
+     * A row rejected by the database
+     *
+     * @param row   row index in the batch
+     * @param error error message
+     */
+    public record Rejected(int row, String error) {
+    }
+
+    /**
+     * Binds a row of a batch to a prepared statement
+     */
+    @FunctionalInterface
+    public interface RowBinder {
+        void bind(PreparedStatement statement, int row) throws SQLException;
+    }
+
+    /**
+     * @param connection connection
+     * @return true if the connection supports savepoints
+     * @throws SQLException on fail
+     */
+    public static boolean isSupported(Connection connection) throws SQLException {
+        return connection.getMetaData().supportsSavepoints();
+    }
+
+    /**
+     * Executes rows [0, size) as a batch, rejected rows are left out and the other rows are written
+     *
+     * @param connection    connection of the current transaction
+     * @param sql           positional query
+     * @param size          number of rows
+     * @param binder        row binder
+     * @param correlationId correlation id
+     * @return rejected rows, by row index
+     * @throws SQLException on fail
+     */
+    public static List<Rejected> execute(Connection connection, String sql, int size, RowBinder binder, String correlationId) throws SQLException {
+        String product = connection.getMetaData().getDatabaseProductName();
+        boolean aborting = product != null && ABORTING.stream().anyMatch(product.toLowerCase(Locale.ROOT)::contains);
+        List<Rejected> rejected = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            submit(connection, statement, IntStream.range(0, size).toArray(), binder, aborting, rejected, correlationId);
+        }
+        rejected.sort(Comparator.comparingInt(Rejected::row));
+        return rejected;
+    }
+
+    private static void submit(Connection connection, PreparedStatement statement, int[] rows, RowBinder binder, boolean aborting,
+                               List<Rejected> rejected, String correlationId) throws SQLException {
+        int[] pending = rows;
+        while (pending.length > 0) {
+            Savepoint savepoint = connection.setSavepoint();
+            try {
+                for (int row : pending) {
+                    binder.bind(statement, row);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                release(connection, savepoint);
+                return;
+            } catch (BatchUpdateException e) {
+                statement.clearBatch();
+                int[] counts = e.getUpdateCounts();
+                int[] failed = failed(counts, pending.length);
+                if (failed.length == 0) {
+                    connection.rollback(savepoint);
+                    bisect(connection, statement, pending, binder, aborting, rejected, correlationId, e);
+                    return;
+                }
+                int[] failedRows = new int[failed.length];
+                for (int i = 0; i < failed.length; i++) {
+                    failedRows[i] = pending[failed[i]];
+                    rejected.add(new Rejected(pending[failed[i]], e.getMessage()));
+                }
+                log.debug("ID-{} {} rows rejected out of a batch of {}, update counts {}", correlationId, failed.length, pending.length, counts.length);
+                if (aborting) {
+                    connection.rollback(savepoint);
+                    pending = Arrays.stream(pending).filter(row -> Arrays.binarySearch(failedRows, row) < 0).toArray();
+                } else {
+                    release(connection, savepoint);
+                    pending = counts.length < pending.length ? Arrays.copyOfRange(pending, counts.length + 1, pending.length) : new int[0];
+                }
+            } catch (SQLException e) {
+                statement.clearBatch();
+                connection.rollback(savepoint);
+                bisect(connection, statement, pending, binder, aborting, rejected, correlationId, e);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Positions of the failed rows of a batch, empty if the counts do not tell them apart
+     *
+     * @param counts update counts, may be null
+     * @param size   batch size
+     * @return failed positions, ascending
+     */
+    static int[] failed(int[] counts, int size) {
+        if (counts == null || counts.length > size) {
+            return new int[0];
+        }
+        if (counts.length < size) {
+            int[] failed = IntStream.range(0, counts.length).filter(i -> counts[i] == Statement.EXECUTE_FAILED).toArray();
+            return failed.length == 0 ? new int[]{counts.length} : new int[0];
+        }
+        int[] failed = IntStream.range(0, size).filter(i -> counts[i] == Statement.EXECUTE_FAILED).toArray();
+        return failed.length == size && size > 1 ? new int[0] : failed;
+    }
+
+    private static void bisect(Connection connection, PreparedStatement statement, int[] rows, RowBinder binder, boolean aborting,
+                               List<Rejected> rejected, String correlationId, SQLException e) throws SQLException {
+        if (rows.length == 1) {
+            rejected.add(new Rejected(rows[0], e.getMessage()));
+            return;
+        }
+        int half = rows.length / 2;
+        submit(connection, statement, Arrays.copyOfRange(rows, 0, half), binder, aborting, rejected, correlationId);
+        submit(connection, statement, Arrays.copyOfRange(rows, half, rows.length), binder, aborting, rejected, correlationId);
+    }
+
+    private static void release(Connection connection, Savepoint savepoint) {
+        try {
+            connection.releaseSavepoint(savepoint);
+        } catch (SQLException e) {
+            // not supported by every driver, the savepoint is released on commit
+        }
+    }
+}
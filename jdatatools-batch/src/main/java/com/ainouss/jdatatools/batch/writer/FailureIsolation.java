@@ -0,0 +1,18 @@
+package com.ainouss.jdatatools.batch.writer;
+
+/**
+ * Strategy used by {@link JdbcChunkWriter} to find the rows of a failed batch that the database rejects
+ */
+public enum FailureIsolation {
+    /**
+     * Rolls the chunk back, splits it into 10 parts and retries each part in its own transaction,
+     * down to single rows. One bad row costs a few re-sent sub-batches and transactions.
+     */
+    SPLIT,
+    /**
+     * Reads the update counts of the driver batch exception to find the rejected rows,
+     * then re-sends only the rows that were not written, in the same transaction.
+     * Falls back to binary bisection when the driver reports no usable counts, see {@link BatchIsolator}.
+     */
+    UPDATE_COUNTS
+}
@@ -0,0 +1,47 @@
+package com.ainouss.jdatatools.batch.writer;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Writes rejected rows to a local file, one JSON object per line, see {@link RejectedRow#toJson()}.
+ * Rows are appended to the file, which is created if missing.
+ */
+public class FileRejectedRowSink extends AsyncRejectedRowSink {
+
+    private final BufferedWriter writer;
+
+    /**
+     * @param path file
+     */
+    public FileRejectedRowSink(Path path) {
+        super("jdatatools-rejected-file");
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            this.writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new RuntimeException("could not open rejected rows file " + path, e);
+        }
+    }
+
+    @Override
+    protected void write(List<RejectedRow> rows) throws IOException {
+        for (RejectedRow row : rows) {
+            writer.write(row.toJson());
+            writer.newLine();
+        }
+        writer.flush();
+    }
+
+    @Override
+    protected void release() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,23 @@
+package com.ainouss.jdatatools.batch.writer;
+
+/**
+ * Statements used by {@link JdbcChunkWriter} to insert a chunk, see {@link JdbcWriteTemplate#getInsertMode()}
+ */
+public enum InsertMode {
+    /**
+     * One single-row insert per row, sent as a JDBC batch
+     */
+    BATCH,
+    /**
+     * Multi-row inserts (values (...),(...)) of as many rows as the dialect parameter limits allow,
+     * see {@link com.ainouss.jdatatools.query.core.CriteriaQuery#buildMultiRowInsertQuery(int)}.
+     * A failed chunk is rolled back and inserted again in BATCH mode, to isolate the rejected rows
+     */
+    MULTI_ROW,
+    /**
+     * One single-row upsert per row, sent as a JDBC batch: a row with an existing key updates the other columns
+     * instead of being rejected, see {@link com.ainouss.jdatatools.query.core.CriteriaQuery#buildUpsertQuery(java.util.List)}.
+     * The key is {@link JdbcWriteTemplate#getKeys()}, resolved from {@link jakarta.persistence.Id} annotations or the primary key metadata if empty
+     */
+    UPSERT
+}
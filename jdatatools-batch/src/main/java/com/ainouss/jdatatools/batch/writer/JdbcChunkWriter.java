@@ -1,20 +1,31 @@
 package com.ainouss.jdatatools.batch.writer;
 
 import com.ainouss.jdatatools.batch.data.Chunk;
+import com.ainouss.jdatatools.batch.data.OffHeapChunk;
+import com.ainouss.jdatatools.batch.reader.KeyResolver;
 import com.ainouss.jdatatools.batch.util.QueryBuilder;
+import com.ainouss.jdatatools.batch.writer.bulk.BulkLoader;
+import com.ainouss.jdatatools.batch.writer.bulk.BulkLoaders;
+import com.ainouss.jdatatools.batch.writer.bulk.BulkTable;
+import com.ainouss.jdatatools.batch.writer.bulk.BulkValues;
+import com.ainouss.jdatatools.query.core.FieldMetaData;
 import com.ainouss.jdatatools.query.registery.EntityRegistry;
 import com.ainouss.jdatatools.query.core.CriteriaBuilder;
 import com.ainouss.jdatatools.query.core.CriteriaQuery;
+import com.ainouss.jdatatools.query.core.Path;
+import com.ainouss.jdatatools.query.core.Root;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.ListUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.time.DurationFormatUtils;
 import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
-import org.springframework.jdbc.core.namedparam.SqlParameterSource;
-import org.springframework.jdbc.core.namedparam.SqlParameterSourceUtils;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterUtils;
+import org.springframework.jdbc.core.namedparam.ParsedSql;
 import org.springframework.jdbc.datasource.DataSourceTransactionManager;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.PlatformTransactionManager;
@@ -22,19 +33,34 @@ import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
 
 /**
  * JDBC writer, uses a jdbc template to write through a DataSource
  * Generates SQL insert from a {@link CriteriaQuery} if {@link JdbcWriteTemplate} has no insert sql (named) query.
  * Uses a named query to batch insert with a new transaction.
- * Uses a device and conquer to handle batch failures :
- * the transaction is roll-backed, then the data is split into smaller parts (10 parts)
+ * Batch failures are isolated by the template {@link FailureIsolation}:
+ * - UPDATE_COUNTS (default) reads the driver update counts to find the rejected rows and re-sends only the rows not written,
+ * see {@link BatchIsolator}
+ * - SPLIT uses a divide and conquer: the transaction is roll-backed, then the data is split into smaller parts (10 parts)
  * The same mechanism is applied until the process is completed
  * When the size of the chunk is one element and the transaction has been roll-backed, the record is ignored.
+ * With {@link InsertMode#MULTI_ROW}, chunks are inserted with multi-row inserts sized by the dialect limits,
+ * a failed chunk is rolled back and inserted again as above.
+ * With {@link InsertMode#UPSERT}, rows are inserted or update the row with the same key, see {@link CriteriaQuery#buildUpsertQuery(List)}.
+ * With {@link JdbcWriteTemplate#isBulkLoad()}, chunks are loaded by the {@link BulkLoader} of the target database,
+ * a failed load is rolled back and the chunk is batch inserted as above.
  */
 
 @Component
@@ -55,7 +81,254 @@ public class JdbcChunkWriter {
             log.info("ID-{} empty chunk of {}, nothing to insert", template.getCorrelationId(), template.getTargetTable());
             return;
         }
-        insertChunk(template.getInsert(), chunk, template.getJdbcTemplate(), template.getTxManager(), template.getCorrelationId());
+        List<Object> rows = new ArrayList<>(chunk.getData());
+        ParameterBinder<Object> binder = binder(rows.get(0).getClass(), template.getInsert(), template.getJdbcTemplate());
+        if (template.getBulkLoader() != null) {
+            Map<String, String> columns = new LinkedHashMap<>();
+            EntityRegistry.registerClass(rows.get(0).getClass());
+            EntityRegistry.getSelectableFields(rows.get(0).getClass()).forEach(field -> columns.put(field.getLabel(), field.getColumn()));
+            List<String> names = binder.getNames();
+            if (bulkLoad(template, chunk.getStart(), chunk.getEnd(), rows.size(),
+                    names.stream().map(name -> columns.getOrDefault(name, name)).toList(),
+                    IntStream.range(0, names.size()).map(binder::sqlType).toArray(),
+                    (row, column) -> binder.value(rows.get(row), column))) {
+                return;
+            }
+        }
+        if (template.getInsertMode() == InsertMode.MULTI_ROW && insertMultiRow(template, chunk.getStart(), chunk.getEnd(), rows.size(), binder.getNames().size(),
+                (ps, row, offset) -> binder.bind(ps, rows.get(row), offset))) {
+            return;
+        }
+        if (template.getIsolation() == FailureIsolation.UPDATE_COUNTS) {
+            if (insertIsolated(template, binder.getSql(), chunk.getStart(), chunk.getEnd(), rows.size(), (ps, row) -> binder.bind(ps, rows.get(row)),
+                    row -> RejectedRow.values(rows.get(row)), chunk::setError)) {
+                return;
+            }
+        }
+        insertChunk(template.getInsert(), chunk, template.getJdbcTemplate(), template.getTxManager(), template.getCorrelationId(), template.getRejectedRowSink());
+    }
+
+    /**
+     * JDBC writer binding parameters straight from an off-heap chunk, see {@link OffHeapChunk}.
+     * Named parameters of the insert query are matched to the chunk fields by label.
+     *
+     * @param template template
+     * @param chunk    off-heap chunk of data
+     */
+    public void process(JdbcWriteTemplate template, OffHeapChunk chunk) {
+        normalize(template);
+        if (chunk.isEmpty()) {
+            log.info("ID-{} empty chunk of {}, nothing to insert", template.getCorrelationId(), template.getTargetTable());
+            return;
+        }
+        ParsedSql parsed = NamedParameterUtils.parseSqlStatement(template.getInsert());
+        MapSqlParameterSource noValues = new MapSqlParameterSource();
+        String sql = NamedParameterUtils.substituteNamedParameters(parsed, noValues);
+        int[] fields = NamedParameterUtils.buildSqlParameterList(parsed, noValues)
+                .stream()
+                .mapToInt(parameter -> {
+                    int field = chunk.getLayout().indexOf(parameter.getName());
+                    if (field < 0) {
+                        throw new RuntimeException("parameter " + parameter.getName() + " of " + template.getInsert() + " is not a field of the chunk");
+                    }
+                    return field;
+                })
+                .toArray();
+        if (template.getBulkLoader() != null) {
+            List<FieldMetaData> layout = chunk.getLayout().getFields();
+            if (bulkLoad(template, chunk.getStart(), chunk.getEnd(), chunk.getSize(),
+                    Arrays.stream(fields).mapToObj(field -> layout.get(field).getColumn()).toList(),
+                    Arrays.stream(fields).map(field -> chunk.getLayout().slot(field).getSqlType()).toArray(),
+                    (row, column) -> chunk.get(row, fields[column]))) {
+                return;
+            }
+        }
+        if (template.getInsertMode() == InsertMode.MULTI_ROW && insertMultiRow(template, chunk.getStart(), chunk.getEnd(), chunk.getSize(), fields.length, (ps, row, offset) -> {
+            for (int p = 0; p < fields.length; p++) {
+                chunk.bind(ps, offset + p + 1, row, fields[p]);
+            }
+        })) {
+            return;
+        }
+        if (template.getIsolation() == FailureIsolation.UPDATE_COUNTS && insertIsolated(template, sql, chunk.getStart(), chunk.getEnd(), chunk.getSize(), (ps, row) -> {
+            for (int p = 0; p < fields.length; p++) {
+                chunk.bind(ps, p + 1, row, fields[p]);
+            }
+        }, row -> values(chunk, row), chunk::setError)) {
+            return;
+        }
+        insertChunk(sql, fields, chunk, template.getJdbcTemplate(), template.getTxManager(), template.getCorrelationId(), template.getRejectedRowSink());
+    }
+
+    /**
+     * Inserts a chunk with multi-row inserts in a new transaction: full statements of the max number of rows allowed by the dialect
+     * are sent as one batch, the remaining rows as a last, shorter statement
+     *
+     * @param template template
+     * @param start    chunk start
+     * @param end      chunk end
+     * @param size     number of rows
+     * @param columns  number of parameters per row
+     * @param binder   binds a row from a parameter offset
+     * @return false if the insert failed or if the template insert is not generated by its criteria, nothing is written then
+     */
+    private boolean insertMultiRow(JdbcWriteTemplate template, int start, int end, int size, int columns, OffsetBinder binder) {
+        String correlationId = template.getCorrelationId();
+        CriteriaQuery<?> criteria = template.getCriteria();
+        int rowsPerInsert = Math.min(criteria.getMaxInsertRows(), size);
+        if (rowsPerInsert <= 1 || !template.getInsert().equals(criteria.buildInsertQuery())) {
+            log.debug("ID-{} multi-row insert is not available for {}, chunk [{} - {}] is batch inserted", correlationId, template.getTargetTable(), start, end);
+            return false;
+        }
+        int inserts = size / rowsPerInsert;
+        int remaining = size % rowsPerInsert;
+        String full = positional(criteria.buildMultiRowInsertQuery(rowsPerInsert));
+        String last = remaining == 0 ? null : positional(criteria.buildMultiRowInsertQuery(remaining));
+        long startTime = System.nanoTime();
+        log.info("ID-{} started inserting {} records [{} - {}] into {}, {} rows per insert", correlationId, size, start, end, template.getTargetTable(), rowsPerInsert);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(template.getTxManager());
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            transactionTemplate.execute(status -> template.getJdbcTemplate().execute((ConnectionCallback<Void>) connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(full)) {
+                    for (int insert = 0; insert < inserts; insert++) {
+                        for (int row = 0; row < rowsPerInsert; row++) {
+                            binder.bind(statement, insert * rowsPerInsert + row, row * columns);
+                        }
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                }
+                if (last != null) {
+                    try (PreparedStatement statement = connection.prepareStatement(last)) {
+                        for (int row = 0; row < remaining; row++) {
+                            binder.bind(statement, inserts * rowsPerInsert + row, row * columns);
+                        }
+                        statement.executeUpdate();
+                    }
+                }
+                return null;
+            }));
+        } catch (DataAccessException e) {
+            log.warn("ID-{} could not insert [{} - {}] into {} with multi-row inserts, falling back to batch insert, exception {}", correlationId, start, end, template.getTargetTable(), e.getMessage());
+            return false;
+        }
+        long duration = (System.nanoTime() - startTime) / 1000000;
+        log.info("ID-{} completed inserting {} records [{} - {}] into {}, duration (ss:SSS) {}", correlationId, size, start, end, template.getTargetTable(), DurationFormatUtils.formatDuration(duration, "ss:SSS", true));
+        return true;
+    }
+
+    /**
+     * @param named named query
+     * @return positional query
+     */
+    private static String positional(String named) {
+        return NamedParameterUtils.substituteNamedParameters(NamedParameterUtils.parseSqlStatement(named), new MapSqlParameterSource());
+    }
+
+    /**
+     * Binds a row of a chunk to the parameters of a prepared statement, from an offset
+     */
+    @FunctionalInterface
+    private interface OffsetBinder {
+        void bind(PreparedStatement statement, int row, int offset) throws SQLException;
+    }
+
+    /**
+     * Loads a chunk with the bulk loader of the template in a new transaction
+     *
+     * @param template template
+     * @param start    chunk start
+     * @param end      chunk end
+     * @param size     number of rows
+     * @param columns  loaded columns
+     * @param sqlTypes SQL type of each column
+     * @param values   row values, by column position
+     * @return false if the load failed or did not load every row, nothing is written then
+     */
+    private boolean bulkLoad(JdbcWriteTemplate template, int start, int end, int size, List<String> columns, int[] sqlTypes, BulkValues values) {
+        String correlationId = template.getCorrelationId();
+        BulkLoader loader = template.getBulkLoader();
+        BulkTable table = BulkTable.of(template.getJdbcTemplate(), template.getTargetTable(), columns, sqlTypes);
+        long startTime = System.nanoTime();
+        log.info("ID-{} started bulk loading {} records [{} - {}] into {} with {}", correlationId, size, start, end, table.getName(), loader.getClass().getSimpleName());
+        TransactionTemplate transactionTemplate = new TransactionTemplate(template.getTxManager());
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            Long loaded = transactionTemplate.execute(status -> {
+                Long count = template.getJdbcTemplate().execute((ConnectionCallback<Long>) connection -> loader.load(connection, table, size, values));
+                if (count == null || count != size) {
+                    status.setRollbackOnly();
+                }
+                return count;
+            });
+            if (loaded == null || loaded != size) {
+                log.warn("ID-{} bulk loaded {} of {} records [{} - {}] into {}, rolled back, falling back to batch insert to isolate the rejected records",
+                        correlationId, loaded, size, start, end, table.getName());
+                return false;
+            }
+            long duration = (System.nanoTime() - startTime) / 1000000;
+            log.info("ID-{} completed bulk loading {} records [{} - {}] into {}, duration (ss:SSS) {}", correlationId, loaded, start, end, table.getName(), DurationFormatUtils.formatDuration(duration, "ss:SSS", true));
+            return true;
+        } catch (DataAccessException e) {
+            log.warn("ID-{} could not bulk load [{} - {}] into {}, falling back to batch insert, exception {}", correlationId, start, end, table.getName(), e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Inserts a chunk as a single batch in a new transaction, the rows rejected by the database are isolated
+     * by {@link BatchIsolator} and left out, the other rows are committed
+     *
+     * @param template template
+     * @param sql      positional sql
+     * @param start    chunk start
+     * @param end      chunk end
+     * @param size     number of rows
+     * @param binder   row binder
+     * @param values   values of a row, sent to the rejected row sink
+     * @param error    receives the error of the first rejected row
+     * @return false if the connection does not support savepoints, nothing is written then
+     */
+    private boolean insertIsolated(JdbcWriteTemplate template, String sql, int start, int end, int size, BatchIsolator.RowBinder binder,
+                                   IntFunction<Map<String, Object>> values, Consumer<String> error) {
+        String correlationId = template.getCorrelationId();
+        long startTime = System.nanoTime();
+        log.info("ID-{} started inserting {} records [{} - {}] into {}", correlationId, size, start, end, template.getTargetTable());
+        TransactionTemplate transactionTemplate = new TransactionTemplate(template.getTxManager());
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        List<BatchIsolator.Rejected> rejected = transactionTemplate.execute(status -> template.getJdbcTemplate().execute((ConnectionCallback<List<BatchIsolator.Rejected>>) connection -> {
+            if (!BatchIsolator.isSupported(connection)) {
+                log.info("ID-{} savepoints are not supported, failed batches of {} are split", correlationId, template.getTargetTable());
+                return null;
+            }
+            return BatchIsolator.execute(connection, sql, size, binder, correlationId);
+        }));
+        if (rejected == null) {
+            return false;
+        }
+        if (!rejected.isEmpty()) {
+            log.warn("ID-{} {} records of [{} - {}] were rejected by {}, first error : {}", correlationId, rejected.size(), start, end, template.getTargetTable(), rejected.get(0).error());
+            RejectedRowSink sink = template.getRejectedRowSink();
+            for (BatchIsolator.Rejected r : rejected) {
+                log.trace("ID-{} record {} was rejected", correlationId, start + r.row());
+                if (sink != null) {
+                    sink.accept(RejectedRow.builder()
+                            .correlationId(correlationId)
+                            .table(template.getTargetTable())
+                            .start(start)
+                            .end(end)
+                            .row(start + r.row())
+                            .error(r.error())
+                            .values(values.apply(r.row()))
+                            .build());
+                }
+            }
+            error.accept(rejected.get(0).error());
+        }
+        long duration = (System.nanoTime() - startTime) / 1000000;
+        log.info("ID-{} completed inserting {} records [{} - {}] into {}, duration (ss:SSS) {}", correlationId, size - rejected.size(), start, end, template.getTargetTable(), DurationFormatUtils.formatDuration(duration, "ss:SSS", true));
+        return true;
     }
 
     /**
@@ -75,17 +348,44 @@ public class JdbcChunkWriter {
         if (template.getCriteria() == null) {
             CriteriaBuilder cb = EntityRegistry.criteriaBuilder();
             CriteriaQuery<?> cr = cb.createQuery(template.getClazz());
+            cr.select(cr.from(template.getClazz()));
             template.setCriteria(cr);
         }
+        if (StringUtils.isBlank(template.getTargetTable())) {
+            String insert = StringUtils.isBlank(template.getInsert()) ? template.getCriteria().buildInsertQuery() : template.getInsert();
+            template.setTargetTable(QueryBuilder.getTableNameFromInsertQuery(insert));
+        }
         if (StringUtils.isBlank(template.getInsert())) {
-            template.setInsert(template.getCriteria().buildInsertQuery());
+            template.setInsert(template.getInsertMode() == InsertMode.UPSERT ? upsert(template) : template.getCriteria().buildInsertQuery());
         }
-        if (StringUtils.isBlank(template.getTargetTable())) {
-            String target = QueryBuilder.getTableNameFromInsertQuery(template.getInsert());
-            template.setTargetTable(target);
+        if (template.isBulkLoad() && template.getInsertMode() == InsertMode.UPSERT) {
+            log.info("ID-{} bulk loaders only insert, chunks of {} are upserted in batches", template.getCorrelationId(), template.getTargetTable());
+            template.setBulkLoad(false);
+        }
+        if (template.isBulkLoad() && template.getBulkLoader() == null) {
+            String product = template.getJdbcTemplate().execute((ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            BulkLoader loader = BulkLoaders.find(template.getCriteria().getCriteriaBuilder().getSqlDialect(), product);
+            if (loader == null) {
+                log.info("ID-{} no bulk loader supports {}, chunks of {} are batch inserted", template.getCorrelationId(), product, template.getTargetTable());
+                template.setBulkLoad(false);
+            } else {
+                template.setBulkLoader(loader);
+            }
         }
     }
 
+    /**
+     * Builds the upsert query of the template criteria, keyed on the template keys,
+     * the {@link jakarta.persistence.Id} annotations or the primary key metadata of the target
+     */
+    private static String upsert(JdbcWriteTemplate template) {
+        if (template.getKeys() == null || template.getKeys().isEmpty()) {
+            template.setKeys(KeyResolver.primaryKeys(template.getClazz(), template.getJdbcTemplate()));
+        }
+        CriteriaQuery<?> criteria = template.getCriteria();
+        Root<?> root = criteria.getRoots().iterator().next();
+        return criteria.buildUpsertQuery(template.getKeys().stream().<Path<?>>map(root::get).toList());
+    }
 
     /**
      * Start a new transaction to insert a chunk of data
@@ -101,6 +401,19 @@ public class JdbcChunkWriter {
      */
 
     public void insertChunk(String sql, Chunk<?> chunk, JdbcTemplate jdbc, PlatformTransactionManager txManager, String correlationId) {
+        insertChunk(sql, chunk, jdbc, txManager, correlationId, null);
+    }
+
+    /**
+     * See {@link #insertChunk(String, Chunk, JdbcTemplate, PlatformTransactionManager, String)},
+     * records rolled back are sent to a rejected row sink
+     *
+     * @param chunk         chunk of data
+     * @param txManager     transaction manager
+     * @param correlationId correlation ID
+     * @param sink          rejected row sink, may be null
+     */
+    public void insertChunk(String sql, Chunk<?> chunk, JdbcTemplate jdbc, PlatformTransactionManager txManager, String correlationId, RejectedRowSink sink) {
         if (chunk.isEmpty()) {
             return;
         }
@@ -113,17 +426,65 @@ public class JdbcChunkWriter {
             }
             if (data.size() == 1) {
                 log.trace("ID-{} record {} was rolled back", correlationId, data);
+                reject(sink, sql, chunk, null, chunk.getError(), RejectedRow.values(data.iterator().next()), correlationId);
                 return;
             }
             int size = (int) Math.ceil((double) data.size() / 10);
             ArrayList<?> all = new ArrayList<>(chunk.getData());
             ListUtils.partition(all, size).forEach(sublist -> {
                 Chunk<?> subChunk = new Chunk<>(sublist, chunk.getStart(), chunk.getEnd());
-                insertChunk(sql, subChunk, jdbc, txManager, correlationId);
+                insertChunk(sql, subChunk, jdbc, txManager, correlationId, sink);
             });
         }
     }
 
+    /**
+     * Start a new transaction to insert an off-heap chunk of data, see {@link #insertChunk(String, Chunk, JdbcTemplate, PlatformTransactionManager, String)}
+     * in the case of a failure, the chunk is split into views of 10 parts until the process is completed
+     *
+     * @param sql           positional sql
+     * @param fields        chunk field bound to each parameter
+     * @param chunk         off-heap chunk of data
+     * @param jdbc          jdbc template
+     * @param txManager     transaction manager
+     * @param correlationId correlation ID
+     * @param sink          rejected row sink, may be null
+     */
+    public void insertChunk(String sql, int[] fields, OffHeapChunk chunk, JdbcTemplate jdbc, PlatformTransactionManager txManager, String correlationId, RejectedRowSink sink) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        TransactionTemplate transactionTemplate = new TransactionTemplate(txManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        TransactionStatus tx = transactionTemplate.execute(status -> {
+            try {
+                insert(sql, fields, chunk, jdbc, correlationId);
+                status.flush();
+            } catch (DataAccessException e) {
+                String table = QueryBuilder.getTableNameFromInsertQuery(sql);
+                if (chunk.getSize() == 1) {
+                    log.error("ID-{} could not insert into table {}, record {} Error : {}", correlationId, table, chunk.getStart(), e.getMessage());
+                } else {
+                    log.warn("ID-{} could not insert into table {}, batch size : {}", correlationId, table, chunk.getSize());
+                }
+                status.setRollbackOnly();
+                chunk.setError(e.getMessage());
+            }
+            return status;
+        });
+        if (tx != null && tx.isRollbackOnly()) {
+            if (chunk.getSize() == 1) {
+                log.trace("ID-{} record {} was rolled back", correlationId, chunk.getStart());
+                reject(sink, sql, chunk.getStart(), chunk.getEnd(), chunk.getStart(), chunk.getError(), values(chunk, 0), correlationId);
+                return;
+            }
+            int size = (int) Math.ceil((double) chunk.getSize() / 10);
+            for (int from = 0; from < chunk.getSize(); from += size) {
+                insertChunk(sql, fields, chunk.view(from, Math.min(from + size, chunk.getSize())), jdbc, txManager, correlationId, sink);
+            }
+        }
+    }
+
     /**
      * Start a new transaction to insert a chunk of data
      *
@@ -159,7 +520,7 @@ public class JdbcChunkWriter {
     }
 
     /**
-     * Insert into with SQL named query & jdbcTemplate
+     * Insert into with SQL named query & jdbcTemplate, parameters are bound by a compiled {@link ParameterBinder}
      *
      * @param chunk         chunk
      * @param correlationId correlationId
@@ -174,9 +535,9 @@ public class JdbcChunkWriter {
         } else {
             log.info("ID-{} started inserting {} records [{} - {}] into {}", correlationId,data.size(), chunk.getStart(), chunk.getEnd(), table);
         }
-        SqlParameterSource[] parameterSource = SqlParameterSourceUtils.createBatch(data.toArray());
-        NamedParameterJdbcTemplate namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(writer);
-        namedParameterJdbcTemplate.batchUpdate(sql, parameterSource);
+        List<Object> rows = new ArrayList<>(data);
+        ParameterBinder<Object> binder = binder(rows.get(0).getClass(), sql, writer);
+        writer.batchUpdate(binder.getSql(), binder.batch(rows));
         long duration = (System.nanoTime() - startTime) / 1000000;
         if (chunk.getSize() == 1) {
             log.info("ID-{} completed inserting 1 record into {}, duration (ss:SSS) {}",correlationId, table, DurationFormatUtils.formatDuration(duration, "ss:SSS", true));
@@ -185,6 +546,71 @@ public class JdbcChunkWriter {
         }
     }
 
+    private static void reject(RejectedRowSink sink, String sql, Chunk<?> chunk, Integer row, String error, Map<String, Object> values, String correlationId) {
+        reject(sink, sql, chunk.getStart(), chunk.getEnd(), row, error, values, correlationId);
+    }
+
+    private static void reject(RejectedRowSink sink, String sql, Integer start, Integer end, Integer row, String error, Map<String, Object> values, String correlationId) {
+        if (sink == null) {
+            return;
+        }
+        sink.accept(RejectedRow.builder()
+                .correlationId(correlationId)
+                .table(QueryBuilder.getTableNameFromInsertQuery(sql))
+                .start(start)
+                .end(end)
+                .row(row)
+                .error(error)
+                .values(values)
+                .build());
+    }
+
+    /**
+     * Values of a row of an off-heap chunk, copied out of the buffer
+     */
+    private static Map<String, Object> values(OffHeapChunk chunk, int row) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (int field = 0; field < chunk.getLayout().size(); field++) {
+            values.put(chunk.getLayout().getFields().get(field).getLabel(), chunk.get(row, field));
+        }
+        return values;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ParameterBinder<Object> binder(Class<?> clazz, String sql, JdbcTemplate writer) {
+        return (ParameterBinder<Object>) ParameterBinder.of(clazz, sql, writer);
+    }
+
+    /**
+     * Batch insert binding each row of an off-heap chunk
+     *
+     * @param sql           positional sql
+     * @param fields        chunk field bound to each parameter
+     * @param chunk         off-heap chunk
+     * @param writer        jdbc template
+     * @param correlationId correlationId
+     */
+    private void insert(String sql, int[] fields, OffHeapChunk chunk, JdbcTemplate writer, String correlationId) {
+        String table = QueryBuilder.getTableNameFromInsertQuery(sql);
+        long startTime = System.nanoTime();
+        log.info("ID-{} started inserting {} off-heap records [{} - {}] into {}", correlationId, chunk.getSize(), chunk.getStart(), chunk.getEnd(), table);
+        writer.batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                for (int p = 0; p < fields.length; p++) {
+                    chunk.bind(ps, p + 1, i, fields[p]);
+                }
+            }
+
+            @Override
+            public int getBatchSize() {
+                return chunk.getSize();
+            }
+        });
+        long duration = (System.nanoTime() - startTime) / 1000000;
+        log.info("ID-{} completed inserting {} off-heap records [{} - {}] into {}, duration (ss:SSS) {}", correlationId, chunk.getSize(), chunk.getStart(), chunk.getEnd(), table, DurationFormatUtils.formatDuration(duration, "ss:SSS", true));
+    }
+
     /**
      * execute SQL query
      *
@@ -0,0 +1,59 @@
+package com.ainouss.jdatatools.batch.writer;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Writes rejected rows to a database error table, in batches. The table is expected to have the columns :
+ * CORRELATION_ID varchar, TARGET_TABLE varchar, CHUNK_START int, CHUNK_END int, ROW_INDEX int,
+ * ERROR_MESSAGE varchar(4000), ROW_DATA (large text, JSON values of the row) and REJECTED_AT timestamp
+ */
+public class JdbcRejectedRowSink extends AsyncRejectedRowSink {
+
+    /**
+     * Default error table
+     */
+    public static final String DEFAULT_TABLE = "REJECTED_ROWS";
+
+    private static final int MAX_ERROR_LENGTH = 4000;
+
+    private final JdbcTemplate jdbc;
+
+    private final String insert;
+
+    /**
+     * @param jdbc error database
+     */
+    public JdbcRejectedRowSink(JdbcTemplate jdbc) {
+        this(jdbc, DEFAULT_TABLE);
+    }
+
+    /**
+     * @param jdbc  error database
+     * @param table error table, optionally prefixed with its schema
+     */
+    public JdbcRejectedRowSink(JdbcTemplate jdbc, String table) {
+        super("jdatatools-rejected-jdbc");
+        this.jdbc = jdbc;
+        this.insert = "insert into " + table + " (CORRELATION_ID, TARGET_TABLE, CHUNK_START, CHUNK_END, ROW_INDEX, ERROR_MESSAGE, ROW_DATA, REJECTED_AT)"
+                + " values (?, ?, ?, ?, ?, ?, ?, ?)";
+    }
+
+    @Override
+    protected void write(List<RejectedRow> rows) {
+        jdbc.batchUpdate(insert, rows, rows.size(), (ps, row) -> {
+            ps.setString(1, row.getCorrelationId());
+            ps.setString(2, row.getTable());
+            ps.setObject(3, row.getStart(), Types.INTEGER);
+            ps.setObject(4, row.getEnd(), Types.INTEGER);
+            ps.setObject(5, row.getRow(), Types.INTEGER);
+            String error = row.getError();
+            ps.setString(6, error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+            ps.setString(7, row.valuesAsJson());
+            ps.setTimestamp(8, row.getRejectedAt() == null ? null : Timestamp.valueOf(row.getRejectedAt()));
+        });
+    }
+}
@@ -1,11 +1,14 @@
 package com.ainouss.jdatatools.batch.writer;
 
+import com.ainouss.jdatatools.batch.writer.bulk.BulkLoader;
 import com.ainouss.jdatatools.query.core.CriteriaQuery;
 import lombok.Builder;
 import lombok.Data;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.transaction.PlatformTransactionManager;
 
+import java.util.List;
+
 /**
  * Template processor
  */
@@ -45,5 +48,32 @@ public class JdbcWriteTemplate {
      * Correlation id for logging
      */
     private String correlationId;
+    /**
+     * Strategy isolating the rows rejected by the database when a batch fails
+     */
+    @Builder.Default
+    private FailureIsolation isolation = FailureIsolation.UPDATE_COUNTS;
+    /**
+     * Statements used to insert a chunk
+     */
+    @Builder.Default
+    private InsertMode insertMode = InsertMode.BATCH;
+    /**
+     * Java attributes of the key matched by {@link InsertMode#UPSERT}
+     */
+    private List<String> keys;
+    /**
+     * Destination of the rows rejected by the database, rejected rows are only logged if not set
+     */
+    private RejectedRowSink rejectedRowSink;
+    /**
+     * Loads chunks with the dialect-native bulk loader of the target database (COPY, LOAD DATA, bulk copy...),
+     * chunks are batch inserted if no loader supports the target or if a load fails
+     */
+    private boolean bulkLoad;
+    /**
+     * Bulk loader, resolved from the target database when bulk load is enabled and no loader is set
+     */
+    private BulkLoader bulkLoader;
 }
 
@@ -0,0 +1,355 @@
+package com.ainouss.jdatatools.batch.writer;
+
+import com.ainouss.jdatatools.batch.metadata.SqlColumn;
+import com.ainouss.jdatatools.batch.reader.KeyResolver;
+import com.ainouss.jdatatools.batch.util.QueryBuilder;
+import com.ainouss.jdatatools.query.core.FieldMetaData;
+import com.ainouss.jdatatools.query.registery.EntityRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlParameter;
+import org.springframework.jdbc.core.SqlTypeValue;
+import org.springframework.jdbc.core.StatementCreatorUtils;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterUtils;
+import org.springframework.jdbc.core.namedparam.ParsedSql;
+
+import javax.sql.DataSource;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Positional binder of a named insert query, compiled once per (class, query, data source) and cached, the {@link #MAX_BINDERS} last used are kept:
+ * - the named query is parsed once into a positional query
+ * - each parameter is resolved to a field getter method handle and a typed setter, primitive fields are bound without boxing
+ * - null values are bound with the SQL type of their column, read once from {@link SqlColumn} metadata,
+ * so that drivers are never asked for parameter metadata; column types are not refreshed after a DDL change
+ * until the binder is evicted or the cache is cleared, see {@link #clear()}
+ * Binding a row is a sequence of plain JDBC setX calls. Instances are immutable and thread safe.
+ *
+ * @param <T> bound type
+ */
+@Slf4j
+public final class ParameterBinder<T> {
+
+    static final int MAX_BINDERS = 1024;
+    /**
+     * Binders by class, query and data source, the least recently used is evicted once the cache is full
+     * so that data sources no longer written to are not kept reachable
+     */
+    private static final Map<Key, ParameterBinder<?>> CACHE = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, ParameterBinder<?>> eldest) {
+            return size() > MAX_BINDERS;
+        }
+    });
+
+    private final String sql;
+
+    private final ParameterSetter[] setters;
+
+    private final String[] names;
+
+    private final int[] sqlTypes;
+
+    private final MethodHandle[] getters;
+
+    private ParameterBinder(Class<T> clazz, String insert, JdbcTemplate jdbc) {
+        ParsedSql parsed = NamedParameterUtils.parseSqlStatement(insert);
+        MapSqlParameterSource noValues = new MapSqlParameterSource();
+        this.sql = NamedParameterUtils.substituteNamedParameters(parsed, noValues);
+        List<SqlParameter> parameters = NamedParameterUtils.buildSqlParameterList(parsed, noValues);
+        Map<String, Integer> columnTypes = sqlTypes(clazz, insert, jdbc);
+        this.setters = new ParameterSetter[parameters.size()];
+        this.names = new String[parameters.size()];
+        this.sqlTypes = new int[parameters.size()];
+        this.getters = new MethodHandle[parameters.size()];
+        for (int i = 0; i < parameters.size(); i++) {
+            String name = parameters.get(i).getName();
+            names[i] = name;
+            Field field = FieldUtils.getField(clazz, name, true);
+            if (field == null) {
+                throw new RuntimeException("parameter " + name + " of " + insert + " is not a field of " + clazz.getSimpleName());
+            }
+            try {
+                MethodHandles.Lookup owner = MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup());
+                MethodHandle getter = owner.unreflectGetter(field);
+                sqlTypes[i] = columnTypes.getOrDefault(name, javaSqlType(field.getType()));
+                getters[i] = getter.asType(MethodType.methodType(Object.class, Object.class));
+                setters[i] = setter(getter, field.getType(), sqlTypes[i]);
+            } catch (IllegalAccessException e) {
+                throw new RuntimeException("Could not compile a parameter binder for " + clazz.getSimpleName() + ", field " + name + " is not accessible", e);
+            }
+        }
+    }
+
+    /**
+     * Compiled binder of a class and an insert query, built on first use
+     *
+     * @param clazz  bound type
+     * @param insert named insert query, see {@link com.ainouss.jdatatools.query.core.CriteriaQuery#buildInsertQuery()}
+     * @param jdbc   target, used to read the column types once
+     * @param <T>    type
+     * @return cached binder
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ParameterBinder<T> of(Class<T> clazz, String insert, JdbcTemplate jdbc) {
+        Key key = new Key(clazz, insert, jdbc.getDataSource());
+        ParameterBinder<?> binder = CACHE.get(key);
+        if (binder == null) {
+            ParameterBinder<?> compiled = new ParameterBinder<>(clazz, insert, jdbc);
+            binder = Optional.<ParameterBinder<?>>ofNullable(CACHE.putIfAbsent(key, compiled)).orElse(compiled);
+        }
+        return (ParameterBinder<T>) binder;
+    }
+
+    /**
+     * Drops the cached binders, e.g. after a DDL change on a target, their column types are read again on next use
+     */
+    public static void clear() {
+        CACHE.clear();
+    }
+
+    /**
+     * Number of cached binders, for tests
+     */
+    static int size() {
+        return CACHE.size();
+    }
+
+    /**
+     * @return positional query
+     */
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * @return parameter names, in query order
+     */
+    public List<String> getNames() {
+        return List.of(names);
+    }
+
+    /**
+     * @param parameter parameter position, from 0
+     * @return SQL type of the parameter column
+     */
+    public int sqlType(int parameter) {
+        return sqlTypes[parameter];
+    }
+
+    /**
+     * @param row       row
+     * @param parameter parameter position, from 0
+     * @return value of the field bound to the parameter
+     */
+    public Object value(T row, int parameter) {
+        try {
+            return getters[parameter].invokeExact((Object) row);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Binds the fields of a row to the parameters of a prepared statement
+     *
+     * @param statement prepared statement of {@link #getSql()}
+     * @param row       row
+     * @throws SQLException on fail
+     */
+    public void bind(PreparedStatement statement, T row) throws SQLException {
+        bind(statement, row, 0);
+    }
+
+    /**
+     * Binds the fields of a row to the parameters of a prepared statement from an offset,
+     * used by multi-row inserts where row i starts at parameter i * number of parameters
+     *
+     * @param statement prepared statement
+     * @param row       row
+     * @param offset    number of parameters before the first parameter of the row
+     * @throws SQLException on fail
+     */
+    public void bind(PreparedStatement statement, T row, int offset) throws SQLException {
+        for (int i = 0; i < setters.length; i++) {
+            try {
+                setters[i].set(statement, offset + i + 1, row);
+            } catch (SQLException | RuntimeException e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    /**
+     * @param rows rows
+     * @return batch setter binding the rows in order
+     */
+    public BatchPreparedStatementSetter batch(List<? extends T> rows) {
+        return new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                bind(ps, rows.get(i));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        };
+    }
+
+    /**
+     * SQL type of each field, from the columns of the insert table
+     */
+    private static Map<String, Integer> sqlTypes(Class<?> clazz, String insert, JdbcTemplate jdbc) {
+        Map<String, Integer> sqlTypes = new HashMap<>();
+        String table = QueryBuilder.getTableNameFromInsertQuery(insert);
+        if (table == null || table.isBlank()) {
+            return sqlTypes;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        try {
+            for (SqlColumn column : KeyResolver.getColumns(jdbc, table)) {
+                columns.put(column.getColumnName().toUpperCase(Locale.ROOT), column.getDataType());
+            }
+        } catch (RuntimeException e) {
+            log.warn("could not read the columns of {}, null values are bound with java types, exception {}", table, e.getMessage());
+            return sqlTypes;
+        }
+        EntityRegistry.registerClass(clazz);
+        for (FieldMetaData field : EntityRegistry.getSelectableFields(clazz)) {
+            Integer sqlType = columns.get(field.getColumn().toUpperCase(Locale.ROOT));
+            if (sqlType != null) {
+                sqlTypes.put(field.getLabel(), sqlType);
+            }
+        }
+        return sqlTypes;
+    }
+
+    private static int javaSqlType(Class<?> type) {
+        int sqlType = StatementCreatorUtils.javaTypeToSqlParameterType(type);
+        return sqlType == SqlTypeValue.TYPE_UNKNOWN ? Types.NULL : sqlType;
+    }
+
+    /**
+     * Setter of a parameter: primitive fields are read and bound as primitives,
+     * other fields are bound with the setter of their type, or as objects of the column SQL type
+     *
+     * @param getter    field getter
+     * @param fieldType declared field type
+     * @param sqlType   SQL type of the column, used for null values
+     * @return parameter setter
+     */
+    private static ParameterSetter setter(MethodHandle getter, Class<?> fieldType, int sqlType) {
+        if (fieldType.isPrimitive()) {
+            MethodHandle primitive = getter.asType(MethodType.methodType(fieldType, Object.class));
+            if (fieldType == long.class) {
+                return (statement, index, row) -> statement.setLong(index, (long) primitive.invokeExact(row));
+            } else if (fieldType == int.class) {
+                return (statement, index, row) -> statement.setInt(index, (int) primitive.invokeExact(row));
+            } else if (fieldType == double.class) {
+                return (statement, index, row) -> statement.setDouble(index, (double) primitive.invokeExact(row));
+            } else if (fieldType == boolean.class) {
+                return (statement, index, row) -> statement.setBoolean(index, (boolean) primitive.invokeExact(row));
+            }
+        }
+        MethodHandle generic = getter.asType(MethodType.methodType(Object.class, Object.class));
+        ValueSetter value = valueSetter(fieldType, sqlType);
+        return (statement, index, row) -> {
+            Object v = generic.invokeExact(row);
+            if (v == null) {
+                statement.setNull(index, sqlType);
+            } else {
+                value.set(statement, index, v);
+            }
+        };
+    }
+
+    private static ValueSetter valueSetter(Class<?> type, int sqlType) {
+        if (type == Long.class || type == long.class) {
+            return (statement, index, value) -> statement.setLong(index, (Long) value);
+        } else if (type == Integer.class || type == int.class) {
+            return (statement, index, value) -> statement.setInt(index, (Integer) value);
+        } else if (type == Short.class || type == short.class) {
+            return (statement, index, value) -> statement.setShort(index, (Short) value);
+        } else if (type == Byte.class || type == byte.class) {
+            return (statement, index, value) -> statement.setByte(index, (Byte) value);
+        } else if (type == Double.class || type == double.class) {
+            return (statement, index, value) -> statement.setDouble(index, (Double) value);
+        } else if (type == Float.class || type == float.class) {
+            return (statement, index, value) -> statement.setFloat(index, (Float) value);
+        } else if (type == Boolean.class || type == boolean.class) {
+            return (statement, index, value) -> statement.setBoolean(index, (Boolean) value);
+        } else if (type == String.class) {
+            return (statement, index, value) -> statement.setString(index, (String) value);
+        } else if (type == BigDecimal.class) {
+            return (statement, index, value) -> statement.setBigDecimal(index, (BigDecimal) value);
+        } else if (type == LocalDate.class) {
+            return (statement, index, value) -> statement.setDate(index, Date.valueOf((LocalDate) value));
+        } else if (type == LocalDateTime.class) {
+            return (statement, index, value) -> statement.setTimestamp(index, Timestamp.valueOf((LocalDateTime) value));
+        } else if (type == LocalTime.class) {
+            return (statement, index, value) -> statement.setTime(index, Time.valueOf((LocalTime) value));
+        } else if (type == Date.class) {
+            return (statement, index, value) -> statement.setDate(index, (Date) value);
+        } else if (type == Timestamp.class) {
+            return (statement, index, value) -> statement.setTimestamp(index, (Timestamp) value);
+        } else if (type == Time.class) {
+            return (statement, index, value) -> statement.setTime(index, (Time) value);
+        } else if (type == byte[].class) {
+            return (statement, index, value) -> statement.setBytes(index, (byte[]) value);
+        } else if (type.isEnum()) {
+            return (statement, index, value) -> statement.setString(index, ((Enum<?>) value).name());
+        }
+        return (statement, index, value) -> StatementCreatorUtils.setParameterValue(statement, index, sqlType, value);
+    }
+
+    /**
+     * Reads a field of a row and binds it to a parameter
+     */
+    @FunctionalInterface
+    private interface ParameterSetter {
+        void set(PreparedStatement statement, int index, Object row) throws Throwable;
+    }
+
+    /**
+     * Binds a non null value to a parameter
+     */
+    @FunctionalInterface
+    private interface ValueSetter {
+        void set(PreparedStatement statement, int index, Object value) throws SQLException;
+    }
+
+    /**
+     * Cache key, the data source is compared by identity
+     */
+    private record Key(Class<?> clazz, String insert, DataSource dataSource) {
+    }
+}
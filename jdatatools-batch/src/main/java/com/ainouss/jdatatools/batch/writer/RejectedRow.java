@@ -0,0 +1,204 @@
+package com.ainouss.jdatatools.batch.writer;
+
+import com.ainouss.jdatatools.query.core.FieldMetaData;
+import com.ainouss.jdatatools.query.registery.EntityRegistry;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.apache.commons.lang3.reflect.FieldUtils;
+
+import java.math.BigDecimal;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.OffsetTime;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+import java.util.Base64;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A row rejected by the database, with enough context to be replayed, see {@link RejectedRowSink}
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RejectedRow {
+
+    /**
+     * Correlation id of the write
+     */
+    private String correlationId;
+    /**
+     * Target table
+     */
+    private String table;
+    /**
+     * Start of the chunk the row belongs to
+     */
+    private Integer start;
+    /**
+     * End of the chunk the row belongs to
+     */
+    private Integer end;
+    /**
+     * Position of the row in the whole read, null if unknown
+     */
+    private Integer row;
+    /**
+     * Database error
+     */
+    private String error;
+    /**
+     * Values of the row, by field label
+     */
+    private Map<String, Object> values;
+
+    @Builder.Default
+    private LocalDateTime rejectedAt = LocalDateTime.now();
+
+    /**
+     * Values of an entity, by field label
+     *
+     * @param entity entity
+     * @return values, in field order
+     */
+    public static Map<String, Object> values(Object entity) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        if (entity == null) {
+            return values;
+        }
+        EntityRegistry.registerClass(entity.getClass());
+        for (FieldMetaData field : EntityRegistry.getSelectableFields(entity.getClass())) {
+            try {
+                values.put(field.getLabel(), FieldUtils.readField(entity, field.getLabel(), true));
+            } catch (IllegalAccessException | IllegalArgumentException e) {
+                values.put(field.getLabel(), null);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Values as a JSON object, in a format independent of the JVM so that rows can be replayed:
+     * finite numbers (decimals in plain notation) and booleans as is, binaries in Base64, temporals in ISO-8601,
+     * enums by name, other values as their string
+     *
+     * @return values as a JSON object
+     */
+    public String valuesAsJson() {
+        StringBuilder json = new StringBuilder("{");
+        if (values != null) {
+            values.forEach((label, value) -> {
+                if (json.length() > 1) {
+                    json.append(',');
+                }
+                appendValue(appendJson(json, label).append(':'), value);
+            });
+        }
+        return json.append('}').toString();
+    }
+
+    /**
+     * @return the record as a single line JSON object
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder("{\"correlationId\":");
+        appendNullable(json, correlationId).append(",\"table\":");
+        appendNullable(json, table).append(",\"start\":").append(start)
+                .append(",\"end\":").append(end)
+                .append(",\"row\":").append(row)
+                .append(",\"error\":");
+        appendNullable(json, error).append(",\"rejectedAt\":");
+        appendNullable(json, rejectedAt == null ? null : DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(rejectedAt)).append(",\"values\":");
+        return json.append(valuesAsJson()).append('}').toString();
+    }
+
+    private static void appendValue(StringBuilder json, Object value) {
+        if (value == null) {
+            json.append("null");
+        } else if (value instanceof BigDecimal decimal) {
+            json.append(decimal.toPlainString());
+        } else if (value instanceof Double || value instanceof Float) {
+            double number = ((Number) value).doubleValue();
+            if (Double.isFinite(number)) {
+                json.append(value);
+            } else {
+                appendJson(json, value.toString());
+            }
+        } else if (value instanceof Number || value instanceof Boolean) {
+            json.append(value);
+        } else if (value instanceof byte[] bytes) {
+            appendJson(json, Base64.getEncoder().encodeToString(bytes));
+        } else if (value instanceof Enum<?> e) {
+            appendJson(json, e.name());
+        } else {
+            String temporal = iso(value);
+            appendJson(json, temporal == null ? value.toString() : temporal);
+        }
+    }
+
+    /**
+     * @param value value
+     * @return ISO-8601 form of a temporal value, JDBC temporals included, null if the value is not temporal
+     */
+    private static String iso(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(timestamp.toLocalDateTime());
+        } else if (value instanceof java.sql.Date date) {
+            return DateTimeFormatter.ISO_LOCAL_DATE.format(date.toLocalDate());
+        } else if (value instanceof Time time) {
+            return DateTimeFormatter.ISO_LOCAL_TIME.format(time.toLocalTime());
+        } else if (value instanceof Date date) {
+            return DateTimeFormatter.ISO_INSTANT.format(date.toInstant());
+        } else if (value instanceof LocalDateTime dateTime) {
+            return DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(dateTime);
+        } else if (value instanceof LocalDate date) {
+            return DateTimeFormatter.ISO_LOCAL_DATE.format(date);
+        } else if (value instanceof LocalTime time) {
+            return DateTimeFormatter.ISO_LOCAL_TIME.format(time);
+        } else if (value instanceof OffsetDateTime || value instanceof ZonedDateTime) {
+            return DateTimeFormatter.ISO_OFFSET_DATE_TIME.format((TemporalAccessor) value);
+        } else if (value instanceof OffsetTime time) {
+            return DateTimeFormatter.ISO_OFFSET_TIME.format(time);
+        } else if (value instanceof Instant instant) {
+            return DateTimeFormatter.ISO_INSTANT.format(instant);
+        }
+        return null;
+    }
+
+    private static StringBuilder appendNullable(StringBuilder json, String value) {
+        return value == null ? json.append("null") : appendJson(json, value);
+    }
+
+    private static StringBuilder appendJson(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        return json.append('"');
+    }
+}
@@ -0,0 +1,28 @@
+package com.ainouss.jdatatools.batch.writer;
+
+/**
+ * Destination of the rows rejected by the database during a write, see {@link JdbcWriteTemplate#getRejectedRowSink()}.
+ * Implementations should not block the writer, see {@link AsyncRejectedRowSink}.
+ * A sink is owned by the caller, which closes it once the writes are completed.
+ */
+public interface RejectedRowSink extends AutoCloseable {
+
+    /**
+     * @param row rejected row
+     */
+    void accept(RejectedRow row);
+
+    /**
+     * Waits until the accepted rows are written
+     */
+    default void flush() {
+    }
+
+    /**
+     * Writes the accepted rows and releases the sink
+     */
+    @Override
+    default void close() {
+        flush();
+    }
+}
@@ -0,0 +1,36 @@
+package com.ainouss.jdatatools.batch.writer.bulk;
+
+import com.ainouss.jdatatools.query.core.SqlDialect;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Dialect-native bulk load of a chunk (COPY, LOAD DATA, bulk copy...), used by the writer instead of a batch insert,
+ * see {@link com.ainouss.jdatatools.batch.writer.JdbcWriteTemplate#isBulkLoad()}.
+ * Implementations are discovered with {@link java.util.ServiceLoader}, see {@link BulkLoaders}.
+ * A load runs on the connection of the current transaction, the caller commits. A failed load writes nothing,
+ * the writer then falls back to a batch insert. A load returning less rows than requested is rolled back the same way,
+ * so that the rows skipped by the database are isolated and rejected by the batch insert.
+ */
+public interface BulkLoader {
+
+    /**
+     * @param dialect             dialect of the write criteria, the dialect of the source in a transfer
+     * @param databaseProductName product name of the target database
+     * @return true if this loader can load into the target database, decided on the product name
+     */
+    boolean supports(SqlDialect dialect, String databaseProductName);
+
+    /**
+     * Loads rows [0, size) into a table
+     *
+     * @param connection connection of the current transaction
+     * @param table      target table and columns
+     * @param size       number of rows
+     * @param values     row values, by column position
+     * @return number of loaded rows
+     * @throws SQLException on fail, or if the database reported rows it skipped or converted
+     */
+    long load(Connection connection, BulkTable table, int size, BulkValues values) throws SQLException;
+}
@@ -0,0 +1,105 @@
+package com.ainouss.jdatatools.batch.writer.bulk;
+
+import com.ainouss.jdatatools.query.core.SqlDialect;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.ServiceLoader;
+import java.util.ServiceConfigurationError;
+import java.util.stream.Collectors;
+
+/**
+ * Registry of the {@link BulkLoader} implementations found on the class path, declared in
+ * META-INF/services/com.ainouss.jdatatools.batch.writer.bulk.BulkLoader
+ */
+@Slf4j
+public final class BulkLoaders {
+
+    private static final List<BulkLoader> LOADERS = load();
+
+    private BulkLoaders() {
+    }
+
+    /**
+     * @param dialect             dialect of the write criteria
+     * @param databaseProductName product name of the target database
+     * @return first loader supporting the target database, null if the writer should use a batch insert
+     */
+    public static BulkLoader find(SqlDialect dialect, String databaseProductName) {
+        for (BulkLoader loader : LOADERS) {
+            if (loader.supports(dialect, databaseProductName)) {
+                return loader;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return registered loaders, in class path order
+     */
+    public static List<BulkLoader> getLoaders() {
+        return LOADERS;
+    }
+
+    /**
+     * The loader is chosen on the target connection only: the criteria dialect is the one of the source in a transfer
+     *
+     * @param databaseProductName product name of the target database
+     * @param product             lower case product name of the loader
+     * @return true if the product name is the one of the loader
+     */
+    static boolean matches(String databaseProductName, String product) {
+        return databaseProductName != null && databaseProductName.toLowerCase(Locale.ROOT).contains(product);
+    }
+
+    /**
+     * @param className driver class
+     * @return true if the driver class is on the class path
+     */
+    static boolean isPresent(String className) {
+        try {
+            Class.forName(className, false, BulkLoaders.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * @param value value of a row
+     * @return value as a JDBC object: java.time values as java.sql values, enums as their name
+     */
+    static Object jdbcValue(Object value) {
+        if (value instanceof LocalDate date) {
+            return Date.valueOf(date);
+        } else if (value instanceof LocalDateTime dateTime) {
+            return Timestamp.valueOf(dateTime);
+        } else if (value instanceof LocalTime time) {
+            return Time.valueOf(time);
+        } else if (value instanceof Enum<?> e) {
+            return e.name();
+        }
+        return value;
+    }
+
+    private static List<BulkLoader> load() {
+        try {
+            List<BulkLoader> loaders = ServiceLoader.load(BulkLoader.class, BulkLoaders.class.getClassLoader())
+                    .stream()
+                    .map(ServiceLoader.Provider::get)
+                    .collect(Collectors.toUnmodifiableList());
+            log.debug("bulk loaders {}", loaders.stream().map(loader -> loader.getClass().getSimpleName()).toList());
+            return loaders;
+        } catch (ServiceConfigurationError e) {
+            log.warn("could not load bulk loaders, writes use batch inserts, exception {}", e.getMessage());
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.ainouss.jdatatools.batch.writer.bulk;
+
+import com.ainouss.jdatatools.batch.metadata.SqlColumn;
+import com.ainouss.jdatatools.batch.reader.KeyResolver;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Target of a bulk load: table, loaded columns and their SQL type, precision and scale.
+ * Column metadata is read once per (data source, table, columns) and cached, the {@link #MAX_TABLES} last used are kept.
+ * It is not refreshed after a DDL change until the table is evicted or the cache is cleared, see {@link #clear()}.
+ */
+@Slf4j
+@Getter
+public final class BulkTable {
+
+    static final int MAX_TABLES = 1024;
+    /**
+     * Tables by data source, name and columns, the least recently used is evicted once the cache is full
+     * so that data sources no longer loaded into are not kept reachable
+     */
+    private static final Map<Key, BulkTable> CACHE = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, BulkTable> eldest) {
+            return size() > MAX_TABLES;
+        }
+    });
+
+    private final String name;
+
+    private final List<String> columns;
+
+    private final int[] sqlTypes;
+
+    private final int[] precisions;
+
+    private final int[] scales;
+
+    public BulkTable(String name, List<String> columns, int[] sqlTypes, int[] precisions, int[] scales) {
+        this.name = name;
+        this.columns = List.copyOf(columns);
+        this.sqlTypes = sqlTypes;
+        this.precisions = precisions;
+        this.scales = scales;
+    }
+
+    /**
+     * Table read from the database metadata, built on first use
+     *
+     * @param jdbc     target
+     * @param table    table name
+     * @param columns  loaded columns, in value order
+     * @param sqlTypes SQL type of each column, used when the column is not found in the metadata
+     * @return cached table
+     */
+    public static BulkTable of(JdbcTemplate jdbc, String table, List<String> columns, int[] sqlTypes) {
+        Key key = new Key(jdbc.getDataSource(), table, List.copyOf(columns));
+        BulkTable cached = CACHE.get(key);
+        if (cached == null) {
+            BulkTable read = read(jdbc, table, columns, sqlTypes);
+            cached = Optional.ofNullable(CACHE.putIfAbsent(key, read)).orElse(read);
+        }
+        return cached;
+    }
+
+    /**
+     * Drops the cached tables, e.g. after a DDL change on a target, their columns are read again on next use
+     */
+    public static void clear() {
+        CACHE.clear();
+    }
+
+    /**
+     * Number of cached tables, for tests
+     */
+    static int cached() {
+        return CACHE.size();
+    }
+
+    private static BulkTable read(JdbcTemplate jdbc, String table, List<String> columns, int[] sqlTypes) {
+        Map<String, SqlColumn> metadata = new HashMap<>();
+        try {
+            for (SqlColumn column : KeyResolver.getColumns(jdbc, table)) {
+                metadata.put(column.getColumnName().toUpperCase(Locale.ROOT), column);
+            }
+        } catch (RuntimeException e) {
+            log.warn("could not read the columns of {}, bulk loads use java types, exception {}", table, e.getMessage());
+        }
+        int[] types = new int[columns.size()];
+        int[] precisions = new int[columns.size()];
+        int[] scales = new int[columns.size()];
+        for (int i = 0; i < columns.size(); i++) {
+            SqlColumn column = metadata.get(columns.get(i).toUpperCase(Locale.ROOT));
+            types[i] = column == null ? sqlTypes[i] : column.getDataType();
+            precisions[i] = column == null ? 0 : column.getColumnSize();
+            scales[i] = column == null || column.getDecimalDigits() == null ? 0 : column.getDecimalDigits();
+        }
+        return new BulkTable(table, columns, types, precisions, scales);
+    }
+
+    /**
+     * @return number of loaded columns
+     */
+    public int size() {
+        return columns.size();
+    }
+
+    /**
+     * @return column list, as in an insert query
+     */
+    public String columnList() {
+        return String.join(", ", columns);
+    }
+
+    /**
+     * Cache key, the data source is compared by identity
+     */
+    private record Key(DataSource dataSource, String table, List<String> columns) {
+    }
+}
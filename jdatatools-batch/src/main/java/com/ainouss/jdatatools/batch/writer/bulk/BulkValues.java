@@ -0,0 +1,15 @@
+package com.ainouss.jdatatools.batch.writer.bulk;
+
+/**
+ * Values of the rows to load, read by position
+ */
+@FunctionalInterface
+public interface BulkValues {
+
+    /**
+     * @param row    row position, from 0
+     * @param column column position in {@link BulkTable#getColumns()}, from 0
+     * @return value, may be null
+     */
+    Object value(int row, int column);
+}
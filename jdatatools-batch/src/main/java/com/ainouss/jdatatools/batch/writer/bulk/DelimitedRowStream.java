@@ -0,0 +1,128 @@
+package com.ainouss.jdatatools.batch.writer.bulk;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+
+/**
+ * Rows encoded on the fly in the tab delimited text format shared by PostgreSQL COPY and MySQL LOAD DATA:
+ * one line per row, tab separated columns, null as \N, backslash, tab, new line and carriage return escaped with a backslash.
+ * A single row is held in memory at a time, the chunk is never rendered as a whole.
+ */
+class DelimitedRowStream extends InputStream {
+
+    private final int size;
+
+    private final int columns;
+
+    private final BulkValues values;
+
+    private final boolean numericBooleans;
+
+    private final boolean hexBinary;
+
+    private final StringBuilder line = new StringBuilder(256);
+
+    private byte[] buffer = new byte[0];
+
+    private int position;
+
+    private int row;
+
+    /**
+     * @param size            number of rows
+     * @param columns         number of columns
+     * @param values          row values
+     * @param numericBooleans booleans as 1 and 0, else as true and false
+     * @param hexBinary       binary values as \\x hex strings (PostgreSQL bytea), else binary values are not supported
+     */
+    DelimitedRowStream(int size, int columns, BulkValues values, boolean numericBooleans, boolean hexBinary) {
+        this.size = size;
+        this.columns = columns;
+        this.values = values;
+        this.numericBooleans = numericBooleans;
+        this.hexBinary = hexBinary;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!fill()) {
+            return -1;
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!fill()) {
+            return -1;
+        }
+        int n = Math.min(len, buffer.length - position);
+        System.arraycopy(buffer, position, b, off, n);
+        position += n;
+        return n;
+    }
+
+    /**
+     * @return false once all rows are read
+     */
+    private boolean fill() throws IOException {
+        while (position == buffer.length) {
+            if (row == size) {
+                return false;
+            }
+            line.setLength(0);
+            for (int column = 0; column < columns; column++) {
+                if (column > 0) {
+                    line.append('\t');
+                }
+                append(values.value(row, column));
+            }
+            line.append('\n');
+            buffer = line.toString().getBytes(StandardCharsets.UTF_8);
+            position = 0;
+            row++;
+        }
+        return true;
+    }
+
+    private void append(Object value) throws IOException {
+        if (value == null) {
+            line.append("\\N");
+        } else if (value instanceof Boolean b) {
+            line.append(numericBooleans ? (b ? "1" : "0") : b.toString());
+        } else if (value instanceof Number || value instanceof java.util.Date) {
+            line.append(value);
+        } else if (value instanceof LocalDateTime dateTime) {
+            line.append(Timestamp.valueOf(dateTime));
+        } else if (value instanceof Enum<?> e) {
+            escape(e.name());
+        } else if (value instanceof byte[] bytes) {
+            if (!hexBinary) {
+                throw new IOException("binary values are not supported by this bulk load, row " + row);
+            }
+            line.append("\\\\x").append(HexFormat.of().formatHex(bytes));
+        } else {
+            escape(value.toString());
+        }
+    }
+
+    private void escape(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> line.append("\\\\");
+                case '\t' -> line.append("\\t");
+                case '\n' -> line.append("\\n");
+                case '\r' -> line.append("\\r");
+                default -> line.append(c);
+            }
+        }
+    }
+}
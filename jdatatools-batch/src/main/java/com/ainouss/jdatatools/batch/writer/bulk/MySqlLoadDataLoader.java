@@ -0,0 +1,50 @@
+package com.ainouss.jdatatools.batch.writer.bulk;
+
+import com.ainouss.jdatatools.query.core.SqlDialect;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.Statement;
+
+/**
+ * MySQL bulk load: LOAD DATA LOCAL INFILE reading a generated stream instead of a file, see {@link DelimitedRowStream}.
+ * The stream is set on the driver statement, reached by unwrapping, the MySQL driver is not a dependency of this module.
+ * Requires allowLoadLocalInfile=true on the connection and local_infile enabled on the server, the writer falls back
+ * to a batch insert otherwise. Binary columns are not supported.
+ * LOAD DATA LOCAL skips the duplicate and invalid rows with a warning: a load with warnings fails, the writer then
+ * isolates the rejected rows with a batch insert.
+ */
+public class MySqlLoadDataLoader implements BulkLoader {
+
+    private static final String STATEMENT = "com.mysql.cj.jdbc.JdbcStatement";
+
+    @Override
+    public boolean supports(SqlDialect dialect, String databaseProductName) {
+        return BulkLoaders.matches(databaseProductName, "mysql") && BulkLoaders.isPresent(STATEMENT);
+    }
+
+    @Override
+    public long load(Connection connection, BulkTable table, int size, BulkValues values) throws SQLException {
+        String load = "LOAD DATA LOCAL INFILE 'stream' INTO TABLE " + table.getName() + " CHARACTER SET utf8mb4"
+                + " FIELDS TERMINATED BY '\\t' ESCAPED BY '\\\\' LINES TERMINATED BY '\\n' (" + table.columnList() + ")";
+        try (Statement statement = connection.createStatement();
+             InputStream rows = new DelimitedRowStream(size, table.size(), values, true, false)) {
+            Class<?> type = Class.forName(STATEMENT, true, getClass().getClassLoader());
+            type.getMethod("setLocalInfileInputStream", InputStream.class).invoke(statement.unwrap(type), rows);
+            long loaded = statement.executeLargeUpdate(load);
+            SQLWarning warning = statement.getWarnings();
+            if (warning != null) {
+                throw new SQLException("LOAD DATA into " + table.getName() + " loaded " + loaded + " of " + size + " rows with warnings, first warning : " + warning.getMessage(), warning);
+            }
+            return loaded;
+        } catch (InvocationTargetException e) {
+            throw e.getCause() instanceof SQLException sql ? sql : new SQLException("LOAD DATA into " + table.getName() + " failed", e.getCause());
+        } catch (ReflectiveOperationException | IOException e) {
+            throw new SQLException("LOAD DATA into " + table.getName() + " failed", e);
+        }
+    }
+}
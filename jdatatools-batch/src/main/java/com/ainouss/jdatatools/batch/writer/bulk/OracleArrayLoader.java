@@ -0,0 +1,42 @@
+package com.ainouss.jdatatools.batch.writer.bulk;
+
+import com.ainouss.jdatatools.query.core.SqlDialect;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+
+/**
+ * Oracle bulk load: the whole chunk is bound as arrays and sent in a single execution.
+ * The Oracle driver sends a JDBC batch as one array DML call, the chunk is added to one batch and executed once,
+ * without the update count checks of the batch insert.
+ */
+public class OracleArrayLoader implements BulkLoader {
+
+    @Override
+    public boolean supports(SqlDialect dialect, String databaseProductName) {
+        return BulkLoaders.matches(databaseProductName, "oracle");
+    }
+
+    @Override
+    public long load(Connection connection, BulkTable table, int size, BulkValues values) throws SQLException {
+        String insert = "INSERT INTO " + table.getName() + " (" + table.columnList() + ") VALUES ("
+                + String.join(", ", Collections.nCopies(table.size(), "?")) + ")";
+        try (PreparedStatement statement = connection.prepareStatement(insert)) {
+            for (int row = 0; row < size; row++) {
+                for (int column = 0; column < table.size(); column++) {
+                    Object value = BulkLoaders.jdbcValue(values.value(row, column));
+                    if (value == null) {
+                        statement.setNull(column + 1, table.getSqlTypes()[column]);
+                    } else {
+                        statement.setObject(column + 1, value);
+                    }
+                }
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+        return size;
+    }
+}
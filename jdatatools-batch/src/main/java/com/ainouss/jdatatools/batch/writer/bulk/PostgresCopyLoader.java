@@ -0,0 +1,37 @@
+package com.ainouss.jdatatools.batch.writer.bulk;
+
+import com.ainouss.jdatatools.query.core.SqlDialect;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * PostgreSQL bulk load: COPY FROM STDIN, rows are streamed in the text format as they are encoded, see {@link DelimitedRowStream}.
+ * The driver CopyManager is reached by unwrapping the connection, the PostgreSQL driver is not a dependency of this module.
+ */
+public class PostgresCopyLoader implements BulkLoader {
+
+    private static final String CONNECTION = "org.postgresql.PGConnection";
+
+    @Override
+    public boolean supports(SqlDialect dialect, String databaseProductName) {
+        return BulkLoaders.matches(databaseProductName, "postgresql") && BulkLoaders.isPresent(CONNECTION);
+    }
+
+    @Override
+    public long load(Connection connection, BulkTable table, int size, BulkValues values) throws SQLException {
+        String copy = "COPY " + table.getName() + " (" + table.columnList() + ") FROM STDIN";
+        try (InputStream rows = new DelimitedRowStream(size, table.size(), values, false, true)) {
+            Class<?> type = Class.forName(CONNECTION, true, getClass().getClassLoader());
+            Object copyManager = type.getMethod("getCopyAPI").invoke(connection.unwrap(type));
+            return (long) copyManager.getClass().getMethod("copyIn", String.class, InputStream.class).invoke(copyManager, copy, rows);
+        } catch (InvocationTargetException e) {
+            throw e.getCause() instanceof SQLException sql ? sql : new SQLException("COPY into " + table.getName() + " failed", e.getCause());
+        } catch (ReflectiveOperationException | IOException e) {
+            throw new SQLException("COPY into " + table.getName() + " failed", e);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.ainouss.jdatatools.batch.writer.bulk;
+
+import com.ainouss.jdatatools.query.core.SqlDialect;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * SQL Server bulk load: SQLServerBulkCopy reading the rows through an ISQLServerBulkData source, one row at a time.
+ * The driver classes are reached by reflection, the SQL Server driver is not a dependency of this module.
+ * The copy runs in the transaction of the connection, unwrapped from the pool proxy. Constraints are checked and triggers fired,
+ * so that the copy accepts the rows a batch insert accepts.
+ */
+public class SqlServerBulkCopyLoader implements BulkLoader {
+
+    private static final String BULK_COPY = "com.microsoft.sqlserver.jdbc.SQLServerBulkCopy";
+    private static final String BULK_DATA = "com.microsoft.sqlserver.jdbc.ISQLServerBulkData";
+    private static final String BULK_COPY_OPTIONS = "com.microsoft.sqlserver.jdbc.SQLServerBulkCopyOptions";
+    private static final String CONNECTION = "com.microsoft.sqlserver.jdbc.ISQLServerConnection";
+
+    @Override
+    public boolean supports(SqlDialect dialect, String databaseProductName) {
+        return BulkLoaders.matches(databaseProductName, "microsoft sql server") && BulkLoaders.isPresent(BULK_DATA);
+    }
+
+    @Override
+    public long load(Connection connection, BulkTable table, int size, BulkValues values) throws SQLException {
+        try {
+            ClassLoader classLoader = getClass().getClassLoader();
+            Class<?> bulkCopyType = Class.forName(BULK_COPY, true, classLoader);
+            Class<?> dataType = Class.forName(BULK_DATA, true, classLoader);
+            Class<?> optionsType = Class.forName(BULK_COPY_OPTIONS, true, classLoader);
+            Connection driverConnection = (Connection) connection.unwrap(Class.forName(CONNECTION, true, classLoader));
+            AutoCloseable bulkCopy = (AutoCloseable) bulkCopyType.getConstructor(Connection.class).newInstance(driverConnection);
+            try (bulkCopy) {
+                Object options = optionsType.getConstructor().newInstance();
+                optionsType.getMethod("setCheckConstraints", boolean.class).invoke(options, true);
+                optionsType.getMethod("setFireTriggers", boolean.class).invoke(options, true);
+                bulkCopyType.getMethod("setBulkCopyOptions", optionsType).invoke(bulkCopy, options);
+                bulkCopyType.getMethod("setDestinationTableName", String.class).invoke(bulkCopy, table.getName());
+                Method mapping = bulkCopyType.getMethod("addColumnMapping", int.class, String.class);
+                for (int column = 0; column < table.size(); column++) {
+                    mapping.invoke(bulkCopy, column + 1, table.getColumns().get(column));
+                }
+                Object data = Proxy.newProxyInstance(classLoader, new Class<?>[]{dataType}, new Rows(table, size, values));
+                bulkCopyType.getMethod("writeToServer", dataType).invoke(bulkCopy, data);
+            }
+            return size;
+        } catch (InvocationTargetException e) {
+            throw e.getCause() instanceof SQLException sql ? sql : new SQLException("bulk copy into " + table.getName() + " failed", e.getCause());
+        } catch (SQLException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new SQLException("bulk copy into " + table.getName() + " failed", e);
+        }
+    }
+
+    /**
+     * ISQLServerBulkData source over the rows, columns are numbered from 1
+     */
+    private static final class Rows implements InvocationHandler {
+
+        private final BulkTable table;
+
+        private final int size;
+
+        private final BulkValues values;
+
+        private int row = -1;
+
+        private Rows(BulkTable table, int size, BulkValues values) {
+            this.table = table;
+            this.size = size;
+            this.values = values;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            return switch (method.getName()) {
+                case "getColumnOrdinals" -> {
+                    Set<Integer> ordinals = new LinkedHashSet<>();
+                    for (int column = 1; column <= table.size(); column++) {
+                        ordinals.add(column);
+                    }
+                    yield ordinals;
+                }
+                case "getColumnName" -> table.getColumns().get((int) args[0] - 1);
+                case "getColumnType" -> table.getSqlTypes()[(int) args[0] - 1];
+                case "getPrecision" -> table.getPrecisions()[(int) args[0] - 1];
+                case "getScale" -> table.getScales()[(int) args[0] - 1];
+                case "next" -> ++row < size;
+                case "getRowData" -> {
+                    Object[] data = new Object[table.size()];
+                    for (int column = 0; column < data.length; column++) {
+                        data[column] = BulkLoaders.jdbcValue(values.value(row, column));
+                    }
+                    yield data;
+                }
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                case "toString" -> "bulk rows of " + table.getName();
+                default -> method.isDefault() ? InvocationHandler.invokeDefault(proxy, method, args) : null;
+            };
+        }
+    }
+}
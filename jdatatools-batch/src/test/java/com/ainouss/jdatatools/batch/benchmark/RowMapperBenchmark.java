@@ -0,0 +1,106 @@
+package com.ainouss.jdatatools.batch.benchmark;
+
+import com.ainouss.jdatatools.batch.model.Person;
+import com.ainouss.jdatatools.batch.reader.CompiledRowMapper;
+import com.ainouss.jdatatools.batch.reader.RowExtractor;
+import com.ainouss.jdatatools.batch.reader.RowMapperGenerator;
+import com.ainouss.jdatatools.query.core.CriteriaQuery;
+import com.ainouss.jdatatools.query.core.FieldMetaData;
+import com.ainouss.jdatatools.query.registery.EntityRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.RowMapper;
+
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetProvider;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maps the same in-memory result set through the reflective {@link RowExtractor#extract} path, the {@link CompiledRowMapper}
+ * and the {@link RowMapperGenerator} generated mapper.
+ * Rows are cached in a {@link CachedRowSet} so that only the mapping is measured.
+ * Run with {@code main}, from the IDE or the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RowMapperBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    private CachedRowSet rows;
+    private List<FieldMetaData> fields;
+
+    @Setup
+    public void setUp() throws SQLException {
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1")) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("create table if not exists PERSONS (ID bigint primary key, NAME varchar(50), AMOUNT double, BIRTH_DATE date)");
+                statement.execute("delete from PERSONS");
+            }
+            try (PreparedStatement insert = connection.prepareStatement("insert into PERSONS values (?, ?, ?, ?)")) {
+                for (int i = 0; i < ROWS; i++) {
+                    insert.setLong(1, i);
+                    insert.setString(2, "name-" + i);
+                    insert.setDouble(3, i * 1.5);
+                    insert.setDate(4, java.sql.Date.valueOf("2000-01-01"));
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+            CriteriaQuery<Person> criteria = EntityRegistry.criteriaBuilder().createQuery(Person.class);
+            criteria.from(Person.class);
+            String select = criteria.buildSelectQuery();
+            fields = criteria.getFields();
+            rows = RowSetProvider.newFactory().createCachedRowSet();
+            try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery(select)) {
+                rows.populate(resultSet);
+            }
+        }
+    }
+
+    @Benchmark
+    public void reflective(Blackhole blackhole) throws SQLException {
+        rows.beforeFirst();
+        while (rows.next()) {
+            blackhole.consume(RowExtractor.<Person, Person>extract(rows, Person.class, fields, null, "bench"));
+        }
+    }
+
+    @Benchmark
+    public void compiled(Blackhole blackhole) throws SQLException {
+        rows.beforeFirst();
+        RowMapper<Person> mapper = CompiledRowMapper.of(Person.class, fields).bind(rows, "bench");
+        int row = 0;
+        while (rows.next()) {
+            blackhole.consume(mapper.mapRow(rows, row++));
+        }
+    }
+
+    @Benchmark
+    public void generated(Blackhole blackhole) throws SQLException {
+        rows.beforeFirst();
+        RowMapper<Person> mapper = RowMapperGenerator.bind(Person.class, fields, rows, "bench");
+        int row = 0;
+        while (rows.next()) {
+            blackhole.consume(mapper.mapRow(rows, row++));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(RowMapperBenchmark.class.getSimpleName()).build()).run();
+    }
+}
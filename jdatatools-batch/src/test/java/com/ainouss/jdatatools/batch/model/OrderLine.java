@@ -0,0 +1,20 @@
+package com.ainouss.jdatatools.batch.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+@Data
+@Table(name = "ORDER_LINES")
+public class OrderLine {
+
+    @Column(name = "ORDER_ID")
+    private Long orderId;
+
+    @Column(name = "LINE_NO")
+    private Integer lineNo;
+
+    @Column(name = "PRODUCT")
+    private String product;
+
+}
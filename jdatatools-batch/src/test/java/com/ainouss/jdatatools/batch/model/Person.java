@@ -0,0 +1,27 @@
+package com.ainouss.jdatatools.batch.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+@Table(name = "PERSONS")
+public class Person {
+
+    @Id
+    @Column(name = "ID")
+    private Long id;
+
+    @Column(name = "NAME")
+    private String name;
+
+    @Column(name = "AMOUNT")
+    private Double amount;
+
+    @Column(name = "BIRTH_DATE")
+    private LocalDate birthDate;
+
+}
@@ -0,0 +1,91 @@
+package com.ainouss.jdatatools.batch.reader;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChunkDispatcherTest {
+
+    @Test
+    void should__never_run_more_than_max_in_flight_tasks() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        List<Supplier<Integer>> tasks = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            final int task = i;
+            tasks.add(() -> {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+                return task;
+            });
+        }
+        Queue<Integer> results = new ConcurrentLinkedQueue<>();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        List<CompletableFuture<Void>> futures = ChunkDispatcher.dispatch(tasks, results::add, executor, 3, new AtomicBoolean(false));
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        executor.shutdown();
+
+        assertEquals(50, results.size());
+        assertTrue(peak.get() <= 3);
+    }
+
+    @Test
+    void should__skip_remaining_tasks_once_canceled() {
+        AtomicBoolean canceled = new AtomicBoolean(false);
+        AtomicInteger runs = new AtomicInteger();
+        List<Supplier<Integer>> tasks = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            tasks.add(() -> {
+                canceled.set(true);
+                return runs.incrementAndGet();
+            });
+        }
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        List<CompletableFuture<Void>> futures = ChunkDispatcher.dispatch(tasks, v -> {
+        }, executor, 1, canceled);
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        executor.shutdown();
+
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void should__dispatch_on_a_caller_runs_executor_without_growing_the_stack() {
+        List<Supplier<Integer>> tasks = new ArrayList<>();
+        for (int i = 0; i < 200_000; i++) {
+            final int task = i;
+            tasks.add(() -> task);
+        }
+        AtomicInteger consumed = new AtomicInteger();
+
+        List<CompletableFuture<Void>> futures = ChunkDispatcher.dispatch(tasks, v -> consumed.incrementAndGet(), Runnable::run, 2, new AtomicBoolean(false));
+
+        assertEquals(200_000, consumed.get());
+        assertTrue(futures.stream().allMatch(CompletableFuture::isDone));
+    }
+
+    @Test
+    void should__default_pool_size_to_processors_for_unpooled_data_source() {
+        assertEquals(Runtime.getRuntime().availableProcessors(), ChunkDispatcher.poolSize(new DriverManagerDataSource()));
+    }
+}
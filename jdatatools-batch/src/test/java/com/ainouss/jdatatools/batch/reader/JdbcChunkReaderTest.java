@@ -0,0 +1,319 @@
+package com.ainouss.jdatatools.batch.reader;
+
+import com.ainouss.jdatatools.batch.data.Chunk;
+import com.ainouss.jdatatools.batch.data.ColumnarChunk;
+import com.ainouss.jdatatools.batch.model.OrderLine;
+import com.ainouss.jdatatools.batch.model.Person;
+import com.ainouss.jdatatools.query.core.CriteriaBuilder;
+import com.ainouss.jdatatools.query.core.CriteriaQuery;
+import com.ainouss.jdatatools.query.core.Root;
+import com.ainouss.jdatatools.query.registery.EntityRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JdbcChunkReaderTest {
+
+    private static final int PERSONS = 2500;
+    private static final int ORDERS = 3;
+    private static final int LINES = 700;
+
+    private static EmbeddedDatabase db;
+    private static JdbcTemplate jdbc;
+
+    private final JdbcChunkReader reader = new JdbcChunkReader();
+
+    @BeforeAll
+    static void setUp() {
+        db = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        jdbc = new JdbcTemplate(db);
+        jdbc.execute("create table PERSONS (ID bigint primary key, NAME varchar(50), AMOUNT double, BIRTH_DATE date)");
+        jdbc.execute("create table ORDER_LINES (ORDER_ID bigint, LINE_NO int, PRODUCT varchar(50), primary key (ORDER_ID, LINE_NO))");
+        List<Object[]> persons = new ArrayList<>();
+        for (int i = 1; i <= PERSONS; i++) {
+            persons.add(new Object[]{(long) i, "name-" + i, i % 7 == 0 ? null : i * 1.5, Date.valueOf(LocalDate.of(1950, 1, 1).plusDays(i * 9L))});
+        }
+        jdbc.batchUpdate("insert into PERSONS (ID, NAME, AMOUNT, BIRTH_DATE) values (?, ?, ?, ?)", persons);
+        List<Object[]> lines = new ArrayList<>();
+        for (int o = 1; o <= ORDERS; o++) {
+            for (int l = 1; l <= LINES; l++) {
+                lines.add(new Object[]{(long) o, l, "product-" + o + "-" + l});
+            }
+        }
+        jdbc.batchUpdate("insert into ORDER_LINES (ORDER_ID, LINE_NO, PRODUCT) values (?, ?, ?)", lines);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        db.shutdown();
+    }
+
+    @Test
+    void should__read_keyset_chunks_on_id() {
+        Queue<Chunk<? extends Person>> chunks = new ConcurrentLinkedQueue<>();
+        JdbcReadTemplate<Person, Person> template = JdbcReadTemplate.<Person, Person>builder()
+                .clazz(Person.class)
+                .jdbcTemplate(jdbc)
+                .mode(ReadMode.KEYSET)
+                .fetchSize(1000)
+                .build();
+        template.setConsumer(chunks::add);
+
+        reader.process(template).join();
+
+        assertEquals(List.of("id"), template.getKeys());
+        assertEquals(3, chunks.size());
+        List<Long> ids = chunks.stream()
+                .flatMap(chunk -> chunk.getData().stream())
+                .map(Person::getId)
+                .sorted()
+                .toList();
+        assertEquals(PERSONS, ids.size());
+        assertEquals(PERSONS, ids.stream().distinct().count());
+        assertTrue(chunks.stream().anyMatch(chunk -> chunk.getStart() == 2000 && chunk.getEnd() == PERSONS));
+    }
+
+    @Test
+    void should__bound_the_keyset_chunks_consumed_at_once() {
+        AtomicInteger consuming = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        JdbcReadTemplate<Person, Person> template = JdbcReadTemplate.<Person, Person>builder()
+                .clazz(Person.class)
+                .jdbcTemplate(jdbc)
+                .mode(ReadMode.KEYSET)
+                .fetchSize(100)
+                .maxInFlight(2)
+                .build();
+        template.setConsumer(chunk -> {
+            peak.accumulateAndGet(consuming.incrementAndGet(), Math::max);
+            LockSupport.parkNanos(1_000_000);
+            consuming.decrementAndGet();
+        });
+
+        List<Void> consumed = reader.process(template).join();
+
+        assertEquals(PERSONS / 100, consumed.size());
+        assertTrue(peak.get() <= 2);
+    }
+
+    @Test
+    void should__read_keyset_chunks_on_composite_primary_key() {
+        Queue<Chunk<? extends String>> chunks = new ConcurrentLinkedQueue<>();
+        JdbcReadTemplate<OrderLine, String> template = JdbcReadTemplate.<OrderLine, String>builder()
+                .clazz(OrderLine.class)
+                .jdbcTemplate(jdbc)
+                .mode(ReadMode.KEYSET)
+                .mapper(OrderLine::getProduct)
+                .fetchSize(400)
+                .build();
+        template.setConsumer(chunks::add);
+
+        reader.process(template).join();
+
+        assertEquals(List.of("orderId", "lineNo"), template.getKeys());
+        List<String> products = chunks.stream()
+                .flatMap(chunk -> chunk.getData().stream())
+                .map(String.class::cast)
+                .toList();
+        assertEquals(ORDERS * LINES, products.size());
+        assertEquals(ORDERS * LINES, products.stream().distinct().count());
+    }
+
+    @Test
+    void should__reject_keyset_reads_not_selecting_the_keys() {
+        CriteriaQuery<Person> criteria = EntityRegistry.criteriaBuilder().createQuery(Person.class);
+        Root<Person> root = criteria.from(Person.class);
+        criteria.select(root.get("name"));
+        JdbcReadTemplate<Person, Person> template = JdbcReadTemplate.<Person, Person>builder()
+                .clazz(Person.class)
+                .jdbcTemplate(jdbc)
+                .criteria(criteria)
+                .mode(ReadMode.KEYSET)
+                .fetchSize(1000)
+                .build();
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> reader.process(template));
+        assertTrue(e.getMessage().contains("[id]"));
+    }
+
+    @Test
+    void should__read_range_partitions_on_id() {
+        Queue<Chunk<? extends Person>> chunks = new ConcurrentLinkedQueue<>();
+        JdbcReadTemplate<Person, Person> template = JdbcReadTemplate.<Person, Person>builder()
+                .clazz(Person.class)
+                .jdbcTemplate(jdbc)
+                .mode(ReadMode.RANGE)
+                .partitions(4)
+                .maxInFlight(2)
+                .virtualThreads(true)
+                .build();
+        template.setConsumer(chunks::add);
+
+        reader.process(template).join();
+
+        assertEquals("id", template.getSplitBy());
+        assertEquals(5, chunks.size());
+        List<Long> ids = chunks.stream()
+                .flatMap(chunk -> chunk.getData().stream())
+                .map(Person::getId)
+                .toList();
+        assertEquals(PERSONS, ids.size());
+        assertEquals(PERSONS, ids.stream().distinct().count());
+    }
+
+    @Test
+    void should__reject_range_reads_on_an_unknown_split_column() {
+        JdbcReadTemplate<Person, Person> template = JdbcReadTemplate.<Person, Person>builder()
+                .clazz(Person.class)
+                .jdbcTemplate(jdbc)
+                .mode(ReadMode.RANGE)
+                .splitBy("missing")
+                .build();
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> reader.process(template));
+        assertEquals("split column missing is not a field of Person", e.getMessage());
+    }
+
+    @Test
+    void should__read_range_partitions_on_nullable_decimal() {
+        Queue<Chunk<? extends Person>> chunks = new ConcurrentLinkedQueue<>();
+        JdbcReadTemplate<Person, Person> template = JdbcReadTemplate.<Person, Person>builder()
+                .clazz(Person.class)
+                .jdbcTemplate(jdbc)
+                .mode(ReadMode.RANGE)
+                .splitBy("amount")
+                .partitions(3)
+                .build();
+        template.setConsumer(chunks::add);
+
+        reader.process(template).join();
+
+        assertEquals(4, chunks.size());
+        assertEquals(PERSONS, chunks.stream().mapToInt(chunk -> chunk.getData().size()).sum());
+        assertEquals(PERSONS / 7, chunks.stream()
+                .filter(chunk -> chunk.getStart() == 3)
+                .mapToInt(chunk -> chunk.getData().size())
+                .sum());
+    }
+
+    @Test
+    void should__read_range_partitions_on_date_by_fetch_size() {
+        Queue<Chunk<? extends Person>> chunks = new ConcurrentLinkedQueue<>();
+        JdbcReadTemplate<Person, Person> template = JdbcReadTemplate.<Person, Person>builder()
+                .clazz(Person.class)
+                .jdbcTemplate(jdbc)
+                .mode(ReadMode.RANGE)
+                .splitBy("birthDate")
+                .fetchSize(9000)
+                .build();
+        template.setConsumer(chunks::add);
+
+        reader.process(template).join();
+
+        assertEquals(4, chunks.size());
+        assertEquals(PERSONS, chunks.stream().mapToInt(chunk -> chunk.getData().size()).sum());
+    }
+
+    @Test
+    void should__bind_criteria_literals_as_parameters() {
+        Queue<Chunk<? extends Person>> chunks = new ConcurrentLinkedQueue<>();
+        CriteriaBuilder cb = EntityRegistry.criteriaBuilder();
+        CriteriaQuery<Person> criteria = cb.createQuery(Person.class);
+        Root<Person> root = criteria.from(Person.class);
+        criteria.where(cb.and(cb.gt(root.get("id"), 2000L), cb.startsWith(root.get("name"), "name-2")));
+        JdbcReadTemplate<Person, Person> template = JdbcReadTemplate.<Person, Person>builder()
+                .clazz(Person.class)
+                .criteria(criteria)
+                .jdbcTemplate(jdbc)
+                .fetchSize(200)
+                .build();
+        template.setConsumer(chunks::add);
+
+        reader.process(template).join();
+
+        assertTrue(template.getSelect().contains("PERSONS.ID > ? and PERSONS.NAME like ?"));
+        assertEquals(List.of(2000L, "name-2%"), template.getParameters());
+        assertEquals(500, template.getCount());
+        assertEquals(500, chunks.stream().flatMap(chunk -> chunk.getData().stream()).map(Person::getId).distinct().count());
+    }
+
+    @Test
+    void should__stream_chunks_from_a_single_cursor() {
+        List<Chunk<? extends Person>> chunks = new ArrayList<>();
+        JdbcReadTemplate<Person, Person> template = JdbcReadTemplate.<Person, Person>builder()
+                .clazz(Person.class)
+                .jdbcTemplate(jdbc)
+                .mode(ReadMode.STREAM)
+                .fetchSize(1000)
+                .generatedMapper(true)
+                .build();
+        template.setConsumer(chunks::add);
+
+        reader.process(template).join();
+
+        assertNull(template.getCount());
+        assertEquals(List.of(0, 1000, 2000), chunks.stream().map(Chunk::getStart).toList());
+        assertEquals(List.of(1000, 1000, 500), chunks.stream().map(Chunk::getSize).toList());
+        assertEquals(PERSONS, chunks.stream().flatMap(chunk -> chunk.getData().stream()).map(Person::getId).distinct().count());
+    }
+
+    @Test
+    void should__stream_columnar_chunks() {
+        List<ColumnarChunk> chunks = new ArrayList<>();
+        JdbcReadTemplate<Person, Person> template = JdbcReadTemplate.<Person, Person>builder()
+                .clazz(Person.class)
+                .jdbcTemplate(jdbc)
+                .fetchSize(1000)
+                .build();
+
+        reader.processColumnar(template, chunks::add).join();
+
+        assertEquals(List.of(0, 1000, 2000), chunks.stream().map(ColumnarChunk::getStart).toList());
+        assertEquals(List.of(1000, 1000, 500), chunks.stream().map(ColumnarChunk::getSize).toList());
+        long ids = 0;
+        int nullAmounts = 0;
+        for (ColumnarChunk chunk : chunks) {
+            ColumnarChunk.LongColumn id = (ColumnarChunk.LongColumn) chunk.column("id");
+            ColumnarChunk.DoubleColumn amount = (ColumnarChunk.DoubleColumn) chunk.column("amount");
+            for (int row = 0; row < chunk.getSize(); row++) {
+                ids += id.getLong(row);
+                if (amount.isNull(row)) {
+                    nullAmounts++;
+                } else {
+                    assertEquals(id.getLong(row) * 1.5, amount.getDouble(row));
+                }
+            }
+        }
+        assertEquals((long) PERSONS * (PERSONS + 1) / 2, ids);
+        assertEquals(PERSONS / 7, nullAmounts);
+        ColumnarChunk first = chunks.get(0);
+        int row = 0;
+        while (((ColumnarChunk.LongColumn) first.column("id")).getLong(row) != 7) {
+            row++;
+        }
+        assertEquals("name-7", ((ColumnarChunk.StringColumn) first.column("name")).getString(row));
+        assertNull(first.get(row, "amount"));
+        assertEquals(LocalDate.of(1950, 1, 1).plusDays(63), first.get(row, "birthDate"));
+    }
+}
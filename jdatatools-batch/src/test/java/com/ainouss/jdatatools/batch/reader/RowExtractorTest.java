@@ -0,0 +1,144 @@
+package com.ainouss.jdatatools.batch.reader;
+
+import com.ainouss.jdatatools.batch.metadata.SqlColumn;
+import com.ainouss.jdatatools.batch.metadata.SqlPrimaryKey;
+import com.ainouss.jdatatools.batch.model.Person;
+import com.ainouss.jdatatools.query.core.CriteriaQuery;
+import com.ainouss.jdatatools.query.core.FieldMetaData;
+import com.ainouss.jdatatools.query.registery.EntityRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RowExtractorTest {
+
+    private static EmbeddedDatabase db;
+    private static JdbcTemplate jdbc;
+
+    @BeforeAll
+    static void setUp() {
+        db = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        jdbc = new JdbcTemplate(db);
+        jdbc.execute("create table PERSONS (ID bigint primary key, NAME varchar(50), AMOUNT double, BIRTH_DATE date)");
+        jdbc.update("insert into PERSONS values (1, ' Ada ', 12.5, date '1815-12-10'), (2, 'Alan', null, null)");
+    }
+
+    @AfterAll
+    static void tearDown() {
+        db.shutdown();
+    }
+
+    @Test
+    void should__map_metadata_rows_by_column_annotation() {
+        List<SqlColumn> columns = jdbc.execute((ConnectionCallback<List<SqlColumn>>) connection ->
+                RowExtractor.asList(connection.getMetaData().getColumns(null, null, "PERSONS", null), SqlColumn.class));
+
+        assertEquals(List.of("ID", "NAME", "AMOUNT", "BIRTH_DATE"), columns.stream().map(SqlColumn::getColumnName).toList());
+        assertEquals("PERSONS", columns.get(0).getTableName());
+        assertEquals(Types.BIGINT, columns.get(0).getDataType());
+        assertEquals(4, columns.get(3).getOrdinalPosition());
+    }
+
+    @Test
+    void should__map_rows_by_column_index_through_compiled_mapper() {
+        CriteriaQuery<Person> criteria = EntityRegistry.criteriaBuilder().createQuery(Person.class);
+        criteria.from(Person.class);
+        String select = criteria.buildSelectQuery();
+        CompiledRowMapper<Person> mapper = CompiledRowMapper.of(Person.class, criteria.getFields());
+
+        List<Person> persons = jdbc.query(select + " order by ID", resultSet -> {
+            var rows = mapper.bind(resultSet, "test");
+            List<Person> data = new ArrayList<>();
+            while (resultSet.next()) {
+                data.add(rows.mapRow(resultSet, data.size()));
+            }
+            return data;
+        });
+
+        assertSame(mapper, CompiledRowMapper.of(Person.class, criteria.getFields()));
+        assertEquals(2, persons.size());
+        assertEquals("Ada", persons.get(0).getName());
+        assertEquals(12.5, persons.get(0).getAmount());
+        assertEquals(LocalDate.of(1815, 12, 10), persons.get(0).getBirthDate());
+        assertNull(persons.get(1).getAmount());
+        assertNull(persons.get(1).getBirthDate());
+    }
+
+    @Test
+    void should__map_primitive_fields_and_keep_defaults_on_null() {
+        List<FieldMetaData> fields = List.of(
+                new FieldMetaData("id", "ID", long.class),
+                new FieldMetaData("amount", "AMOUNT", double.class),
+                new FieldMetaData("enabled", "ENABLED", boolean.class),
+                new FieldMetaData("rank", "RANK", int.class));
+        CompiledRowMapper<Counter> mapper = CompiledRowMapper.of(Counter.class, fields);
+
+        List<Counter> counters = jdbc.query("select ID, AMOUNT, ID = 1 as ENABLED, 7 as RANK from PERSONS order by ID", (ResultSetExtractor<List<Counter>>) resultSet -> {
+            var rows = mapper.bind(resultSet, "test");
+            List<Counter> data = new ArrayList<>();
+            while (resultSet.next()) {
+                data.add(rows.mapRow(resultSet, data.size()));
+            }
+            return data;
+        });
+
+        assertEquals(1L, counters.get(0).id);
+        assertEquals(12.5, counters.get(0).amount);
+        assertTrue(counters.get(0).enabled);
+        assertEquals(7, counters.get(0).rank);
+        assertEquals(-1, counters.get(1).amount);
+        assertFalse(counters.get(1).enabled);
+    }
+
+    @Test
+    void should__keep_the_last_used_compiled_mappers() {
+        List<FieldMetaData> hot = List.of(new FieldMetaData("id", "HOT", Long.class));
+        CompiledRowMapper<Person> mapper = CompiledRowMapper.of(Person.class, hot);
+        for (int i = 0; i < CompiledRowMapper.MAX_MAPPERS + 100; i++) {
+            CompiledRowMapper.of(Person.class, List.of(new FieldMetaData("id", "C" + i, Long.class)));
+            if (i % 100 == 0) {
+                assertSame(mapper, CompiledRowMapper.of(Person.class, hot));
+            }
+        }
+
+        assertEquals(CompiledRowMapper.MAX_MAPPERS, CompiledRowMapper.size());
+        assertSame(mapper, CompiledRowMapper.of(Person.class, hot));
+    }
+
+    @Test
+    void should__map_primary_key_metadata_with_short_fields() {
+        List<SqlPrimaryKey> keys = jdbc.execute((ConnectionCallback<List<SqlPrimaryKey>>) connection ->
+                RowExtractor.asList(connection.getMetaData().getPrimaryKeys(null, null, "PERSONS"), SqlPrimaryKey.class));
+
+        assertEquals(1, keys.size());
+        assertEquals("ID", keys.get(0).getColumnName());
+        assertEquals(1, keys.get(0).getKeySeq());
+    }
+
+    public static class Counter {
+        private long id;
+        private double amount = -1;
+        private boolean enabled;
+        private int rank;
+    }
+}
@@ -0,0 +1,117 @@
+package com.ainouss.jdatatools.batch.reader;
+
+import com.ainouss.jdatatools.batch.model.Person;
+import com.ainouss.jdatatools.query.core.CriteriaQuery;
+import com.ainouss.jdatatools.query.core.FieldMetaData;
+import com.ainouss.jdatatools.query.registery.EntityRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RowMapperGeneratorTest {
+
+    private static EmbeddedDatabase db;
+    private static JdbcTemplate jdbc;
+
+    @BeforeAll
+    static void setUp() {
+        db = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        jdbc = new JdbcTemplate(db);
+        jdbc.execute("create table PERSONS (ID bigint primary key, NAME varchar(50), AMOUNT double, BIRTH_DATE date)");
+        jdbc.update("insert into PERSONS values (1, ' Ada ', 12.5, date '1815-12-10'), (2, 'Alan', null, null)");
+    }
+
+    @AfterAll
+    static void tearDown() {
+        db.shutdown();
+    }
+
+    @Test
+    void should__map_rows_through_generated_mapper() {
+        CriteriaQuery<Person> criteria = EntityRegistry.criteriaBuilder().createQuery(Person.class);
+        criteria.from(Person.class);
+        String select = criteria.buildSelectQuery() + " order by ID";
+        List<FieldMetaData> fields = criteria.getFields();
+
+        List<Person> persons = jdbc.query(select, resultSet -> {
+            RowMapper<Person> mapper = RowMapperGenerator.bind(Person.class, fields, resultSet, "test");
+            assertInstanceOf(GeneratedRowMapper.class, mapper);
+            List<Person> data = new ArrayList<>();
+            while (resultSet.next()) {
+                data.add(mapper.mapRow(resultSet, data.size()));
+            }
+            return data;
+        });
+
+        assertEquals(2, persons.size());
+        assertEquals(1L, persons.get(0).getId());
+        assertEquals("Ada", persons.get(0).getName());
+        assertEquals(12.5, persons.get(0).getAmount());
+        assertEquals(LocalDate.of(1815, 12, 10), persons.get(0).getBirthDate());
+        assertNull(persons.get(1).getAmount());
+        assertNull(persons.get(1).getBirthDate());
+    }
+
+    @Test
+    void should__fall_back_to_compiled_mapper_without_setters() {
+        List<FieldMetaData> fields = List.of(new FieldMetaData("id", "ID", Long.class));
+
+        RowMapper<NoSetter> mapper = jdbc.query("select ID from PERSONS", (ResultSetExtractor<RowMapper<NoSetter>>) resultSet -> RowMapperGenerator.bind(NoSetter.class, fields, resultSet, "test"));
+
+        assertFalse(mapper instanceof GeneratedRowMapper);
+    }
+
+    @Test
+    void should__reuse_the_generated_mapper_of_a_column_signature() {
+        List<FieldMetaData> fields = List.of(new FieldMetaData("id", "ID", Long.class), new FieldMetaData("name", "NAME", String.class));
+        List<FieldMetaData> unmapped = List.of(new FieldMetaData("id", "ID", Long.class), new FieldMetaData("name", "NAME", String.class),
+                new FieldMetaData("amount", "MISSING", Double.class));
+
+        RowMapper<Person> first = jdbc.query("select ID, NAME from PERSONS", (ResultSetExtractor<RowMapper<Person>>) resultSet -> RowMapperGenerator.bind(Person.class, fields, resultSet, "test"));
+        RowMapper<Person> second = jdbc.query("select ID, NAME from PERSONS", (ResultSetExtractor<RowMapper<Person>>) resultSet -> RowMapperGenerator.bind(Person.class, unmapped, resultSet, "test"));
+
+        assertInstanceOf(GeneratedRowMapper.class, first);
+        assertEquals(first.getClass(), second.getClass());
+    }
+
+    @Test
+    void should__bound_the_generated_mappers() {
+        int columns = RowMapperGenerator.MAX_MAPPERS + 10;
+        StringBuilder select = new StringBuilder("select ");
+        for (int c = 1; c <= columns; c++) {
+            select.append(c == 1 ? "" : ", ").append("ID as C").append(c);
+        }
+        select.append(" from PERSONS");
+
+        jdbc.query(select.toString(), (ResultSetExtractor<Void>) resultSet -> {
+            for (int c = 1; c <= columns; c++) {
+                RowMapperGenerator.bind(Person.class, List.of(new FieldMetaData("id", "C" + c, Long.class)), resultSet, "test");
+            }
+            return null;
+        });
+
+        assertEquals(RowMapperGenerator.MAX_MAPPERS, RowMapperGenerator.size());
+    }
+
+    public static class NoSetter {
+        private Long id;
+    }
+}
@@ -0,0 +1,32 @@
+package com.ainouss.jdatatools.batch.writer;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class BatchIsolatorTest {
+
+    private static final int FAILED = Statement.EXECUTE_FAILED;
+
+    @Test
+    void should__reject_the_row_after_the_counts_of_a_driver_stopping_at_the_first_failure() {
+        assertArrayEquals(new int[]{3}, BatchIsolator.failed(new int[]{1, 1, 1}, 10));
+        assertArrayEquals(new int[]{0}, BatchIsolator.failed(new int[0], 10));
+    }
+
+    @Test
+    void should__reject_the_failed_rows_of_a_driver_continuing_after_a_failure() {
+        assertArrayEquals(new int[]{1, 4}, BatchIsolator.failed(new int[]{1, FAILED, 1, Statement.SUCCESS_NO_INFO, FAILED}, 5));
+        assertArrayEquals(new int[]{0}, BatchIsolator.failed(new int[]{FAILED}, 1));
+    }
+
+    @Test
+    void should__bisect_when_counts_do_not_tell_rows_apart() {
+        assertArrayEquals(new int[0], BatchIsolator.failed(null, 5));
+        assertArrayEquals(new int[0], BatchIsolator.failed(new int[]{FAILED, FAILED, FAILED}, 3));
+        assertArrayEquals(new int[0], BatchIsolator.failed(new int[]{1, 1, 1}, 3));
+        assertArrayEquals(new int[0], BatchIsolator.failed(new int[]{1, FAILED}, 5));
+    }
+}
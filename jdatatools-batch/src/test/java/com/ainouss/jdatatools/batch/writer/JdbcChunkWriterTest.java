@@ -0,0 +1,427 @@
+package com.ainouss.jdatatools.batch.writer;
+
+import com.ainouss.jdatatools.batch.data.Chunk;
+import com.ainouss.jdatatools.batch.model.Person;
+import com.ainouss.jdatatools.batch.reader.JdbcChunkReader;
+import com.ainouss.jdatatools.batch.reader.JdbcReadTemplate;
+import com.ainouss.jdatatools.batch.writer.bulk.BulkLoader;
+import com.ainouss.jdatatools.batch.writer.bulk.BulkTable;
+import com.ainouss.jdatatools.batch.writer.bulk.BulkValues;
+import com.ainouss.jdatatools.batch.writer.bulk.H2BulkLoader;
+import com.ainouss.jdatatools.query.core.CriteriaBuilder;
+import com.ainouss.jdatatools.query.core.CriteriaQuery;
+import com.ainouss.jdatatools.query.dialect.StandardDialect;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JdbcChunkWriterTest {
+
+    private static final int PERSONS = 1200;
+
+    private EmbeddedDatabase source;
+    private EmbeddedDatabase target;
+
+    private final JdbcChunkReader reader = new JdbcChunkReader();
+    private final JdbcChunkWriter writer = new JdbcChunkWriter();
+
+    @BeforeEach
+    void setUp() {
+        source = database();
+        target = database();
+        List<Object[]> persons = new ArrayList<>();
+        for (int i = 1; i <= PERSONS; i++) {
+            persons.add(new Object[]{(long) i, i % 5 == 0 ? "é-" + i : "name-" + i, i % 7 == 0 ? null : i * 1.5, Date.valueOf(LocalDate.of(1950, 1, 1).plusDays(i))});
+        }
+        new JdbcTemplate(source).batchUpdate("insert into PERSONS (ID, NAME, AMOUNT, BIRTH_DATE) values (?, ?, ?, ?)", persons);
+    }
+
+    @AfterEach
+    void tearDown() {
+        source.shutdown();
+        target.shutdown();
+    }
+
+    @Test
+    void should__copy_rows_through_an_off_heap_chunk() {
+        JdbcTemplate to = new JdbcTemplate(target);
+        JdbcWriteTemplate write = JdbcWriteTemplate.builder().clazz(Person.class).jdbcTemplate(to).build();
+        JdbcReadTemplate<Person, Person> read = JdbcReadTemplate.<Person, Person>builder()
+                .clazz(Person.class)
+                .jdbcTemplate(new JdbcTemplate(source))
+                .fetchSize(500)
+                .build();
+
+        List<Void> chunks = reader.processOffHeap(read, chunk -> writer.process(write, chunk)).join();
+
+        assertEquals(3, chunks.size());
+        assertEquals(PERSONS, to.queryForObject("select count(*) from PERSONS", Integer.class));
+        Map<String, Object> row = to.queryForMap("select * from PERSONS where ID = 35");
+        assertEquals("é-35", row.get("NAME"));
+        assertNull(row.get("AMOUNT"));
+        assertEquals(Date.valueOf(LocalDate.of(1950, 2, 5)), row.get("BIRTH_DATE"));
+        assertEquals(36 * 1.5, to.queryForObject("select AMOUNT from PERSONS where ID = 36", Double.class));
+    }
+
+    @Test
+    void should__skip_failing_rows_of_an_off_heap_chunk() {
+        JdbcTemplate to = new JdbcTemplate(target);
+        to.update("insert into PERSONS (ID, NAME) values (42, 'existing')");
+        JdbcWriteTemplate write = JdbcWriteTemplate.builder().clazz(Person.class).jdbcTemplate(to).build();
+        List<String> errors = new ArrayList<>();
+        JdbcReadTemplate<Person, Person> read = JdbcReadTemplate.<Person, Person>builder()
+                .clazz(Person.class)
+                .jdbcTemplate(new JdbcTemplate(source))
+                .fetchSize(PERSONS)
+                .build();
+
+        reader.processOffHeap(read, chunk -> {
+            writer.process(write, chunk);
+            errors.add(chunk.getError());
+        }).join();
+
+        assertEquals(PERSONS, to.queryForObject("select count(*) from PERSONS", Integer.class));
+        assertEquals("existing", to.queryForObject("select NAME from PERSONS where ID = 42", String.class));
+        assertEquals(1, errors.size());
+    }
+
+    @Test
+    void should__keep_the_last_used_binders_until_cleared() {
+        JdbcTemplate to = new JdbcTemplate(target);
+        String insert = "insert into PERSONS (ID,NAME) values (:id,:name)";
+        ParameterBinder<Person> binder = ParameterBinder.of(Person.class, insert, to);
+        for (int i = 0; i < ParameterBinder.MAX_BINDERS + 10; i++) {
+            ParameterBinder.of(Person.class, "insert into MISSING_" + i + " (ID) values (:id)", to);
+        }
+
+        assertEquals(ParameterBinder.MAX_BINDERS, ParameterBinder.size());
+        ParameterBinder<Person> reread = ParameterBinder.of(Person.class, insert, to);
+        assertNotSame(binder, reread);
+        assertSame(reread, ParameterBinder.of(Person.class, insert, to));
+        ParameterBinder.clear();
+        assertNotSame(reread, ParameterBinder.of(Person.class, insert, to));
+    }
+
+    @Test
+    void should__insert_a_chunk_of_entities_with_a_compiled_binder() {
+        JdbcTemplate to = new JdbcTemplate(target);
+        List<Person> persons = new ArrayList<>();
+        for (long i = 1; i <= 10; i++) {
+            Person person = new Person();
+            person.setId(i);
+            person.setName(i % 2 == 0 ? null : "name-" + i);
+            person.setAmount(i % 3 == 0 ? null : i * 2.5);
+            person.setBirthDate(LocalDate.of(2000, 1, 1).plusDays(i));
+            persons.add(person);
+        }
+        JdbcWriteTemplate write = JdbcWriteTemplate.builder().clazz(Person.class).jdbcTemplate(to).build();
+
+        writer.process(write, Chunk.of(persons));
+
+        assertEquals("insert into PERSONS (AMOUNT,BIRTH_DATE,ID,NAME) values (?,?,?,?)", ParameterBinder.of(Person.class, write.getInsert(), to).getSql());
+        assertEquals(10, to.queryForObject("select count(*) from PERSONS", Integer.class));
+        assertEquals(5, to.queryForObject("select count(*) from PERSONS where NAME is null", Integer.class));
+        assertEquals(3, to.queryForObject("select count(*) from PERSONS where AMOUNT is null", Integer.class));
+        assertEquals(Date.valueOf(LocalDate.of(2000, 1, 8)), to.queryForObject("select BIRTH_DATE from PERSONS where ID = 7", Date.class));
+    }
+
+    @Test
+    void should__isolate_rejected_rows_with_update_counts_or_split() {
+        for (FailureIsolation isolation : FailureIsolation.values()) {
+            JdbcTemplate to = new JdbcTemplate(target);
+            to.update("delete from PERSONS");
+            to.update("insert into PERSONS (ID, NAME) values (3, 'existing'), (500, 'existing'), (998, 'existing')");
+            List<Person> persons = new ArrayList<>();
+            for (long i = 1; i <= 1000; i++) {
+                Person person = new Person();
+                person.setId(i);
+                person.setName("name-" + i);
+                persons.add(person);
+            }
+            Chunk<Person> chunk = Chunk.of(persons);
+            JdbcWriteTemplate write = JdbcWriteTemplate.builder().clazz(Person.class).jdbcTemplate(to).isolation(isolation).build();
+
+            writer.process(write, chunk);
+
+            assertEquals(1000, to.queryForObject("select count(*) from PERSONS", Integer.class), isolation.name());
+            assertEquals(3, to.queryForObject("select count(*) from PERSONS where NAME = 'existing'", Integer.class), isolation.name());
+            assertNotNull(chunk.getError(), isolation.name());
+        }
+    }
+
+    @Test
+    void should__send_rejected_rows_to_an_error_table() {
+        JdbcTemplate to = new JdbcTemplate(target);
+        to.execute("create table REJECTED_ROWS (CORRELATION_ID varchar(50), TARGET_TABLE varchar(100), CHUNK_START int, CHUNK_END int, ROW_INDEX int, "
+                + "ERROR_MESSAGE varchar(4000), ROW_DATA clob, REJECTED_AT timestamp)");
+        to.update("insert into PERSONS (ID, NAME) values (42, 'existing'), (43, 'existing')");
+        try (JdbcRejectedRowSink sink = new JdbcRejectedRowSink(to)) {
+            JdbcWriteTemplate write = JdbcWriteTemplate.builder().clazz(Person.class).jdbcTemplate(to).correlationId("copy-1").rejectedRowSink(sink).build();
+            JdbcReadTemplate<Person, Person> read = JdbcReadTemplate.<Person, Person>builder()
+                    .clazz(Person.class)
+                    .jdbcTemplate(new JdbcTemplate(source))
+                    .fetchSize(500)
+                    .build();
+
+            reader.processOffHeap(read, chunk -> writer.process(write, chunk)).join();
+        }
+
+        List<Map<String, Object>> rejected = to.queryForList("select * from REJECTED_ROWS order by ROW_INDEX");
+        assertEquals(2, rejected.size());
+        assertEquals("copy-1", rejected.get(0).get("CORRELATION_ID"));
+        assertEquals("PERSONS", rejected.get(0).get("TARGET_TABLE"));
+        assertEquals(0, rejected.get(0).get("CHUNK_START"));
+        assertEquals(500, rejected.get(0).get("CHUNK_END"));
+        assertTrue(to.queryForObject("select ROW_DATA from REJECTED_ROWS where ROW_INDEX = 41", String.class).contains("\"name\":\"name-42\""));
+    }
+
+    @Test
+    void should__send_rejected_rows_to_a_file(@TempDir Path directory) throws IOException {
+        JdbcTemplate to = new JdbcTemplate(target);
+        to.update("insert into PERSONS (ID, NAME) values (7, 'existing')");
+        Person person = new Person();
+        person.setId(7L);
+        person.setName("quote \" name");
+        Path file = directory.resolve("rejected/persons.jsonl");
+        try (FileRejectedRowSink sink = new FileRejectedRowSink(file)) {
+            JdbcWriteTemplate write = JdbcWriteTemplate.builder().clazz(Person.class).jdbcTemplate(to).correlationId("copy-2").rejectedRowSink(sink).build();
+            writer.process(write, Chunk.of(person));
+        }
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0).startsWith("{\"correlationId\":\"copy-2\",\"table\":\"PERSONS\",\"start\":0,\"end\":1,\"row\":0,"));
+        assertTrue(lines.get(0).contains("\"name\":\"quote \\\" name\""));
+    }
+
+    @Test
+    void should__encode_rejected_values_independently_of_the_jvm() {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("bytes", new byte[]{1, 2, 3});
+        values.put("amount", new BigDecimal("1E+3"));
+        values.put("at", Timestamp.valueOf(LocalDateTime.of(2024, 5, 1, 10, 0)));
+        values.put("day", LocalDate.of(2024, 5, 1));
+        values.put("ratio", Double.NaN);
+        RejectedRow row = RejectedRow.builder().values(values).build();
+
+        assertEquals("{\"bytes\":\"AQID\",\"amount\":1000,\"at\":\"2024-05-01T10:00:00\",\"day\":\"2024-05-01\",\"ratio\":\"NaN\"}", row.valuesAsJson());
+    }
+
+    @Test
+    void should__write_every_row_accepted_before_the_sink_is_closed() throws Exception {
+        List<RejectedRow> written = Collections.synchronizedList(new ArrayList<>());
+        AsyncRejectedRowSink sink = new AsyncRejectedRowSink("rejected-rows-test", 8, 4) {
+            @Override
+            protected void write(List<RejectedRow> rows) {
+                written.addAll(rows);
+            }
+        };
+        AtomicInteger accepted = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> producers = new ArrayList<>();
+            for (int p = 0; p < 4; p++) {
+                producers.add(executor.submit(() -> {
+                    for (int i = 0; i < 100_000; i++) {
+                        try {
+                            sink.accept(RejectedRow.builder().row(i).build());
+                        } catch (IllegalStateException e) {
+                            return;
+                        }
+                        accepted.incrementAndGet();
+                    }
+                }));
+            }
+            Thread.sleep(50);
+            sink.close();
+            for (Future<?> producer : producers) {
+                producer.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertTrue(accepted.get() > 0);
+        assertEquals(accepted.get(), written.size());
+    }
+
+    @Test
+    void should__bulk_load_chunks_with_the_loader_of_the_target() {
+        JdbcTemplate to = new JdbcTemplate(target);
+        JdbcWriteTemplate write = JdbcWriteTemplate.builder().clazz(Person.class).jdbcTemplate(to).bulkLoad(true).build();
+        JdbcReadTemplate<Person, Person> read = JdbcReadTemplate.<Person, Person>builder()
+                .clazz(Person.class)
+                .jdbcTemplate(new JdbcTemplate(source))
+                .fetchSize(500)
+                .build();
+        int loads = H2BulkLoader.LOADS.get();
+
+        reader.processOffHeap(read, chunk -> writer.process(write, chunk)).join();
+        writer.process(write, Chunk.of(to.queryForList("select ID from PERSONS where ID <= 2", Long.class).stream().map(id -> {
+            Person person = new Person();
+            person.setId(id + PERSONS);
+            person.setBirthDate(LocalDate.of(2000, 1, 1));
+            return person;
+        }).toList()));
+
+        assertTrue(write.getBulkLoader() instanceof H2BulkLoader);
+        assertEquals(loads + 4, H2BulkLoader.LOADS.get());
+        assertEquals(PERSONS + 2, to.queryForObject("select count(*) from PERSONS", Integer.class));
+        assertEquals("é-35", to.queryForObject("select NAME from PERSONS where ID = 35", String.class));
+        assertEquals(Date.valueOf(LocalDate.of(2000, 1, 1)), to.queryForObject("select BIRTH_DATE from PERSONS where ID = ?", Date.class, PERSONS + 1));
+    }
+
+    @Test
+    void should__fall_back_to_batch_insert_when_a_bulk_load_fails() {
+        JdbcTemplate to = new JdbcTemplate(target);
+        BulkLoader failing = new H2BulkLoader() {
+            @Override
+            public long load(Connection connection, BulkTable table, int size,
+                             BulkValues values) throws SQLException {
+                super.load(connection, table, size, values);
+                throw new SQLException("load aborted");
+            }
+        };
+        JdbcWriteTemplate write = JdbcWriteTemplate.builder().clazz(Person.class).jdbcTemplate(to).bulkLoader(failing).build();
+        JdbcReadTemplate<Person, Person> read = JdbcReadTemplate.<Person, Person>builder()
+                .clazz(Person.class)
+                .jdbcTemplate(new JdbcTemplate(source))
+                .fetchSize(500)
+                .build();
+
+        reader.processOffHeap(read, chunk -> writer.process(write, chunk)).join();
+
+        assertEquals(PERSONS, to.queryForObject("select count(*) from PERSONS", Integer.class));
+    }
+
+    @Test
+    void should__isolate_rows_skipped_by_a_partial_bulk_load() {
+        JdbcTemplate to = new JdbcTemplate(target);
+        to.update("insert into PERSONS (ID, NAME) values (42, 'existing'), (43, 'existing')");
+        BulkLoader ignoring = new H2BulkLoader() {
+            @Override
+            public long load(Connection connection, BulkTable table, int size,
+                             BulkValues values) throws SQLException {
+                try (var statement = connection.createStatement()) {
+                    statement.execute("delete from PERSONS where ID in (42, 43)");
+                }
+                super.load(connection, table, size, values);
+                return size - 2;
+            }
+        };
+        List<RejectedRow> rejected = new ArrayList<>();
+        JdbcWriteTemplate write = JdbcWriteTemplate.builder().clazz(Person.class).jdbcTemplate(to).bulkLoader(ignoring).rejectedRowSink(rejected::add).build();
+        JdbcReadTemplate<Person, Person> read = JdbcReadTemplate.<Person, Person>builder()
+                .clazz(Person.class)
+                .jdbcTemplate(new JdbcTemplate(source))
+                .fetchSize(500)
+                .build();
+
+        reader.processOffHeap(read, chunk -> writer.process(write, chunk)).join();
+
+        assertEquals(PERSONS, to.queryForObject("select count(*) from PERSONS", Integer.class));
+        assertEquals(2, to.queryForObject("select count(*) from PERSONS where NAME = 'existing'", Integer.class));
+        assertEquals(List.of(41, 42), rejected.stream().map(RejectedRow::getRow).sorted().toList());
+    }
+
+    @Test
+    void should__insert_chunks_with_multi_row_inserts_capped_by_the_dialect() {
+        JdbcTemplate to = new JdbcTemplate(target);
+        CriteriaQuery<Person> criteria = new CriteriaBuilder(new StandardDialect() {
+            @Override
+            public int getMaxParameters() {
+                return 40;
+            }
+        }).createQuery(Person.class);
+        criteria.select(criteria.from(Person.class));
+        JdbcWriteTemplate write = JdbcWriteTemplate.builder().clazz(Person.class).jdbcTemplate(to).criteria(criteria).insertMode(InsertMode.MULTI_ROW).build();
+        JdbcReadTemplate<Person, Person> read = JdbcReadTemplate.<Person, Person>builder()
+                .clazz(Person.class)
+                .jdbcTemplate(new JdbcTemplate(source))
+                .fetchSize(495)
+                .build();
+
+        reader.processOffHeap(read, chunk -> writer.process(write, chunk)).join();
+        to.update("delete from PERSONS where ID > 20");
+        to.update("update PERSONS set NAME = 'existing' where ID = 15");
+        List<Person> persons = new ArrayList<>();
+        for (long i = 11; i <= 43; i++) {
+            Person person = new Person();
+            person.setId(i);
+            person.setName("name-" + i);
+            persons.add(person);
+        }
+        writer.process(write, Chunk.of(persons));
+
+        assertEquals(10, criteria.getMaxInsertRows());
+        assertEquals(43, to.queryForObject("select count(*) from PERSONS", Integer.class));
+        assertEquals("existing", to.queryForObject("select NAME from PERSONS where ID = 15", String.class));
+        assertEquals("é-5", to.queryForObject("select NAME from PERSONS where ID = 5", String.class));
+        assertNull(to.queryForObject("select AMOUNT from PERSONS where ID = 14", Double.class));
+    }
+
+    @Test
+    void should__upsert_rows_with_existing_keys() {
+        JdbcTemplate to = new JdbcTemplate(target);
+        to.update("insert into PERSONS (ID, NAME, AMOUNT) values (3, 'existing', 1.0)");
+        JdbcWriteTemplate write = JdbcWriteTemplate.builder().clazz(Person.class).jdbcTemplate(to).insertMode(InsertMode.UPSERT).build();
+        List<Person> persons = new ArrayList<>();
+        for (long i = 1; i <= 5; i++) {
+            Person person = new Person();
+            person.setId(i);
+            person.setName("name-" + i);
+            persons.add(person);
+        }
+        Chunk<Person> chunk = Chunk.of(persons);
+
+        writer.process(write, chunk);
+        writer.process(write, chunk);
+
+        assertTrue(write.getInsert().startsWith("merge into PERSONS t using"));
+        assertNull(chunk.getError());
+        assertEquals(5, to.queryForObject("select count(*) from PERSONS", Integer.class));
+        assertEquals("name-3", to.queryForObject("select NAME from PERSONS where ID = 3", String.class));
+        assertNull(to.queryForObject("select AMOUNT from PERSONS where ID = 3", Double.class));
+    }
+
+    private static EmbeddedDatabase database() {
+        EmbeddedDatabase db = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        new JdbcTemplate(db).execute("create table PERSONS (ID bigint primary key, NAME varchar(50), AMOUNT double, BIRTH_DATE date)");
+        return db;
+    }
+}
@@ -0,0 +1,66 @@
+package com.ainouss.jdatatools.batch.writer.bulk;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.sql.Types;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class BulkTableTest {
+
+    private static EmbeddedDatabase db;
+    private static JdbcTemplate jdbc;
+
+    @BeforeAll
+    static void setUp() {
+        db = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        jdbc = new JdbcTemplate(db);
+        jdbc.execute("create table ITEMS (ID bigint primary key, PRICE decimal(10, 2))");
+    }
+
+    @AfterAll
+    static void tearDown() {
+        db.shutdown();
+    }
+
+    @Test
+    void should__read_columns_again_once_cleared() {
+        List<String> columns = List.of("ID", "PRICE");
+        int[] sqlTypes = {Types.BIGINT, Types.DOUBLE};
+        BulkTable table = BulkTable.of(jdbc, "ITEMS", columns, sqlTypes);
+
+        assertSame(table, BulkTable.of(jdbc, "ITEMS", columns, sqlTypes));
+        assertEquals(Types.DECIMAL, table.getSqlTypes()[1]);
+        assertEquals(2, table.getScales()[1]);
+
+        jdbc.execute("alter table ITEMS alter column PRICE decimal(12, 4)");
+        BulkTable.clear();
+
+        assertEquals(4, BulkTable.of(jdbc, "ITEMS", columns, sqlTypes).getScales()[1]);
+    }
+
+    @Test
+    void should__keep_the_last_used_tables() {
+        List<String> columns = List.of("ID");
+        int[] sqlTypes = {Types.BIGINT};
+        BulkTable table = BulkTable.of(jdbc, "ITEMS", columns, sqlTypes);
+        for (int i = 0; i < BulkTable.MAX_TABLES + 10; i++) {
+            BulkTable.of(jdbc, "MISSING_" + i, columns, sqlTypes);
+        }
+
+        assertEquals(BulkTable.MAX_TABLES, BulkTable.cached());
+        assertNotSame(table, BulkTable.of(jdbc, "ITEMS", columns, sqlTypes));
+    }
+}
@@ -0,0 +1,34 @@
+package com.ainouss.jdatatools.batch.writer.bulk;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DelimitedRowStreamTest {
+
+    private final Object[][] rows = {
+            {1L, "a\tb\\c\nd", null, LocalDate.of(2024, 2, 29), true},
+            {2L, "é", 2.5, LocalDateTime.of(2024, 1, 1, 10, 30), false}
+    };
+
+    @Test
+    void should__encode_rows_as_tab_delimited_text() throws IOException {
+        try (InputStream stream = new DelimitedRowStream(2, 5, (row, column) -> rows[row][column], false, true)) {
+            assertEquals("1\ta\\tb\\\\c\\nd\t\\N\t2024-02-29\ttrue\n2\té\t2.5\t2024-01-01 10:30:00.0\tfalse\n",
+                    new String(stream.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        try (InputStream stream = new DelimitedRowStream(1, 1, (row, column) -> new byte[]{1, (byte) 0xAB}, true, true)) {
+            assertEquals("\\\\x01ab\n", new String(stream.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        try (InputStream stream = new DelimitedRowStream(1, 1, (row, column) -> new byte[]{1}, true, false)) {
+            assertThrows(IOException.class, stream::readAllBytes);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.ainouss.jdatatools.batch.writer.bulk;
+
+import com.ainouss.jdatatools.query.core.SqlDialect;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fake bulk loader of H2, registered in the test META-INF/services, counts its loads
+ */
+public class H2BulkLoader implements BulkLoader {
+
+    public static final AtomicInteger LOADS = new AtomicInteger();
+
+    @Override
+    public boolean supports(SqlDialect dialect, String databaseProductName) {
+        return "H2".equals(databaseProductName);
+    }
+
+    @Override
+    public long load(Connection connection, BulkTable table, int size, BulkValues values) throws SQLException {
+        String insert = "insert into " + table.getName() + " (" + table.columnList() + ") values (" + String.join(", ", Collections.nCopies(table.size(), "?")) + ")";
+        try (PreparedStatement statement = connection.prepareStatement(insert)) {
+            for (int row = 0; row < size; row++) {
+                for (int column = 0; column < table.size(); column++) {
+                    statement.setObject(column + 1, BulkLoaders.jdbcValue(values.value(row, column)), table.getSqlTypes()[column]);
+                }
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+        LOADS.incrementAndGet();
+        return size;
+    }
+}
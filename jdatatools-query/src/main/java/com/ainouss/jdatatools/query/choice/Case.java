@@ -2,6 +2,8 @@ package com.ainouss.jdatatools.query.choice;
 
 import com.ainouss.jdatatools.query.core.Alias;
 import com.ainouss.jdatatools.query.core.Fragment;
+import com.ainouss.jdatatools.query.core.QueryShape;
+import com.ainouss.jdatatools.query.core.RenderContext;
 import com.ainouss.jdatatools.query.core.Selectable;
 import com.ainouss.jdatatools.query.core.SqlDialect;
 
@@ -25,23 +27,48 @@ public abstract class Case extends Alias implements Selectable {
 
 
     @Override
-    public String toSql() {
-        StringBuilder sql = new StringBuilder("case ");
+    public void appendSql(StringBuilder sql, RenderContext context) {
+        sql.append("case ");
         if (attribute != null) {
-            sql.append(attribute.toSql()).append(" "); // Searched CASE
+            attribute.appendSql(sql, context); // Searched CASE
+            context.space(sql);
         }
 
         for (WhenThen whenThen : whenThens) {
-            sql.append("when ").append(whenThen.getWhen().toSql())
-                    .append(" then ").append(whenThen.getThen().toSql()).append(" ");
+            sql.append("when ");
+            whenThen.getWhen().appendSql(sql, context);
+            context.space(sql).append("then ");
+            whenThen.getThen().appendSql(sql, context);
+            context.space(sql);
         }
 
         if (otherwise != null) {
-            sql.append("else ").append(otherwise.toSql()).append(" ");
+            sql.append("else ");
+            otherwise.appendSql(sql, context);
+            context.space(sql);
         }
 
         sql.append("end");
-        return sql.toString();
+    }
+
+    @Override
+    public void shape(QueryShape shape) {
+        shape.add(Case.class);
+        shape(shape, attribute);
+        shape.add(whenThens.size());
+        for (WhenThen whenThen : whenThens) {
+            shape(shape, whenThen.getWhen());
+            shape(shape, whenThen.getThen());
+        }
+        shape(shape, otherwise);
+    }
+
+    private static void shape(QueryShape shape, Fragment fragment) {
+        if (fragment == null) {
+            shape.add(null);
+        } else {
+            fragment.shape(shape);
+        }
     }
 
     public Selectable end() {
@@ -150,6 +150,15 @@ public class CriteriaBuilder {
         return new In(attribute, list, sqlDialect);
     }
 
+    /**
+     * Positional parameter, bound on execution
+     *
+     * @return parameter marker
+     */
+    public Parameter parameter() {
+        return new Parameter();
+    }
+
     public Expression between(Selectable attribute, Object exp1, Object exp2) {
         return new Bt(attribute, new LiteralValue(exp1), new LiteralValue(exp2), sqlDialect);
     }
@@ -3,16 +3,16 @@ package com.ainouss.jdatatools.query.core;
 import com.ainouss.jdatatools.query.join.Join;
 import com.ainouss.jdatatools.query.order.Order;
 import com.ainouss.jdatatools.query.order.OrderDirection;
+import com.ainouss.jdatatools.query.registery.EntityMetadata;
 import com.ainouss.jdatatools.query.registery.EntityRegistry;
 import com.ainouss.jdatatools.query.setoperation.*;
 import lombok.Getter;
 
 import java.lang.reflect.Field;
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
-import static com.ainouss.jdatatools.query.registery.EntityRegistry.fullResolve;
-import static com.ainouss.jdatatools.query.util.DataUtils.defaultIfEmpty;
 import static com.ainouss.jdatatools.query.util.DataUtils.isNotBlank;
 
 
@@ -36,8 +36,21 @@ public class CriteriaQuery<T> {
     protected final LinkedHashSet<Expression> groupBy = new LinkedHashSet<>();
     protected final List<SetOperation> unions = new ArrayList<>();
     protected final Pagination pagination;
+    @Getter
     private final CriteriaBuilder criteriaBuilder;
 
+    static final int MAX_SHAPES = 4096;
+    /**
+     * Parameterized select queries by query shape, see {@link #buildParameterizedSelectQuery()},
+     * the least recently used shape is evicted once the cache is full
+     */
+    private static final Map<List<Object>, String> SHAPES = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<List<Object>, String> eldest) {
+            return size() > MAX_SHAPES;
+        }
+    });
+
     /**
      * Constructs a new {@code CriteriaQuery} instance.
      * <p>
@@ -101,12 +114,12 @@ public class CriteriaQuery<T> {
      * @return This {@code CriteriaQuery} instance for method chaining.
      */
     public final CriteriaQuery<T> select(Source selected) {
-        var select = EntityRegistry.paths.keySet()
-                .stream()
-                .filter(path -> path.head.equals(selected))
-                .peek(path -> path.head.as(selected.getAlias()))
-                .toList();
-        this.selections.addAll(select);
+        if (selected instanceof Root<?> root) {
+            EntityMetadata metadata = EntityRegistry.findMetadata(root.getJavaType());
+            if (metadata != null) {
+                metadata.getColumns().forEach(column -> this.selections.add(new Path<>(root, column.label())));
+            }
+        }
         return this;
     }
 
@@ -137,10 +150,15 @@ public class CriteriaQuery<T> {
     }
 
 
-    private String froms() {
-        return froms.stream()
-                .map(from -> from.getName() + " " + from.getAlias())
-                .collect(Collectors.joining(","));
+    private void appendFroms(StringBuilder sql, RenderContext context) {
+        int i = 0;
+        for (Source from : froms) {
+            if (i++ > 0) {
+                sql.append(',');
+            }
+            from.appendName(sql, context);
+            context.space(sql).append(from.getAlias());
+        }
     }
 
     private String into() {
@@ -244,18 +262,27 @@ public class CriteriaQuery<T> {
 
     /**
      * Generates the select clause of the SQL query. Column names are aliased with
-     * their corresponding Java field names.
+     * their corresponding Java field names, literal values are inlined.
      *
-     * @return The select clause of the SQL query.
+     * @param sql buffer
      */
-    private String select() {
-        String select = selections
-                .stream()
-                .sorted()
-                .map(this::toSql)
-                .collect(Collectors.joining(","));
-        return defaultIfEmpty(select, " * ");
-
+    private void appendSelect(StringBuilder sql) {
+        RenderContext context = RenderContext.inline();
+        Selectable[] sorted = selections.toArray(new Selectable[0]);
+        Arrays.sort(sorted);
+        int start = sql.length();
+        for (int i = 0; i < sorted.length; i++) {
+            if (i > 0) {
+                sql.append(',');
+            }
+            sorted[i].appendSql(sql, context);
+            if (isNotBlank(sorted[i].getAlias())) {
+                context.space(sql).append("as ").append(sorted[i].getAlias());
+            }
+        }
+        if (sql.length() == start) {
+            sql.append('*');
+        }
     }
 
     private String update() {
@@ -268,30 +295,56 @@ public class CriteriaQuery<T> {
                     }
                     throw new RuntimeException("not a path");
                 })
-                .map(path -> EntityRegistry.paths.get(path) + " = :" + path.getAttribute())
+                .map(path -> EntityRegistry.resolvePath(path) + " = :" + path.getAttribute())
                 .collect(Collectors.joining(", "));
 
     }
 
-    private String toSql(Selectable attr) {
-        String str = attr.toSql();
-        if (isNotBlank(attr.getAlias())) {
-            return str + " as " + attr.getAlias();
+    /**
+     * Generates the from clause of the SQL query: sources, joins and the where clause and-ed with an additional restriction.
+     *
+     * @param sql         buffer
+     * @param context     render context
+     * @param restriction additional restriction, nullable
+     */
+    private void appendFrom(StringBuilder sql, RenderContext context, Expression restriction) {
+        context.space(sql).append("from ");
+        appendFroms(sql, context);
+        for (Join<?, ?> join : joins) {
+            context.space(sql);
+            join.appendSql(sql, context);
         }
-        return str;
+        appendWhere(sql, context, restriction);
     }
 
     /**
-     * Generates the where clause of the SQL query.
+     * Generates the where clause of the SQL query, and-ed with an additional restriction.
      *
-     * @return The where clause of the SQL query.
+     * @param sql         buffer
+     * @param context     render context
+     * @param restriction additional restriction, nullable
      */
-    private String where() {
-        String sql = where.toSql();
-        if (sql.isEmpty()) {
-            return "";
+    private void appendWhere(StringBuilder sql, RenderContext context, Expression restriction) {
+        int clause = sql.length();
+        context.space(sql).append("where (");
+        int start = sql.length();
+        where.appendSql(sql, context);
+        if (restriction != null) {
+            int end = sql.length();
+            if (end > start) {
+                sql.append(") and (");
+            }
+            int extra = sql.length();
+            restriction.appendSql(sql, context);
+            if (sql.length() == extra) {
+                sql.setLength(end);
+            }
+        }
+        if (sql.length() == start) {
+            sql.setLength(clause);
+            return;
         }
-        return " where (" + sql + ")";
+        sql.append(')');
     }
 
     /**
@@ -318,6 +371,16 @@ public class CriteriaQuery<T> {
      * @return The comma-separated list of values placeholders.
      */
     private String values() {
+        return values("");
+    }
+
+    /**
+     * Generates the values placeholder for a row of an insert query.
+     *
+     * @param suffix suffix of the parameter names of the row
+     * @return The values placeholder.
+     */
+    private String values(String suffix) {
         return selections
                 .stream()
                 .map(selectable -> {
@@ -326,7 +389,7 @@ public class CriteriaQuery<T> {
                     }
                     throw new RuntimeException("not a path");
                 })
-                .map(path -> new StringBuilder(":").append(path.getAttribute()))
+                .map(path -> new StringBuilder(":").append(path.getAttribute()).append(suffix))
                 .collect(Collectors.joining(","));
     }
 
@@ -352,7 +415,7 @@ public class CriteriaQuery<T> {
      * @return The source table name.
      */
     private String sourceTable(Root<?> root) {
-        String rootTable = EntityRegistry.roots.get(root);
+        String rootTable = EntityRegistry.getTable(root);
         return root.schema() + rootTable;
     }
 
@@ -364,18 +427,144 @@ public class CriteriaQuery<T> {
      * @return The complete select query.
      */
     public String buildSelectQuery() {
+        StringBuilder sql = new StringBuilder();
+        appendSelectQuery(sql, RenderContext.current());
+        return sql.toString();
+    }
+
+    /**
+     * Appends the select query to a buffer, e.g. as a subquery of an enclosing query, see {@link #buildSelectQuery()}
+     *
+     * @param sql     buffer
+     * @param context render context
+     */
+    public void appendSelectQuery(StringBuilder sql, RenderContext context) {
         checkSelection();
         if (unions.isEmpty() || orderBy.isEmpty() && pagination.isVoid()) {
-            return buildSimpleSelectQuery();
+            appendSimpleSelectQuery(sql, context, null, this.orderBy, true);
+        } else {
+            appendNestedSelectQuery(sql, context);
+        }
+    }
+
+    /**
+     * Builds a select query restricted by an additional expression, and-ed with the where clause.
+     * This query is left untouched, so that a single criteria can be sliced into several statements,
+     * e.g. disjoint ranges of a column read in parallel.
+     *
+     * @param restriction additional restriction
+     * @return The restricted select query.
+     */
+    public String buildSelectQuery(Expression restriction) {
+        if (!unions.isEmpty()) {
+            throw new UnsupportedOperationException("restricting a query is not supported with set operations");
         }
-        return buildNestedSelectQuery();
+        checkSelection();
+        return buildSimpleSelectQuery(restriction, this.orderBy, true);
+    }
+
+    /**
+     * Builds the select query with its literal values bound as positional parameters, see {@link ParameterizedSql}.
+     * Literals of the select list are inlined.
+     *
+     * @return The parameterized select query.
+     */
+    public ParameterizedSql buildParameterizedSelectQuery() {
+        checkSelection();
+        return cached(null, this::buildSelectQuery);
+    }
+
+    /**
+     * Builds the restricted select query with its literal values bound as positional parameters,
+     * see {@link #buildSelectQuery(Expression)}
+     *
+     * @param restriction additional restriction
+     * @return The parameterized restricted select query.
+     */
+    public ParameterizedSql buildParameterizedSelectQuery(Expression restriction) {
+        checkSelection();
+        return cached(restriction, () -> buildSelectQuery(restriction));
+    }
+
+    /**
+     * Returns the parameterized SQL rendered for a query of the same shape, renders and caches it on the first call.
+     * Queries with set operations and CTEs, which have no criteria builder, are rendered on every call.
+     *
+     * @param restriction additional restriction, may be null
+     * @param renderer    renders the query
+     * @return parameterized query
+     */
+    private ParameterizedSql cached(Expression restriction, Supplier<String> renderer) {
+        if (!unions.isEmpty() || criteriaBuilder == null) {
+            return ParameterizedSql.render(renderer);
+        }
+        QueryShape shape = shape(new QueryShape(), restriction);
+        List<Object> key = shape.key();
+        String sql = SHAPES.get(key);
+        if (sql != null) {
+            return new ParameterizedSql(sql, shape.parameters());
+        }
+        ParameterizedSql rendered = ParameterizedSql.render(renderer);
+        if (rendered.parameters().equals(shape.parameters())) { // a fragment whose shape does not follow its rendering is not cached
+            SHAPES.put(key, rendered.sql());
+        }
+        return rendered;
+    }
+
+    /**
+     * Appends the shape of the select query, e.g. as a subquery of an enclosing query, see {@link #appendSelectQuery(StringBuilder, RenderContext)}.
+     * Queries with set operations and CTEs append their parameterized SQL.
+     *
+     * @param shape query shape
+     */
+    public void appendShape(QueryShape shape) {
+        if (!unions.isEmpty() || criteriaBuilder == null) {
+            shape.render(this::buildSelectQuery);
+            return;
+        }
+        checkSelection();
+        shape(shape, null);
+    }
+
+    /**
+     * Shape of the select query, in rendering order: dialect, selections, sources, joins, predicates, grouping, ordering and pagination
+     *
+     * @param shape       query shape to append to
+     * @param restriction additional restriction, may be null
+     * @return query shape
+     */
+    private QueryShape shape(QueryShape shape, Expression restriction) {
+        shape.add(criteriaBuilder.getSqlDialect().getClass()).add(selections.size());
+        shape.inline(() -> selections.forEach(selection -> {
+            selection.shape(shape);
+            shape.add(selection.getAlias());
+        }));
+        shape.add(froms.size());
+        for (Source from : froms) {
+            from.shapeName(shape);
+            shape.add(from.getAlias());
+        }
+        shape.add(joins.size());
+        joins.forEach(join -> join.shape(shape));
+        where.shape(shape);
+        if (restriction == null) {
+            shape.add(null);
+        } else {
+            restriction.shape(shape);
+        }
+        shape.add(groupBy.size());
+        groupBy.forEach(expression -> expression.shape(shape));
+        having.shape(shape);
+        shape.add(orderBy.size());
+        orderBy.forEach(order -> order.shape(shape));
+        return shape.add(limitOffset());
     }
 
     public String buildNamedUpdateQuery() {
         checkSelection();
-        return new StringBuilder().append("update ")
-                .append(froms())
-                .append(" set ")
+        StringBuilder sql = new StringBuilder("update ");
+        appendFroms(sql, RenderContext.current());
+        return sql.append(" set ")
                 .append(update())
                 .toString();
     }
@@ -386,31 +575,111 @@ public class CriteriaQuery<T> {
         }
     }
 
-    private String buildSimpleSelectQuery() {
-        return new StringBuilder().append("select ")
-                .append(select())
-                .append(" from ")
-                .append(froms())
-                .append(" ")
-                .append(joins())
-                .append(" ")
-                .append(where())
-                .append(" ")
-                .append(groupBy())
-                .append(" ")
-                .append(having())
-                .append(" ")
-                .append(orderBy())
-                .append(" ")
-                .append(unions())
-                .append(" ")
-                .append(limitOffset())
-                .toString()
-                .trim()
-                .replaceAll("  +", " ");
-    }
-
-    private String buildNestedSelectQuery() {
+    private String buildSimpleSelectQuery(Expression restriction, Collection<Order> orders, boolean paginate) {
+        StringBuilder sql = new StringBuilder();
+        appendSimpleSelectQuery(sql, RenderContext.current(), restriction, orders, paginate);
+        return sql.toString();
+    }
+
+    private void appendSimpleSelectQuery(StringBuilder sql, RenderContext context, Expression restriction, Collection<Order> orders, boolean paginate) {
+        int start = sql.length();
+        sql.append("select ");
+        appendSelect(sql);
+        appendFrom(sql, context, restriction);
+        appendGroupBy(sql, context);
+        appendHaving(sql, context);
+        appendOrderBy(sql, context, orders);
+        for (SetOperation union : unions) {
+            context.space(sql);
+            union.appendSql(sql, context);
+        }
+        if (paginate) {
+            String limitOffset = limitOffset();
+            if (!limitOffset.isEmpty()) {
+                context.space(sql).append(limitOffset);
+            }
+        }
+        RenderContext.trim(sql, start);
+    }
+
+    /**
+     * Builds a keyset (seek) page query: the select query ordered by the given keys and, when {@code after} is set,
+     * restricted to the rows strictly after a bound key.
+     * The bound key is rendered as positional parameters, composite keys are expanded as
+     * {@code (k1 > ?) or (k1 = ? and k2 > ?) ...}, see {@link #keysetParameters(List)} for the binding order.
+     * The page size is left to the caller, pagination and order by of this query are ignored.
+     *
+     * @param keys  unique key of the result, in order
+     * @param after true to restrict the rows after a bound key, false for the first page
+     * @return The keyset page query.
+     */
+    public String buildKeysetQuery(List<? extends Selectable> keys, boolean after) {
+        return buildKeysetQuery(keys, after, null);
+    }
+
+    /**
+     * Builds a keyset page query restricted by an additional expression, and-ed with the where clause and the seek condition,
+     * see {@link #buildKeysetQuery(List, boolean)}
+     *
+     * @param keys        unique key of the result, in order
+     * @param after       true to restrict the rows after a bound key, false for the first page
+     * @param restriction additional restriction, may be null
+     * @return The restricted keyset page query.
+     */
+    public String buildKeysetQuery(List<? extends Selectable> keys, boolean after, Expression restriction) {
+        if (keys == null || keys.isEmpty()) {
+            throw new IllegalArgumentException("keyset pagination requires at least one key");
+        }
+        if (!unions.isEmpty()) {
+            throw new UnsupportedOperationException("keyset pagination is not supported with set operations");
+        }
+        checkSelection();
+        List<Order> orders = keys.stream()
+                .map(Order::new)
+                .toList();
+        Expression seek = after ? seek(keys) : null;
+        if (restriction != null) {
+            seek = seek == null ? restriction : criteriaBuilder.and(restriction, seek);
+        }
+        return buildSimpleSelectQuery(seek, orders, false);
+    }
+
+    /**
+     * Positional parameters of a keyset page query, see {@link #buildKeysetQuery(List, boolean)}
+     *
+     * @param lastKey key values of the last row read, in the same order as the keys
+     * @return parameters, in binding order
+     */
+    public static Object[] keysetParameters(List<?> lastKey) {
+        List<Object> parameters = new ArrayList<>();
+        for (int i = 0; i < lastKey.size(); i++) {
+            parameters.addAll(lastKey.subList(0, i + 1));
+        }
+        return parameters.toArray();
+    }
+
+    private Expression seek(List<? extends Selectable> keys) {
+        List<Expression> terms = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            Expression gt = criteriaBuilder.gt(keys.get(i), criteriaBuilder.parameter());
+            if (i == 0) {
+                terms.add(gt);
+                continue;
+            }
+            Expression[] others = new Expression[i];
+            for (int j = 1; j < i; j++) {
+                others[j - 1] = criteriaBuilder.eq(keys.get(j), criteriaBuilder.parameter());
+            }
+            others[i - 1] = gt;
+            terms.add(criteriaBuilder.and(criteriaBuilder.eq(keys.get(0), criteriaBuilder.parameter()), others));
+        }
+        if (terms.size() == 1) {
+            return terms.get(0);
+        }
+        return criteriaBuilder.or(terms.get(0), terms.subList(1, terms.size()).toArray(new Expression[0]));
+    }
+
+    private void appendNestedSelectQuery(StringBuilder sql, RenderContext context) {
         Pagination pagination1 = Pagination.from(this.pagination);
         Subquery subquery = new Subquery(this, criteriaBuilder.getSqlDialect());
         subquery.setAlias("nested_query");
@@ -424,23 +693,17 @@ public class CriteriaQuery<T> {
         subquery.cr().orderBy.clear();
         subquery.cr().pagination.clear();
         //
-        return nq.buildSelectQuery();
-    }
-
-    private String unions() {
-        StringBuilder sb = new StringBuilder();
-        for (SetOperation union : unions) {
-            sb.append(" ").append(union.toSql());
-        }
-        return sb.toString();
+        nq.appendSelectQuery(sql, context);
     }
 
-    private String having() {
-        String toString = this.having.toSql();
-        if (toString.isEmpty()) {
-            return "";
+    private void appendHaving(StringBuilder sql, RenderContext context) {
+        int clause = sql.length();
+        context.space(sql).append("having ");
+        int start = sql.length();
+        having.appendSql(sql, context);
+        if (sql.length() == start) {
+            sql.setLength(clause);
         }
-        return " having " + toString;
     }
 
     /**
@@ -450,31 +713,52 @@ public class CriteriaQuery<T> {
      * @return The count query.
      */
     public String buildCountQuery() {
-        return new StringBuilder().append("select count(*)")
-                .append(" from ")
-                .append(froms())
-                .append(" ")
-                .append(" ")
-                .append(joins())
-                .append(" ")
-                .append(where())
-                .append(" ")
-                .append(groupBy())
-                .append(" ")
-                .toString()
-                .trim()
-                .replaceAll("  +", " ");
+        StringBuilder sql = new StringBuilder("select count(*)");
+        RenderContext context = RenderContext.current();
+        appendFrom(sql, context, null);
+        appendGroupBy(sql, context);
+        RenderContext.trim(sql, 0);
+        return sql.toString();
+    }
+
+    /**
+     * Builds a query returning the lower and upper bounds of a column, min and max in this order,
+     * over the rows matching the criteria.
+     *
+     * @param column column
+     * @return The bounds query.
+     */
+    public String buildBoundsQuery(Selectable column) {
+        StringBuilder sql = new StringBuilder("select min(");
+        RenderContext context = RenderContext.current();
+        appendResolved(sql, context, column);
+        sql.append("), max(");
+        appendResolved(sql, context, column);
+        sql.append(')');
+        appendFrom(sql, context, null);
+        RenderContext.trim(sql, 0);
+        return sql.toString();
     }
 
     /**
-     * Generates the joins clause of the SQL query.
+     * Builds a query returning the number of rows and the sum of their hashes, in this order,
+     * over the rows matching the criteria and an additional restriction, see {@link SqlDialect#getRowHashSql(List)}.
+     * The hash covers the selected columns.
      *
-     * @return The joins clause of the SQL query.
+     * @param restriction additional restriction, may be null
+     * @return The checksum query, null if the dialect has no hash function.
      */
-    private String joins() {
-        return this.joins.stream()
-                .map(Join::toSql)
-                .collect(Collectors.joining(" "));
+    public String buildChecksumQuery(Expression restriction) {
+        checkSelection();
+        List<String> columns = selections.stream().sorted().map(EntityRegistry::fullResolve).toList();
+        String hash = criteriaBuilder.getSqlDialect().getRowHashSql(columns);
+        if (hash == null) {
+            return null;
+        }
+        StringBuilder sql = new StringBuilder("select count(*), sum(").append(hash).append(')');
+        appendFrom(sql, RenderContext.current(), restriction);
+        RenderContext.trim(sql, 0);
+        return sql.toString();
     }
 
     /**
@@ -484,14 +768,12 @@ public class CriteriaQuery<T> {
      * @return The delete query.
      */
     public String buildDeleteQuery() {
-        return new StringBuilder().append("delete from ")
-                .append(froms())
-                .append(" ")
-                .append(where())
-                .append(" ")
-                .toString()
-                .trim()
-                .replaceAll("  +", " ");
+        StringBuilder sql = new StringBuilder("delete from ");
+        RenderContext context = RenderContext.current();
+        appendFroms(sql, context);
+        appendWhere(sql, context, null);
+        RenderContext.trim(sql, 0);
+        return sql.toString();
     }
 
     /**
@@ -511,26 +793,96 @@ public class CriteriaQuery<T> {
                 .append("(")
                 .append(values())
                 .append(")")
-                .toString()
-                .trim()
-                .replaceAll("  +", " ");
+                .toString();
     }
 
     /**
-     * Generates the order by clause of the SQL query.
+     * Builds a multi-row insert query with named parameters, the parameters of row i are suffixed by _i:
+     * insert into T (A,B) values (:a_0,:b_0),(:a_1,:b_1).
+     * The number of rows is capped by {@link #getMaxInsertRows()}.
+     *
+     * @param rows The requested number of rows.
+     * @return The parameterized insert query.
+     */
+    public String buildMultiRowInsertQuery(int rows) {
+        int count = Math.max(1, Math.min(rows, getMaxInsertRows()));
+        StringBuilder insert = new StringBuilder().append("insert into ")
+                .append(into())
+                .append(" (")
+                .append(insert())
+                .append(")")
+                .append(" values ");
+        for (int row = 0; row < count; row++) {
+            if (row > 0) {
+                insert.append(",");
+            }
+            insert.append("(").append(values("_" + row)).append(")");
+        }
+        return insert.toString();
+    }
+
+    /**
+     * Builds an upsert query with named parameters, rendered by the dialect: inserts a row of the selected columns,
+     * or updates the other columns of the row with the same key (merge, on conflict do update, on duplicate key update).
      *
-     * @return The order by clause of the SQL query.
+     * @param keys The key of the rows, a subset of the selected columns.
+     * @return The parameterized upsert query.
      */
-    private String orderBy() {
-        String orderBy = this.orderBy
+    public String buildUpsertQuery(List<? extends Path<?>> keys) {
+        if (keys == null || keys.isEmpty()) {
+            throw new IllegalArgumentException("upsert requires at least one key");
+        }
+        List<Path<?>> paths = selections
                 .stream()
-                .map(order -> new StringBuilder(fullResolve(order.getColumn()))
-                        .append(" ")
-                        .append(order.getDirection())
-                )
-                .map(StringBuilder::toString)
-                .collect(Collectors.joining(","));
-        return orderBy.isEmpty() ? "" : " order by " + orderBy;
+                .<Path<?>>map(selectable -> {
+                    if (selectable instanceof Path<?> path) {
+                        return path;
+                    }
+                    throw new RuntimeException("not a path");
+                })
+                .toList();
+        List<String> columns = paths.stream().map(EntityRegistry::resolvePath).toList();
+        List<String> keyColumns = keys.stream().map(EntityRegistry::resolvePath).toList();
+        if (!columns.containsAll(keyColumns)) {
+            throw new IllegalArgumentException("upsert keys " + keyColumns + " should be selected");
+        }
+        List<String> parameters = paths.stream().map(path -> ":" + path.getAttribute()).toList();
+        return criteriaBuilder.getSqlDialect()
+                .getUpsertSql(into(), columns, parameters, keyColumns);
+    }
+
+    /**
+     * Gets the maximum number of rows of a multi-row insert of the selected columns, from the dialect
+     * limits on parameters per statement and rows per insert.
+     *
+     * @return The max number of rows per insert, at least 1.
+     */
+    public int getMaxInsertRows() {
+        SqlDialect dialect = criteriaBuilder.getSqlDialect();
+        int columns = Math.max(1, selections.size());
+        return Math.max(1, Math.min(dialect.getMaxInsertRows(), dialect.getMaxParameters() / columns));
+    }
+
+    /**
+     * Generates the order by clause of the SQL query.
+     *
+     * @param sql     buffer
+     * @param context render context
+     * @param orders  orders
+     */
+    private void appendOrderBy(StringBuilder sql, RenderContext context, Collection<Order> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        context.space(sql).append("order by ");
+        int i = 0;
+        for (Order order : orders) {
+            if (i++ > 0) {
+                sql.append(',');
+            }
+            appendResolved(sql, context, order.getColumn());
+            context.space(sql).append(order.getDirection());
+        }
     }
 
     private String limitOffset() {
@@ -540,42 +892,105 @@ public class CriteriaQuery<T> {
     /**
      * Generates the group by clause of the SQL query.
      *
-     * @return The group by clause of the SQL query.
+     * @param sql     buffer
+     * @param context render context
      */
-    private String groupBy() {
-        String groupByClause = this.groupBy
-                .stream()
-                .map(EntityRegistry::fullResolve)
-                .collect(Collectors.joining(","));
-        return groupByClause.isEmpty() ? "" : " group by " + groupByClause;
+    private void appendGroupBy(StringBuilder sql, RenderContext context) {
+        if (groupBy.isEmpty()) {
+            return;
+        }
+        context.space(sql).append("group by ");
+        int i = 0;
+        for (Expression expression : groupBy) {
+            if (i++ > 0) {
+                sql.append(',');
+            }
+            appendResolved(sql, context, expression);
+        }
+    }
+
+    /**
+     * Appends an expression resolved to its column, a root is resolved to its alias, see {@link EntityRegistry#fullResolve(Expression)}
+     *
+     * @param sql        buffer
+     * @param context    render context
+     * @param expression expression
+     */
+    private static void appendResolved(StringBuilder sql, RenderContext context, Expression expression) {
+        if (expression instanceof Root<?> root) {
+            sql.append(EntityRegistry.resolveRoot(root));
+        } else if (expression != null) {
+            expression.appendSql(sql, context);
+        }
     }
 
     /**
-     * Returns a list of fields selected in this query. If no specific selection
+     * Returns a list of fields selected in this query, ordered by label. If no specific selection
      * is defined, all selectable fields of the root entity are returned.
+     * A query selecting the whole result entity returns the immutable list cached in its {@link EntityMetadata}.
      *
      * @return The list of selected fields.
      */
     public List<FieldMetaData> getFields() {
+        EntityMetadata metadata = EntityRegistry.findMetadata(this.getResultType());
+        if (metadata != null && selectsEntity(metadata)) {
+            return metadata.getFields();
+        }
         return this.selections
                 .stream()
-                .map(select -> {
-                    FieldMetaData field = new FieldMetaData();
-                    field.setLabel(select.getAlias());
-                    field.setColumn(select.getColumn());
-                    try {
-                        Field declaredField = this.getResultType().getDeclaredField(select.getAlias());
-                        field.setJavaType(declaredField.getType());
-                    } catch (NoSuchFieldException e) {
-                        throw new RuntimeException(e);
-                    }
-                    return field;
-                })
+                .map(select -> new FieldMetaData(select.getAlias(), select.getColumn(), getJavaType(metadata, select.getAlias())))
                 .sorted(Comparator.comparing(FieldMetaData::getLabel))
                 .collect(Collectors.toList());
     }
 
+    /**
+     * @param metadata metadata of the result type
+     * @return true if every mapped field of the result type is selected from a single root under its own name, and nothing else
+     */
+    private boolean selectsEntity(EntityMetadata metadata) {
+        if (selections.isEmpty() || selections.size() != metadata.getColumns().size()) {
+            return false;
+        }
+        Root<?> head = null;
+        for (Selectable selection : selections) {
+            if (!(selection instanceof Path<?> path)
+                    || (head != null && !Objects.equals(head, path.getHead()))
+                    || path.getHead().getJavaType() != metadata.getJavaType()
+                    || !Objects.equals(path.getAlias(), path.getAttribute())
+                    || metadata.getColumn(path.getAttribute()) == null) {
+                return false;
+            }
+            head = path.getHead();
+        }
+        return true;
+    }
+
+    private Class<?> getJavaType(EntityMetadata metadata, String label) {
+        EntityMetadata.Column column = metadata == null ? null : metadata.getColumn(label);
+        if (column != null) {
+            return column.javaType();
+        }
+        try {
+            Field declaredField = this.getResultType().getDeclaredField(label);
+            return declaredField.getType();
+        } catch (NoSuchFieldException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     public LinkedHashSet<Selectable> getSelect() {
         return selections;
     }
+
+    /**
+     * Returns the roots of the from clause, in declaration order.
+     *
+     * @return roots
+     */
+    public Set<Root<?>> getRoots() {
+        return froms.stream()
+                .filter(Root.class::isInstance)
+                .map(source -> (Root<?>) source)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
 }
\ No newline at end of file
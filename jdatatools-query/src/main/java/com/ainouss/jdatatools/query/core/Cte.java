@@ -28,14 +28,17 @@ public class Cte<T> extends CriteriaQuery<T> implements Source {
     }
 
     @Override
-    public String toSql() {
-        return "with " + name + " as (" + cr.buildSelectQuery() + ")";
+    public void appendSql(StringBuilder sql, RenderContext context) {
+        sql.append("with ").append(name).append(" as (");
+        cr.appendSelectQuery(sql, context);
+        sql.append(')');
     }
 
     @Override
-    public String buildSelectQuery() {
-        String select = super.buildSelectQuery();
-        return toSql() + " " + select;
+    public void appendSelectQuery(StringBuilder sql, RenderContext context) {
+        appendSql(sql, context);
+        sql.append(' ');
+        super.appendSelectQuery(sql, context);
     }
 
     @Override
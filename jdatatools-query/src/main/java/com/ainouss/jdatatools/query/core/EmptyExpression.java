@@ -9,7 +9,7 @@ public class EmptyExpression implements Expression {
     }
 
     @Override
-    public String toSql() {
-        return "";
+    public void appendSql(StringBuilder sql, RenderContext context) {
+        //
     }
 }
@@ -1,16 +1,15 @@
 package com.ainouss.jdatatools.query.core;
 
-import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import lombok.Value;
 
-@Data
-@AllArgsConstructor
-@NoArgsConstructor
+/**
+ * Selected field: java field name, column name and java type. Immutable, lists of fields are shared between queries.
+ */
+@Value
 public class FieldMetaData {
 
-    private String label;
-    private String column;
-    private Class<?> javaType;
+    String label;
+    String column;
+    Class<?> javaType;
 
 }
@@ -2,6 +2,33 @@ package com.ainouss.jdatatools.query.core;
 
 public interface Fragment {
 
-    String toSql();
+    /**
+     * Renders this fragment, binding its literal values if a query is being rendered by {@link ParameterizedSql#render} on this thread
+     *
+     * @return sql fragment
+     */
+    default String toSql() {
+        StringBuilder sql = new StringBuilder();
+        appendSql(sql, RenderContext.current());
+        return sql.toString();
+    }
+
+    /**
+     * Appends the SQL of this fragment to a buffer, tokens following another fragment are separated with {@link RenderContext#space(StringBuilder)}
+     *
+     * @param sql     buffer
+     * @param context render context
+     */
+    void appendSql(StringBuilder sql, RenderContext context);
+
+    /**
+     * Appends the structure of this fragment and the values it binds to a query shape, in rendering order.
+     * Fragments of the same shape render the same parameterized SQL, by default the shape is the parameterized SQL itself.
+     *
+     * @param shape query shape
+     */
+    default void shape(QueryShape shape) {
+        shape.render(this::toSql);
+    }
 
 }
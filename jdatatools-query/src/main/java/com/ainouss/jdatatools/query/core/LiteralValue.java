@@ -15,13 +15,36 @@ public class LiteralValue extends Alias implements Selectable {
         if (value == null) {
             return null;
         }
-        if (value instanceof String strValue) {
-            return "'" + DataUtils.escapeSql(strValue) + "'";
-        } else if (value instanceof Number) {
-            return value.toString();
+        return Selectable.super.toSql();
+    }
+
+    @Override
+    public void appendSql(StringBuilder sql, RenderContext context) {
+        if (value instanceof Fragment fr) {
+            fr.appendSql(sql, context);
+        } else if (value == null) {
+            sql.append("null");
+        } else if (context.bind(value)) {
+            sql.append('?');
+        } else if (value instanceof String strValue) {
+            sql.append('\'').append(DataUtils.escapeSql(strValue)).append('\'');
+        } else {
+            sql.append(value);
+        }
+    }
+
+    @Override
+    public void shape(QueryShape shape) {
+        if (value == null) {
+            shape.add(null);
         } else if (value instanceof Fragment fr) {
-            return fr.toSql();
+            fr.shape(shape);
+        } else {
+            shape.bind(value);
         }
-        return value.toString();
+    }
+
+    public Object getValue() {
+        return value;
     }
 }
@@ -0,0 +1,13 @@
+package com.ainouss.jdatatools.query.core;
+
+/**
+ * Positional parameter marker, renders a {@code ?} to be bound when the statement is executed
+ */
+public class Parameter extends Alias implements Selectable {
+
+    @Override
+    public void appendSql(StringBuilder sql, RenderContext context) {
+        context.mark();
+        sql.append('?');
+    }
+}
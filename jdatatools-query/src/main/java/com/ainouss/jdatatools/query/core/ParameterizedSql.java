@@ -0,0 +1,104 @@
+package com.ainouss.jdatatools.query.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * SQL statement with positional {@code ?} markers and the ordered values they are bound to.
+ * Literal values of the rendered query are bound instead of inlined, so that queries of the same shape share the same statement,
+ * the values of {@link Parameter} markers are given on execution, see {@link #args(Object...)}.
+ * <p>
+ * Example usage:
+ * <pre>
+ *  ParameterizedSql sql = query.where(cb.eq(root.get("name"), "John")).buildParameterizedSelectQuery();
+ *  jdbcTemplate.query(sql.sql(), rowMapper, sql.args());
+ * </pre>
+ *
+ * @param sql        statement
+ * @param parameters parameters, in marker order
+ */
+public record ParameterizedSql(String sql, List<Value> parameters) {
+
+    private static final ThreadLocal<List<Value>> BINDINGS = new ThreadLocal<>();
+
+    /**
+     * A positional parameter
+     *
+     * @param value value, null for a marker bound on execution
+     * @param type  java type of the value, null for a marker bound on execution
+     * @param bound true if the value was bound when rendering
+     */
+    public record Value(Object value, Class<?> type, boolean bound) {
+    }
+
+    /**
+     * Renders a query, binding its literal values
+     *
+     * @param renderer renders the query, e.g. {@code criteria::buildCountQuery}
+     * @return rendered query and its parameters
+     */
+    public static ParameterizedSql render(Supplier<String> renderer) {
+        List<Value> previous = BINDINGS.get();
+        List<Value> parameters = new ArrayList<>();
+        BINDINGS.set(parameters);
+        try {
+            return new ParameterizedSql(renderer.get(), List.copyOf(parameters));
+        } finally {
+            BINDINGS.set(previous);
+        }
+    }
+
+    /**
+     * Parameters of the query being rendered by {@link #render(Supplier)} on this thread
+     *
+     * @return parameters, null if no query is being rendered
+     */
+    static List<Value> bindings() {
+        return BINDINGS.get();
+    }
+
+    /**
+     * Renders a part of a query with its literal values inlined, e.g. the select list
+     *
+     * @param renderer renders the part
+     * @return rendered part
+     */
+    static String inline(Supplier<String> renderer) {
+        List<Value> parameters = BINDINGS.get();
+        if (parameters == null) {
+            return renderer.get();
+        }
+        BINDINGS.remove();
+        try {
+            return renderer.get();
+        } finally {
+            BINDINGS.set(parameters);
+        }
+    }
+
+    /**
+     * Arguments of the statement: the bound values, with the markers bound on execution taken from values in order
+     *
+     * @param values values of the {@link Parameter} markers, in order
+     * @return arguments, in marker order
+     */
+    public Object[] args(Object... values) {
+        Object[] args = new Object[parameters.size()];
+        int next = 0;
+        for (int i = 0; i < args.length; i++) {
+            Value parameter = parameters.get(i);
+            if (parameter.bound()) {
+                args[i] = parameter.value();
+            } else if (values != null && next < values.length) {
+                args[i] = values[next++];
+            } else {
+                throw new IllegalArgumentException("parameter " + (i + 1) + " of " + sql + " is not bound");
+            }
+        }
+        if (values != null && next < values.length) {
+            throw new IllegalArgumentException(values.length + " values given for " + next + " parameters of " + sql);
+        }
+        return args;
+    }
+}
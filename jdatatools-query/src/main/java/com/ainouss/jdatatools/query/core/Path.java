@@ -57,8 +57,23 @@ public class Path<T> extends Alias implements Selectable {
     }
 
 
+    /**
+     * Column of the attribute, resolved from the entity metadata without rendering the path
+     *
+     * @return column name
+     */
     @Override
-    public String toSql() {
-        return EntityRegistry.fullResolve(this);
+    public String getColumn() {
+        return EntityRegistry.resolvePath(this);
+    }
+
+    @Override
+    public void appendSql(StringBuilder sql, RenderContext context) {
+        sql.append(EntityRegistry.resolveRoot(head)).append('.').append(EntityRegistry.resolvePath(this));
+    }
+
+    @Override
+    public void shape(QueryShape shape) {
+        shape.add(Path.class).add(head.getJavaType()).add(head.getAlias()).add(EntityRegistry.resolvePath(this)).add(getAlias());
     }
 }
@@ -0,0 +1,95 @@
+package com.ainouss.jdatatools.query.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Structural shape of a query: the tokens its SQL depends on, without the literal values it binds,
+ * and the bound values, in marker order. Queries of the same shape render the same parameterized SQL,
+ * see {@link CriteriaQuery#buildParameterizedSelectQuery()}.
+ * Fragments append their shape with {@link Fragment#shape(QueryShape)}, the default shape of a fragment is its parameterized SQL.
+ */
+public final class QueryShape {
+
+    private final List<Object> key = new ArrayList<>();
+
+    private final List<ParameterizedSql.Value> parameters = new ArrayList<>();
+
+    private boolean inline;
+
+    /**
+     * Appends a structural token
+     *
+     * @param token token, compared with equals
+     * @return this
+     */
+    public QueryShape add(Object token) {
+        key.add(token);
+        return this;
+    }
+
+    /**
+     * Appends a literal value: a marker and the bound value, or the value itself if literals are inlined
+     *
+     * @param value non null literal value
+     * @return this
+     */
+    public QueryShape bind(Object value) {
+        if (inline) {
+            key.add(value);
+            key.add(value.getClass());
+        } else {
+            key.add("?");
+            parameters.add(new ParameterizedSql.Value(value, value.getClass(), true));
+        }
+        return this;
+    }
+
+    /**
+     * Appends a rendered fragment: its parameterized SQL and its bound values
+     *
+     * @param renderer renders the fragment
+     * @return this
+     */
+    public QueryShape render(Supplier<String> renderer) {
+        if (inline) {
+            key.add(String.valueOf(ParameterizedSql.inline(renderer)));
+            return this;
+        }
+        ParameterizedSql sql = ParameterizedSql.render(renderer);
+        key.add(String.valueOf(sql.sql()));
+        parameters.addAll(sql.parameters());
+        return this;
+    }
+
+    /**
+     * Appends the shapes of a part of a query whose literals are inlined, e.g. the select list
+     *
+     * @param part appends the shapes of the part
+     */
+    void inline(Runnable part) {
+        boolean previous = inline;
+        inline = true;
+        try {
+            part.run();
+        } finally {
+            inline = previous;
+        }
+    }
+
+    /**
+     * @return structural key, equal for queries rendering the same parameterized SQL
+     */
+    public List<Object> key() {
+        return Collections.unmodifiableList(new ArrayList<>(key));
+    }
+
+    /**
+     * @return bound values, in marker order
+     */
+    public List<ParameterizedSql.Value> parameters() {
+        return List.copyOf(parameters);
+    }
+}
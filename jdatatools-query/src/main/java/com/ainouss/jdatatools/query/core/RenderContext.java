@@ -0,0 +1,104 @@
+package com.ainouss.jdatatools.query.core;
+
+import java.util.List;
+
+/**
+ * Context of a rendering into a single buffer, see {@link Fragment#appendSql(StringBuilder, RenderContext)}:
+ * the parameters literal values are bound to, or none if literals are inlined.
+ * Fragments separate their tokens with {@link #space(StringBuilder)}, so that the statement is rendered with single spaces
+ * and needs no whitespace cleanup.
+ */
+public final class RenderContext {
+
+    private static final RenderContext INLINE = new RenderContext(null);
+
+    private final List<ParameterizedSql.Value> parameters;
+
+    private RenderContext(List<ParameterizedSql.Value> parameters) {
+        this.parameters = parameters;
+    }
+
+    /**
+     * Context of this thread: binds literal values if a query is being rendered by {@link ParameterizedSql#render}, inlines them otherwise
+     *
+     * @return render context
+     */
+    public static RenderContext current() {
+        List<ParameterizedSql.Value> parameters = ParameterizedSql.bindings();
+        return parameters == null ? INLINE : new RenderContext(parameters);
+    }
+
+    /**
+     * Context inlining literal values, e.g. for the select list
+     *
+     * @return render context
+     */
+    public static RenderContext inline() {
+        return INLINE;
+    }
+
+    /**
+     * Binds a literal value if literals are bound in this context
+     *
+     * @param value non null literal value
+     * @return true if the value was bound, a {@code ?} marker should be rendered, false if the value should be inlined
+     */
+    public boolean bind(Object value) {
+        if (parameters == null) {
+            return false;
+        }
+        parameters.add(new ParameterizedSql.Value(value, value.getClass(), true));
+        return true;
+    }
+
+    /**
+     * Registers a marker bound on execution
+     */
+    void mark() {
+        if (parameters != null) {
+            parameters.add(new ParameterizedSql.Value(null, null, false));
+        }
+    }
+
+    /**
+     * Appends a separating space, unless the buffer already ends with one
+     *
+     * @param sql buffer
+     * @return buffer
+     */
+    public StringBuilder space(StringBuilder sql) {
+        if (sql.isEmpty() || sql.charAt(sql.length() - 1) != ' ') {
+            sql.append(' ');
+        }
+        return sql;
+    }
+
+    /**
+     * Appends a fragment escaped as an identifier, see {@link SqlDialect#escapeIdentifier(String)}
+     *
+     * @param sql        buffer
+     * @param identifier fragment
+     * @param sqlDialect dialect
+     * @return buffer
+     */
+    public StringBuilder appendEscaped(StringBuilder sql, Fragment identifier, SqlDialect sqlDialect) {
+        int start = sql.length();
+        identifier.appendSql(sql, this);
+        sqlDialect.escapeIdentifier(sql, start);
+        return sql;
+    }
+
+    /**
+     * Removes the trailing spaces of a statement
+     *
+     * @param sql   buffer
+     * @param start start of the statement in the buffer
+     */
+    static void trim(StringBuilder sql, int start) {
+        int end = sql.length();
+        while (end > start && sql.charAt(end - 1) == ' ') {
+            end--;
+        }
+        sql.setLength(end);
+    }
+}
@@ -26,8 +26,8 @@ public class Root<T> extends Alias implements Selectable, Source, Joinable<T> {
 
     public Root(Class<T> from) {
         this.javaType = from;
-        this.alias = EntityRegistry.roots.get(this);
-        this.table = EntityRegistry.roots.get(this);
+        this.alias = EntityRegistry.getTable(this);
+        this.table = this.alias;
     }
 
     public Root(String name) {
@@ -71,14 +71,24 @@ public class Root<T> extends Alias implements Selectable, Source, Joinable<T> {
     }
 
     @Override
-    public String toSql() {
-        return alias;
+    public void appendSql(StringBuilder sql, RenderContext context) {
+        sql.append(alias);
+    }
+
+    @Override
+    public void shape(QueryShape shape) {
+        shape.add(Root.class).add(javaType).add(getName()).add(alias);
+    }
+
+    @Override
+    public void shapeName(QueryShape shape) {
+        shape(shape);
     }
 
     @Override
     public String getName() {
         return new StringBuilder(schema())
-                .append(EntityRegistry.roots.get(this))
+                .append(EntityRegistry.getTable(this))
                 .toString();
     }
 
@@ -14,7 +14,9 @@ public class ScalarQuery<T> extends Alias implements Selectable {
 
 
     @Override
-    public String toSql() {
-        return " (" + criteria.buildSelectQuery() + ")";
+    public void appendSql(StringBuilder sql, RenderContext context) {
+        context.space(sql).append('(');
+        criteria.appendSelectQuery(sql, context);
+        sql.append(')');
     }
 }
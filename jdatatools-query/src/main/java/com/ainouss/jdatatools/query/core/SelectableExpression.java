@@ -12,7 +12,7 @@ public class SelectableExpression implements Expression {
     }
 
     @Override
-    public String toSql() {
-        return selectable.toSql();
+    public void appendSql(StringBuilder sql, RenderContext context) {
+        selectable.appendSql(sql, context);
     }
 }
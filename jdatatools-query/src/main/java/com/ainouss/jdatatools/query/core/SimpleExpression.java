@@ -21,10 +21,19 @@ public class SimpleExpression implements Expression {
         this.expression = expression;
     }
 
-    public String toSql() {
+    @Override
+    public void shape(QueryShape shape) {
         if (expression == null) {
-            return "";
+            shape.add(null);
+        } else {
+            expression.shape(shape);
+        }
+    }
+
+    @Override
+    public void appendSql(StringBuilder sql, RenderContext context) {
+        if (expression != null) {
+            expression.appendSql(sql, context);
         }
-        return expression.toSql();
     }
 }
\ No newline at end of file
@@ -8,6 +8,29 @@ public interface Source extends Fragment, WithAlias {
         return toSql();
     }
 
+    /**
+     * Appends the name of this source, as referenced in a from or join clause
+     *
+     * @param sql     buffer
+     * @param context render context
+     */
+    default void appendName(StringBuilder sql, RenderContext context) {
+        sql.append(getName());
+    }
+
+    /**
+     * Appends the shape of the name of this source, see {@link #appendName(StringBuilder, RenderContext)}, by default its parameterized SQL
+     *
+     * @param shape query shape
+     */
+    default void shapeName(QueryShape shape) {
+        shape.render(() -> {
+            StringBuilder sql = new StringBuilder();
+            appendName(sql, RenderContext.current());
+            return sql.toString();
+        });
+    }
+
     String getAlias();
 
     void setAlias(String alias);
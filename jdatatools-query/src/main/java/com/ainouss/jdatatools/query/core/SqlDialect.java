@@ -1,5 +1,7 @@
 package com.ainouss.jdatatools.query.core;
 
+import java.util.List;
+
 public interface SqlDialect {
 
     /**
@@ -35,9 +37,55 @@ public interface SqlDialect {
      */
     String escapeIdentifier(String identifier);
 
+    /**
+     * Escapes in place the identifier rendered at the end of a buffer, see {@link #escapeIdentifier(String)}
+     *
+     * @param sql   buffer
+     * @param start start of the identifier in the buffer
+     */
+    default void escapeIdentifier(StringBuilder sql, int start) {
+        String identifier = sql.substring(start);
+        sql.replace(start, sql.length(), escapeIdentifier(identifier));
+    }
+
     /**
      * Gets the SQL keyword for 'DISTINCT' keyword, some dialects may require specific syntax.
      * @return SQL keyword for DISTINCT.
      */
     String getDistinctKeyword();
+
+    /**
+     * Gets the maximum number of bind parameters of a single statement, as enforced by the database or its driver.
+     *
+     * @return max number of parameters per statement.
+     */
+    int getMaxParameters();
+
+    /**
+     * Gets the maximum number of rows of a multi-row insert (insert into ... values (...),(...)).
+     *
+     * @return max number of rows per insert, 1 if multi-row values are not supported.
+     */
+    int getMaxInsertRows();
+
+    /**
+     * Gets an upsert statement: inserts a row, or updates the non-key columns of the row with the same key.
+     *
+     * @param table      The target table.
+     * @param columns    The inserted columns.
+     * @param parameters The parameter placeholders of the columns, in the same order.
+     * @param keys       The key columns, a subset of the columns.
+     * @return SQL upsert statement.
+     */
+    String getUpsertSql(String table, List<String> columns, List<String> parameters, List<String> keys);
+
+    /**
+     * Gets an expression hashing the columns of a row into a number, summed over a range of rows to compare tables.
+     * Hashes depend on the text form of the values in the database, they are only comparable within a dialect.
+     * Each column should be encoded so that moving a null or a separator between columns changes the hash.
+     *
+     * @param columns The hashed columns.
+     * @return SQL hash expression, null if the dialect has no hash function.
+     */
+    String getRowHashSql(List<String> columns);
 }
\ No newline at end of file
@@ -15,8 +15,26 @@ public class Subquery extends Alias implements Source {
     }
 
     @Override
-    public String toSql() {
-        return " (" + cr.buildSelectQuery() + ") ";
+    public void appendSql(StringBuilder sql, RenderContext context) {
+        context.space(sql).append('(');
+        cr.appendSelectQuery(sql, context);
+        sql.append(") ");
+    }
+
+    @Override
+    public void appendName(StringBuilder sql, RenderContext context) {
+        appendSql(sql, context);
+    }
+
+    @Override
+    public void shape(QueryShape shape) {
+        shape.add(Subquery.class);
+        cr.appendShape(shape);
+    }
+
+    @Override
+    public void shapeName(QueryShape shape) {
+        shape(shape);
     }
 
     @Override
@@ -2,8 +2,13 @@ package com.ainouss.jdatatools.query.dialect;
 
 import com.ainouss.jdatatools.query.core.SqlDialect;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 public abstract class AbstractSqlDialect implements SqlDialect {
 
+    private final boolean escaping = escapes(getClass());
+
     @Override
     public String getBooleanValue(boolean value) {
         return value ? "true" : "false"; // Default to standard SQL boolean literals
@@ -19,6 +24,25 @@ public abstract class AbstractSqlDialect implements SqlDialect {
         return identifier;// Default to no escaping - escape only when necessary in subclasses
     }
 
+    @Override
+    public void escapeIdentifier(StringBuilder sql, int start) {
+        if (escaping) {
+            SqlDialect.super.escapeIdentifier(sql, start);
+        }
+    }
+
+    /**
+     * @param dialect dialect class
+     * @return true if the dialect overrides {@link #escapeIdentifier(String)}
+     */
+    private static boolean escapes(Class<?> dialect) {
+        try {
+            return dialect.getMethod("escapeIdentifier", String.class).getDeclaringClass() != AbstractSqlDialect.class;
+        } catch (NoSuchMethodException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     @Override
     public String getLimitOffsetSql(Integer limit, Integer offset) {
         if (limit != null && offset != null) {
@@ -35,4 +59,70 @@ public abstract class AbstractSqlDialect implements SqlDialect {
     public String getDistinctKeyword() {
         return "distinct"; // Default DISTINCT keyword
     }
+
+    @Override
+    public int getMaxParameters() {
+        return Short.MAX_VALUE; // Signed 16 bits parameter count, safe for most drivers
+    }
+
+    @Override
+    public int getMaxInsertRows() {
+        return Integer.MAX_VALUE; // Only limited by the number of parameters
+    }
+
+    @Override
+    public String getUpsertSql(String table, List<String> columns, List<String> parameters, List<String> keys) {
+        // SQL:2003 merge from a table value constructor
+        return merge(table + " t", "(values (" + String.join(",", parameters) + ")) s (" + String.join(",", columns) + ")", columns, keys);
+    }
+
+    @Override
+    public String getRowHashSql(List<String> columns) {
+        return null; // No portable hash function, rows are hashed by the client
+    }
+
+    /**
+     * Renders a merge of a source row aliased s into a table aliased t, matched on the keys
+     *
+     * @param into    target table and alias
+     * @param using   source row and alias
+     * @param columns inserted columns
+     * @param keys    key columns
+     * @return merge statement
+     */
+    protected String merge(String into, String using, List<String> columns, List<String> keys) {
+        StringBuilder sql = new StringBuilder("merge into ").append(into)
+                .append(" using ").append(using)
+                .append(" on (").append(keys.stream().map(key -> "t." + key + " = s." + key).collect(Collectors.joining(" and "))).append(")");
+        List<String> updated = columns.stream().filter(column -> !keys.contains(column)).toList();
+        if (!updated.isEmpty()) {
+            sql.append(" when matched then update set ").append(updated.stream().map(column -> column + " = s." + column).collect(Collectors.joining(",")));
+        }
+        return sql.append(" when not matched then insert (").append(String.join(",", columns))
+                .append(") values (").append(columns.stream().map(column -> "s." + column).collect(Collectors.joining(",")))
+                .append(")")
+                .toString();
+    }
+
+    /**
+     * Renders an insert followed by its conflict clause
+     *
+     * @param table      target table
+     * @param columns    inserted columns
+     * @param parameters parameter placeholders
+     * @param conflict   conflict clause
+     * @return insert statement
+     */
+    protected String insert(String table, List<String> columns, List<String> parameters, String conflict) {
+        return "insert into " + table + " (" + String.join(",", columns) + ") values (" + String.join(",", parameters) + ") " + conflict;
+    }
+
+    /**
+     * @param columns inserted columns
+     * @param keys    key columns
+     * @return columns updated on conflict
+     */
+    protected static List<String> updated(List<String> columns, List<String> keys) {
+        return columns.stream().filter(column -> !keys.contains(column)).toList();
+    }
 }
\ No newline at end of file
@@ -1,5 +1,8 @@
 package com.ainouss.jdatatools.query.dialect;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 public class MySqlDialect extends AbstractSqlDialect {
 
     @Override
@@ -12,6 +15,11 @@ public class MySqlDialect extends AbstractSqlDialect {
         return "`" + identifier + "`"; // MySQL uses backticks for identifiers
     }
 
+    @Override
+    public int getMaxParameters() {
+        return 65535; // Placeholders of a server prepared statement
+    }
+
     @Override
     public String getLimitOffsetSql(Integer limit, Integer offset) {
         if (limit != null && offset != null) {
@@ -23,4 +31,26 @@ public class MySqlDialect extends AbstractSqlDialect {
         }
         return "";
     }
-}
\ No newline at end of file
+
+    @Override
+    public String getUpsertSql(String table, List<String> columns, List<String> parameters, List<String> keys) {
+        List<String> updated = updated(columns, keys);
+        if (updated.isEmpty()) {
+            updated = keys.subList(0, 1); // No-op update, keeps the existing row
+        }
+        return insert(table, columns, parameters, "on duplicate key update "
+                + updated.stream().map(column -> column + " = values(" + column + ")").collect(Collectors.joining(","))); // values() is also supported by MariaDB
+    }
+
+    @Override
+    public String getRowHashSql(List<String> columns) {
+        return "crc32(concat_ws('|', " + columns.stream().map(MySqlDialect::hashed).collect(Collectors.joining(", ")) + "))";
+    }
+
+    /**
+     * Length-prefixed text of a column, N if null: concat_ws skips nulls, (null, 'a') and ('a', null) would hash the same
+     */
+    private static String hashed(String column) {
+        return "coalesce(concat(char_length(" + column + "), ':', " + column + "), 'N')";
+    }
+}
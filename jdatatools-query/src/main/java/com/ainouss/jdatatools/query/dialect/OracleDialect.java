@@ -1,5 +1,9 @@
 package com.ainouss.jdatatools.query.dialect;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
 public class OracleDialect extends AbstractSqlDialect {
 
     @Override
@@ -18,6 +22,16 @@ public class OracleDialect extends AbstractSqlDialect {
         return escaped.toString();
     }
 
+    @Override
+    public int getMaxParameters() {
+        return 65535;
+    }
+
+    @Override
+    public int getMaxInsertRows() {
+        return 1; // No multi-row values, use insert all or batches
+    }
+
     @Override
     public String getLimitOffsetSql(Integer limit, Integer offset) {
         if (limit != null && offset != null) {
@@ -29,4 +43,25 @@ public class OracleDialect extends AbstractSqlDialect {
         }
         return "";
     }
-}
\ No newline at end of file
+
+    @Override
+    public String getUpsertSql(String table, List<String> columns, List<String> parameters, List<String> keys) {
+        List<String> selected = new ArrayList<>();
+        for (int i = 0; i < columns.size(); i++) {
+            selected.add(parameters.get(i) + " " + columns.get(i));
+        }
+        return merge(table + " t", "(select " + String.join(",", selected) + " from dual) s", columns, keys); // No table value constructor before 23ai
+    }
+
+    @Override
+    public String getRowHashSql(List<String> columns) {
+        return "ora_hash(" + columns.stream().map(OracleDialect::hashed).collect(Collectors.joining(" || '|' || ")) + ")";
+    }
+
+    /**
+     * Length-prefixed text of a column, N if null: || concatenates nulls as empty strings
+     */
+    private static String hashed(String column) {
+        return "nvl2(" + column + ", length(" + column + ") || ':' || " + column + ", 'N')";
+    }
+}
@@ -1,5 +1,8 @@
 package com.ainouss.jdatatools.query.dialect;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 public class PostgreSqlDialect extends AbstractSqlDialect {
 
     @Override
@@ -12,8 +15,33 @@ public class PostgreSqlDialect extends AbstractSqlDialect {
         return "\"" + identifier + "\""; // PostgreSQL uses double quotes (standard SQL)
     }
 
+    @Override
+    public int getMaxParameters() {
+        return 65535; // Unsigned 16 bits parameter count of the protocol
+    }
+
     @Override
     public String getLimitOffsetSql(Integer limit, Integer offset) {
         return super.getLimitOffsetSql(limit, offset); // Uses default LIMIT OFFSET, which PostgreSQL supports
     }
-}
\ No newline at end of file
+
+    @Override
+    public String getUpsertSql(String table, List<String> columns, List<String> parameters, List<String> keys) {
+        List<String> updated = updated(columns, keys);
+        String conflict = "on conflict (" + String.join(",", keys) + ") do ";
+        return insert(table, columns, parameters, updated.isEmpty() ? conflict + "nothing"
+                : conflict + "update set " + updated.stream().map(column -> column + " = excluded." + column).collect(Collectors.joining(","))); // PostgreSQL 9.5+
+    }
+
+    @Override
+    public String getRowHashSql(List<String> columns) {
+        return "hashtextextended(concat_ws('|', " + columns.stream().map(PostgreSqlDialect::hashed).collect(Collectors.joining(", ")) + "), 0)"; // 64 bits hash, PostgreSQL 11+
+    }
+
+    /**
+     * Length-prefixed text of a column, N if null: concat_ws skips nulls, (null, 'a') and ('a', null) would hash the same
+     */
+    private static String hashed(String column) {
+        return "coalesce(length(cast(" + column + " as text)) || ':' || cast(" + column + " as text), 'N')";
+    }
+}
@@ -1,5 +1,8 @@
 package com.ainouss.jdatatools.query.dialect;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 public class SQLiteDialect extends AbstractSqlDialect {
 
     @Override
@@ -24,8 +27,21 @@ public class SQLiteDialect extends AbstractSqlDialect {
         return "";
     }
 
+    @Override
+    public int getMaxParameters() {
+        return 32766; // SQLITE_MAX_VARIABLE_NUMBER since 3.32
+    }
+
     @Override
     public String getBooleanValue(boolean value) {
         return value ? "1" : "0"; // SQLite uses 1 and 0 for booleans
     }
-}
\ No newline at end of file
+
+    @Override
+    public String getUpsertSql(String table, List<String> columns, List<String> parameters, List<String> keys) {
+        List<String> updated = updated(columns, keys);
+        String conflict = "on conflict (" + String.join(",", keys) + ") do ";
+        return insert(table, columns, parameters, updated.isEmpty() ? conflict + "nothing"
+                : conflict + "update set " + updated.stream().map(column -> column + " = excluded." + column).collect(Collectors.joining(","))); // SQLite 3.24+
+    }
+}
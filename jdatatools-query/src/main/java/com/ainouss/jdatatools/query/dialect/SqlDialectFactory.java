@@ -2,6 +2,8 @@ package com.ainouss.jdatatools.query.dialect;
 
 import com.ainouss.jdatatools.query.core.SqlDialect;
 
+import java.util.Locale;
+
 public class SqlDialectFactory {
 
     public static SqlDialect getDialect(String dialectName) {
@@ -21,4 +23,26 @@ public class SqlDialectFactory {
         // Add more dialect options here
         return new StandardDialect(); // Default to standard SQL if dialect not recognized
     }
+
+    /**
+     * @param productName database product name, as returned by {@link java.sql.DatabaseMetaData#getDatabaseProductName()}
+     * @return dialect of the database, the standard dialect if not recognized
+     */
+    public static SqlDialect getDialectOfProduct(String productName) {
+        String product = productName == null ? "" : productName.toLowerCase(Locale.ROOT);
+        if (product.contains("mysql") || product.contains("mariadb")) {
+            return getDialect("mysql");
+        } else if (product.contains("postgres")) {
+            return getDialect("postgresql");
+        } else if (product.contains("sql server")) {
+            return getDialect("sqlserver");
+        } else if (product.contains("oracle")) {
+            return getDialect("oracle");
+        } else if (product.contains("db2")) {
+            return getDialect("db2");
+        } else if (product.contains("sqlite")) {
+            return getDialect("sqlite");
+        }
+        return new StandardDialect();
+    }
 }
\ No newline at end of file
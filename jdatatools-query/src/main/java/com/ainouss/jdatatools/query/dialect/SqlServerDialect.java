@@ -1,5 +1,7 @@
 package com.ainouss.jdatatools.query.dialect;
 
+import java.util.List;
+
 public class SqlServerDialect extends AbstractSqlDialect {
 
     @Override
@@ -12,6 +14,16 @@ public class SqlServerDialect extends AbstractSqlDialect {
         return "[" + identifier + "]"; // SQL Server uses square brackets
     }
 
+    @Override
+    public int getMaxParameters() {
+        return 2100 - 2; // 2100 parameters per request, sp_prepexec uses two of them for the handle and the statement
+    }
+
+    @Override
+    public int getMaxInsertRows() {
+        return 1000; // Row value expressions of a table value constructor
+    }
+
     @Override
     public String getLimitOffsetSql(Integer limit, Integer offset) {
         if (limit != null && offset != null) {
@@ -23,4 +35,15 @@ public class SqlServerDialect extends AbstractSqlDialect {
         }
         return "";
     }
-}
\ No newline at end of file
+
+    @Override
+    public String getUpsertSql(String table, List<String> columns, List<String> parameters, List<String> keys) {
+        // holdlock keeps concurrent merges of the same key from both inserting, merge must be terminated by a semicolon
+        return merge(table + " with (holdlock) as t", "(values (" + String.join(",", parameters) + ")) as s (" + String.join(",", columns) + ")", columns, keys) + ";";
+    }
+
+    @Override
+    public String getRowHashSql(List<String> columns) {
+        return "cast(binary_checksum(" + String.join(", ", columns) + ") as bigint)"; // Widened, sums of int overflow
+    }
+}
@@ -1,13 +1,14 @@
 package com.ainouss.jdatatools.query.function;
 
 import com.ainouss.jdatatools.query.core.Alias;
+import com.ainouss.jdatatools.query.core.QueryShape;
+import com.ainouss.jdatatools.query.core.RenderContext;
 import com.ainouss.jdatatools.query.core.Selectable;
 import com.ainouss.jdatatools.query.core.SqlDialect;
 import com.ainouss.jdatatools.query.order.Order;
 
 import java.util.Arrays;
 import java.util.LinkedHashSet;
-import java.util.stream.Collectors;
 
 public abstract class AggregateFunction extends Alias implements Aggregable {
 
@@ -26,7 +27,13 @@ public abstract class AggregateFunction extends Alias implements Aggregable {
         this.sqlDialect = sqlDialect;
     }
 
-    public abstract String sql();
+    /**
+     * Appends the function call, without its window
+     *
+     * @param sql     buffer
+     * @param context render context
+     */
+    public abstract void appendFunction(StringBuilder sql, RenderContext context);
 
     @Override
     public AggregateFunction partitionBy(Selectable... partitions) {
@@ -45,41 +52,54 @@ public abstract class AggregateFunction extends Alias implements Aggregable {
         return this;
     }
 
-    private String overSql() {
+    private void appendOver(StringBuilder sql, RenderContext context) {
         if (partitionBy.isEmpty() && orderBy.isEmpty()) {
-            return "";
+            return;
         }
-        return new StringBuilder(" over (")
-                .append(partitions())
-                .append(orders())
-                .append(")")
-                .toString();
-    }
-
-    private String orders() {
-        if(orderBy.isEmpty()){
-            return "";
+        sql.append(" over (");
+        if (!partitionBy.isEmpty()) {
+            sql.append("partition by ");
+            int i = 0;
+            for (Selectable partition : partitionBy) {
+                if (i++ > 0) {
+                    sql.append(',');
+                }
+                partition.appendSql(sql, context);
+            }
         }
-        String parts = orderBy.stream().map(Order::toSql).collect(Collectors.joining(","));
-        return new StringBuilder(" order by ")
-                .append(parts)
-                .toString();
-    }
-
-    private String partitions() {
-        if (partitionBy.isEmpty()) {
-            return "";
+        if (!orderBy.isEmpty()) {
+            context.space(sql).append("order by ");
+            int i = 0;
+            for (Order order : orderBy) {
+                if (i++ > 0) {
+                    sql.append(',');
+                }
+                order.appendSql(sql, context);
+            }
         }
-        return new StringBuilder("partition by ")
-                .append(partitionBy.stream().map(Selectable::toSql).collect(Collectors.joining(",")))
-                .toString();
+        sql.append(')');
     }
 
     @Override
-    public String toSql() {
-        return sql() + overSql();
+    public void appendSql(StringBuilder sql, RenderContext context) {
+        appendFunction(sql, context);
+        appendOver(sql, context);
     }
 
-
-
+    /**
+     * Shape of the function: its class, which renders the call, its argument and its window
+     */
+    @Override
+    public void shape(QueryShape shape) {
+        shape.add(getClass());
+        if (selectable == null) {
+            shape.add(null);
+        } else {
+            selectable.shape(shape);
+        }
+        shape.add(partitionBy.size());
+        partitionBy.forEach(partition -> partition.shape(shape));
+        shape.add(orderBy.size());
+        orderBy.forEach(order -> order.shape(shape));
+    }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.ainouss.jdatatools.query.function;
 
+import com.ainouss.jdatatools.query.core.RenderContext;
 import com.ainouss.jdatatools.query.core.Selectable;
 import com.ainouss.jdatatools.query.core.SqlDialect;
 
@@ -13,8 +14,10 @@ public class Avg extends AggregateFunction {
     }
 
     @Override
-    public String sql() {
-        return "avg(" + selectable.toSql() + ")";
+    public void appendFunction(StringBuilder sql, RenderContext context) {
+        sql.append("avg(");
+        selectable.appendSql(sql, context);
+        sql.append(')');
     }
 
 }
\ No newline at end of file
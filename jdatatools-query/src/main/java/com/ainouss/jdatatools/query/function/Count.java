@@ -1,5 +1,6 @@
 package com.ainouss.jdatatools.query.function;
 
+import com.ainouss.jdatatools.query.core.RenderContext;
 import com.ainouss.jdatatools.query.core.Root;
 import com.ainouss.jdatatools.query.core.Selectable;
 import com.ainouss.jdatatools.query.core.SqlDialect;
@@ -23,11 +24,14 @@ public class Count extends AggregateFunction {
 
 
     @Override
-    public String sql() {
+    public void appendFunction(StringBuilder sql, RenderContext context) {
         if (selectable == null || selectable instanceof Root<?>) {
-            return "count(*)";
+            sql.append("count(*)");
+            return;
         }
-        return "count(" + selectable.toSql() + ")";
+        sql.append("count(");
+        selectable.appendSql(sql, context);
+        sql.append(')');
     }
 
 
@@ -1,5 +1,6 @@
 package com.ainouss.jdatatools.query.function;
 
+import com.ainouss.jdatatools.query.core.RenderContext;
 import com.ainouss.jdatatools.query.core.Selectable;
 import com.ainouss.jdatatools.query.core.SqlDialect;
 
@@ -16,8 +17,9 @@ public class Distinct extends AggregateFunction {
     }
 
     @Override
-    public String sql() {
-        return sqlDialect.getDistinctKeyword() + " " + selectable.toSql();
+    public void appendFunction(StringBuilder sql, RenderContext context) {
+        sql.append(sqlDialect.getDistinctKeyword()).append(' ');
+        selectable.appendSql(sql, context);
     }
 
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.ainouss.jdatatools.query.function;
 
+import com.ainouss.jdatatools.query.core.RenderContext;
 import com.ainouss.jdatatools.query.core.Selectable;
 import com.ainouss.jdatatools.query.core.SqlDialect;
 
@@ -16,8 +17,10 @@ public class Min extends AggregateFunction {
     }
 
     @Override
-    public String sql() {
-        return "min(" + selectable.toSql() + ")";
+    public void appendFunction(StringBuilder sql, RenderContext context) {
+        sql.append("min(");
+        selectable.appendSql(sql, context);
+        sql.append(')');
     }
 
 }
\ No newline at end of file
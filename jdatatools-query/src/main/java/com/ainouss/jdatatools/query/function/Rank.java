@@ -1,5 +1,6 @@
 package com.ainouss.jdatatools.query.function;
 
+import com.ainouss.jdatatools.query.core.RenderContext;
 import com.ainouss.jdatatools.query.core.SqlDialect;
 
 public class Rank extends AggregateFunction {
@@ -16,7 +17,7 @@ public class Rank extends AggregateFunction {
 
 
     @Override
-    public String sql() {
-        return "rank()";
+    public void appendFunction(StringBuilder sql, RenderContext context) {
+        sql.append("rank()");
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.ainouss.jdatatools.query.function;
 
+import com.ainouss.jdatatools.query.core.RenderContext;
 import com.ainouss.jdatatools.query.core.SqlDialect;
 
 public class RowNumber extends AggregateFunction {
@@ -17,7 +18,7 @@ public class RowNumber extends AggregateFunction {
 
 
     @Override
-    public String sql() {
-        return "row_number()";
+    public void appendFunction(StringBuilder sql, RenderContext context) {
+        sql.append("row_number()");
     }
 }
\ No newline at end of file
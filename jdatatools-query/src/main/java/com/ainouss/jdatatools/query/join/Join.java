@@ -44,28 +44,53 @@ public class Join<X, Y> extends Alias implements Source, Joinable<Y> {
     /**
      * Generates the SQL for this join.
      */
-    public String toSql() {
-        return new StringBuilder(source.getName())
-                .append(" ")
-                .append(source.getAlias())
-                .append(" ")
-                .append(this.getJoinType().name().toLowerCase())
-                .append(" join ")
-                .append(target.getName())
-                .append(" ")
-                .append(target.getAlias())
-                .append(getStatement())
-                .toString();
+    @Override
+    public void appendSql(StringBuilder sql, RenderContext context) {
+        source.appendName(sql, context);
+        context.space(sql).append(source.getAlias());
+        context.space(sql).append(joinType.getKeyword()).append(" join ");
+        target.appendName(sql, context);
+        context.space(sql).append(target.getAlias());
+        appendStatement(sql, context);
+    }
+
+    @Override
+    public void appendName(StringBuilder sql, RenderContext context) {
+        appendSql(sql, context);
     }
 
-    private String getStatement() {
+    private void appendStatement(StringBuilder sql, RenderContext context) {
         if (this.expression != null) {
-            return " on " + expression.toSql();
+            context.space(sql).append("on ");
+            expression.appendSql(sql, context);
+        } else if (this.subquery != null) {
+            context.space(sql).append("on (");
+            subquery.appendSelectQuery(sql, context);
+            sql.append(')');
         }
-        if (this.subquery != null) {
-            return " on (" + subquery.buildSelectQuery() + ")";
+    }
+
+    @Override
+    public void shape(QueryShape shape) {
+        shape.add(Join.class).add(joinType);
+        source.shapeName(shape);
+        shape.add(source.getAlias());
+        target.shapeName(shape);
+        shape.add(target.getAlias());
+        if (this.expression != null) {
+            shape.add("on");
+            expression.shape(shape);
+        } else if (this.subquery != null) {
+            shape.add("on (");
+            subquery.appendShape(shape);
+        } else {
+            shape.add(null);
         }
-        return "";
+    }
+
+    @Override
+    public void shapeName(QueryShape shape) {
+        shape(shape);
     }
 
     @Override
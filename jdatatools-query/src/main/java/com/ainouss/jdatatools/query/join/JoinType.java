@@ -4,9 +4,22 @@ package com.ainouss.jdatatools.query.join;
  * Join Types
  */
 public enum JoinType {
-    LEFT,
-    RIGHT,
-    INNER,
-    FULL,
-    CROSS
+    LEFT("left"),
+    RIGHT("right"),
+    INNER("inner"),
+    FULL("full"),
+    CROSS("cross");
+
+    private final String keyword;
+
+    JoinType(String keyword) {
+        this.keyword = keyword;
+    }
+
+    /**
+     * @return SQL keyword of the join type
+     */
+    public String getKeyword() {
+        return keyword;
+    }
 }
@@ -1,6 +1,8 @@
 package com.ainouss.jdatatools.query.logical;
 
 import com.ainouss.jdatatools.query.core.Expression;
+import com.ainouss.jdatatools.query.core.QueryShape;
+import com.ainouss.jdatatools.query.core.RenderContext;
 import com.ainouss.jdatatools.query.core.SqlDialect;
 
 import java.util.ArrayList;
@@ -50,45 +52,44 @@ public abstract class AbstractExpression implements Expression {
     }
 
     /**
-     * SQL that would be appended while rendering
+     * Appends the and-ed expressions then the or-ed expressions, each group within parenthesis
      *
-     * @return sql fragment
+     * @param sql     buffer
+     * @param context render context
      */
-
-    public String toSql() {
-
-        StringBuilder sqlBuilder = new StringBuilder();
-        boolean hasContent = false;
-
+    @Override
+    public void appendSql(StringBuilder sql, RenderContext context) {
         if (!and.isEmpty()) {
-            sqlBuilder.append("(");
-            boolean first = true;
-            for (Expression expression : and) {
-                if (!first) {
-                    sqlBuilder.append(" and ");
-                }
-                sqlBuilder.append(expression.toSql());
-                first = false;
-            }
-            sqlBuilder.append(")");
-            hasContent = true;
+            append(sql, context, and, "and ");
         }
-
         if (!or.isEmpty()) {
-            if (hasContent) {
-                sqlBuilder.append(" or ");
+            if (!and.isEmpty()) {
+                context.space(sql).append("or ");
             }
-            sqlBuilder.append("(");
-            boolean first = true;
-            for (Expression expression : or) {
-                if (!first) {
-                    sqlBuilder.append(" or ");
-                }
-                sqlBuilder.append(expression.toSql());
-                first = false;
+            append(sql, context, or, "or ");
+        }
+    }
+
+    private static void append(StringBuilder sql, RenderContext context, List<Expression> expressions, String operator) {
+        sql.append('(');
+        for (int i = 0; i < expressions.size(); i++) {
+            if (i > 0) {
+                context.space(sql).append(operator);
             }
-            sqlBuilder.append(")");
+            expressions.get(i).appendSql(sql, context);
+        }
+        sql.append(')');
+    }
+
+    @Override
+    public void shape(QueryShape shape) {
+        shape.add(getClass()).add(and.size());
+        for (Expression expression : and) {
+            expression.shape(shape);
+        }
+        shape.add(or.size());
+        for (Expression expression : or) {
+            expression.shape(shape);
         }
-        return sqlBuilder.toString();
     }
 }
\ No newline at end of file
@@ -1,6 +1,9 @@
 package com.ainouss.jdatatools.query.logical;
 
 import com.ainouss.jdatatools.query.core.Expression;
+import com.ainouss.jdatatools.query.core.LiteralValue;
+import com.ainouss.jdatatools.query.core.QueryShape;
+import com.ainouss.jdatatools.query.core.RenderContext;
 import com.ainouss.jdatatools.query.core.SqlDialect;
 
 /**
@@ -41,11 +44,19 @@ public class Not implements Expression {
     }
 
     @Override
-    public String toSql() {
-        String sql = expression.toSql();
-        if (sql == null) {
-            return "not null";
+    public void appendSql(StringBuilder sql, RenderContext context) {
+        if (expression instanceof LiteralValue literal && literal.getValue() == null) {
+            sql.append("not null");
+            return;
         }
-        return "not (" + sql + ")";
+        sql.append("not (");
+        expression.appendSql(sql, context);
+        sql.append(')');
+    }
+
+    @Override
+    public void shape(QueryShape shape) {
+        shape.add(Not.class);
+        expression.shape(shape);
     }
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package com.ainouss.jdatatools.query.operator;
 
 import com.ainouss.jdatatools.query.core.Expression;
+import com.ainouss.jdatatools.query.core.QueryShape;
+import com.ainouss.jdatatools.query.core.RenderContext;
 import com.ainouss.jdatatools.query.core.Selectable;
 import com.ainouss.jdatatools.query.core.SqlDialect;
 
@@ -45,7 +47,19 @@ public class Bt implements Expression {
     }
 
 
-    public String toSql() {
-        return sqlDialect.escapeIdentifier(attribute.toSql()) + " between " + left.toSql() + " and " + right.toSql();
+    public void appendSql(StringBuilder sql, RenderContext context) {
+        context.appendEscaped(sql, attribute, sqlDialect);
+        context.space(sql).append("between ");
+        left.appendSql(sql, context);
+        context.space(sql).append("and ");
+        right.appendSql(sql, context);
+    }
+
+    @Override
+    public void shape(QueryShape shape) {
+        shape.add(Bt.class);
+        attribute.shape(shape);
+        left.shape(shape);
+        right.shape(shape);
     }
 }
\ No newline at end of file
@@ -1,6 +1,9 @@
 package com.ainouss.jdatatools.query.operator;
 
 import com.ainouss.jdatatools.query.core.Expression;
+import com.ainouss.jdatatools.query.core.LiteralValue;
+import com.ainouss.jdatatools.query.core.QueryShape;
+import com.ainouss.jdatatools.query.core.RenderContext;
 import com.ainouss.jdatatools.query.core.Selectable;
 import com.ainouss.jdatatools.query.core.SqlDialect;
 
@@ -19,8 +22,27 @@ public class EndsWith implements Expression {
         this.sqlDialect = sqlDialect;
     }
 
-    public String toSql() {
-        String escaped = right.toSql().replace("'", "");
-        return sqlDialect.escapeIdentifier(attribute.toSql()) + " like '%" + escaped + "'";
+    public void appendSql(StringBuilder sql, RenderContext context) {
+        context.appendEscaped(sql, attribute, sqlDialect);
+        if (right instanceof LiteralValue literal && literal.getValue() instanceof String value && context.bind("%" + value)) {
+            context.space(sql).append("like ?");
+            return;
+        }
+        context.space(sql).append("like '%");
+        int pattern = sql.length();
+        right.appendSql(sql, context);
+        Like.unquote(sql, pattern);
+        sql.append("'");
+    }
+
+    @Override
+    public void shape(QueryShape shape) {
+        if (right instanceof LiteralValue literal && literal.getValue() instanceof String value) {
+            shape.add(EndsWith.class);
+            attribute.shape(shape);
+            shape.bind("%" + value);
+        } else {
+            Expression.super.shape(shape);
+        }
     }
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package com.ainouss.jdatatools.query.operator;
 
 import com.ainouss.jdatatools.query.core.Expression;
+import com.ainouss.jdatatools.query.core.QueryShape;
+import com.ainouss.jdatatools.query.core.RenderContext;
 import com.ainouss.jdatatools.query.core.Selectable;
 import com.ainouss.jdatatools.query.core.SqlDialect;
 
@@ -46,7 +48,16 @@ public class Gt implements Expression {
     /**
      * Generates the SQL representation of the greater than operator.
      */
-    public String toSql() {
-        return sqlDialect.escapeIdentifier(attribute.toSql()) + " > " + right.toSql();
+    public void appendSql(StringBuilder sql, RenderContext context) {
+        context.appendEscaped(sql, attribute, sqlDialect);
+        context.space(sql).append("> ");
+        right.appendSql(sql, context);
+    }
+
+    @Override
+    public void shape(QueryShape shape) {
+        shape.add(Gt.class);
+        attribute.shape(shape);
+        right.shape(shape);
     }
 }
\ No newline at end of file
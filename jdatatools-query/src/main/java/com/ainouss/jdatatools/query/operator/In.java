@@ -1,13 +1,14 @@
 package com.ainouss.jdatatools.query.operator;
 
 import com.ainouss.jdatatools.query.core.Expression;
+import com.ainouss.jdatatools.query.core.QueryShape;
+import com.ainouss.jdatatools.query.core.RenderContext;
 import com.ainouss.jdatatools.query.core.Selectable;
 import com.ainouss.jdatatools.query.core.SqlDialect;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Represents the IN operator in a query.
@@ -79,12 +80,28 @@ public class In implements Expression {
     /**
      * Generates the SQL representation of the 'IN' operator.
      *
-     * @return The SQL representation of the 'IN' operator.
+     * @param sql     buffer
+     * @param context render context
      */
-    public String toSql() {
-        String values = args.stream()
-                .map(Selectable::toSql)
-                .collect(Collectors.joining(","));
-        return sqlDialect.escapeIdentifier(attribute.toSql()) + " in  (" + values + ")";
+    public void appendSql(StringBuilder sql, RenderContext context) {
+        context.appendEscaped(sql, attribute, sqlDialect);
+        context.space(sql).append("in (");
+        for (int i = 0; i < args.size(); i++) {
+            if (i > 0) {
+                sql.append(',');
+            }
+            args.get(i).appendSql(sql, context);
+        }
+        sql.append(')');
+    }
+
+    @Override
+    public void shape(QueryShape shape) {
+        shape.add(In.class);
+        attribute.shape(shape);
+        shape.add(args.size());
+        for (Selectable arg : args) {
+            arg.shape(shape);
+        }
     }
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package com.ainouss.jdatatools.query.operator;
 
 import com.ainouss.jdatatools.query.core.Expression;
+import com.ainouss.jdatatools.query.core.QueryShape;
+import com.ainouss.jdatatools.query.core.RenderContext;
 import com.ainouss.jdatatools.query.core.Selectable;
 import com.ainouss.jdatatools.query.core.SqlDialect;
 
@@ -17,7 +19,14 @@ public class IsNotNull implements Expression {
         this.sqlDialect = sqlDialect;
     }
 
-    public String toSql() {
-        return sqlDialect.escapeIdentifier(attribute.toSql()) + " is not null ";
+    public void appendSql(StringBuilder sql, RenderContext context) {
+        context.appendEscaped(sql, attribute, sqlDialect);
+        context.space(sql).append("is not null ");
+    }
+
+    @Override
+    public void shape(QueryShape shape) {
+        shape.add(IsNotNull.class);
+        attribute.shape(shape);
     }
 }
\ No newline at end of file
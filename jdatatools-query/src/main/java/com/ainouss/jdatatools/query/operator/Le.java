@@ -1,6 +1,8 @@
 package com.ainouss.jdatatools.query.operator;
 
 import com.ainouss.jdatatools.query.core.Expression;
+import com.ainouss.jdatatools.query.core.QueryShape;
+import com.ainouss.jdatatools.query.core.RenderContext;
 import com.ainouss.jdatatools.query.core.Selectable;
 import com.ainouss.jdatatools.query.core.SqlDialect;
 
@@ -46,10 +48,20 @@ public class Le implements Expression {
     /**
      * Le generates the SQL representation of the greater than or equal operator.
      *
-     * @return The SQL representation of the operator.
+     * @param sql     buffer
+     * @param context render context
      * @throws RuntimeException If the operator is used with null values.
      */
-    public String toSql() {
-        return sqlDialect.escapeIdentifier(attribute.toSql()) + " <= " + right.toSql();
+    public void appendSql(StringBuilder sql, RenderContext context) {
+        context.appendEscaped(sql, attribute, sqlDialect);
+        context.space(sql).append("<= ");
+        right.appendSql(sql, context);
+    }
+
+    @Override
+    public void shape(QueryShape shape) {
+        shape.add(Le.class);
+        attribute.shape(shape);
+        right.shape(shape);
     }
 }
\ No newline at end of file
@@ -1,6 +1,9 @@
 package com.ainouss.jdatatools.query.operator;
 
 import com.ainouss.jdatatools.query.core.Expression;
+import com.ainouss.jdatatools.query.core.LiteralValue;
+import com.ainouss.jdatatools.query.core.QueryShape;
+import com.ainouss.jdatatools.query.core.RenderContext;
 import com.ainouss.jdatatools.query.core.Selectable;
 import com.ainouss.jdatatools.query.core.SqlDialect;
 
@@ -47,10 +50,47 @@ public class Like implements Expression {
     /**
      * Generates the SQL representation of the LIKE operator.
      *
-     * @return The SQL representation of the LIKE operator.
+     * @param sql     buffer
+     * @param context render context
      */
-    public String toSql() {
-        String escaped = right.toSql().replace("'", "");
-        return sqlDialect.escapeIdentifier(attribute.toSql()) + " like '%" + escaped + "%'";
+    public void appendSql(StringBuilder sql, RenderContext context) {
+        context.appendEscaped(sql, attribute, sqlDialect);
+        if (right instanceof LiteralValue literal && literal.getValue() instanceof String value && context.bind("%" + value + "%")) {
+            context.space(sql).append("like ?");
+            return;
+        }
+        context.space(sql).append("like '%");
+        int pattern = sql.length();
+        right.appendSql(sql, context);
+        Like.unquote(sql, pattern);
+        sql.append("%'");
+    }
+
+    /**
+     * Removes the quotes of a value rendered at the end of a buffer
+     *
+     * @param sql   buffer
+     * @param start start of the value in the buffer
+     */
+    static void unquote(StringBuilder sql, int start) {
+        int end = start;
+        for (int i = start; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c != '\'') {
+                sql.setCharAt(end++, c);
+            }
+        }
+        sql.setLength(end);
+    }
+
+    @Override
+    public void shape(QueryShape shape) {
+        if (right instanceof LiteralValue literal && literal.getValue() instanceof String value) {
+            shape.add(Like.class);
+            attribute.shape(shape);
+            shape.bind("%" + value + "%");
+        } else {
+            Expression.super.shape(shape);
+        }
     }
 }
\ No newline at end of file
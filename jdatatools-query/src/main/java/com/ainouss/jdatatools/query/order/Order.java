@@ -1,6 +1,8 @@
 package com.ainouss.jdatatools.query.order;
 
 import com.ainouss.jdatatools.query.core.Fragment;
+import com.ainouss.jdatatools.query.core.QueryShape;
+import com.ainouss.jdatatools.query.core.RenderContext;
 import com.ainouss.jdatatools.query.core.Selectable;
 import lombok.Getter;
 
@@ -21,7 +23,14 @@ public class Order implements Fragment {
     }
 
     @Override
-    public String toSql() {
-        return column.toSql() + " " + direction;
+    public void appendSql(StringBuilder sql, RenderContext context) {
+        column.appendSql(sql, context);
+        context.space(sql).append(direction);
+    }
+
+    @Override
+    public void shape(QueryShape shape) {
+        column.shape(shape);
+        shape.add(direction);
     }
 }
\ No newline at end of file
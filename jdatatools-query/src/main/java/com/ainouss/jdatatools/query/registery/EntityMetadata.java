@@ -0,0 +1,79 @@
+package com.ainouss.jdatatools.query.registery;
+
+import com.ainouss.jdatatools.query.core.FieldMetaData;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.lang.reflect.Field;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.ainouss.jdatatools.query.util.DataUtils.isNotBlank;
+
+/**
+ * Immutable mapping of an entity class, scanned once and published by {@link EntityRegistry}
+ */
+@Getter
+public final class EntityMetadata {
+
+    /**
+     * entity class
+     */
+    private final Class<?> javaType;
+    /**
+     * table from @Table annotation
+     */
+    private final String table;
+    /**
+     * columns from @Column annotation, ordered by field name
+     */
+    private final List<Column> columns;
+    /**
+     * fields of a query selecting the whole entity, ordered by field name, immutable and shared by the queries
+     */
+    private final List<FieldMetaData> fields;
+
+    @Getter(AccessLevel.NONE)
+    private final Map<String, Column> labels;
+
+    EntityMetadata(Class<?> javaType, String table, List<Column> columns) {
+        this.javaType = javaType;
+        this.table = table;
+        this.columns = List.copyOf(columns);
+        this.fields = columns.stream()
+                .map(column -> new FieldMetaData(column.label(), isNotBlank(column.name()) ? column.name() : column.label(), column.javaType()))
+                .toList();
+        Map<String, Column> labels = new LinkedHashMap<>();
+        columns.forEach(column -> labels.put(column.label(), column));
+        this.labels = Map.copyOf(labels);
+    }
+
+    /**
+     * Column of a field
+     *
+     * @param label java field name
+     * @return column, null if the field is not mapped
+     */
+    public Column getColumn(String label) {
+        return labels.get(label);
+    }
+
+    /**
+     * A mapped field
+     *
+     * @param label    java field name
+     * @param name     column name
+     * @param javaType java type of the field
+     * @param field    field handle
+     */
+    public record Column(String label, String name, Class<?> javaType, Field field) {
+
+        /**
+         * @return a new field metadata of this column
+         */
+        public FieldMetaData toFieldMetaData() {
+            return new FieldMetaData(label, name, javaType);
+        }
+    }
+}
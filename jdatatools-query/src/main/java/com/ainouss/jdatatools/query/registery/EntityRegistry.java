@@ -9,26 +9,24 @@ import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.stereotype.Component;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Collectors;
 
 import static com.ainouss.jdatatools.query.util.DataUtils.isNotBlank;
 
 /**
- * Creates a criteria builder and holds column names and table names
+ * Creates a criteria builder and holds column names and table names.
+ * Each class is scanned once, its immutable {@link EntityMetadata} is published through a concurrent map,
+ * so that queries can be built and resolved from any number of threads without locking.
  */
 @Component
 @Slf4j
 public class EntityRegistry {
     /**
-     * columns from @Column annotation
+     * metadata by entity class
      */
-    public static final LinkedHashMap<Path<?>, String> paths = new LinkedHashMap<>();
-    /**
-     * tables from @Table annotation
-     */
-    public static final LinkedHashMap<Root<?>, String> roots = new LinkedHashMap<>();
-
-    private static final HashSet<Class<?>> registered = new HashSet<>();
+    private static final ConcurrentMap<Class<?>, EntityMetadata> entities = new ConcurrentHashMap<>();
 
 
     public EntityRegistry(EntityResolver resolver) {
@@ -61,14 +59,74 @@ public class EntityRegistry {
      * @param clazz input
      */
     public static void registerClass(Class<?> clazz) {
-        if (registered.contains(clazz)) {
-            return;
+        getMetadata(clazz);
+    }
+
+    /**
+     * Metadata of a class, registers the class on first use
+     *
+     * @param clazz entity class
+     * @return metadata
+     */
+    public static EntityMetadata getMetadata(Class<?> clazz) {
+        if (clazz == null) {
+            throw new RuntimeException("Target class should not be null");
         }
-        Root<?> root = new Root<>(clazz);
-        roots.put(root, getTableName(clazz));
-        getSelectableFields(clazz)
-                .forEach(field -> paths.put(new Path<>(root, field.getLabel()), field.getColumn()));
-        registered.add(clazz);
+        EntityMetadata metadata = entities.get(clazz);
+        if (metadata != null) {
+            return metadata;
+        }
+        return entities.computeIfAbsent(clazz, model -> new EntityMetadata(model, getTableName(model), getColumns(model)));
+    }
+
+    /**
+     * Metadata of a registered class
+     *
+     * @param clazz entity class, nullable
+     * @return metadata, null if the class is not registered
+     */
+    public static EntityMetadata findMetadata(Class<?> clazz) {
+        return clazz == null ? null : entities.get(clazz);
+    }
+
+    /**
+     * Table of a root
+     *
+     * @param root root
+     * @return table, null if the class of the root is not registered
+     */
+    public static String getTable(Root<?> root) {
+        EntityMetadata metadata = findMetadata(root.getJavaType());
+        return metadata == null ? null : metadata.getTable();
+    }
+
+    /**
+     * Columns of the registered classes, a snapshot replacing the former mutable {@code paths} map
+     *
+     * @return unmodifiable column names by path
+     * @deprecated resolve columns with {@link #getMetadata(Class)} or {@link #resolvePath(Path)}
+     */
+    @Deprecated
+    public static Map<Path<?>, String> paths() {
+        Map<Path<?>, String> paths = new LinkedHashMap<>();
+        entities.values().forEach(metadata -> {
+            Root<?> root = new Root<>(metadata.getJavaType());
+            metadata.getColumns().forEach(column -> paths.put(new Path<>(root, column.label()), column.name()));
+        });
+        return Collections.unmodifiableMap(paths);
+    }
+
+    /**
+     * Tables of the registered classes, a snapshot replacing the former mutable {@code roots} map
+     *
+     * @return unmodifiable table names by root
+     * @deprecated resolve tables with {@link #getMetadata(Class)} or {@link #getTable(Root)}
+     */
+    @Deprecated
+    public static Map<Root<?>, String> roots() {
+        Map<Root<?>, String> roots = new LinkedHashMap<>();
+        entities.values().forEach(metadata -> roots.put(new Root<>(metadata.getJavaType()), metadata.getTable()));
+        return Collections.unmodifiableMap(roots);
     }
 
     private static String getTableName(Class<?> model) {
@@ -109,8 +167,9 @@ public class EntityRegistry {
     }
 
     public static String resolvePath(Path<?> path) {
-        String col = paths.get(path);
-        return (isNotBlank(col) ? col : path.getAttribute());
+        EntityMetadata metadata = findMetadata(path.getHead().getJavaType());
+        EntityMetadata.Column column = metadata == null ? null : metadata.getColumn(path.getAttribute());
+        return (column != null && isNotBlank(column.name()) ? column.name() : path.getAttribute());
     }
 
     /**
@@ -126,7 +185,7 @@ public class EntityRegistry {
         if (isNotBlank(root.getAlias())) {
             return root.getAlias();
         }
-        String table = roots.get(root);
+        String table = getTable(root);
         if (table == null) {
             throw new RuntimeException("Could not locate table for root, make sure to add @Column annotation" + root);
         }
@@ -140,18 +199,21 @@ public class EntityRegistry {
      * @return fields
      */
     public static List<FieldMetaData> getSelectableFields(Class<?> clazz) {
+        EntityMetadata metadata = findMetadata(clazz);
+        List<EntityMetadata.Column> columns = metadata == null ? getColumns(clazz) : metadata.getColumns();
+        return columns
+                .stream()
+                .map(EntityMetadata.Column::toFieldMetaData)
+                .collect(Collectors.toList());
+    }
+
+    private static List<EntityMetadata.Column> getColumns(Class<?> clazz) {
         return Arrays.stream(
                         FieldUtils.getFieldsWithAnnotation(clazz, Column.class)
                 )
-                .map(field -> {
-                    FieldMetaData fieldMetaData = new FieldMetaData();
-                    fieldMetaData.setLabel(field.getName());
-                    fieldMetaData.setColumn(field.getAnnotation(Column.class).name());
-                    fieldMetaData.setJavaType(field.getType());
-                    return fieldMetaData;
-                })
-                .sorted(Comparator.comparing(FieldMetaData::getLabel))
-                .collect(Collectors.toList());
+                .map(field -> new EntityMetadata.Column(field.getName(), field.getAnnotation(Column.class).name(), field.getType(), field))
+                .sorted(Comparator.comparing(EntityMetadata.Column::label))
+                .toList();
     }
 
 }
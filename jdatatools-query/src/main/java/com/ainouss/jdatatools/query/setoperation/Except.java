@@ -1,6 +1,7 @@
 package com.ainouss.jdatatools.query.setoperation;
 
 import com.ainouss.jdatatools.query.core.CriteriaQuery;
+import com.ainouss.jdatatools.query.core.RenderContext;
 
 public class Except implements SetOperation {
 
@@ -10,8 +11,11 @@ public class Except implements SetOperation {
         this.other = other;
     }
 
-    public String toSql() {
-        return "except (" + other.buildSelectQuery() + ")";
+    @Override
+    public void appendSql(StringBuilder sql, RenderContext context) {
+        sql.append("except (");
+        other.appendSelectQuery(sql, context);
+        sql.append(')');
     }
 
 }
\ No newline at end of file
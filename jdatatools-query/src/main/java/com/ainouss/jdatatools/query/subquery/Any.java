@@ -2,6 +2,7 @@ package com.ainouss.jdatatools.query.subquery;
 
 
 import com.ainouss.jdatatools.query.core.CriteriaQuery;
+import com.ainouss.jdatatools.query.core.RenderContext;
 import com.ainouss.jdatatools.query.core.Selectable;
 import com.ainouss.jdatatools.query.core.SqlDialect;
 
@@ -21,8 +22,10 @@ public class Any implements Selectable {
 
 
     @Override
-    public String toSql() {
-        return " any (" + subquery.buildSelectQuery() + ")";
+    public void appendSql(StringBuilder sql, RenderContext context) {
+        context.space(sql).append("any (");
+        subquery.appendSelectQuery(sql, context);
+        sql.append(')');
     }
 
     @Override
@@ -0,0 +1,94 @@
+package com.ainouss.jdatatools.query.benchmark;
+
+import com.ainouss.jdatatools.query.core.CriteriaBuilder;
+import com.ainouss.jdatatools.query.core.CriteriaQuery;
+import com.ainouss.jdatatools.query.core.ParameterizedSql;
+import com.ainouss.jdatatools.query.core.Root;
+import com.ainouss.jdatatools.query.model.Employee;
+import com.ainouss.jdatatools.query.model.EmployeeDetails;
+import com.ainouss.jdatatools.query.order.OrderDirection;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders queries shaped like those of the criteria query tests: nested predicates, joins and subqueries.
+ * {@code singleBuffer} renders the statement in one buffer, {@code regexCleanup} adds back the whitespace cleanup
+ * every statement used to go through, {@code parameterized} binds the literals.
+ * Run with {@code main}, allocations per statement are reported by the gc profiler.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CriteriaQueryBenchmark {
+
+    @Param({"predicates", "joins", "subqueries"})
+    private String shape;
+
+    private CriteriaQuery<Employee> query;
+
+    @Setup
+    public void setUp() {
+        CriteriaBuilder cb = new CriteriaBuilder();
+        query = cb.createQuery(Employee.class);
+        Root<Employee> rt = query.from(Employee.class).as("tbl");
+        switch (shape) {
+            case "predicates" -> query
+                    .select(rt)
+                    .where(cb.or(
+                            cb.and(cb.gt(rt.get("id"), 0), cb.lt(rt.get("id"), 30), cb.isNull(rt.get("lastName")), cb.isNotNull(rt.get("enabled"))),
+                            cb.and(cb.like(rt.get("firstName"), "jo"), cb.in(rt.get("salary"), 10, 20, 30), cb.not(cb.eq(rt.get("id"), 4)))
+                    ))
+                    .orderBy(rt.get("id"), OrderDirection.DESC);
+            case "joins" -> {
+                Root<EmployeeDetails> det = query.from(EmployeeDetails.class).as("det");
+                query
+                        .select(rt)
+                        .from(rt.leftJoin(det).on(cb.eq(rt.get("id"), det.get("id"))))
+                        .where(cb.and(cb.eq(det.get("id"), 0), cb.between(rt.get("salary"), 100, 200)))
+                        .orderBy(rt.get("lastName"), OrderDirection.ASC);
+            }
+            case "subqueries" -> {
+                CriteriaQuery<EmployeeDetails> sub = cb.createQuery(EmployeeDetails.class);
+                Root<EmployeeDetails> det = sub.from(EmployeeDetails.class).as("det");
+                sub.select(det.get("id")).where(cb.eq(rt.get("id"), det.get("id")));
+                CriteriaQuery<EmployeeDetails> in = cb.createQuery(EmployeeDetails.class);
+                Root<EmployeeDetails> ids = in.from(EmployeeDetails.class).as("ids");
+                in.select(ids.get("id")).where(cb.gt(ids.get("id"), 10));
+                query
+                        .select(rt)
+                        .where(cb.and(cb.exists(sub), cb.in(rt.get("id"), cb.scalar(in)), cb.ne(rt.get("firstName"), "john")));
+            }
+            default -> throw new IllegalArgumentException(shape);
+        }
+    }
+
+    @Benchmark
+    public String singleBuffer() {
+        return query.buildSelectQuery();
+    }
+
+    @Benchmark
+    public String regexCleanup() {
+        return query.buildSelectQuery().trim().replaceAll("  +", " ");
+    }
+
+    @Benchmark
+    public ParameterizedSql parameterized() {
+        return ParameterizedSql.render(query::buildSelectQuery);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CriteriaQueryBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build())
+                .run();
+    }
+}
@@ -103,7 +103,7 @@ class CriteriaBuilderTest {
         CriteriaQuery<Employee> query = cb.createQuery(Employee.class);
         Root<Employee> root = query.from(Employee.class);
         String sql = cb.inL(root.get("lastName"), List.of("john", "jane")).toSql();
-        assertEquals("EMPLOYEES.LAST_NAME in  ('john','jane')", sql);
+        assertEquals("EMPLOYEES.LAST_NAME in ('john','jane')", sql);
     }
 
     @Test
@@ -111,7 +111,7 @@ class CriteriaBuilderTest {
         CriteriaQuery<Employee> query = cb.createQuery(Employee.class);
         Root<Employee> root = query.from(Employee.class);
         String sql = cb.in(root.get("lastName"), "john", "jane").toSql();
-        assertEquals("EMPLOYEES.LAST_NAME in  ('john','jane')", sql);
+        assertEquals("EMPLOYEES.LAST_NAME in ('john','jane')", sql);
     }
 
     @Test
@@ -342,6 +342,6 @@ class CriteriaBuilderTest {
 
         String sql = emp.leftJoin(det).on(cb.eq(emp.get("id"), det.get("id")))
                 .rightJoin(det).on(cb.eq(emp.get("id"), det.get("id"))).toSql();
-        assertEquals("EMPLOYEES emp left join EMPLOYEE_DETAILS det on emp.ID = det.ID  right join EMPLOYEE_DETAILS det on emp.ID = det.ID", sql);
+        assertEquals("EMPLOYEES emp left join EMPLOYEE_DETAILS det on emp.ID = det.ID right join EMPLOYEE_DETAILS det on emp.ID = det.ID", sql);
     }
 }
\ No newline at end of file
@@ -1,17 +1,30 @@
 package com.ainouss.jdatatools.query.core;
 
+import com.ainouss.jdatatools.query.dialect.MySqlDialect;
+import com.ainouss.jdatatools.query.dialect.OracleDialect;
+import com.ainouss.jdatatools.query.dialect.PostgreSqlDialect;
+import com.ainouss.jdatatools.query.dialect.SqlServerDialect;
 import com.ainouss.jdatatools.query.dialect.StandardDialect;
+import com.ainouss.jdatatools.query.function.Count;
+import com.ainouss.jdatatools.query.join.Join;
+import com.ainouss.jdatatools.query.join.JoinType;
 import com.ainouss.jdatatools.query.logical.AbstractExpression;
 import com.ainouss.jdatatools.query.model.Department;
 import com.ainouss.jdatatools.query.model.Employee;
 import com.ainouss.jdatatools.query.model.EmployeeDetails;
 import com.ainouss.jdatatools.query.order.OrderDirection;
+import com.ainouss.jdatatools.query.registery.EntityRegistry;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -548,6 +561,249 @@ class CriteriaQueryTest {
         Assertions.assertEquals("insert into EMPLOYEES (ENABLED,FIRST_NAME,ID,LAST_NAME,SALARY) values (:enabled,:firstName,:id,:lastName,:salary)", insert);
     }
 
+    @Test
+    public void should_generate_multi_row_insert() {
+        CriteriaQuery<Employee> cr = cb.createQuery(Employee.class);
+        var rt = cr.from(Employee.class);
+        cr.select(rt.get("id"), rt.get("firstName"));
+        String insert = cr.buildMultiRowInsertQuery(3);
+        Assertions.assertEquals("insert into EMPLOYEES (ID,FIRST_NAME) values (:id_0,:firstName_0),(:id_1,:firstName_1),(:id_2,:firstName_2)", insert);
+    }
+
+    @Test
+    public void should_cap_multi_row_insert_with_dialect_limits() {
+        CriteriaQuery<Employee> sqlServer = new CriteriaBuilder(new SqlServerDialect()).createQuery(Employee.class);
+        sqlServer.select(sqlServer.from(Employee.class));
+        Assertions.assertEquals(419, sqlServer.getMaxInsertRows());
+        sqlServer.select(sqlServer.from(Employee.class).get("id"));
+        Assertions.assertEquals(1000, sqlServer.getMaxInsertRows());
+        CriteriaQuery<Employee> oracle = new CriteriaBuilder(new OracleDialect()).createQuery(Employee.class);
+        oracle.select(oracle.from(Employee.class).get("id"));
+        Assertions.assertEquals("insert into EMPLOYEES (ID) values (:id_0)", oracle.buildMultiRowInsertQuery(10));
+    }
+
+    @Test
+    public void should_generate_upsert_per_dialect() {
+        CriteriaQuery<Employee> cr = cb.createQuery(Employee.class);
+        var rt = cr.from(Employee.class);
+        cr.select(rt.get("id"), rt.get("firstName"));
+        Assertions.assertEquals("merge into EMPLOYEES t using (values (:id,:firstName)) s (ID,FIRST_NAME) on (t.ID = s.ID) "
+                + "when matched then update set FIRST_NAME = s.FIRST_NAME when not matched then insert (ID,FIRST_NAME) values (s.ID,s.FIRST_NAME)", cr.buildUpsertQuery(List.of(rt.get("id"))));
+        Assertions.assertEquals("insert into EMPLOYEES (ID,FIRST_NAME) values (:id,:firstName) on conflict (ID) do update set FIRST_NAME = excluded.FIRST_NAME",
+                upsert(new PostgreSqlDialect()));
+        Assertions.assertEquals("insert into EMPLOYEES (ID,FIRST_NAME) values (:id,:firstName) on duplicate key update FIRST_NAME = values(FIRST_NAME)",
+                upsert(new MySqlDialect()));
+        Assertions.assertEquals("merge into EMPLOYEES t using (select :id ID,:firstName FIRST_NAME from dual) s on (t.ID = s.ID) "
+                + "when matched then update set FIRST_NAME = s.FIRST_NAME when not matched then insert (ID,FIRST_NAME) values (s.ID,s.FIRST_NAME)", upsert(new OracleDialect()));
+        Assertions.assertTrue(upsert(new SqlServerDialect()).startsWith("merge into EMPLOYEES with (holdlock) as t using (values (:id,:firstName)) as s (ID,FIRST_NAME)"));
+        Assertions.assertTrue(upsert(new SqlServerDialect()).endsWith(";"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> cr.buildUpsertQuery(List.of(rt.get("lastName"))));
+    }
+
+    private static String upsert(SqlDialect dialect) {
+        CriteriaQuery<Employee> cr = new CriteriaBuilder(dialect).createQuery(Employee.class);
+        var rt = cr.from(Employee.class);
+        cr.select(rt.get("id"), rt.get("firstName"));
+        return cr.buildUpsertQuery(List.of(rt.get("id")));
+    }
+
+    @Test
+    public void should_generate_checksum_query_per_dialect() {
+        CriteriaQuery<Employee> cr = new CriteriaBuilder(new MySqlDialect()).createQuery(Employee.class);
+        var rt = cr.from(Employee.class);
+        cr.select(rt.get("id"), rt.get("firstName"));
+        Assertions.assertEquals("select count(*), sum(crc32(concat_ws('|', coalesce(concat(char_length(EMPLOYEES.FIRST_NAME), ':', EMPLOYEES.FIRST_NAME), 'N'), "
+                        + "coalesce(concat(char_length(EMPLOYEES.ID), ':', EMPLOYEES.ID), 'N')))) from EMPLOYEES EMPLOYEES where (EMPLOYEES.ID > ?)",
+                cr.buildChecksumQuery(cb.gt(rt.get("id"), cb.parameter())));
+        CriteriaQuery<Employee> postgres = new CriteriaBuilder(new PostgreSqlDialect()).createQuery(Employee.class);
+        var pg = postgres.from(Employee.class);
+        postgres.select(pg.get("firstName"));
+        Assertions.assertEquals("select count(*), sum(hashtextextended(concat_ws('|', coalesce(length(cast(EMPLOYEES.FIRST_NAME as text)) || ':' "
+                        + "|| cast(EMPLOYEES.FIRST_NAME as text), 'N')), 0)) from EMPLOYEES EMPLOYEES",
+                postgres.buildChecksumQuery(null));
+        CriteriaQuery<Employee> standard = cb.createQuery(Employee.class);
+        standard.select(standard.from(Employee.class));
+        Assertions.assertNull(standard.buildChecksumQuery(null));
+    }
+
+    @Test
+    public void should_bind_literals_of_parameterized_query() {
+        CriteriaQuery<Employee> cr = cb.createQuery(Employee.class);
+        var rt = cr.from(Employee.class);
+        cr.select(rt.get("id"), rt.get("firstName"));
+        cr.where(cb.and(cb.eq(rt.get("firstName"), "o'hara"), cb.in(rt.get("id"), 1, 2), cb.gt(rt.get("salary"), cb.parameter()), cb.like(rt.get("lastName"), "an")));
+        ParameterizedSql sql = cr.buildParameterizedSelectQuery();
+        Assertions.assertEquals("select EMPLOYEES.FIRST_NAME as firstName,EMPLOYEES.ID as id from EMPLOYEES EMPLOYEES "
+                + "where ((EMPLOYEES.FIRST_NAME = ? and EMPLOYEES.ID in (?,?) and EMPLOYEES.SALARY > ? and EMPLOYEES.LAST_NAME like ?))", sql.sql());
+        Assertions.assertArrayEquals(new Object[]{"o'hara", 1, 2, 1000, "%an%"}, sql.args(1000));
+        Assertions.assertEquals(String.class, sql.parameters().get(0).type());
+        Assertions.assertFalse(sql.parameters().get(3).bound());
+        Assertions.assertThrows(IllegalArgumentException.class, sql::args);
+        Assertions.assertTrue(cr.buildSelectQuery().contains("EMPLOYEES.FIRST_NAME = 'o''hara'"));
+    }
+
+    @Test
+    public void should_reuse_parameterized_sql_of_same_query_shape() {
+        ParameterizedSql first = lookup("john", 10, 20);
+        ParameterizedSql second = lookup("jane", 30, 40);
+        Assertions.assertSame(first.sql(), second.sql());
+        Assertions.assertArrayEquals(new Object[]{"jane", 30, 40, "%an%"}, second.args());
+        Assertions.assertEquals(ParameterizedSql.render(() -> {
+            CriteriaQuery<Employee> cr = cb.createQuery(Employee.class);
+            var rt = cr.from(Employee.class);
+            cr.where(cb.and(cb.eq(rt.get("firstName"), "jane"), cb.between(rt.get("salary"), 30, 40), cb.like(rt.get("lastName"), "an")));
+            return cr.buildSelectQuery();
+        }), second);
+
+        CriteriaQuery<Employee> aliased = cb.createQuery(Employee.class);
+        var rt = aliased.from(Employee.class);
+        aliased.select(rt.get("id").as("key"));
+        CriteriaQuery<Employee> other = cb.createQuery(Employee.class);
+        var ro = other.from(Employee.class);
+        other.select(ro.get("id").as("other"));
+        Assertions.assertNotEquals(aliased.buildParameterizedSelectQuery().sql(), other.buildParameterizedSelectQuery().sql());
+    }
+
+    @Test
+    public void should_keep_recently_used_shapes_when_the_shape_cache_is_full() {
+        ParameterizedSql hot = lookup("john", 10, 20);
+        for (int i = 1; i <= CriteriaQuery.MAX_SHAPES + 100; i++) {
+            CriteriaQuery<Employee> cr = cb.createQuery(Employee.class);
+            cr.select(cr.from(Employee.class).get("id")).limit(i);
+            cr.buildParameterizedSelectQuery();
+            if (i % 100 == 0) {
+                Assertions.assertSame(hot.sql(), lookup("jane", i, i + 1).sql());
+            }
+        }
+        Assertions.assertSame(hot.sql(), lookup("jane", 30, 40).sql());
+    }
+
+    @Test
+    public void should_not_render_joins_and_aggregates_of_a_cached_shape() {
+        AtomicInteger rendered = new AtomicInteger();
+        ParameterizedSql first = joinedCount(rendered, "john", 10);
+        Assertions.assertTrue(rendered.get() > 0);
+        rendered.set(0);
+        ParameterizedSql second = joinedCount(rendered, "jane", 20);
+        Assertions.assertEquals(0, rendered.get());
+        Assertions.assertSame(first.sql(), second.sql());
+        Assertions.assertEquals("select count(tbl.ID),tbl.LAST_NAME as lastName from EMPLOYEES tbl left join EMPLOYEE_DETAILS det on (tbl.ID = det.ID and det.ID > ?) "
+                + "where (tbl.FIRST_NAME = ?) group by tbl.LAST_NAME", second.sql());
+        Assertions.assertArrayEquals(new Object[]{20, "jane"}, second.args());
+    }
+
+    @Test
+    public void should_render_parameterized_cte_queries_without_the_shape_cache() {
+        CriteriaQuery<Employee> cr = cb.createQuery(Employee.class);
+        var rt = cr.from(Employee.class);
+        cr.select(rt.get("id")).where(cb.eq(rt.get("firstName"), "john"));
+        Cte<Employee> cte = cb.with("named");
+        cte.as(cr).select(cte.from(Employee.class).get("id"));
+        ParameterizedSql sql = cte.buildParameterizedSelectQuery();
+        Assertions.assertEquals("with named as (select EMPLOYEES.ID as id from EMPLOYEES EMPLOYEES where (EMPLOYEES.FIRST_NAME = ?)) "
+                + "select EMPLOYEES.ID as id from EMPLOYEES EMPLOYEES", sql.sql());
+        Assertions.assertArrayEquals(new Object[]{"john"}, sql.args());
+    }
+
+    @Test
+    public void should_render_single_spaces_without_rewriting_literals() {
+        CriteriaQuery<Employee> cr = cb.createQuery(Employee.class);
+        var rt = cr.from(Employee.class);
+        CriteriaQuery<EmployeeDetails> sub = cb.createQuery(EmployeeDetails.class);
+        var det = sub.from(EmployeeDetails.class);
+        sub.select(det.get("id")).where(cb.isNull(det.get("id")));
+        cr.select(rt.get("id"));
+        cr.where(cb.and(cb.isNull(rt.get("lastName")), cb.exists(sub), cb.eq(rt.get("firstName"), "a  b ")));
+        Assertions.assertEquals("select EMPLOYEES.ID as id from EMPLOYEES EMPLOYEES where ((EMPLOYEES.LAST_NAME is null and exists (select EMPLOYEE_DETAILS.ID as id "
+                + "from EMPLOYEE_DETAILS EMPLOYEE_DETAILS where (EMPLOYEE_DETAILS.ID is null )) and EMPLOYEES.FIRST_NAME = 'a  b '))", cr.buildSelectQuery());
+    }
+
+    @Test
+    public void should_build_queries_concurrently() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> queries = new ArrayList<>();
+            for (int i = 0; i < 400; i++) {
+                String alias = "t" + i;
+                queries.add(executor.submit(() -> {
+                    CriteriaQuery<EmployeeDetails> cr = cb.createQuery(EmployeeDetails.class);
+                    Root<EmployeeDetails> rt = cr.from(EmployeeDetails.class).as(alias);
+                    return cr.select(rt).where(cb.eq(rt.get("id"), 1)).buildSelectQuery();
+                }));
+            }
+            for (int i = 0; i < queries.size(); i++) {
+                Assertions.assertEquals(String.format("select t%1$d.DEPARTMENT_ID as departmentId,t%1$d.EMPLOYEE_ID as employeeId,t%1$d.ID as id "
+                        + "from EMPLOYEE_DETAILS t%1$d where (t%1$d.ID = 1)", i), queries.get(i).get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void should_share_fields_of_entity_selections() {
+        CriteriaQuery<EmployeeDetails> all = cb.createQuery(EmployeeDetails.class);
+        all.select(all.from(EmployeeDetails.class).as("det"));
+        CriteriaQuery<EmployeeDetails> other = cb.createQuery(EmployeeDetails.class);
+        other.select(other.from(EmployeeDetails.class).as("other"));
+        List<FieldMetaData> fields = all.getFields();
+        Assertions.assertEquals(List.of(
+                new FieldMetaData("departmentId", "DEPARTMENT_ID", Integer.class),
+                new FieldMetaData("employeeId", "EMPLOYEE_ID", Integer.class),
+                new FieldMetaData("id", "ID", Integer.class)), fields);
+        Assertions.assertSame(fields, other.getFields());
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> fields.remove(0));
+
+        CriteriaQuery<EmployeeDetails> renamed = cb.createQuery(EmployeeDetails.class);
+        var rt = renamed.from(EmployeeDetails.class);
+        renamed.select(rt.get("id"), rt.get("employeeId").as("departmentId"));
+        Assertions.assertEquals(List.of(
+                new FieldMetaData("departmentId", "EMPLOYEE_ID", Integer.class),
+                new FieldMetaData("id", "ID", Integer.class)), renamed.getFields());
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void should_expose_registered_tables_and_columns_as_snapshots() {
+        cb.createQuery(Employee.class).from(Employee.class);
+        Root<Employee> root = new Root<>(Employee.class);
+        Assertions.assertEquals("EMPLOYEES", EntityRegistry.roots().get(root));
+        Assertions.assertEquals("FIRST_NAME", EntityRegistry.paths().get(new Path<>(root, "firstName")));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> EntityRegistry.roots().clear());
+    }
+
+    private ParameterizedSql joinedCount(AtomicInteger rendered, String firstName, int minId) {
+        CriteriaQuery<Employee> cr = cb.createQuery(Employee.class);
+        Root<Employee> rt = cr.from(Employee.class).as("tbl");
+        Root<EmployeeDetails> det = cr.from(EmployeeDetails.class).as("det");
+        Join<Employee, EmployeeDetails> join = new Join<>(rt, det, JoinType.LEFT) {
+            @Override
+            public void appendSql(StringBuilder sql, RenderContext context) {
+                rendered.incrementAndGet();
+                super.appendSql(sql, context);
+            }
+        };
+        Count count = new Count(rt.get("id"), cb.getSqlDialect()) {
+            @Override
+            public void appendSql(StringBuilder sql, RenderContext context) {
+                rendered.incrementAndGet();
+                super.appendSql(sql, context);
+            }
+        };
+        cr.select(rt.get("lastName"), count)
+                .from(join.on(cb.and(cb.eq(rt.get("id"), det.get("id")), cb.gt(det.get("id"), minId))))
+                .where(cb.eq(rt.get("firstName"), firstName))
+                .groupBy(rt.get("lastName"));
+        return cr.buildParameterizedSelectQuery();
+    }
+
+    private ParameterizedSql lookup(String firstName, int min, int max) {
+        CriteriaQuery<Employee> cr = cb.createQuery(Employee.class);
+        var rt = cr.from(Employee.class);
+        cr.where(cb.and(cb.eq(rt.get("firstName"), firstName), cb.between(rt.get("salary"), min, max), cb.like(rt.get("lastName"), "an")));
+        return cr.buildParameterizedSelectQuery();
+    }
+
     // @Test()
     public void should_insert_with_table_name_mapper() {
         CriteriaQuery<Employee> cr = cb.createQuery(Employee.class);
@@ -1162,4 +1418,33 @@ class CriteriaQueryTest {
     }
 
 
-}
\ No newline at end of file
+    @Test
+    void keyset_query() {
+        CriteriaQuery<Employee> query = cb.createQuery(Employee.class);
+        Root<Employee> root = query.from(Employee.class).as("tbl");
+        query.select(root.get("id"), root.get("lastName"))
+                .where(cb.eq(root.get("enabled"), "Y"));
+        assertEquals("select tbl.ID as id,tbl.LAST_NAME as lastName from EMPLOYEES tbl where (tbl.ENABLED = 'Y') order by tbl.ID ASC",
+                query.buildKeysetQuery(List.of(root.get("id")), false));
+        assertEquals("select tbl.ID as id,tbl.LAST_NAME as lastName from EMPLOYEES tbl where (tbl.ENABLED = 'Y') and (tbl.ID > ?) order by tbl.ID ASC",
+                query.buildKeysetQuery(List.of(root.get("id")), true));
+        assertEquals("select tbl.ID as id,tbl.LAST_NAME as lastName from EMPLOYEES tbl where (tbl.ENABLED = 'Y') and ((tbl.LAST_NAME > ? or (tbl.LAST_NAME = ? and tbl.ID > ?))) order by tbl.LAST_NAME ASC,tbl.ID ASC",
+                query.buildKeysetQuery(List.of(root.get("lastName"), root.get("id")), true));
+        Assertions.assertArrayEquals(new Object[]{"Doe", "Doe", 7L}, CriteriaQuery.keysetParameters(List.of("Doe", 7L)));
+    }
+
+    @Test
+    void range_query() {
+        CriteriaQuery<Employee> query = cb.createQuery(Employee.class);
+        Root<Employee> root = query.from(Employee.class).as("tbl");
+        query.select(root.get("id"), root.get("lastName"))
+                .where(cb.eq(root.get("enabled"), "Y"));
+        assertEquals("select min(tbl.ID), max(tbl.ID) from EMPLOYEES tbl where (tbl.ENABLED = 'Y')",
+                query.buildBoundsQuery(root.get("id")));
+        assertEquals("select tbl.ID as id,tbl.LAST_NAME as lastName from EMPLOYEES tbl where (tbl.ENABLED = 'Y') and (tbl.ID between ? and ?)",
+                query.buildSelectQuery(cb.between(root.get("id"), cb.parameter(), cb.parameter())));
+        assertEquals("select tbl.ID as id,tbl.LAST_NAME as lastName from EMPLOYEES tbl where (tbl.ENABLED = 'Y')",
+                query.buildSelectQuery());
+    }
+
+}
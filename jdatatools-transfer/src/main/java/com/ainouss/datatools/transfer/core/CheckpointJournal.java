@@ -0,0 +1,229 @@
+package com.ainouss.datatools.transfer.core;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local append-only journal of the chunks written by transfers, see {@link TransferJob#getJournal()}.
+ * One line per written chunk: job, correlation id, chunk range [start, end) and, for keyset reads, the key of the last row,
+ * tab separated and terminated by $. Each line is synced to disk once the chunk is committed,
+ * a line cut by a crash is ignored when the journal is read.
+ * A journal file may be shared by several jobs and transfers running at the same time.
+ */
+@Slf4j
+public final class CheckpointJournal {
+
+    private static final String END = "$";
+
+    private static final Map<Path, Object> LOCKS = new ConcurrentHashMap<>();
+
+    private final Path file;
+
+    public CheckpointJournal(Path file) {
+        this.file = file.toAbsolutePath().normalize();
+    }
+
+    /**
+     * A chunk written by a transfer
+     *
+     * @param job           job name
+     * @param correlationId correlation id of the transfer
+     * @param start         chunk start
+     * @param end           chunk end, exclusive
+     * @param key           key of the last row of a keyset chunk, empty otherwise
+     */
+    public record Checkpoint(String job, String correlationId, int start, int end, List<String> key) {
+    }
+
+    /**
+     * Appends a checkpoint and syncs it to disk
+     *
+     * @param checkpoint written chunk
+     */
+    public void append(Checkpoint checkpoint) {
+        StringBuilder line = new StringBuilder();
+        escape(line, checkpoint.job()).append('\t');
+        escape(line, checkpoint.correlationId()).append('\t')
+                .append(checkpoint.start()).append('\t')
+                .append(checkpoint.end()).append('\t');
+        for (String value : checkpoint.key()) {
+            escape(line, value).append('\t');
+        }
+        line.append(END).append('\n');
+        synchronized (LOCKS.computeIfAbsent(file, path -> new Object())) {
+            try {
+                if (file.getParent() != null) {
+                    Files.createDirectories(file.getParent());
+                }
+                if (isCut()) {
+                    line.insert(0, '\n');
+                }
+                Files.write(file, line.toString().getBytes(StandardCharsets.UTF_8),
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.DSYNC);
+            } catch (IOException e) {
+                throw new RuntimeException("could not write checkpoint journal " + file, e);
+            }
+        }
+    }
+
+    /**
+     * @return true if the last line of the journal was cut by a crash, the next line should not be appended to it
+     */
+    private boolean isCut() throws IOException {
+        if (!Files.exists(file)) {
+            return false;
+        }
+        try (RandomAccessFile journal = new RandomAccessFile(file.toFile(), "r")) {
+            if (journal.length() == 0) {
+                return false;
+            }
+            journal.seek(journal.length() - 1);
+            return journal.read() != '\n';
+        }
+    }
+
+    /**
+     * @param job           job name
+     * @param correlationId correlation id of the transfer
+     * @return checkpoints of the job, in journal order
+     */
+    public List<Checkpoint> read(String job, String correlationId) {
+        List<String> lines;
+        synchronized (LOCKS.computeIfAbsent(file, path -> new Object())) {
+            try {
+                lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            } catch (NoSuchFileException e) {
+                return List.of();
+            } catch (IOException e) {
+                throw new RuntimeException("could not read checkpoint journal " + file, e);
+            }
+        }
+        List<Checkpoint> checkpoints = new ArrayList<>();
+        for (String line : lines) {
+            String[] fields = line.split("\t", -1);
+            if (fields.length < 5 || !END.equals(fields[fields.length - 1])) {
+                log.warn("ignoring incomplete line of checkpoint journal {}", file);
+                continue;
+            }
+            try {
+                Checkpoint checkpoint = new Checkpoint(unescape(fields[0]), unescape(fields[1]), Integer.parseInt(fields[2]), Integer.parseInt(fields[3]),
+                        Arrays.stream(fields, 4, fields.length - 1).map(CheckpointJournal::unescape).toList());
+                if (checkpoint.job().equals(job) && String.valueOf(correlationId).equals(String.valueOf(checkpoint.correlationId()))) {
+                    checkpoints.add(checkpoint);
+                }
+            } catch (NumberFormatException e) {
+                log.warn("ignoring invalid line of checkpoint journal {}", file);
+            }
+        }
+        return checkpoints;
+    }
+
+    /**
+     * Chunk ranges covered by checkpoints
+     */
+    public static final class Progress {
+
+        private final TreeMap<Integer, Integer> ranges = new TreeMap<>();
+
+        private final Map<Integer, Checkpoint> byEnd = new TreeMap<>();
+
+        public Progress(List<Checkpoint> checkpoints) {
+            for (Checkpoint checkpoint : checkpoints) {
+                add(checkpoint.start(), checkpoint.end());
+                byEnd.put(checkpoint.end(), checkpoint);
+            }
+        }
+
+        /**
+         * @return number of merged ranges, 0 if nothing was written
+         */
+        public int size() {
+            return ranges.size();
+        }
+
+        /**
+         * @param start range start
+         * @param end   range end, exclusive
+         * @return true if [start, end) was written
+         */
+        public boolean covers(int start, int end) {
+            Map.Entry<Integer, Integer> range = ranges.floorEntry(start);
+            return range != null && range.getValue() >= end;
+        }
+
+        /**
+         * @return checkpoint ending the range written from row 0, null if row 0 was not written
+         */
+        public Checkpoint watermark() {
+            Integer end = ranges.get(0);
+            return end == null ? null : byEnd.get(end);
+        }
+
+        private void add(int start, int end) {
+            Map.Entry<Integer, Integer> before = ranges.floorEntry(start);
+            if (before != null && before.getValue() >= start) {
+                start = before.getKey();
+                end = Math.max(end, before.getValue());
+            }
+            Map.Entry<Integer, Integer> after = ranges.ceilingEntry(start);
+            while (after != null && after.getKey() <= end) {
+                end = Math.max(end, after.getValue());
+                ranges.remove(after.getKey());
+                after = ranges.ceilingEntry(start);
+            }
+            ranges.put(start, end);
+        }
+    }
+
+    private static StringBuilder escape(StringBuilder line, String value) {
+        if (value == null) {
+            return line.append("\\N");
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> line.append("\\\\");
+                case '\t' -> line.append("\\t");
+                case '\n' -> line.append("\\n");
+                case '\r' -> line.append("\\r");
+                default -> line.append(c);
+            }
+        }
+        return line;
+    }
+
+    private static String unescape(String value) {
+        if ("\\N".equals(value)) {
+            return null;
+        }
+        StringBuilder unescaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                unescaped.append(switch (next) {
+                    case 't' -> '\t';
+                    case 'n' -> '\n';
+                    case 'r' -> '\r';
+                    default -> next;
+                });
+            } else {
+                unescaped.append(c);
+            }
+        }
+        return unescaped.toString();
+    }
+}
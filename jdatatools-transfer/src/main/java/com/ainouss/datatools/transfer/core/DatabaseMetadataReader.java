@@ -1,6 +1,7 @@
 package com.ainouss.datatools.transfer.core;
 
 import com.ainouss.jdatatools.batch.metadata.SqlColumn;
+import com.ainouss.jdatatools.batch.metadata.SqlImportedKey;
 import com.ainouss.jdatatools.batch.metadata.SqlTable;
 import com.ainouss.jdatatools.batch.reader.RowExtractor;
 import lombok.extern.slf4j.Slf4j;
@@ -33,8 +34,8 @@ public class DatabaseMetadataReader {
     }
 
     public List<SqlColumn> getColumns(DataSource dataSource, String catalog, String schemaPattern, String tableNamePattern,String columnNamePattern){
-        try {
-            DatabaseMetaData metaData = dataSource.getConnection().getMetaData();
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
             ResultSet resultSet = metaData.getColumns(catalog, schemaPattern, tableNamePattern, columnNamePattern);
             return RowExtractor.asList(resultSet, SqlColumn.class);
         } catch (SQLException e) {
@@ -43,4 +44,45 @@ public class DatabaseMetadataReader {
         }
 
     }
+
+    public List<SqlImportedKey> getImportedKeys(DataSource dataSource, String catalog, String schema, String table) {
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            ResultSet resultSet = metaData.getImportedKeys(catalog, schema, table);
+            return RowExtractor.asList(resultSet, SqlImportedKey.class);
+        } catch (SQLException e) {
+            log.error("Error listing imported keys of {}: {} ", table, e.getMessage());
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Approximate number of rows of a table, read from the index statistics of the database metadata without scanning the table:
+     * the table statistic row if the driver reports one, otherwise the largest index cardinality, at most the number of rows
+     *
+     * @param dataSource data source
+     * @param catalog    catalog, may be null
+     * @param schema     schema, may be null
+     * @param table      table name
+     * @return row estimate, 0 if the table has no index or no statistics
+     */
+    public long getRowEstimate(DataSource dataSource, String catalog, String schema, String table) {
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            long estimate = 0;
+            try (ResultSet resultSet = metaData.getIndexInfo(catalog, schema, table, false, true)) {
+                while (resultSet.next()) {
+                    long cardinality = resultSet.getLong("CARDINALITY");
+                    if (resultSet.getShort("TYPE") == DatabaseMetaData.tableIndexStatistic) {
+                        return cardinality;
+                    }
+                    estimate = Math.max(estimate, cardinality);
+                }
+            }
+            return estimate;
+        } catch (SQLException e) {
+            log.warn("could not read the index statistics of {}, exception {}", table, e.getMessage());
+            return 0;
+        }
+    }
 }
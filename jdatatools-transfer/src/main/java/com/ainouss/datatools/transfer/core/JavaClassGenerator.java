@@ -17,7 +17,6 @@ import net.bytebuddy.dynamic.DynamicType;
 import org.springframework.stereotype.Component;
 
 import javax.sql.DataSource;
-import java.lang.reflect.Modifier;
 import java.sql.SQLException;
 import java.util.*;
 import java.util.regex.Pattern;
@@ -30,18 +29,32 @@ public class JavaClassGenerator {
 
     private final DatabaseMetadataReader metaReader;
 
-    public void generate(DataSource dataSource, String pkg) {
+    public Map<String, Class<?>> generate(DataSource dataSource, String pkg) {
+        return generate(dataSource, null, pkg);
+    }
 
-        metaReader.getTables(dataSource, null, null, null, List.of(SqlTableTypes.TABLE.name()))
+    /**
+     * Generates and registers an entity class per table of a schema
+     *
+     * @param dataSource data source
+     * @param schema     schema pattern, all schemas if null
+     * @param pkg        package of the generated classes
+     * @return generated classes, by table name, in metadata order
+     */
+    public Map<String, Class<?>> generate(DataSource dataSource, String schema, String pkg) {
+        Map<String, Class<?>> classes = new LinkedHashMap<>();
+        metaReader.getTables(dataSource, null, schema, null, List.of(SqlTableTypes.TABLE.name()))
                 .forEach(table -> {
                     Class<?> clazz = makeAndLoad(pkg, table, dataSource);
                     EntityRegistry.registerClass(clazz);
+                    classes.put(table.getTableName(), clazz);
                 });
+        return classes;
     }
 
     private Class<?> makeAndLoad(String pkg, SqlTable table, DataSource dataSource) {
         try {
-            DynamicType.Unloaded<?> unloaded = make(table.getTableName(), pkg, dataSource);
+            DynamicType.Unloaded<?> unloaded = make(table.getTableName(), table.getTableSchem(), pkg, dataSource);
             return unloaded.load(getClass().getClassLoader()).getLoaded();
         } catch (SQLException e) {
             throw new RuntimeException(e);
@@ -49,7 +62,7 @@ public class JavaClassGenerator {
     }
 
 
-    private DynamicType.Unloaded<?> make(String tableName, String pkg, DataSource dataSource) throws SQLException {
+    private DynamicType.Unloaded<?> make(String tableName, String schema, String pkg, DataSource dataSource) throws SQLException {
 
         DynamicType.Builder<?> builder = new ByteBuddy()
                 .subclass(Object.class)
@@ -60,11 +73,12 @@ public class JavaClassGenerator {
                         .build())
                 .annotateType(AnnotationDescription.Builder.ofType(Data.class).build());
 
-        Collection<SqlColumn> columnList = metaReader.getColumns(dataSource, null, null, tableName, null);
+        Collection<SqlColumn> columnList = metaReader.getColumns(dataSource, null, schema, tableName, null);
         for (SqlColumn column : columnList) {
             Class<?> javaType = JdbcToJavaTypeMapping.getJavaType(column.getDataType());
             String field = columnNameToFieldName(column.getColumnName());
-            builder = builder.defineField(field, javaType, Modifier.PRIVATE)
+            // private field with public getter and setter, @Data is not processed on generated classes
+            builder = builder.defineProperty(field, javaType)
                     .annotateField(AnnotationDescription.Builder.ofType(Column.class)
                             .define("name", column.getColumnName())
                             .build());
@@ -0,0 +1,98 @@
+package com.ainouss.datatools.transfer.core;
+
+import org.apache.commons.lang3.reflect.FieldUtils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Text form of key values kept between runs (checkpoints, watermarks), parsed back with the type of the key attribute
+ */
+public final class KeyValues {
+
+    private KeyValues() {
+    }
+
+    /**
+     * @param row  entity
+     * @param keys key attributes
+     * @return text values of the key of the row
+     */
+    public static List<String> format(Object row, List<String> keys) {
+        List<String> values = new ArrayList<>();
+        for (String key : keys) {
+            try {
+                values.add(format(FieldUtils.readField(row, key, true)));
+            } catch (IllegalAccessException e) {
+                throw new RuntimeException("could not read key " + key + " of " + row.getClass().getSimpleName(), e);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * @param clazz  entity
+     * @param keys   key attributes
+     * @param values text values, see {@link #format(Object, List)}
+     * @return key values
+     */
+    public static List<Object> parse(Class<?> clazz, List<String> keys, List<String> values) {
+        if (values.size() != keys.size()) {
+            throw new RuntimeException("stored key " + values + " does not match the key " + keys + " of " + clazz.getSimpleName());
+        }
+        List<Object> key = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            key.add(parse(values.get(i), FieldUtils.getField(clazz, keys.get(i), true).getType()));
+        }
+        return key;
+    }
+
+    /**
+     * @param value key value
+     * @return journal value
+     */
+    private static String format(Object value) {
+        return value == null ? null : value.toString();
+    }
+
+    /**
+     * @param value journal value
+     * @param type  key field type
+     * @return key value
+     */
+    private static Object parse(String value, Class<?> type) {
+        if (value == null || type == String.class) {
+            return value;
+        } else if (type == Long.class || type == long.class) {
+            return Long.valueOf(value);
+        } else if (type == Integer.class || type == int.class) {
+            return Integer.valueOf(value);
+        } else if (type == Short.class || type == short.class) {
+            return Short.valueOf(value);
+        } else if (type == BigDecimal.class) {
+            return new BigDecimal(value);
+        } else if (type == BigInteger.class) {
+            return new BigInteger(value);
+        } else if (type == LocalDate.class) {
+            return LocalDate.parse(value);
+        } else if (type == LocalDateTime.class) {
+            return LocalDateTime.parse(value);
+        } else if (type == LocalTime.class) {
+            return LocalTime.parse(value);
+        } else if (type == java.sql.Date.class) {
+            return java.sql.Date.valueOf(value);
+        } else if (type == Timestamp.class) {
+            return Timestamp.valueOf(value);
+        } else if (type == UUID.class) {
+            return UUID.fromString(value);
+        }
+        throw new RuntimeException("key type " + type.getSimpleName() + " cannot be stored between runs");
+    }
+}
@@ -0,0 +1,348 @@
+package com.ainouss.datatools.transfer.core;
+
+import com.ainouss.datatools.transfer.store.DataSourceRegistry;
+import com.ainouss.datatools.transfer.store.WatermarkStore;
+import com.ainouss.jdatatools.batch.data.Chunk;
+import com.ainouss.jdatatools.batch.reader.JdbcChunkReader;
+import com.ainouss.datatools.transfer.core.CheckpointJournal.Checkpoint;
+import com.ainouss.datatools.transfer.core.CheckpointJournal.Progress;
+import com.ainouss.jdatatools.batch.reader.JdbcReadTemplate;
+import com.ainouss.jdatatools.batch.reader.KeyResolver;
+import com.ainouss.jdatatools.batch.reader.ReadMode;
+import com.ainouss.jdatatools.batch.writer.InsertMode;
+import com.ainouss.jdatatools.batch.writer.JdbcChunkWriter;
+import com.ainouss.jdatatools.batch.writer.JdbcWriteTemplate;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.time.DurationFormatUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Transfers an entity between two data sources as a pipeline:
+ * - readers ({@link JdbcChunkReader}) read up to readers chunks at the same time and put them in a bounded queue
+ * - writers ({@link JdbcChunkWriter}) take chunks from the queue, each writer thread writes one chunk at a time in its own transaction
+ * Reading the next chunks overlaps writing the previous ones. When the target is slower than the source, the queue fills up
+ * and readers wait for room before reading further, at most readers + queue capacity + writers chunks are held in memory.
+ * A chunk that cannot be written is logged and counted, the transfer goes on with the next chunks.
+ * With a {@link CheckpointJournal}, each written chunk is recorded once committed and a rerun of the job only transfers the missing chunks:
+ * offset and range reads skip the written chunks, keyset reads start after the key of the last row written without gap.
+ * An incremental job ({@link ReadMode#INCREMENTAL}) reads the rows changed since the watermark saved by its previous run in a {@link WatermarkStore},
+ * changed rows are upserted ({@link InsertMode#UPSERT}) and the watermark reached is saved once all chunks are written.
+ */
+@Slf4j
+@Component
+public class PipelinedTransfer {
+
+    /**
+     * Marks the end of the read, one per writer
+     */
+    private static final Chunk<?> END = new Chunk<>(List.of(), -1, -1);
+
+    private final JdbcChunkReader reader = new JdbcChunkReader();
+
+    private final JdbcChunkWriter writer = new JdbcChunkWriter();
+
+    /**
+     * Runs a transfer job and waits for its completion
+     *
+     * @param job transfer job
+     * @param <T> transferred entity
+     * @return transfer result
+     */
+    public <T> TransferResult transfer(TransferJob<T> job) {
+        if (job == null || job.getClazz() == null) {
+            throw new RuntimeException("transfer job should define the transferred class");
+        }
+        if (job.getReaders() < 1 || job.getWriters() < 1) {
+            throw new RuntimeException("transfer job should have at least one reader and one writer");
+        }
+        DataSource source = dataSource(job.getSource());
+        DataSource target = dataSource(job.getTarget());
+        String correlationId = job.getCorrelationId();
+        int capacity = job.getQueueCapacity() > 0 ? job.getQueueCapacity() : job.getReaders() + job.getWriters();
+        BlockingQueue<Chunk<?>> queue = new ArrayBlockingQueue<>(capacity);
+        Counters counters = new Counters();
+        String name = name(job);
+        List<String> keys = keys(job, source);
+        Checkpoints checkpoints = checkpoints(job, name, keys);
+        long startTime = System.nanoTime();
+        log.info("ID-{} started transferring {} from {} to {}, {} readers, {} writers, queue of {} chunks", correlationId, job.getClazz().getSimpleName(),
+                job.getSource(), job.getTarget(), job.getReaders(), job.getWriters(), capacity);
+
+        AtomicInteger threads = new AtomicInteger();
+        ExecutorService writers = Executors.newFixedThreadPool(job.getWriters(), runnable -> {
+            Thread thread = new Thread(runnable, "transfer-writer-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<CompletableFuture<Void>> writing = new ArrayList<>();
+        for (int i = 0; i < job.getWriters(); i++) {
+            writing.add(CompletableFuture.runAsync(() -> write(job, target, queue, counters, checkpoints), writers));
+        }
+
+        JdbcReadTemplate<T, T> read = JdbcReadTemplate.<T, T>builder()
+                .clazz(job.getClazz())
+                .criteria(job.getCriteria())
+                .jdbcTemplate(new JdbcTemplate(source))
+                .mode(job.getMode())
+                .fetchSize(job.getFetchSize())
+                .maxInFlight(job.getReaders())
+                .isCanceled(job.getIsCanceled())
+                .correlationId(correlationId)
+                .build();
+        if (keys != null) {
+            read.setKeys(keys);
+        }
+        if (job.getMode() == ReadMode.INCREMENTAL) {
+            read.setWatermark(keys.get(0));
+        }
+        if (job.getMode() == ReadMode.INCREMENTAL && job.getWatermarkStore() != null) {
+            List<String> watermark = job.getWatermarkStore().get(name);
+            if (watermark != null) {
+                log.info("ID-{} reading {} changed after watermark {}", correlationId, job.getClazz().getSimpleName(), watermark);
+                read.setStartKey(KeyValues.parse(job.getClazz(), keys, watermark));
+            }
+        }
+        if (checkpoints != null) {
+            resume(job, read, checkpoints, counters);
+        }
+        AtomicReference<Chunk<?>> last = new AtomicReference<>();
+        NavigableMap<Integer, List<String>> lastKeys = new ConcurrentSkipListMap<>();
+        read.setConsumer(chunk -> {
+            if (checkpoints != null && checkpoints.progress().covers(chunk.getStart(), chunk.getEnd())) {
+                counters.skippedChunks.incrementAndGet();
+                return;
+            }
+            counters.readChunks.incrementAndGet();
+            counters.readRows.addAndGet(chunk.getSize());
+            last.accumulateAndGet(chunk, (previous, next) -> previous == null || next.getEnd() > previous.getEnd() ? next : previous);
+            if (job.getMode() == ReadMode.INCREMENTAL && chunk.isNotEmpty()) {
+                lastKeys.put(chunk.getEnd(), KeyValues.format(lastRow(chunk), keys));
+            }
+            put(queue, chunk);
+            counters.maxQueued.accumulateAndGet(queue.size(), Math::max);
+        });
+
+        RuntimeException failure = null;
+        try {
+            reader.process(read).join();
+        } catch (RuntimeException e) {
+            failure = e;
+            job.getIsCanceled().set(true);
+            log.error("ID-{} could not read {} from {}, transfer canceled, exception {}", correlationId, job.getClazz().getSimpleName(), job.getSource(), e.getMessage());
+        } finally {
+            for (int i = 0; i < job.getWriters(); i++) {
+                put(queue, END);
+            }
+            CompletableFuture.allOf(writing.toArray(new CompletableFuture<?>[0])).join();
+            writers.shutdown();
+        }
+        if (failure != null) {
+            throw new RuntimeException("transfer of " + job.getClazz().getSimpleName() + " from " + job.getSource() + " to " + job.getTarget() + " failed", failure);
+        }
+        List<String> watermark = null;
+        if (job.getMode() == ReadMode.INCREMENTAL && last.get() != null && counters.failedChunks.get() == 0 && !job.getIsCanceled().get()) {
+            watermark = watermark(last.get(), keys, lastKeys, counters.firstRejected.get(), correlationId);
+            if (watermark != null && job.getWatermarkStore() != null) {
+                job.getWatermarkStore().put(name, watermark);
+            }
+        }
+        long duration = (System.nanoTime() - startTime) / 1000000;
+        log.info("ID-{} completed transferring {} rows of {} in {} chunks, {} failed chunks, {} skipped chunks, duration (ss:SSS) {}", correlationId,
+                counters.readRows.get(), job.getClazz().getSimpleName(), counters.readChunks.get(), counters.failedChunks.get(), counters.skippedChunks.get(), DurationFormatUtils.formatDuration(duration, "ss:SSS", true));
+        return TransferResult.builder()
+                .correlationId(correlationId)
+                .readChunks(counters.readChunks.get())
+                .readRows(counters.readRows.get())
+                .writtenChunks(counters.writtenChunks.get())
+                .rejectedChunks(counters.rejectedChunks.get())
+                .failedChunks(counters.failedChunks.get())
+                .skippedChunks(counters.skippedChunks.get())
+                .watermark(watermark)
+                .maxQueued(counters.maxQueued.get())
+                .duration(duration)
+                .build();
+    }
+
+    /**
+     * Writer loop: takes chunks until the end marker, chunks taken after a cancellation are dropped
+     */
+    private <T> void write(TransferJob<T> job, DataSource target, BlockingQueue<Chunk<?>> queue, Counters counters, Checkpoints checkpoints) {
+        JdbcWriteTemplate template = JdbcWriteTemplate.builder()
+                .clazz(job.getClazz())
+                .jdbcTemplate(new JdbcTemplate(target))
+                .targetTable(job.getTargetTable())
+                .isolation(job.getIsolation())
+                .insertMode(job.getMode() == ReadMode.INCREMENTAL ? InsertMode.UPSERT : job.getInsertMode())
+                .bulkLoad(job.isBulkLoad())
+                .rejectedRowSink(job.getRejectedRowSink())
+                .correlationId(job.getCorrelationId())
+                .build();
+        while (true) {
+            Chunk<?> chunk;
+            try {
+                chunk = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (chunk == END) {
+                return;
+            }
+            if (job.getIsCanceled().get()) {
+                continue;
+            }
+            try {
+                writer.process(template, chunk);
+                counters.writtenChunks.incrementAndGet();
+                if (chunk.getError() != null) {
+                    counters.rejectedChunks.incrementAndGet();
+                    counters.firstRejected.accumulateAndGet(chunk.getStart(), Math::min);
+                }
+                if (checkpoints != null) {
+                    checkpoints.journal().append(new Checkpoint(checkpoints.job(), job.getCorrelationId(), chunk.getStart(), chunk.getEnd(),
+                            checkpoints.keys() == null || chunk.isEmpty() ? List.of() : KeyValues.format(lastRow(chunk), checkpoints.keys())));
+                }
+            } catch (RuntimeException e) {
+                counters.failedChunks.incrementAndGet();
+                log.error("ID-{} could not write chunk [{} - {}] of {} to {}, exception {}", job.getCorrelationId(), chunk.getStart(), chunk.getEnd(),
+                        job.getClazz().getSimpleName(), job.getTarget(), e.getMessage());
+            }
+        }
+    }
+
+    private static <T> String name(TransferJob<T> job) {
+        return job.getName() != null ? job.getName() : job.getClazz().getName() + ":" + job.getSource() + ":" + job.getTarget();
+    }
+
+    /**
+     * Key of keyset reads, the watermark first for incremental reads, null for other read modes
+     */
+    private static <T> List<String> keys(TransferJob<T> job, DataSource source) {
+        if (job.getMode() != ReadMode.KEYSET && job.getMode() != ReadMode.INCREMENTAL) {
+            return null;
+        }
+        JdbcTemplate jdbc = new JdbcTemplate(source);
+        List<String> keys = KeyResolver.primaryKeys(job.getClazz(), jdbc);
+        if (job.getMode() == ReadMode.KEYSET) {
+            return keys;
+        }
+        String watermark = job.getWatermark() != null ? job.getWatermark() : KeyResolver.versionColumn(job.getClazz(), jdbc);
+        return KeyResolver.incrementalKeys(watermark, keys);
+    }
+
+    /**
+     * Loads the checkpoints of the job, null without journal
+     */
+    private static <T> Checkpoints checkpoints(TransferJob<T> job, String name, List<String> keys) {
+        if (job.getJournal() == null) {
+            return null;
+        }
+        CheckpointJournal journal = new CheckpointJournal(job.getJournal());
+        Progress progress = new Progress(journal.read(name, job.getCorrelationId()));
+        if (progress.size() > 0) {
+            log.info("ID-{} resuming job {} from checkpoint journal {}", job.getCorrelationId(), name, job.getJournal());
+        }
+        return new Checkpoints(journal, name, keys, progress);
+    }
+
+    /**
+     * Skips the chunks already written, keyset reads start after the last key written without gap
+     */
+    private static <T> void resume(TransferJob<T> job, JdbcReadTemplate<T, T> read, Checkpoints checkpoints, Counters counters) {
+        read.setSkip((start, end) -> {
+            boolean written = checkpoints.progress().covers(start, end);
+            if (written) {
+                counters.skippedChunks.incrementAndGet();
+            }
+            return written;
+        });
+        Checkpoint watermark = checkpoints.progress().watermark();
+        if (checkpoints.keys() == null || watermark == null || watermark.key().size() != checkpoints.keys().size()) {
+            return;
+        }
+        read.setStartKey(KeyValues.parse(job.getClazz(), checkpoints.keys(), watermark.key()));
+        read.setStartRow(watermark.end());
+    }
+
+    /**
+     * Watermark of an incremental transfer: key of the last row read, or key of the last row before the first chunk
+     * with rejected rows, so that the next run reads the rejected rows again. Pages are contiguous, the chunk
+     * preceding a chunk ends where it starts.
+     *
+     * @param last          last chunk read
+     * @param keys          watermark keys
+     * @param lastKeys      key of the last row of each chunk read, by chunk end
+     * @param firstRejected start of the first chunk with rejected rows, max value if none
+     * @param correlationId correlation id
+     * @return watermark, null if it should not advance
+     */
+    private static List<String> watermark(Chunk<?> last, List<String> keys, NavigableMap<Integer, List<String>> lastKeys, int firstRejected, String correlationId) {
+        if (firstRejected == Integer.MAX_VALUE) {
+            return KeyValues.format(lastRow(last), keys);
+        }
+        Map.Entry<Integer, List<String>> before = lastKeys.floorEntry(firstRejected);
+        log.warn("ID-{} rows of chunk [{} - ?] were rejected, watermark is kept before them at {}", correlationId, firstRejected, before == null ? null : before.getValue());
+        return before == null ? null : before.getValue();
+    }
+
+    private static Object lastRow(Chunk<?> chunk) {
+        Object last = null;
+        for (Object row : chunk.getData()) {
+            last = row;
+        }
+        return last;
+    }
+
+    /**
+     * Puts a chunk in the queue, waits for room if the queue is full
+     */
+    private static void put(BlockingQueue<Chunk<?>> queue, Chunk<?> chunk) {
+        try {
+            queue.put(chunk);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("interrupted while queuing a chunk", e);
+        }
+    }
+
+    private static DataSource dataSource(String name) {
+        DataSource dataSource = DataSourceRegistry.INSTANCE.getDataSource(name);
+        if (dataSource == null) {
+            throw new RuntimeException("data source " + name + " is not registered");
+        }
+        return dataSource;
+    }
+
+    private static final class Counters {
+        private final AtomicLong readChunks = new AtomicLong();
+        private final AtomicLong readRows = new AtomicLong();
+        private final AtomicLong writtenChunks = new AtomicLong();
+        private final AtomicLong rejectedChunks = new AtomicLong();
+        private final AtomicLong failedChunks = new AtomicLong();
+        private final AtomicLong skippedChunks = new AtomicLong();
+        private final AtomicInteger firstRejected = new AtomicInteger(Integer.MAX_VALUE);
+        private final AtomicInteger maxQueued = new AtomicInteger();
+    }
+
+    /**
+     * Checkpoint journal of a transfer, keys are set for keyset and incremental reads
+     */
+    private record Checkpoints(CheckpointJournal journal, String job, List<String> keys, Progress progress) {
+    }
+}
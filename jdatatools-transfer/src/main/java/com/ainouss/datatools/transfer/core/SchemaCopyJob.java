@@ -0,0 +1,100 @@
+package com.ainouss.datatools.transfer.core;
+
+import com.ainouss.datatools.transfer.store.WatermarkStore;
+import com.ainouss.jdatatools.batch.reader.ReadMode;
+import com.ainouss.jdatatools.batch.writer.FailureIsolation;
+import com.ainouss.jdatatools.batch.writer.InsertMode;
+import com.ainouss.jdatatools.batch.writer.RejectedRowSink;
+import lombok.Builder;
+import lombok.Data;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Copy of the tables of a schema between two data sources of the {@link com.ainouss.datatools.transfer.store.DataSourceRegistry},
+ * see {@link SchemaCopyScheduler}. Target tables should exist.
+ * Up to parallelism tables are copied at the same time, each with its own readers and writers:
+ * the data source pools should hold parallelism * (readers + writers) connections.
+ */
+@Data
+@Builder
+public class SchemaCopyJob {
+
+    /**
+     * Name of the source data source
+     */
+    private String source;
+    /**
+     * Name of the target data source
+     */
+    private String target;
+    /**
+     * Source schema, all schemas if not set
+     */
+    private String schema;
+    /**
+     * Copied tables, all tables of the schema if not set.
+     * Foreign keys to tables left out are not ordered, the referenced rows should already exist on the target
+     */
+    private List<String> tables;
+    /**
+     * Package of the entity classes generated from the source tables
+     */
+    @Builder.Default
+    private String packageName = "com.ainouss.datatools.transfer.model";
+    /**
+     * Max number of tables copied at the same time
+     */
+    @Builder.Default
+    private int parallelism = 4;
+    /**
+     * Max number of chunks of a table read at the same time
+     */
+    @Builder.Default
+    private int readers = 2;
+    /**
+     * Number of chunks of a table written at the same time
+     */
+    @Builder.Default
+    private int writers = 2;
+    /**
+     * Rows per chunk, defaults to the reader default of the read mode
+     */
+    private int fetchSize;
+    /**
+     * Slicing strategy of the reads
+     */
+    @Builder.Default
+    private ReadMode mode = ReadMode.OFFSET;
+    /**
+     * Isolation of the rows rejected by the target
+     */
+    @Builder.Default
+    private FailureIsolation isolation = FailureIsolation.UPDATE_COUNTS;
+    /**
+     * Statements used to insert a chunk
+     */
+    @Builder.Default
+    private InsertMode insertMode = InsertMode.BATCH;
+    /**
+     * Loads chunks with the bulk loader of the target database
+     */
+    private boolean bulkLoad;
+    /**
+     * Destination of the rows rejected by the target
+     */
+    private RejectedRowSink rejectedRowSink;
+    /**
+     * Checkpoint journal shared by the table transfers, a rerun only copies the missing chunks, see {@link TransferJob#getJournal()}
+     */
+    private Path journal;
+    /**
+     * Keeps the watermark of each table between runs of an incremental copy, see {@link TransferJob#getWatermarkStore()}
+     */
+    private WatermarkStore watermarkStore;
+    /**
+     * Correlation id for logging
+     */
+    private String correlationId;
+}
@@ -0,0 +1,49 @@
+package com.ainouss.datatools.transfer.core;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Outcome of a {@link SchemaCopyJob}
+ */
+@Data
+@Builder
+public class SchemaCopyResult {
+
+    private String correlationId;
+    /**
+     * Planned topological waves, see {@link TableDependencyGraph#waves()}
+     */
+    private List<List<String>> waves;
+    /**
+     * Tables on a foreign key cycle, copied without ordering between them
+     */
+    private Set<String> cyclic;
+    /**
+     * Transfer result of each copied table, in start order
+     */
+    private Map<String, TransferResult> results;
+    /**
+     * Error of each table that could not be copied
+     */
+    private Map<String, String> failed;
+    /**
+     * Tables not copied because a table they reference failed
+     */
+    private List<String> skipped;
+    /**
+     * Duration in milliseconds
+     */
+    private long duration;
+
+    /**
+     * @return true if all tables were copied
+     */
+    public boolean isCompleted() {
+        return failed.isEmpty() && skipped.isEmpty();
+    }
+}
@@ -0,0 +1,198 @@
+package com.ainouss.datatools.transfer.core;
+
+import com.ainouss.datatools.transfer.store.DataSourceRegistry;
+import com.ainouss.jdatatools.batch.metadata.SqlImportedKey;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.time.DurationFormatUtils;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Copies the tables of a schema in foreign key order, several tables at a time:
+ * - generates an entity class per source table, see {@link JavaClassGenerator}
+ * - builds the foreign key dependencies of the tables, see {@link TableDependencyGraph}
+ * - estimates the rows of each table from the index statistics, see {@link DatabaseMetadataReader#getRowEstimate}, the tables are not scanned
+ * - starts a table as soon as the tables it references are copied, at most parallelism tables at a time,
+ * the largest ready table first (longest processing time first), so that big tables do not start last and stretch the copy
+ * Each table is copied by a {@link PipelinedTransfer}. A table that fails, or has chunks that could not be written, is reported,
+ * the tables referencing it are skipped.
+ */
+@Slf4j
+@Component
+@AllArgsConstructor
+public class SchemaCopyScheduler {
+
+    private final JavaClassGenerator classGenerator;
+
+    private final DatabaseMetadataReader metaReader;
+
+    private final PipelinedTransfer transfer;
+
+    /**
+     * Runs a schema copy and waits for its completion
+     *
+     * @param job schema copy job
+     * @return copy result
+     */
+    public SchemaCopyResult copy(SchemaCopyJob job) {
+        if (job == null || job.getParallelism() < 1) {
+            throw new RuntimeException("schema copy job should copy at least one table at a time");
+        }
+        DataSource source = DataSourceRegistry.INSTANCE.getDataSource(job.getSource());
+        if (source == null) {
+            throw new RuntimeException("data source " + job.getSource() + " is not registered");
+        }
+        String correlationId = job.getCorrelationId();
+        long startTime = System.nanoTime();
+        Map<String, Class<?>> classes = new LinkedHashMap<>(classGenerator.generate(source, job.getSchema(), job.getPackageName()));
+        if (job.getTables() != null && !job.getTables().isEmpty()) {
+            classes.keySet().retainAll(job.getTables());
+        }
+        List<SqlImportedKey> keys = new ArrayList<>();
+        for (String table : classes.keySet()) {
+            keys.addAll(metaReader.getImportedKeys(source, null, job.getSchema(), table));
+        }
+        TableDependencyGraph graph = new TableDependencyGraph(classes.keySet(), keys);
+        Map<String, Long> sizes = new HashMap<>();
+        for (String table : classes.keySet()) {
+            sizes.put(table, metaReader.getRowEstimate(source, null, job.getSchema(), table));
+        }
+        log.info("ID-{} started copying {} tables from {} to {}, waves {}", correlationId, classes.size(), job.getSource(), job.getTarget(), graph.waves());
+
+        Map<String, TransferResult> results = new LinkedHashMap<>();
+        Map<String, String> failed = new LinkedHashMap<>();
+        run(job, graph, classes, sizes, results, failed);
+
+        List<String> skipped = classes.keySet().stream().filter(table -> !results.containsKey(table) && !failed.containsKey(table)).toList();
+        long duration = (System.nanoTime() - startTime) / 1000000;
+        log.info("ID-{} completed copying {} tables, {} failed, {} skipped, duration (ss:SSS) {}", correlationId, results.size(), failed.size(), skipped.size(),
+                DurationFormatUtils.formatDuration(duration, "ss:SSS", true));
+        return SchemaCopyResult.builder()
+                .correlationId(correlationId)
+                .waves(graph.waves())
+                .cyclic(graph.getCyclic())
+                .results(results)
+                .failed(failed)
+                .skipped(skipped)
+                .duration(duration)
+                .build();
+    }
+
+    /**
+     * Dependency driven scheduling: a table is ready once all its parents are copied, ready tables are started largest first
+     */
+    private void run(SchemaCopyJob job, TableDependencyGraph graph, Map<String, Class<?>> classes, Map<String, Long> sizes,
+                     Map<String, TransferResult> results, Map<String, String> failed) {
+        Map<String, Integer> pending = new HashMap<>();
+        PriorityQueue<String> ready = new PriorityQueue<>(Comparator.<String>comparingLong(sizes::get).reversed().thenComparing(Comparator.naturalOrder()));
+        for (String table : graph.tables()) {
+            pending.put(table, graph.parents(table).size());
+            if (graph.parents(table).isEmpty()) {
+                ready.add(table);
+            }
+        }
+        AtomicInteger threads = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(job.getParallelism(), runnable -> {
+            Thread thread = new Thread(runnable, "schema-copy-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        ExecutorCompletionService<Outcome> completion = new ExecutorCompletionService<>(executor);
+        int running = 0;
+        try {
+            while (!ready.isEmpty() || running > 0) {
+                while (!ready.isEmpty() && running < job.getParallelism()) {
+                    String table = ready.poll();
+                    log.info("ID-{} started copying table {}, about {} rows", job.getCorrelationId(), table, sizes.get(table));
+                    completion.submit(() -> copy(job, table, classes.get(table)));
+                    running++;
+                }
+                Outcome outcome = completion.take().get();
+                running--;
+                if (outcome.error() == null) {
+                    results.put(outcome.table(), outcome.result());
+                    for (String child : graph.children(outcome.table())) {
+                        if (pending.merge(child, -1, Integer::sum) == 0) {
+                            ready.add(child);
+                        }
+                    }
+                } else {
+                    failed.put(outcome.table(), outcome.error());
+                    log.error("ID-{} could not copy table {}, skipping the tables referencing it {}, exception {}", job.getCorrelationId(), outcome.table(),
+                            descendants(graph, outcome.table()), outcome.error());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("interrupted while copying tables", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("schema copy failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private <T> Outcome copy(SchemaCopyJob job, String table, Class<T> clazz) {
+        TransferJob<T> transferJob = TransferJob.<T>builder()
+                .clazz(clazz)
+                .source(job.getSource())
+                .target(job.getTarget())
+                .targetTable(table)
+                .mode(job.getMode())
+                .fetchSize(job.getFetchSize())
+                .readers(job.getReaders())
+                .writers(job.getWriters())
+                .isolation(job.getIsolation())
+                .insertMode(job.getInsertMode())
+                .bulkLoad(job.isBulkLoad())
+                .rejectedRowSink(job.getRejectedRowSink())
+                .journal(job.getJournal())
+                .watermarkStore(job.getWatermarkStore())
+                .correlationId(job.getCorrelationId())
+                .build();
+        try {
+            TransferResult result = transfer.transfer(transferJob);
+            if (result.getFailedChunks() > 0) {
+                return new Outcome(table, result, result.getFailedChunks() + " chunks could not be written, " + result.getReadRows() + " rows read");
+            }
+            return new Outcome(table, result, null);
+        } catch (RuntimeException e) {
+            return new Outcome(table, null, e.getMessage());
+        }
+    }
+
+    private static List<String> descendants(TableDependencyGraph graph, String table) {
+        List<String> descendants = new ArrayList<>();
+        Deque<String> next = new ArrayDeque<>(graph.children(table));
+        while (!next.isEmpty()) {
+            String child = next.poll();
+            if (!descendants.contains(child)) {
+                descendants.add(child);
+                next.addAll(graph.children(child));
+            }
+        }
+        return descendants;
+    }
+
+    /**
+     * Result of the copy of a table, error is null on success
+     */
+    private record Outcome(String table, TransferResult result, String error) {
+    }
+}
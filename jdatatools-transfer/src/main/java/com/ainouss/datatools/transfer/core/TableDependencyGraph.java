@@ -0,0 +1,132 @@
+package com.ainouss.datatools.transfer.core;
+
+import com.ainouss.jdatatools.batch.metadata.SqlImportedKey;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Foreign key dependencies between tables, built from {@link SqlImportedKey} metadata:
+ * a table depends on the tables its foreign keys reference, it is copied once they are.
+ * Self references are ignored, the rows of a self referencing table are not ordered. Tables on a foreign key cycle cannot be ordered, the edges between them are dropped
+ * and they are reported by {@link #getCyclic()}, their constraints should be deferred or disabled on the target.
+ * Keys referencing tables outside of the graph are ignored.
+ */
+@Slf4j
+public final class TableDependencyGraph {
+
+    private final Map<String, Set<String>> parents = new LinkedHashMap<>();
+
+    private final Map<String, Set<String>> children = new LinkedHashMap<>();
+
+    private final Set<String> cyclic = new LinkedHashSet<>();
+
+    private final List<List<String>> waves;
+
+    /**
+     * @param tables tables of the graph
+     * @param keys   imported keys of the tables
+     */
+    public TableDependencyGraph(Collection<String> tables, Collection<SqlImportedKey> keys) {
+        for (String table : tables) {
+            parents.put(table, new LinkedHashSet<>());
+            children.put(table, new LinkedHashSet<>());
+        }
+        for (SqlImportedKey key : keys) {
+            String child = key.getFktableName();
+            String parent = key.getPktableName();
+            if (parents.containsKey(child) && parents.containsKey(parent) && !child.equals(parent)) {
+                parents.get(child).add(parent);
+                children.get(parent).add(child);
+            }
+        }
+        List<List<String>> levels = levels();
+        Set<String> ordered = new LinkedHashSet<>();
+        levels.forEach(ordered::addAll);
+        if (ordered.size() < parents.size()) {
+            parents.keySet().stream().filter(table -> !ordered.contains(table)).forEach(cyclic::add);
+            // tables only referencing a cycle are not on it, they keep their ordering
+            boolean peeled = true;
+            while (peeled) {
+                peeled = cyclic.removeIf(table -> children.get(table).stream().noneMatch(cyclic::contains));
+            }
+            log.warn("foreign keys of tables {} form cycles, these tables are copied without ordering between them", cyclic);
+            for (String table : cyclic) {
+                parents.get(table).removeIf(parent -> cyclic.contains(parent) && children.get(parent).remove(table));
+            }
+            levels = levels();
+        }
+        this.waves = Collections.unmodifiableList(levels);
+    }
+
+    /**
+     * Topological waves: the tables of a wave only depend on tables of previous waves,
+     * the tables of a wave do not depend on each other
+     *
+     * @return waves, in copy order
+     */
+    public List<List<String>> waves() {
+        return waves;
+    }
+
+    /**
+     * @param table table
+     * @return tables referenced by the table
+     */
+    public Set<String> parents(String table) {
+        return Collections.unmodifiableSet(parents.getOrDefault(table, Set.of()));
+    }
+
+    /**
+     * @param table table
+     * @return tables referencing the table
+     */
+    public Set<String> children(String table) {
+        return Collections.unmodifiableSet(children.getOrDefault(table, Set.of()));
+    }
+
+    /**
+     * @return tables of the graph
+     */
+    public Set<String> tables() {
+        return Collections.unmodifiableSet(parents.keySet());
+    }
+
+    /**
+     * @return tables on a foreign key cycle
+     */
+    public Set<String> getCyclic() {
+        return Collections.unmodifiableSet(cyclic);
+    }
+
+    /**
+     * Kahn's algorithm by levels, tables on a cycle are left out
+     */
+    private List<List<String>> levels() {
+        Map<String, Integer> pending = new HashMap<>();
+        parents.forEach((table, references) -> pending.put(table, references.size()));
+        List<List<String>> levels = new ArrayList<>();
+        List<String> level = parents.keySet().stream().filter(table -> pending.get(table) == 0).toList();
+        while (!level.isEmpty()) {
+            levels.add(level);
+            List<String> next = new ArrayList<>();
+            for (String table : level) {
+                for (String child : children.get(table)) {
+                    if (pending.merge(child, -1, Integer::sum) == 0) {
+                        next.add(child);
+                    }
+                }
+            }
+            level = next;
+        }
+        return levels;
+    }
+}
@@ -0,0 +1,427 @@
+package com.ainouss.datatools.transfer.core;
+
+import com.ainouss.datatools.transfer.store.DataSourceRegistry;
+import com.ainouss.jdatatools.batch.data.Chunk;
+import com.ainouss.jdatatools.batch.reader.CompiledRowMapper;
+import com.ainouss.jdatatools.batch.reader.KeyResolver;
+import com.ainouss.jdatatools.batch.reader.RangeSplitter;
+import com.ainouss.jdatatools.batch.reader.RangeSplitter.Range;
+import com.ainouss.jdatatools.batch.writer.InsertMode;
+import com.ainouss.jdatatools.batch.writer.JdbcChunkWriter;
+import com.ainouss.jdatatools.batch.writer.JdbcWriteTemplate;
+import com.ainouss.jdatatools.query.core.CriteriaBuilder;
+import com.ainouss.jdatatools.query.core.CriteriaQuery;
+import com.ainouss.jdatatools.query.core.Expression;
+import com.ainouss.jdatatools.query.core.FieldMetaData;
+import com.ainouss.jdatatools.query.core.Path;
+import com.ainouss.jdatatools.query.core.Root;
+import com.ainouss.jdatatools.query.core.SqlDialect;
+import com.ainouss.jdatatools.query.dialect.SqlDialectFactory;
+import com.ainouss.jdatatools.query.registery.EntityRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.apache.commons.lang3.time.DurationFormatUtils;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Compares an entity table between two data sources and repairs the target, rsync style:
+ * - cuts the split column in ranges and computes a fingerprint (row count, sum of row hashes) of each range on both sides,
+ * in the databases when both sides share a dialect with a row hash function, see {@link CriteriaQuery#buildChecksumQuery(Expression)},
+ * otherwise by streaming the rows of the range and hashing them in Java
+ * - ranges with the same fingerprint are skipped, divergent ranges are cut again until they hold at most leafRows rows
+ * - divergent leaf ranges are compared row by row on the primary key: the rows that differ or are missing are upserted to the target,
+ * the target rows missing from the source are deleted
+ * The rows where the split column is null are compared as one leaf range.
+ */
+@Slf4j
+@Component
+public class TableDiff {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final JdbcChunkWriter writer = new JdbcChunkWriter();
+
+    /**
+     * Runs a table diff and waits for its completion
+     *
+     * @param job diff job
+     * @param <T> compared entity
+     * @return diff result
+     */
+    public <T> TableDiffResult diff(TableDiffJob<T> job) {
+        if (job == null || job.getClazz() == null) {
+            throw new RuntimeException("table diff job should have an entity class");
+        }
+        if (job.getFanout() < 2 || job.getLeafRows() < 1) {
+            throw new RuntimeException("table diff job should cut ranges in at least 2 sub-ranges of at least 1 row");
+        }
+        EntityRegistry.registerClass(job.getClazz());
+        long startTime = System.nanoTime();
+        Side<T> source = side(job, dataSource(job.getSource()), job.getSourceDialect());
+        Side<T> target = side(job, dataSource(job.getTarget()), job.getTargetDialect());
+        String splitBy = job.getSplitBy() != null ? job.getSplitBy() : KeyResolver.splitColumn(job.getClazz(), source.jdbc());
+        Field field = FieldUtils.getField(job.getClazz(), splitBy, true);
+        if (field == null) {
+            throw new RuntimeException("split column " + splitBy + " is not a field of " + job.getClazz().getSimpleName());
+        }
+        Class<?> type = field.getType();
+        if (!RangeSplitter.isSplittable(type)) {
+            throw new RuntimeException("split column " + splitBy + " should be numeric or temporal");
+        }
+        boolean inDatabase = source.dialect().getClass() == target.dialect().getClass() && source.criteria().buildChecksumQuery(null) != null;
+        ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "table-diff");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Run<T> run = new Run<>(job, source, target, splitBy, type, KeyResolver.primaryKeys(job.getClazz(), source.jdbc()), inDatabase, executor);
+        log.info("ID-{} started comparing {} between {} and {}, split by {}, hashed in {}", job.getCorrelationId(), job.getClazz().getSimpleName(),
+                job.getSource(), job.getTarget(), splitBy, inDatabase ? "database" : "java");
+        try {
+            Object[] bounds = bounds(run);
+            if (bounds[0] != null) {
+                compare(run, new Range(bounds[0], bounds[1], true));
+            }
+            compare(run, null);
+        } finally {
+            executor.shutdownNow();
+        }
+        long duration = (System.nanoTime() - startTime) / 1000000;
+        log.info("ID-{} completed comparing {}, {} ranges compared, {} divergent rows, {} extra rows, {} copied, {} deleted, duration (ss:SSS) {}",
+                job.getCorrelationId(), job.getClazz().getSimpleName(), run.comparedRanges, run.divergentRows, run.extraRows, run.copiedRows, run.deletedRows,
+                DurationFormatUtils.formatDuration(duration, "ss:SSS", true));
+        return TableDiffResult.builder()
+                .correlationId(job.getCorrelationId())
+                .hashedInDatabase(inDatabase)
+                .comparedRanges(run.comparedRanges)
+                .divergentRanges(run.divergentRanges)
+                .divergentRows(run.divergentRows)
+                .extraRows(run.extraRows)
+                .copiedRows(run.copiedRows)
+                .deletedRows(run.deletedRows)
+                .duration(duration)
+                .build();
+    }
+
+    /**
+     * Compares the fingerprints of a range, cuts a divergent range again or repairs it once small enough
+     */
+    private <T> void compare(Run<T> run, Range range) {
+        run.comparedRanges++;
+        CompletableFuture<Fingerprint> source = CompletableFuture.supplyAsync(() -> fingerprint(run, run.source, range), run.executor);
+        Fingerprint target = fingerprint(run, run.target, range);
+        Fingerprint expected = source.join();
+        if (expected.matches(target)) {
+            return;
+        }
+        if (range != null && Math.max(expected.rows(), target.rows()) > run.job.getLeafRows()) {
+            List<Range> parts = split(run, range);
+            if (parts.size() > 1) {
+                for (Range part : parts) {
+                    compare(run, part);
+                }
+                return;
+            }
+        }
+        repair(run, range);
+    }
+
+    /**
+     * Cuts a range in fanout sub-ranges, the last sub-range of an open range stays open
+     */
+    private static <T> List<Range> split(Run<T> run, Range range) {
+        if (range.lower().equals(range.upper())) {
+            return List.of(range);
+        }
+        List<Range> parts = new ArrayList<>(RangeSplitter.split(range.lower(), range.upper(), run.job.getFanout(), run.type));
+        if (!range.closed()) {
+            Range last = parts.get(parts.size() - 1);
+            parts.set(parts.size() - 1, new Range(last.lower(), last.upper(), false));
+        }
+        return parts;
+    }
+
+    /**
+     * Compares a divergent range row by row on the primary key and repairs the target
+     */
+    private <T> void repair(Run<T> run, Range range) {
+        Map<List<Object>, Long> targetRows = new HashMap<>();
+        rows(run, run.target, range, row -> targetRows.put(key(row, run.keyGetters), hash(row, run.target.getters())));
+        List<T> divergent = new ArrayList<>();
+        rows(run, run.source, range, row -> {
+            Long hash = targetRows.remove(key(row, run.keyGetters));
+            if (hash == null || hash != hash(row, run.source.getters())) {
+                divergent.add(row);
+            }
+        });
+        run.divergentRanges.add(range);
+        run.divergentRows += divergent.size();
+        run.extraRows += targetRows.size();
+        log.info("ID-{} range {} of {} diverges, {} divergent rows, {} extra rows", run.job.getCorrelationId(), range, run.job.getClazz().getSimpleName(),
+                divergent.size(), targetRows.size());
+        if (!run.job.isRepair()) {
+            return;
+        }
+        if (!divergent.isEmpty()) {
+            writer.process(run.write, Chunk.of(divergent));
+            run.copiedRows += divergent.size();
+        }
+        if (!targetRows.isEmpty()) {
+            List<Object[]> args = targetRows.keySet().stream().map(List::toArray).toList();
+            run.deletedRows += Arrays.stream(run.target.jdbc().batchUpdate(run.delete, args)).filter(count -> count > 0).sum();
+        }
+    }
+
+    /**
+     * Row count and sum of the row hashes of a range
+     */
+    private static <T> Fingerprint fingerprint(Run<T> run, Side<T> side, Range range) {
+        Expression restriction = restriction(side, run.splitBy, range);
+        if (run.inDatabase) {
+            return side.jdbc().query(side.criteria().buildChecksumQuery(restriction), resultSet -> {
+                resultSet.next();
+                BigDecimal sum = resultSet.getBigDecimal(2);
+                return new Fingerprint(resultSet.getLong(1), sum == null ? BigDecimal.ZERO : sum);
+            }, args(range));
+        }
+        long[] fingerprint = new long[2];
+        rows(run, side, range, row -> {
+            fingerprint[0]++;
+            fingerprint[1] += hash(row, side.getters());
+        });
+        return new Fingerprint(fingerprint[0], BigDecimal.valueOf(fingerprint[1]));
+    }
+
+    /**
+     * Streams the rows of a range
+     */
+    private static <T> void rows(Run<T> run, Side<T> side, Range range, Consumer<T> consumer) {
+        String select = side.criteria().buildSelectQuery(restriction(side, run.splitBy, range));
+        CompiledRowMapper<T> mapper = CompiledRowMapper.of(run.job.getClazz(), side.fields());
+        side.jdbc().query(select, (ResultSetExtractor<Void>) resultSet -> {
+            RowMapper<T> bound = mapper.bind(resultSet, run.job.getCorrelationId());
+            int row = 0;
+            while (resultSet.next()) {
+                consumer.accept(bound.mapRow(resultSet, row++));
+            }
+            return null;
+        }, args(range));
+    }
+
+    private static <T> Expression restriction(Side<T> side, String splitBy, Range range) {
+        CriteriaBuilder cb = side.criteria().getCriteriaBuilder();
+        Path<?> column = side.root().get(splitBy);
+        if (range == null) {
+            return cb.isNull(column);
+        }
+        return range.closed()
+                ? cb.between(column, cb.parameter(), cb.parameter())
+                : cb.and(cb.ge(column, cb.parameter()), cb.lt(column, cb.parameter()));
+    }
+
+    private static Object[] args(Range range) {
+        return range == null ? new Object[0] : new Object[]{range.lower(), range.upper()};
+    }
+
+    /**
+     * Smallest min and largest max of the split column on both sides
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T> Object[] bounds(Run<T> run) {
+        Object[] bounds = new Object[2];
+        for (Side<T> side : List.of(run.source, run.target)) {
+            Object[] sideBounds = side.jdbc().query(side.criteria().buildBoundsQuery(side.root().get(run.splitBy)), resultSet -> {
+                resultSet.next();
+                return RangeSplitter.bounds(resultSet, run.type);
+            });
+            if (sideBounds == null || sideBounds[0] == null) {
+                continue;
+            }
+            if (bounds[0] == null || ((Comparable) sideBounds[0]).compareTo(bounds[0]) < 0) {
+                bounds[0] = sideBounds[0];
+            }
+            if (bounds[1] == null || ((Comparable) sideBounds[1]).compareTo(bounds[1]) > 0) {
+                bounds[1] = sideBounds[1];
+            }
+        }
+        return bounds;
+    }
+
+    /**
+     * 64 bits hash of the selected values of a row, FNV-1a over their text then mixed so that sums of hashes spread
+     */
+    static long hash(Object row, MethodHandle[] getters) {
+        long hash = FNV_OFFSET;
+        for (MethodHandle getter : getters) {
+            Object value = read(row, getter);
+            byte[] text;
+            if (value == null) {
+                text = new byte[]{0};
+            } else if (value instanceof BigDecimal decimal) {
+                text = decimal.stripTrailingZeros().toPlainString().getBytes(StandardCharsets.UTF_8);
+            } else if (value instanceof byte[] bytes) {
+                text = bytes;
+            } else {
+                text = value.toString().getBytes(StandardCharsets.UTF_8);
+            }
+            for (byte b : text) {
+                hash = (hash ^ (b & 0xff)) * FNV_PRIME;
+            }
+            hash = (hash ^ '|') * FNV_PRIME;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        return hash ^ (hash >>> 33);
+    }
+
+    private static List<Object> key(Object row, MethodHandle[] keys) {
+        List<Object> key = new ArrayList<>(keys.length);
+        for (MethodHandle getter : keys) {
+            key.add(read(row, getter));
+        }
+        return key;
+    }
+
+    private static Object read(Object row, MethodHandle getter) {
+        try {
+            return getter.invokeExact(row);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException("could not read a field of " + row.getClass().getSimpleName(), e);
+        }
+    }
+
+    /**
+     * Getters of attributes of a class, resolved once per diff so that rows are hashed without reflection
+     *
+     * @param clazz      entity
+     * @param attributes attributes
+     * @return getters (Object)Object, in attribute order
+     */
+    static MethodHandle[] getters(Class<?> clazz, List<String> attributes) {
+        MethodHandle[] getters = new MethodHandle[attributes.size()];
+        for (int i = 0; i < getters.length; i++) {
+            Field field = FieldUtils.getField(clazz, attributes.get(i), true);
+            if (field == null) {
+                throw new RuntimeException("attribute " + attributes.get(i) + " is not a field of " + clazz.getSimpleName());
+            }
+            try {
+                MethodHandles.Lookup owner = MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup());
+                getters[i] = owner.unreflectGetter(field).asType(MethodType.methodType(Object.class, Object.class));
+            } catch (IllegalAccessException e) {
+                throw new RuntimeException("could not read " + attributes.get(i) + " of " + clazz.getSimpleName(), e);
+            }
+        }
+        return getters;
+    }
+
+    private static <T> Side<T> side(TableDiffJob<T> job, DataSource dataSource, SqlDialect dialect) {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        if (dialect == null) {
+            dialect = SqlDialectFactory.getDialectOfProduct(jdbc.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName()));
+        }
+        CriteriaQuery<T> criteria = new CriteriaBuilder(dialect).createQuery(job.getClazz());
+        Root<T> root = criteria.from(job.getClazz());
+        criteria.select(root);
+        List<FieldMetaData> fields = criteria.getFields();
+        return new Side<>(jdbc, dialect, criteria, root, fields, getters(job.getClazz(), fields.stream().map(FieldMetaData::getLabel).toList()));
+    }
+
+    private static DataSource dataSource(String name) {
+        DataSource dataSource = DataSourceRegistry.INSTANCE.getDataSource(name);
+        if (dataSource == null) {
+            throw new RuntimeException("data source " + name + " is not registered");
+        }
+        return dataSource;
+    }
+
+    /**
+     * One side of the diff: its selection of every column of the entity and the getters of the selected fields, in selection order
+     */
+    private record Side<T>(JdbcTemplate jdbc, SqlDialect dialect, CriteriaQuery<T> criteria, Root<T> root, List<FieldMetaData> fields, MethodHandle[] getters) {
+    }
+
+    /**
+     * Row count and sum of the row hashes of a range
+     */
+    private record Fingerprint(long rows, BigDecimal hash) {
+
+        boolean matches(Fingerprint other) {
+            return rows == other.rows && hash.compareTo(other.hash) == 0;
+        }
+    }
+
+    /**
+     * State of a running diff, ranges are compared one at a time
+     */
+    private static final class Run<T> {
+        private final TableDiffJob<T> job;
+        private final Side<T> source;
+        private final Side<T> target;
+        private final String splitBy;
+        private final Class<?> type;
+        private final MethodHandle[] keyGetters;
+        private final boolean inDatabase;
+        private final ExecutorService executor;
+        private final JdbcWriteTemplate write;
+        private final String delete;
+        private final List<Range> divergentRanges = new ArrayList<>();
+        private long comparedRanges;
+        private long divergentRows;
+        private long extraRows;
+        private long copiedRows;
+        private long deletedRows;
+
+        private Run(TableDiffJob<T> job, Side<T> source, Side<T> target, String splitBy, Class<?> type, List<String> keys, boolean inDatabase,
+                    ExecutorService executor) {
+            this.job = job;
+            this.source = source;
+            this.target = target;
+            this.splitBy = splitBy;
+            this.type = type;
+            this.keyGetters = getters(job.getClazz(), keys);
+            this.inDatabase = inDatabase;
+            this.executor = executor;
+            this.write = JdbcWriteTemplate.builder()
+                    .clazz(job.getClazz())
+                    .jdbcTemplate(target.jdbc())
+                    .criteria(target.criteria())
+                    .insertMode(InsertMode.UPSERT)
+                    .keys(keys)
+                    .correlationId(job.getCorrelationId())
+                    .build();
+            CriteriaQuery<T> criteria = new CriteriaBuilder(target.dialect()).createQuery(job.getClazz());
+            Root<T> root = criteria.from(job.getClazz());
+            CriteriaBuilder cb = criteria.getCriteriaBuilder();
+            Expression[] equals = keys.stream().map(key -> cb.eq(root.get(key), cb.parameter())).toArray(Expression[]::new);
+            criteria.where(cb.and(equals[0], Arrays.copyOfRange(equals, 1, equals.length)));
+            this.delete = criteria.buildDeleteQuery();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.ainouss.datatools.transfer.core;
+
+import com.ainouss.jdatatools.query.core.SqlDialect;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Comparison of an entity table between two data sources of the {@link com.ainouss.datatools.transfer.store.DataSourceRegistry},
+ * the target rows that differ are copied again from the source, see {@link TableDiff}
+ *
+ * @param <T> compared entity
+ */
+@Data
+@Builder
+public class TableDiffJob<T> {
+
+    /**
+     * Compared entity
+     */
+    private Class<T> clazz;
+    /**
+     * Name of the source data source
+     */
+    private String source;
+    /**
+     * Name of the target data source
+     */
+    private String target;
+    /**
+     * Java attribute of the numeric or temporal column cut in ranges, resolved from the key or the indexes of the table if not set
+     */
+    private String splitBy;
+    /**
+     * Number of sub-ranges a divergent range is cut into
+     */
+    @Builder.Default
+    private int fanout = 16;
+    /**
+     * Divergent ranges of at most this number of rows are compared row by row and repaired
+     */
+    @Builder.Default
+    private int leafRows = 1000;
+    /**
+     * Copies the divergent rows to the target and deletes the rows missing from the source, only reports the divergent ranges if false
+     */
+    @Builder.Default
+    private boolean repair = true;
+    /**
+     * Dialect of the source, resolved from the database product if not set
+     */
+    private SqlDialect sourceDialect;
+    /**
+     * Dialect of the target, resolved from the database product if not set
+     */
+    private SqlDialect targetDialect;
+    /**
+     * Correlation id for logging
+     */
+    private String correlationId;
+}
@@ -0,0 +1,56 @@
+package com.ainouss.datatools.transfer.core;
+
+import com.ainouss.jdatatools.batch.reader.RangeSplitter;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Outcome of a {@link TableDiffJob}
+ */
+@Data
+@Builder
+public class TableDiffResult {
+
+    private String correlationId;
+    /**
+     * True if range hashes were computed by the databases, false if rows were hashed by the client
+     */
+    private boolean hashedInDatabase;
+    /**
+     * Number of ranges whose hashes were compared
+     */
+    private long comparedRanges;
+    /**
+     * Divergent ranges compared row by row, a null range stands for the rows where the split column is null
+     */
+    private List<RangeSplitter.Range> divergentRanges;
+    /**
+     * Number of rows that differ or are missing in the target
+     */
+    private long divergentRows;
+    /**
+     * Number of target rows missing from the source
+     */
+    private long extraRows;
+    /**
+     * Number of rows copied to the target
+     */
+    private long copiedRows;
+    /**
+     * Number of target rows deleted
+     */
+    private long deletedRows;
+    /**
+     * Duration in milliseconds
+     */
+    private long duration;
+
+    /**
+     * @return true if the tables matched
+     */
+    public boolean isIdentical() {
+        return divergentRows == 0 && extraRows == 0;
+    }
+}
@@ -0,0 +1,113 @@
+package com.ainouss.datatools.transfer.core;
+
+import com.ainouss.datatools.transfer.store.WatermarkStore;
+import com.ainouss.jdatatools.batch.reader.ReadMode;
+import com.ainouss.jdatatools.batch.writer.FailureIsolation;
+import com.ainouss.jdatatools.batch.writer.InsertMode;
+import com.ainouss.jdatatools.batch.writer.RejectedRowSink;
+import com.ainouss.jdatatools.query.core.CriteriaQuery;
+import lombok.Builder;
+import lombok.Data;
+
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Transfer of an entity between two data sources of the {@link com.ainouss.datatools.transfer.store.DataSourceRegistry},
+ * see {@link PipelinedTransfer}
+ *
+ * @param <T> transferred entity
+ */
+@Data
+@Builder
+public class TransferJob<T> {
+
+    /**
+     * Transferred entity
+     */
+    private Class<T> clazz;
+    /**
+     * Name of the source data source
+     */
+    private String source;
+    /**
+     * Name of the target data source
+     */
+    private String target;
+    /**
+     * Read criteria, all rows of the entity table if not set
+     */
+    private CriteriaQuery<T> criteria;
+    /**
+     * Target table, the entity table if not set
+     */
+    private String targetTable;
+    /**
+     * Slicing strategy of the read
+     */
+    @Builder.Default
+    private ReadMode mode = ReadMode.OFFSET;
+    /**
+     * Java attribute of the increasing column tracked by {@link ReadMode#INCREMENTAL}, resolved from the version columns metadata if not set
+     */
+    private String watermark;
+    /**
+     * Keeps the watermark of {@link ReadMode#INCREMENTAL} between runs, each run reads all rows if not set
+     */
+    private WatermarkStore watermarkStore;
+    /**
+     * Rows per chunk, defaults to the reader default of the read mode
+     */
+    private int fetchSize;
+    /**
+     * Max number of chunks read at the same time
+     */
+    @Builder.Default
+    private int readers = 2;
+    /**
+     * Number of chunks written at the same time
+     */
+    @Builder.Default
+    private int writers = 2;
+    /**
+     * Max number of chunks read and not yet written, readers wait once it is reached.
+     * Defaults to readers + writers
+     */
+    private int queueCapacity;
+    /**
+     * Isolation of the rows rejected by the target
+     */
+    @Builder.Default
+    private FailureIsolation isolation = FailureIsolation.UPDATE_COUNTS;
+    /**
+     * Statements used to insert a chunk, {@link ReadMode#INCREMENTAL} transfers always upsert
+     */
+    @Builder.Default
+    private InsertMode insertMode = InsertMode.BATCH;
+    /**
+     * Loads chunks with the bulk loader of the target database
+     */
+    private boolean bulkLoad;
+    /**
+     * Destination of the rows rejected by the target
+     */
+    private RejectedRowSink rejectedRowSink;
+    /**
+     * Checkpoint journal file, written chunks are recorded and skipped when the job is run again.
+     * Resuming requires the same criteria, read mode and fetch size as the interrupted run
+     */
+    private Path journal;
+    /**
+     * Name of the job in the journal and the watermark store, defaults to the class, source and target
+     */
+    private String name;
+    /**
+     * Cancels the transfer, chunks already read are dropped
+     */
+    @Builder.Default
+    private AtomicBoolean isCanceled = new AtomicBoolean(false);
+    /**
+     * Correlation id for logging
+     */
+    private String correlationId;
+}
@@ -0,0 +1,52 @@
+package com.ainouss.datatools.transfer.core;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Outcome of a {@link TransferJob}
+ */
+@Data
+@Builder
+public class TransferResult {
+
+    private String correlationId;
+    /**
+     * Number of chunks read from the source
+     */
+    private long readChunks;
+    /**
+     * Number of rows read from the source
+     */
+    private long readRows;
+    /**
+     * Number of chunks written to the target, including chunks with rejected rows
+     */
+    private long writtenChunks;
+    /**
+     * Number of chunks with rows rejected by the target
+     */
+    private long rejectedChunks;
+    /**
+     * Number of chunks that could not be written at all
+     */
+    private long failedChunks;
+    /**
+     * Number of chunks already written by a previous run of the job, see {@link TransferJob#getJournal()}
+     */
+    private long skippedChunks;
+    /**
+     * Peak number of chunks waiting for a writer
+     */
+    private int maxQueued;
+    /**
+     * Watermark reached by an incremental transfer, null if no row changed or a chunk failed
+     */
+    private List<String> watermark;
+    /**
+     * Duration in milliseconds
+     */
+    private long duration;
+}
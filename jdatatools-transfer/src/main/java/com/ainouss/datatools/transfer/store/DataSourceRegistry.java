@@ -6,15 +6,15 @@ import com.zaxxer.hikari.HikariDataSource;
 
 import javax.sql.DataSource;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public enum DataSourceRegistry {
 
     INSTANCE;
 
-    private final Map<String, DataSource> dataSources = new HashMap<>();
+    private final Map<String, DataSource> dataSources = new ConcurrentHashMap<>();
 
     public DataSource getDataSource(String name) {
         return dataSources.get(name);
@@ -24,6 +24,10 @@ public enum DataSourceRegistry {
         return new ArrayList<>(dataSources.values());
     }
 
+    public void register(String name, DataSource dataSource) {
+        dataSources.put(name, dataSource);
+    }
+
     public void createDataSource(String dbName, String url, String username, String password) {
         HikariConfig config = new HikariConfig();
         config.setJdbcUrl(url);
@@ -0,0 +1,83 @@
+package com.ainouss.datatools.transfer.store;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Watermarks kept in a local properties file, one entry per job.
+ * The file is rewritten through a temporary file and an atomic move, a crash keeps the previous watermarks
+ */
+public class FileWatermarkStore implements WatermarkStore {
+
+    private final Path file;
+
+    public FileWatermarkStore(Path file) {
+        this.file = file.toAbsolutePath().normalize();
+    }
+
+    @Override
+    public synchronized List<String> get(String job) {
+        String value = load().getProperty(job);
+        if (value == null) {
+            return null;
+        }
+        List<String> watermark = new ArrayList<>();
+        for (String field : value.split("\t", -1)) {
+            watermark.add("\\N".equals(field) ? null : unescape(field));
+        }
+        return watermark;
+    }
+
+    @Override
+    public synchronized void put(String job, List<String> watermark) {
+        Properties properties = load();
+        properties.setProperty(job, String.join("\t", watermark.stream()
+                .map(value -> value == null ? "\\N" : value.replace("\\", "\\\\").replace("\t", "\\t"))
+                .toList()));
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+            try (Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+                properties.store(writer, "incremental transfer watermarks");
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new RuntimeException("could not write watermark store " + file, e);
+        }
+    }
+
+    private static String unescape(String field) {
+        StringBuilder value = new StringBuilder(field.length());
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (c == '\\' && i + 1 < field.length()) {
+                c = field.charAt(++i) == 't' ? '\t' : field.charAt(i);
+            }
+            value.append(c);
+        }
+        return value.toString();
+    }
+
+    private Properties load() {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (NoSuchFileException e) {
+            return properties;
+        } catch (IOException e) {
+            throw new RuntimeException("could not read watermark store " + file, e);
+        }
+        return properties;
+    }
+}
@@ -0,0 +1,24 @@
+package com.ainouss.datatools.transfer.store;
+
+import java.util.List;
+
+/**
+ * Keeps the watermark reached by the incremental transfers between runs, see {@link com.ainouss.jdatatools.batch.reader.ReadMode#INCREMENTAL}.
+ * A watermark is the text form of the watermark value and key of the last row transferred
+ */
+public interface WatermarkStore {
+
+    /**
+     * @param job job name
+     * @return watermark reached by the last successful run, null on the first run
+     */
+    List<String> get(String job);
+
+    /**
+     * Saves the watermark reached by a successful run
+     *
+     * @param job       job name
+     * @param watermark watermark values
+     */
+    void put(String job, List<String> watermark);
+}
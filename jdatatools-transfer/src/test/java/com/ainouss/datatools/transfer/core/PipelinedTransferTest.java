@@ -0,0 +1,214 @@
+package com.ainouss.datatools.transfer.core;
+
+import com.ainouss.datatools.transfer.model.Account;
+import com.ainouss.datatools.transfer.model.Person;
+import com.ainouss.datatools.transfer.store.DataSourceRegistry;
+import com.ainouss.datatools.transfer.store.FileWatermarkStore;
+import com.ainouss.jdatatools.batch.reader.ReadMode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PipelinedTransferTest {
+
+    private static final int PERSONS = 1000;
+
+    private EmbeddedDatabase source;
+    private EmbeddedDatabase target;
+
+    private final PipelinedTransfer transfer = new PipelinedTransfer();
+
+    @BeforeEach
+    void setUp() {
+        source = database();
+        target = database();
+        List<Object[]> persons = new ArrayList<>();
+        for (int i = 1; i <= PERSONS; i++) {
+            persons.add(new Object[]{(long) i, "name-" + i, Date.valueOf(LocalDate.of(1960, 1, 1).plusDays(i))});
+        }
+        new JdbcTemplate(source).batchUpdate("insert into PERSONS (ID, NAME, BIRTH_DATE) values (?, ?, ?)", persons);
+        DataSourceRegistry.INSTANCE.register("source", source);
+        DataSourceRegistry.INSTANCE.register("target", target);
+    }
+
+    @AfterEach
+    void tearDown() {
+        source.shutdown();
+        target.shutdown();
+    }
+
+    @Test
+    void should__transfer_rows_through_a_bounded_queue() {
+        new JdbcTemplate(target).update("insert into PERSONS (ID, NAME) values (500, 'existing')");
+        TransferJob<Person> job = TransferJob.<Person>builder()
+                .clazz(Person.class)
+                .source("source")
+                .target("target")
+                .fetchSize(50)
+                .readers(4)
+                .writers(2)
+                .queueCapacity(1)
+                .correlationId("transfer-1")
+                .build();
+
+        TransferResult result = transfer.transfer(job);
+
+        JdbcTemplate to = new JdbcTemplate(target);
+        assertEquals(PERSONS, to.queryForObject("select count(*) from PERSONS", Integer.class));
+        assertEquals("existing", to.queryForObject("select NAME from PERSONS where ID = 500", String.class));
+        assertEquals(Date.valueOf(LocalDate.of(1960, 1, 11)), to.queryForObject("select BIRTH_DATE from PERSONS where ID = 10", Date.class));
+        assertEquals(20, result.getReadChunks());
+        assertEquals(PERSONS, result.getReadRows());
+        assertEquals(20, result.getWrittenChunks());
+        assertEquals(1, result.getRejectedChunks());
+        assertEquals(0, result.getFailedChunks());
+        assertTrue(result.getMaxQueued() <= 1);
+    }
+
+    @Test
+    void should__transfer_only_the_chunks_missing_from_the_journal(@TempDir Path dir) throws IOException {
+        Path journal = dir.resolve("transfer.journal");
+        CheckpointJournal checkpoints = new CheckpointJournal(journal);
+        checkpoints.append(new CheckpointJournal.Checkpoint("persons", "transfer-2", 0, 50, List.of()));
+        checkpoints.append(new CheckpointJournal.Checkpoint("persons", "transfer-2", 50, 100, List.of()));
+        checkpoints.append(new CheckpointJournal.Checkpoint("persons", "other", 100, 150, List.of()));
+        Files.writeString(journal, "persons\ttransfer-2\t150\t20", StandardOpenOption.APPEND);
+
+        TransferResult result = transfer.transfer(job(journal, ReadMode.OFFSET, "transfer-2"));
+
+        JdbcTemplate to = new JdbcTemplate(target);
+        assertEquals(PERSONS - 100, to.queryForObject("select count(*) from PERSONS", Integer.class));
+        assertEquals(0, to.queryForObject("select count(*) from PERSONS where ID <= 100", Integer.class));
+        assertEquals(2, result.getSkippedChunks());
+        assertEquals(18, result.getWrittenChunks());
+        assertEquals(20, new CheckpointJournal(journal).read("persons", "transfer-2").size());
+    }
+
+    @Test
+    void should__resume_a_keyset_transfer_after_the_last_written_key(@TempDir Path dir) throws IOException {
+        Path journal = dir.resolve("transfer.journal");
+        transfer.transfer(job(journal, ReadMode.KEYSET, "transfer-3"));
+        new JdbcTemplate(target).update("delete from PERSONS where ID > 600");
+        List<String> lines = Files.readAllLines(journal);
+        Files.write(journal, lines.stream().filter(line -> Integer.parseInt(line.split("\t")[3]) <= 600).toList());
+
+        TransferResult result = transfer.transfer(job(journal, ReadMode.KEYSET, "transfer-3"));
+
+        JdbcTemplate to = new JdbcTemplate(target);
+        assertEquals(PERSONS, to.queryForObject("select count(*) from PERSONS", Integer.class));
+        assertEquals(400, result.getReadRows());
+        assertEquals(0, result.getRejectedChunks());
+    }
+
+    @Test
+    void should__transfer_only_the_rows_changed_after_the_stored_watermark(@TempDir Path dir) {
+        JdbcTemplate from = new JdbcTemplate(source);
+        LocalDateTime updated = LocalDateTime.of(2024, 1, 1, 0, 0);
+        List<Object[]> accounts = new ArrayList<>();
+        for (int i = 1; i <= 100; i++) {
+            accounts.add(new Object[]{(long) i, "account-" + i, Timestamp.valueOf(updated.plusMinutes(i / 2))});
+        }
+        from.batchUpdate("insert into ACCOUNTS (ID, NAME, UPDATED_AT) values (?, ?, ?)", accounts);
+        TransferJob<Account> job = TransferJob.<Account>builder()
+                .clazz(Account.class)
+                .source("source")
+                .target("target")
+                .mode(ReadMode.INCREMENTAL)
+                .watermark("updatedAt")
+                .watermarkStore(new FileWatermarkStore(dir.resolve("watermarks.properties")))
+                .fetchSize(30)
+                .correlationId("transfer-4")
+                .build();
+        TransferResult first = transfer.transfer(job);
+        from.update("insert into ACCOUNTS (ID, NAME, UPDATED_AT) values (101, 'account-101', ?)", Timestamp.valueOf(updated.plusMinutes(50)));
+        from.update("insert into ACCOUNTS (ID, NAME, UPDATED_AT) values (102, 'account-102', ?)", Timestamp.valueOf(updated.plusDays(1)));
+        from.update("update ACCOUNTS set NAME = 'renamed', UPDATED_AT = ? where ID = 7", Timestamp.valueOf(updated.plusDays(1)));
+
+        TransferResult second = transfer.transfer(job);
+
+        assertEquals(100, first.getReadRows());
+        assertEquals(List.of(updated.plusMinutes(50).toString(), "100"), first.getWatermark());
+        assertEquals(3, second.getReadRows());
+        assertEquals(0, second.getRejectedChunks());
+        JdbcTemplate to = new JdbcTemplate(target);
+        assertEquals(102, to.queryForObject("select count(*) from ACCOUNTS", Integer.class));
+        assertEquals("renamed", to.queryForObject("select NAME from ACCOUNTS where ID = 7", String.class));
+        assertEquals(List.of(updated.plusDays(1).toString(), "102"), second.getWatermark());
+    }
+
+    @Test
+    void should__keep_the_watermark_before_rejected_rows(@TempDir Path dir) {
+        JdbcTemplate from = new JdbcTemplate(source);
+        JdbcTemplate to = new JdbcTemplate(target);
+        LocalDateTime updated = LocalDateTime.of(2024, 1, 1, 0, 0);
+        List<Object[]> accounts = new ArrayList<>();
+        for (int i = 1; i <= 100; i++) {
+            accounts.add(new Object[]{(long) i, i == 45 ? "rejected" : "account-" + i, Timestamp.valueOf(updated.plusMinutes(i / 2))});
+        }
+        from.batchUpdate("insert into ACCOUNTS (ID, NAME, UPDATED_AT) values (?, ?, ?)", accounts);
+        to.execute("alter table ACCOUNTS add constraint ACCOUNTS_NAME check (NAME <> 'rejected')");
+        TransferJob<Account> job = TransferJob.<Account>builder()
+                .clazz(Account.class)
+                .source("source")
+                .target("target")
+                .mode(ReadMode.INCREMENTAL)
+                .watermark("updatedAt")
+                .watermarkStore(new FileWatermarkStore(dir.resolve("watermarks.properties")))
+                .fetchSize(30)
+                .correlationId("transfer-5")
+                .build();
+
+        TransferResult first = transfer.transfer(job);
+        to.execute("alter table ACCOUNTS drop constraint ACCOUNTS_NAME");
+        TransferResult second = transfer.transfer(job);
+
+        assertEquals(1, first.getRejectedChunks());
+        assertEquals(List.of(updated.plusMinutes(15).toString(), "30"), first.getWatermark());
+        assertEquals(70, second.getReadRows());
+        assertEquals(0, second.getRejectedChunks());
+        assertEquals(100, to.queryForObject("select count(*) from ACCOUNTS", Integer.class));
+        assertEquals(List.of(updated.plusMinutes(50).toString(), "100"), second.getWatermark());
+    }
+
+    private static TransferJob<Person> job(Path journal, ReadMode mode, String correlationId) {
+        return TransferJob.<Person>builder()
+                .clazz(Person.class)
+                .source("source")
+                .target("target")
+                .mode(mode)
+                .fetchSize(50)
+                .journal(journal)
+                .name("persons")
+                .correlationId(correlationId)
+                .build();
+    }
+
+    private static EmbeddedDatabase database() {
+        EmbeddedDatabase db = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        new JdbcTemplate(db).execute("create table PERSONS (ID bigint primary key, NAME varchar(50), BIRTH_DATE date)");
+        new JdbcTemplate(db).execute("create table ACCOUNTS (ID bigint primary key, NAME varchar(50), UPDATED_AT timestamp)");
+        return db;
+    }
+}
@@ -0,0 +1,112 @@
+package com.ainouss.datatools.transfer.core;
+
+import com.ainouss.datatools.transfer.store.DataSourceRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SchemaCopySchedulerTest {
+
+    private EmbeddedDatabase source;
+    private EmbeddedDatabase target;
+
+    private final DatabaseMetadataReader metaReader = new DatabaseMetadataReader();
+    private final SchemaCopyScheduler scheduler = new SchemaCopyScheduler(new JavaClassGenerator(metaReader), metaReader, new PipelinedTransfer());
+
+    @BeforeEach
+    void setUp() {
+        source = database();
+        target = database();
+        JdbcTemplate from = new JdbcTemplate(source);
+        from.batchUpdate("insert into DEPARTMENTS (ID, NAME) values (?, ?)", List.of(new Object[]{1, "sales"}, new Object[]{2, "it"}));
+        List<Object[]> employees = new ArrayList<>();
+        List<Object[]> tasks = new ArrayList<>();
+        for (int i = 1; i <= 300; i++) {
+            employees.add(new Object[]{i, "employee-" + i, i % 2 + 1, null});
+            tasks.add(new Object[]{i, "task-" + i, i});
+            tasks.add(new Object[]{i + 300, "task-" + (i + 300), i});
+        }
+        from.batchUpdate("insert into EMPLOYEES (ID, NAME, DEPARTMENT_ID, MANAGER_ID) values (?, ?, ?, ?)", employees);
+        from.batchUpdate("insert into TASKS (ID, TITLE, EMPLOYEE_ID) values (?, ?, ?)", tasks);
+        DataSourceRegistry.INSTANCE.register("schema-source", source);
+        DataSourceRegistry.INSTANCE.register("schema-target", target);
+    }
+
+    @AfterEach
+    void tearDown() {
+        source.shutdown();
+        target.shutdown();
+    }
+
+    @Test
+    void should__copy_tables_in_foreign_key_order() {
+        SchemaCopyJob job = SchemaCopyJob.builder()
+                .source("schema-source")
+                .target("schema-target")
+                .schema("PUBLIC")
+                .packageName("com.ainouss.datatools.transfer.generated")
+                .parallelism(3)
+                .fetchSize(100)
+                .correlationId("schema-1")
+                .build();
+
+        SchemaCopyResult result = scheduler.copy(job);
+
+        JdbcTemplate to = new JdbcTemplate(target);
+        assertTrue(result.isCompleted(), result.getFailed().toString());
+        assertEquals(List.of(List.of("DEPARTMENTS"), List.of("EMPLOYEES"), List.of("TASKS")), result.getWaves());
+        assertEquals(2, to.queryForObject("select count(*) from DEPARTMENTS", Integer.class));
+        assertEquals(300, to.queryForObject("select count(*) from EMPLOYEES", Integer.class));
+        assertEquals(600, to.queryForObject("select count(*) from TASKS", Integer.class));
+        assertEquals(600, result.getResults().get("TASKS").getReadRows());
+    }
+
+    @Test
+    void should__skip_the_children_of_a_table_with_failed_chunks() {
+        new JdbcTemplate(target).execute("alter table EMPLOYEES drop column NAME");
+        SchemaCopyJob job = SchemaCopyJob.builder()
+                .source("schema-source")
+                .target("schema-target")
+                .schema("PUBLIC")
+                .packageName("com.ainouss.datatools.transfer.generated")
+                .parallelism(3)
+                .fetchSize(100)
+                .correlationId("schema-2")
+                .build();
+
+        SchemaCopyResult result = scheduler.copy(job);
+
+        assertTrue(result.getFailed().containsKey("EMPLOYEES"), result.getFailed().toString());
+        assertEquals(List.of("TASKS"), result.getSkipped());
+        assertEquals(0, new JdbcTemplate(target).queryForObject("select count(*) from TASKS", Integer.class));
+    }
+
+    @Test
+    void should__estimate_rows_without_scanning_the_tables() {
+        assertEquals(600, metaReader.getRowEstimate(source, null, "PUBLIC", "TASKS"));
+        assertEquals(2, metaReader.getRowEstimate(source, null, "PUBLIC", "DEPARTMENTS"));
+        assertEquals(0, metaReader.getRowEstimate(source, null, "PUBLIC", "MISSING"));
+    }
+
+    private static EmbeddedDatabase database() {
+        EmbeddedDatabase db = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        JdbcTemplate jdbc = new JdbcTemplate(db);
+        jdbc.execute("create table DEPARTMENTS (ID int primary key, NAME varchar(50))");
+        jdbc.execute("create table EMPLOYEES (ID int primary key, NAME varchar(50), DEPARTMENT_ID int references DEPARTMENTS(ID), MANAGER_ID int references EMPLOYEES(ID))");
+        jdbc.execute("create table TASKS (ID int primary key, TITLE varchar(50), EMPLOYEE_ID int references EMPLOYEES(ID))");
+        return db;
+    }
+}
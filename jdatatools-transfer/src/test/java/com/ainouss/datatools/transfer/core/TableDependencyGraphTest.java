@@ -0,0 +1,45 @@
+package com.ainouss.datatools.transfer.core;
+
+import com.ainouss.jdatatools.batch.metadata.SqlImportedKey;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TableDependencyGraphTest {
+
+    @Test
+    void should__order_tables_in_topological_waves() {
+        TableDependencyGraph graph = new TableDependencyGraph(List.of("TASKS", "EMPLOYEES", "DEPARTMENTS", "PROJECTS"), List.of(
+                key("EMPLOYEES", "DEPARTMENTS"),
+                key("EMPLOYEES", "EMPLOYEES"),
+                key("TASKS", "EMPLOYEES"),
+                key("TASKS", "PROJECTS"),
+                key("PROJECTS", "CUSTOMERS")));
+
+        assertEquals(List.of(List.of("DEPARTMENTS", "PROJECTS"), List.of("EMPLOYEES"), List.of("TASKS")), graph.waves());
+        assertEquals(Set.of("EMPLOYEES", "PROJECTS"), graph.parents("TASKS"));
+        assertEquals(Set.of(), graph.getCyclic());
+    }
+
+    @Test
+    void should__drop_the_edges_of_foreign_key_cycles() {
+        TableDependencyGraph graph = new TableDependencyGraph(List.of("A", "B", "C", "D"), List.of(
+                key("B", "A"),
+                key("A", "B"),
+                key("C", "B"),
+                key("D", "C")));
+
+        assertEquals(Set.of("A", "B"), graph.getCyclic());
+        assertEquals(List.of(List.of("A", "B"), List.of("C"), List.of("D")), graph.waves());
+    }
+
+    private static SqlImportedKey key(String child, String parent) {
+        SqlImportedKey key = new SqlImportedKey();
+        key.setFktableName(child);
+        key.setPktableName(parent);
+        return key;
+    }
+}
@@ -0,0 +1,197 @@
+package com.ainouss.datatools.transfer.core;
+
+import com.ainouss.datatools.transfer.model.Account;
+import com.ainouss.datatools.transfer.model.Person;
+import com.ainouss.datatools.transfer.store.DataSourceRegistry;
+import com.ainouss.jdatatools.query.dialect.PostgreSqlDialect;
+import com.ainouss.jdatatools.query.dialect.StandardDialect;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TableDiffTest {
+
+    private static final int PERSONS = 5000;
+
+    private EmbeddedDatabase source;
+    private EmbeddedDatabase target;
+
+    private final TableDiff diff = new TableDiff();
+
+    @BeforeEach
+    void setUp() {
+        source = database();
+        target = database();
+        List<Object[]> persons = new ArrayList<>();
+        for (int i = 1; i <= PERSONS; i++) {
+            persons.add(new Object[]{(long) i, "name-" + i, Date.valueOf(LocalDate.of(1960, 1, 1).plusDays(i))});
+        }
+        new JdbcTemplate(source).batchUpdate("insert into PERSONS (ID, NAME, BIRTH_DATE) values (?, ?, ?)", persons);
+        new JdbcTemplate(target).batchUpdate("insert into PERSONS (ID, NAME, BIRTH_DATE) values (?, ?, ?)", persons);
+        JdbcTemplate to = new JdbcTemplate(target);
+        to.update("update PERSONS set NAME = 'changed' where ID in (10, 2500)");
+        to.update("update PERSONS set BIRTH_DATE = null where ID = 4000");
+        to.update("delete from PERSONS where ID = 3000");
+        to.update("insert into PERSONS (ID, NAME) values (6000, 'extra')");
+        DataSourceRegistry.INSTANCE.register("source", source);
+        DataSourceRegistry.INSTANCE.register("target", target);
+    }
+
+    @AfterEach
+    void tearDown() {
+        source.shutdown();
+        target.shutdown();
+    }
+
+    @Test
+    void should__repair_only_divergent_ranges_hashed_in_java() {
+        TableDiffResult result = diff.diff(TableDiffJob.<Person>builder()
+                .clazz(Person.class)
+                .source("source")
+                .target("target")
+                .fanout(4)
+                .leafRows(100)
+                .correlationId("diff-1")
+                .build());
+
+        assertFalse(result.isHashedInDatabase());
+        assertEquals(4, result.getDivergentRows());
+        assertEquals(1, result.getExtraRows());
+        assertEquals(4, result.getCopiedRows());
+        assertEquals(1, result.getDeletedRows());
+        assertTrue(result.getDivergentRanges().size() <= 5);
+        assertIdentical();
+
+        TableDiffResult again = diff.diff(TableDiffJob.<Person>builder()
+                .clazz(Person.class)
+                .source("source")
+                .target("target")
+                .correlationId("diff-2")
+                .build());
+        assertTrue(again.isIdentical());
+        assertEquals(2, again.getComparedRanges());
+    }
+
+    @Test
+    void should__reject_a_split_column_that_is_not_a_field() {
+        TableDiffJob<Person> job = TableDiffJob.<Person>builder()
+                .clazz(Person.class)
+                .source("source")
+                .target("target")
+                .splitBy("missing")
+                .correlationId("diff-5")
+                .build();
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> diff.diff(job));
+        assertEquals("split column missing is not a field of Person", e.getMessage());
+    }
+
+    @Test
+    void should__hash_ranges_in_database_when_both_sides_share_a_dialect() {
+        StandardDialect dialect = new StandardDialect() {
+            @Override
+            public String getRowHashSql(List<String> columns) {
+                return "ora_hash(concat_ws('|', " + String.join(", ", columns) + "))";
+            }
+        };
+        TableDiffResult result = diff.diff(TableDiffJob.<Person>builder()
+                .clazz(Person.class)
+                .source("source")
+                .target("target")
+                .splitBy("id")
+                .fanout(8)
+                .leafRows(50)
+                .repair(false)
+                .sourceDialect(dialect)
+                .targetDialect(dialect)
+                .correlationId("diff-3")
+                .build());
+
+        assertTrue(result.isHashedInDatabase());
+        assertEquals(4, result.getDivergentRows());
+        assertEquals(1, result.getExtraRows());
+        assertEquals(0, result.getCopiedRows());
+        assertEquals("changed", new JdbcTemplate(target).queryForObject("select NAME from PERSONS where ID = 10", String.class));
+    }
+
+    @Test
+    void should__detect_rows_differing_only_by_the_column_holding_a_null() {
+        List<Object[]> accounts = new ArrayList<>();
+        for (int i = 1; i <= 200; i++) {
+            accounts.add(new Object[]{(long) i, "account-" + i, Timestamp.valueOf(LocalDateTime.of(2020, 1, 1, 0, 0).plusHours(i))});
+        }
+        for (EmbeddedDatabase db : List.of(source, target)) {
+            JdbcTemplate jdbc = new JdbcTemplate(db);
+            jdbc.execute("create table ACCOUNTS (ID bigint primary key, NAME varchar(50), UPDATED_AT timestamp)");
+            jdbc.batchUpdate("insert into ACCOUNTS (ID, NAME, UPDATED_AT) values (?, ?, ?)", accounts);
+            jdbc.execute("create alias HASHTEXTEXTENDED for \"" + Functions.class.getName() + ".hashText\"");
+        }
+        new JdbcTemplate(source).update("update ACCOUNTS set NAME = null where ID = 100");
+        new JdbcTemplate(target).update("update ACCOUNTS set NAME = cast(UPDATED_AT as varchar), UPDATED_AT = null where ID = 100");
+        PostgreSqlDialect dialect = new PostgreSqlDialect() {
+            @Override
+            public String escapeIdentifier(String identifier) {
+                return identifier; // H2 does not resolve quoted qualified paths
+            }
+        };
+        TableDiffResult result = diff.diff(TableDiffJob.<Account>builder()
+                .clazz(Account.class)
+                .source("source")
+                .target("target")
+                .splitBy("id")
+                .fanout(8)
+                .leafRows(50)
+                .repair(false)
+                .sourceDialect(dialect)
+                .targetDialect(dialect)
+                .correlationId("diff-4")
+                .build());
+
+        assertTrue(result.isHashedInDatabase());
+        assertEquals(1, result.getDivergentRows());
+        assertEquals(0, result.getExtraRows());
+    }
+
+    /**
+     * Stand-ins of PostgreSQL functions in H2
+     */
+    public static final class Functions {
+
+        public static long hashText(String text, long seed) {
+            return text.hashCode() + seed;
+        }
+    }
+
+    private void assertIdentical() {
+        String select = "select ID, NAME, BIRTH_DATE from PERSONS order by ID";
+        List<Map<String, Object>> expected = new JdbcTemplate(source).queryForList(select);
+        List<Map<String, Object>> actual = new JdbcTemplate(target).queryForList(select);
+        assertEquals(expected, actual);
+    }
+
+    private static EmbeddedDatabase database() {
+        EmbeddedDatabase db = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        new JdbcTemplate(db).execute("create table PERSONS (ID bigint primary key, NAME varchar(50), BIRTH_DATE date)");
+        return db;
+    }
+}
@@ -0,0 +1,24 @@
+package com.ainouss.datatools.transfer.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Table(name = "ACCOUNTS")
+public class Account {
+
+    @Id
+    @Column(name = "ID")
+    private Long id;
+
+    @Column(name = "NAME")
+    private String name;
+
+    @Column(name = "UPDATED_AT")
+    private LocalDateTime updatedAt;
+
+}